@@ -0,0 +1,208 @@
+package io.github.arun0009.observability.async;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in controller that resizes the starter's {@code taskExecutor} from
+ * measured queue-wait time and throughput.
+ * <p>
+ * Every interval it compares the mean queue wait of the tasks that started in
+ * that window against {@code target-queue-wait}:
+ * <ul>
+ * <li>Above target: grow the core pool additively. Once a growth step fails
+ * to raise throughput (CPU-bound work or a saturated downstream), growth is
+ * paused until the congestion clears and the queue admission limit is halved
+ * instead, so excess load is rejected early rather than queued.</li>
+ * <li>Below half the target: raise the admission limit additively back
+ * towards the configured capacity, then release idle core threads one at a
+ * time.</li>
+ * </ul>
+ * All sizes stay within the configured bounds. Decisions are exported as
+ * {@code thread.pool.adaptive.*} metrics.
+ */
+public class AdaptiveExecutorController implements TaskDecorator, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveExecutorController.class);
+
+    // Growth must lift throughput by at least this fraction to keep growing
+    private static final double MIN_THROUGHPUT_GAIN = 0.05;
+
+    private enum Action {
+        HOLD, GROW, SHRINK, SHED, ADMIT
+    }
+
+    private final ObservabilityProperties.Async.Adaptive config;
+    private final AdmissionQueue queue;
+    private final LongAdder startedTasks = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final MeterRegistry registry;
+
+    private volatile ThreadPoolTaskExecutor executor;
+    private volatile ScheduledExecutorService ticker;
+
+    // Only touched by the ticker thread
+    private long lastTickNanos;
+    private long lastStarted;
+    private long lastQueueWait;
+    private double lastThroughput;
+    private Action lastAction = Action.HOLD;
+    private boolean growthStalled;
+
+    public AdaptiveExecutorController(ObservabilityProperties.Async.Adaptive config, MeterRegistry registry) {
+        this.config = config;
+        this.registry = registry;
+        this.queue = new AdmissionQueue(config.getMaxQueueCapacity());
+    }
+
+    public ObservabilityProperties.Async.Adaptive getConfig() {
+        return config;
+    }
+
+    /**
+     * The queue the controlled executor must use so admission can be tuned.
+     */
+    public AdmissionQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Attach the executor this controller should drive. Sizes are read and
+     * written through the {@link ThreadPoolTaskExecutor} so that a later
+     * re-initialization of its underlying pool is picked up.
+     */
+    public void attach(ThreadPoolTaskExecutor taskExecutor) {
+        this.executor = taskExecutor;
+        if (registry != null) {
+            Gauge.builder("thread.pool.adaptive.core.size", taskExecutor, ThreadPoolTaskExecutor::getCorePoolSize)
+                    .tag("name", "taskExecutor")
+                    .description("Core pool size chosen by the adaptive controller")
+                    .register(registry);
+            Gauge.builder("thread.pool.adaptive.queue.limit", queue, AdmissionQueue::getLimit)
+                    .tag("name", "taskExecutor")
+                    .description("Queue admission limit chosen by the adaptive controller")
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            queueWaitNanos.add(System.nanoTime() - submittedAt);
+            startedTasks.increment();
+            runnable.run();
+        };
+    }
+
+    @Override
+    public void start() {
+        if (executor == null || ticker != null) {
+            return;
+        }
+        lastTickNanos = System.nanoTime();
+        long intervalMillis = Math.max(config.getInterval().toMillis(), 1);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "obs-adaptive-executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::safeTick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        ticker = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = ticker;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null;
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            log.warn("Adaptive executor controller tick failed", e);
+        }
+    }
+
+    void tick() {
+        long now = System.nanoTime();
+        long started = startedTasks.sum();
+        long waited = queueWaitNanos.sum();
+        long count = started - lastStarted;
+        double seconds = (now - lastTickNanos) / 1e9;
+        double meanWaitNanos = count > 0 ? (double) (waited - lastQueueWait) / count : 0.0;
+        double throughput = seconds > 0 ? count / seconds : 0.0;
+        lastTickNanos = now;
+        lastStarted = started;
+        lastQueueWait = waited;
+
+        long targetNanos = config.getTargetQueueWait().toNanos();
+        // Nothing started but work is queued: every worker is stuck, treat as congested
+        boolean congested = meanWaitNanos > targetNanos || (count == 0 && !queue.isEmpty());
+        int core = executor.getCorePoolSize();
+        int limit = queue.getLimit();
+        Action action = Action.HOLD;
+
+        if (congested) {
+            if (lastAction == Action.GROW && throughput <= lastThroughput * (1 + MIN_THROUGHPUT_GAIN)) {
+                growthStalled = true;
+            }
+            if (!growthStalled && core < config.getMaxPoolSize()) {
+                executor.setCorePoolSize(Math.min(core + config.getStep(), config.getMaxPoolSize()));
+                action = Action.GROW;
+            } else if (limit > config.getMinQueueCapacity()) {
+                queue.setLimit(Math.max(limit / 2, config.getMinQueueCapacity()));
+                action = Action.SHED;
+            }
+        } else if (meanWaitNanos < targetNanos / 2.0) {
+            growthStalled = false;
+            if (limit < config.getMaxQueueCapacity()) {
+                queue.setLimit(Math.min(limit + config.getStep(), config.getMaxQueueCapacity()));
+                action = Action.ADMIT;
+            } else if (core > config.getMinPoolSize() && executor.getActiveCount() < core / 2) {
+                executor.setCorePoolSize(core - 1);
+                action = Action.SHRINK;
+            }
+        }
+
+        lastThroughput = throughput;
+        lastAction = action;
+        if (action != Action.HOLD) {
+            record(action);
+            log.debug("Adaptive executor {}: core={} queueLimit={} meanQueueWaitMs={} throughput={}/s",
+                    action, executor.getCorePoolSize(), queue.getLimit(), meanWaitNanos / 1e6, throughput);
+        }
+    }
+
+    private void record(Action action) {
+        if (registry != null) {
+            Counter.builder("thread.pool.adaptive.decisions")
+                    .tag("name", "taskExecutor")
+                    .tag("action", action.name().toLowerCase())
+                    .description("Resizing decisions made by the adaptive controller")
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
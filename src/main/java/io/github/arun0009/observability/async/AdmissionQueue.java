@@ -0,0 +1,38 @@
+package io.github.arun0009.observability.async;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Work queue whose admission limit can be changed at runtime.
+ * <p>
+ * {@link java.util.concurrent.ThreadPoolExecutor} only creates threads beyond
+ * the core size once {@code offer} fails, so lowering the limit makes the
+ * pool scale out (and, at max size, reject) sooner instead of letting tasks
+ * wait in a long queue. The limit is soft: concurrent offers may overshoot it
+ * by a few entries, never past the hard capacity.
+ */
+public class AdmissionQueue extends LinkedBlockingQueue<Runnable> {
+
+    private volatile int limit;
+
+    public AdmissionQueue(int capacity) {
+        super(Math.max(capacity, 1));
+        this.limit = capacity;
+    }
+
+    @Override
+    public boolean offer(Runnable runnable) {
+        if (size() >= limit) {
+            return false;
+        }
+        return super.offer(runnable);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -1,11 +1,22 @@
 package io.github.arun0009.observability.async;
 
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.MdcKeys;
+import io.github.arun0009.observability.core.ThreadTraceIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.system.JavaVersion;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 
+import java.util.concurrent.BlockingQueue;
+
 /**
  * Auto-configures a default {@link ThreadPoolTaskExecutor} with the
  * {@link ObservabilityTaskDecorator} so that MDC context is propagated
@@ -13,21 +24,104 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
  * <p>
  * If a service already defines its own {@code TaskExecutor}, it should
  * apply the {@link ObservabilityTaskDecorator} manually.
+ * <p>
+ * With {@code observability.async.adaptive.enabled=true} the pool is sized
+ * at runtime by an {@link AdaptiveExecutorController} instead of the fixed
+ * 8 / 32 / 100 defaults. On Java 21+,
+ * {@code observability.async.virtual-threads.enabled=true} replaces the pool
+ * with a virtual-thread-per-task executor and streams pinning events from JFR.
  */
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnProperty(prefix = "observability.async", name = "propagation-enabled", havingValue = "true", matchIfMissing = true)
 public class ObservabilityExecutorConfiguration {
 
+    private static final int DEFAULT_CORE_POOL_SIZE = 8;
+
     @Bean
     @ConditionalOnMissingBean(name = "taskExecutor")
-    public ThreadPoolTaskExecutor taskExecutor() {
+    public ThreadPoolTaskExecutor taskExecutor(ObjectProvider<AdaptiveExecutorController> adaptiveController) {
+        AdaptiveExecutorController controller = adaptiveController.getIfAvailable();
+        if (controller != null) {
+            return adaptiveExecutor(controller);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setTaskDecorator(new ObservabilityTaskDecorator());
-        executor.setCorePoolSize(8);
+        executor.setCorePoolSize(DEFAULT_CORE_POOL_SIZE);
         executor.setMaxPoolSize(32);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("obs-async-");
         executor.initialize();
         return executor;
     }
+
+    // A nested class, so its condition is evaluated before taskExecutor above
+    // is registered
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnMissingBean(name = "taskExecutor")
+    @ConditionalOnProperty(prefix = "observability.async.adaptive", name = "enabled", havingValue = "true")
+    static class AdaptiveExecutorConfiguration {
+
+        @Bean
+        public AdaptiveExecutorController adaptiveExecutorController(ObservabilityProperties properties,
+                ObjectProvider<MeterRegistry> meterRegistry) {
+            return new AdaptiveExecutorController(properties.getAsync().getAdaptive(),
+                    meterRegistry.getIfAvailable());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnJava(JavaVersion.TWENTY_ONE)
+    @ConditionalOnProperty(prefix = "observability.async.virtual-threads", name = "enabled", havingValue = "true")
+    static class VirtualThreadExecutorConfiguration {
+
+        @Bean(name = "taskExecutor")
+        @ConditionalOnMissingBean(name = "taskExecutor")
+        public SimpleAsyncTaskExecutor virtualThreadTaskExecutor() {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("obs-vasync-");
+            ObservabilityTaskDecorator mdcDecorator = new ObservabilityTaskDecorator();
+            executor.setTaskDecorator(runnable -> {
+                // Bind the virtual thread to the caller's trace so JFR pinning
+                // events, which cannot see MDC, can still report a traceId
+                String traceId = MDC.get(MdcKeys.TRACE_ID);
+                Runnable task = mdcDecorator.decorate(runnable);
+                return () -> {
+                    ThreadTraceIndex.bindCurrentThread(traceId);
+                    try {
+                        task.run();
+                    } finally {
+                        ThreadTraceIndex.unbindCurrentThread();
+                    }
+                };
+            });
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = "observability.async.virtual-threads", name = "pinning-detection", havingValue = "true", matchIfMissing = true)
+        public VirtualThreadPinningMonitor virtualThreadPinningMonitor(ObservabilityProperties properties,
+                MeterRegistry meterRegistry) {
+            return new VirtualThreadPinningMonitor(properties.getAsync().getVirtualThreads(), meterRegistry);
+        }
+    }
+
+    private ThreadPoolTaskExecutor adaptiveExecutor(AdaptiveExecutorController controller) {
+        ObservabilityProperties.Async.Adaptive adaptive = controller.getConfig();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                return controller.getQueue();
+            }
+        };
+        ObservabilityTaskDecorator mdcDecorator = new ObservabilityTaskDecorator();
+        executor.setTaskDecorator(runnable -> controller.decorate(mdcDecorator.decorate(runnable)));
+        executor.setCorePoolSize(Math.max(adaptive.getMinPoolSize(),
+                Math.min(DEFAULT_CORE_POOL_SIZE, adaptive.getMaxPoolSize())));
+        executor.setMaxPoolSize(adaptive.getMaxPoolSize());
+        executor.setThreadNamePrefix("obs-async-");
+        executor.initialize();
+        controller.attach(executor);
+        return executor;
+    }
 }
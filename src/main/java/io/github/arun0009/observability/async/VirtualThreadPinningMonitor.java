@@ -0,0 +1,177 @@
+package io.github.arun0009.observability.async;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.LogRateLimiter;
+import io.github.arun0009.observability.core.ThreadTraceIndex;
+import io.github.arun0009.observability.jfr.RecordedStacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams {@code jdk.VirtualThreadPinned} and
+ * {@code jdk.VirtualThreadSubmitFailed} JFR events in-process and turns them
+ * into metrics and rate-limited logs.
+ * <p>
+ * Metrics:
+ * <ul>
+ * <li>{@code virtual.thread.pinned} — timer of pinned durations above the
+ * configured threshold</li>
+ * <li>{@code virtual.thread.submit.failed} — virtual threads the scheduler
+ * could not start or unpark</li>
+ * <li>{@code virtual.thread.carrier.pinned.ratio} — share of carrier thread
+ * time lost to pinning since the last read, over windows of at least one
+ * second (1.0 means every carrier was pinned the whole time)</li>
+ * </ul>
+ * At most one pinning log per {@code log-interval} is written, with the
+ * pinning stack and the traceId of the task (looked up through
+ * {@link ThreadTraceIndex}); events in between are only counted.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+    // Shorter windows make the ratio jumpy when several registries poll the
+    // same gauge.
+    static final long MIN_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ObservabilityProperties.Async.VirtualThreads config;
+    private final Timer pinnedTimer;
+    private final Counter submitFailedCounter;
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final int carriers;
+    private final LogRateLimiter pinnedLogLimiter;
+
+    private volatile RecordingStream stream;
+
+    // Guarded by "this" — only touched by gauge reads
+    private long ratioWindowStartNanos = System.nanoTime();
+    private long ratioWindowStartPinned;
+    private double lastRatio;
+
+    public VirtualThreadPinningMonitor(ObservabilityProperties.Async.VirtualThreads config, MeterRegistry registry) {
+        this(config, registry, Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors()));
+    }
+
+    VirtualThreadPinningMonitor(ObservabilityProperties.Async.VirtualThreads config, MeterRegistry registry,
+            int carriers) {
+        this.config = config;
+        this.pinnedLogLimiter = new LogRateLimiter(1, config.getLogInterval());
+        this.carriers = carriers;
+        this.pinnedTimer = Timer.builder("virtual.thread.pinned")
+                .description("Time virtual threads spent pinned to their carrier")
+                .register(registry);
+        this.submitFailedCounter = Counter.builder("virtual.thread.submit.failed")
+                .description("Virtual threads the scheduler failed to start or unpark")
+                .register(registry);
+        Gauge.builder("virtual.thread.carrier.pinned.ratio", this, VirtualThreadPinningMonitor::pinnedRatio)
+                .description("Share of carrier thread time lost to pinned virtual threads")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (stream != null) {
+            return;
+        }
+        RecordingStream recording;
+        try {
+            recording = new RecordingStream();
+        } catch (RuntimeException e) {
+            // e.g. a native image built without --enable-monitoring=jfr
+            log.warn("JFR event streaming unavailable, virtual thread pinning not monitored: {}", e.getMessage());
+            return;
+        }
+        recording.enable(PINNED_EVENT).withThreshold(config.getPinnedThreshold()).withStackTrace();
+        recording.enable(SUBMIT_FAILED_EVENT).withStackTrace();
+        // Events are handled as they arrive; keep the on-disk backlog small
+        recording.setMaxAge(Duration.ofSeconds(30));
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.onEvent(SUBMIT_FAILED_EVENT, this::onSubmitFailed);
+        recording.startAsync();
+        stream = recording;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        recordPinned(event.getDuration(), traceIdOf(event), event.getStackTrace());
+    }
+
+    /**
+     * Account for one pinning of {@code duration} and log it unless the log
+     * limiter suppresses it.
+     */
+    void recordPinned(Duration duration, String traceId, RecordedStackTrace stackTrace) {
+        pinnedTimer.record(duration);
+        pinnedNanos.add(duration.toNanos());
+
+        long suppressed = pinnedLogLimiter.tryAcquire();
+        if (suppressed < 0) {
+            return;
+        }
+        log.warn("Virtual thread pinned for {} ms [traceId={}, suppressed={}]\n{}",
+                duration.toMillis(), traceId, suppressed,
+                RecordedStacks.format(stackTrace, config.getStackDepth()));
+    }
+
+    private void onSubmitFailed(RecordedEvent event) {
+        submitFailedCounter.increment();
+        log.error("Virtual thread scheduler failed to submit a task [traceId={}]: {}\n{}",
+                traceIdOf(event), event.getString("exceptionMessage"),
+                RecordedStacks.format(event.getStackTrace(), config.getStackDepth()));
+    }
+
+    private String traceIdOf(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        return thread != null ? ThreadTraceIndex.lookup(thread.getJavaThreadId()) : null;
+    }
+
+    private double pinnedRatio() {
+        return pinnedRatio(System.nanoTime());
+    }
+
+    /**
+     * Pinned share of carrier time since the previous window, read at
+     * {@code now}. Reads less than {@link #MIN_WINDOW_NANOS} apart return
+     * the previous ratio.
+     */
+    synchronized double pinnedRatio(long now) {
+        long elapsed = now - ratioWindowStartNanos;
+        if (elapsed >= MIN_WINDOW_NANOS) {
+            long total = pinnedNanos.sum();
+            lastRatio = Math.min((double) (total - ratioWindowStartPinned) / (elapsed * (double) carriers), 1.0);
+            ratioWindowStartNanos = now;
+            ratioWindowStartPinned = total;
+        }
+        return lastRatio;
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.arun0009.observability.audit;
 
 import io.github.arun0009.observability.core.MdcKeys;
+import io.github.arun0009.observability.jfr.AuditEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -10,7 +11,8 @@ import org.slf4j.MDC;
  * <p>
  * Uses a dedicated logger name ({@code AUDIT}) so that audit events can be
  * routed to a separate appender (e.g., a dedicated Kafka topic or S3 bucket)
- * without polluting application logs.
+ * without polluting application logs. Each record is also emitted as an
+ * {@link AuditEvent} JFR event when a recording is running.
  * <p>
  * Usage:
  * 
@@ -54,6 +56,7 @@ public class AuditLogger {
         try {
             auditLog.info("AUDIT event={} actor={} resource={} outcome={}",
                     action, actor, resource, outcome);
+            recordEvent(action, actor, resource, outcome);
         } finally {
             MDC.remove("audit.action");
             MDC.remove("audit.actor");
@@ -80,6 +83,7 @@ public class AuditLogger {
         try {
             auditLog.info("AUDIT event={} actor={} resource={} outcome={} detail={}",
                     action, actor, resource, outcome, detail);
+            recordEvent(action, actor, resource, outcome);
         } finally {
             MDC.remove("audit.action");
             MDC.remove("audit.actor");
@@ -88,4 +92,12 @@ public class AuditLogger {
             MDC.remove("audit.detail");
         }
     }
+
+    private void recordEvent(String action, String actor, String resource, String outcome) {
+        AuditEvent event = new AuditEvent();
+        if (event.isEnabled()) {
+            event.complete(action, actor, resource, outcome, MDC.get(MdcKeys.TRACE_ID),
+                    MDC.get(MdcKeys.REQUEST_ID));
+        }
+    }
 }
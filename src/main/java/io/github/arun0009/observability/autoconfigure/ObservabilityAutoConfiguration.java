@@ -3,52 +3,91 @@ package io.github.arun0009.observability.autoconfigure;
 import io.github.arun0009.observability.audit.AuditLogger;
 import io.github.arun0009.observability.core.MdcContributor;
 import io.github.arun0009.observability.core.MdcFilter;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.core.RouteBindingInterceptor;
 import io.github.arun0009.observability.core.TraceGuardFilter;
+import io.github.arun0009.observability.core.W3CBaggage;
+import io.github.arun0009.observability.dependency.DependencyMatrixConfiguration;
+import io.github.arun0009.observability.exception.ExceptionFingerprintConfiguration;
+import io.github.arun0009.observability.exception.ExceptionFingerprints;
 import io.github.arun0009.observability.exception.ObservabilityExceptionHandler;
 import io.github.arun0009.observability.metrics.BusinessMetrics;
+import io.github.arun0009.observability.metrics.ExemplarConfiguration;
+import io.github.arun0009.observability.metrics.ExemplarSampler;
 import io.github.arun0009.observability.metrics.SloMetricsConfiguration;
 import io.github.arun0009.observability.metrics.StandardMetricsConfiguration;
 import io.github.arun0009.observability.async.ObservabilityExecutorConfiguration;
 import io.github.arun0009.observability.kafka.KafkaTracingConfiguration;
+import io.github.arun0009.observability.propagation.BaggagePropagationConfiguration;
+import io.github.arun0009.observability.propagation.HttpClientMetrics;
+import io.github.arun0009.observability.propagation.JdkHttpClientPropagationConfiguration;
 import io.github.arun0009.observability.propagation.OkHttpPropagationConfiguration;
+import io.github.arun0009.observability.propagation.RestClientPropagationConfiguration;
 import io.github.arun0009.observability.propagation.RestTemplatePropagationConfiguration;
 import io.github.arun0009.observability.propagation.WebClientPropagationConfiguration;
 import io.github.arun0009.observability.guardrails.ObservabilityGuardrailsConfiguration;
+import io.github.arun0009.observability.export.SpanExportConfiguration;
+import io.github.arun0009.observability.recorder.FlightRecorderConfiguration;
+import io.github.arun0009.observability.jfr.JfrEventBridgeConfiguration;
+import io.github.arun0009.observability.profiling.ProfilingConfiguration;
+import io.github.arun0009.observability.profiling.SlowRequestWatchdog;
 import io.github.arun0009.observability.scheduling.ScheduledTaskObservabilityAspect;
 import io.micrometer.core.instrument.MeterRegistry;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.EmbeddedValueResolver;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import io.github.arun0009.observability.logging.PiiMaskingConverter;
+import io.github.arun0009.observability.logging.TraceLogIndexConfiguration;
 import io.github.arun0009.observability.metrics.GitInfoMetricsConfiguration;
-import io.github.arun0009.observability.metrics.ThreadPoolSaturationMetrics;
+import io.github.arun0009.observability.metrics.ExecutorMetricsBeanPostProcessor;
 import io.github.arun0009.observability.startup.ObservabilityStartupBanner;
+import io.github.arun0009.observability.startup.StartupTimelineConfiguration;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import java.util.List;
-import java.util.Map;
 import org.springframework.core.env.Environment;
 
-@AutoConfiguration
+// Before TaskExecutionAutoConfiguration so our "taskExecutor" wins over Boot's
+// applicationTaskExecutor, which backs off when an Executor already exists
+@AutoConfiguration(before = TaskExecutionAutoConfiguration.class)
 @ConditionalOnWebApplication
 @EnableConfigurationProperties(ObservabilityProperties.class)
 @Import({
         StandardMetricsConfiguration.class,
+        ExemplarConfiguration.class,
         SloMetricsConfiguration.class,
+        DependencyMatrixConfiguration.class,
+        ExceptionFingerprintConfiguration.class,
         RestTemplatePropagationConfiguration.class,
         WebClientPropagationConfiguration.class,
         OkHttpPropagationConfiguration.class,
+        RestClientPropagationConfiguration.class,
+        JdkHttpClientPropagationConfiguration.class,
+        BaggagePropagationConfiguration.class,
         ObservabilityGuardrailsConfiguration.class,
+        SpanExportConfiguration.class,
+        FlightRecorderConfiguration.class,
+        TraceLogIndexConfiguration.class,
         ObservabilityExecutorConfiguration.class,
-        KafkaTracingConfiguration.class
+        KafkaTracingConfiguration.class,
+        JfrEventBridgeConfiguration.class,
+        ProfilingConfiguration.class,
+        StartupTimelineConfiguration.class
 })
 public class ObservabilityAutoConfiguration {
 
@@ -60,8 +99,23 @@ public class ObservabilityAutoConfiguration {
     public MdcFilter mdcFilter(ObservabilityProperties properties,
             @Value("${spring.application.name:unknown-service}") String serviceName,
             @Value("${app.env:unknown-env}") String environment,
-            List<MdcContributor> contributors) {
-        return new MdcFilter(serviceName, environment, contributors);
+            List<MdcContributor> contributors,
+            ObjectProvider<SlowRequestWatchdog> watchdog) {
+        return new MdcFilter(serviceName, environment, contributors, watchdog.getIfAvailable(),
+                baggage(properties.getPropagation()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PropagationInjector propagationInjector(ObservabilityProperties properties) {
+        ObservabilityProperties.Propagation propagation = properties.getPropagation();
+        return new PropagationInjector(propagation.getMode(), baggage(propagation));
+    }
+
+    private static W3CBaggage baggage(ObservabilityProperties.Propagation propagation) {
+        return propagation.getMode().usesBaggage()
+                ? new W3CBaggage(propagation.getBaggageMaxEntries(), propagation.getBaggageMaxBytes())
+                : null;
     }
 
     @Bean
@@ -73,12 +127,37 @@ public class ObservabilityAutoConfiguration {
         return new TraceGuardFilter(meterRegistry, properties.getTraceGuard().isFailOnMissing());
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(WebMvcConfigurer.class)
+    @ConditionalOnProperty(prefix = "observability.mdc", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class RouteBindingConfiguration {
+
+        @Bean
+        public WebMvcConfigurer routeBindingConfigurer() {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addInterceptors(InterceptorRegistry registry) {
+                    registry.addInterceptor(new RouteBindingInterceptor());
+                }
+            };
+        }
+    }
+
     // ── Metrics ──────────────────────────────────────────────
 
     @Bean
     @ConditionalOnMissingBean
-    public BusinessMetrics businessMetrics(MeterRegistry meterRegistry) {
-        return new BusinessMetrics(meterRegistry);
+    public BusinessMetrics businessMetrics(MeterRegistry meterRegistry,
+            ObjectProvider<ExemplarSampler> exemplarSampler) {
+        return new BusinessMetrics(meterRegistry, exemplarSampler.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "observability.http-client", name = "metrics-enabled", havingValue = "true", matchIfMissing = true)
+    public HttpClientMetrics httpClientMetrics(MeterRegistry meterRegistry, ObservabilityProperties properties) {
+        return new HttpClientMetrics(properties.getHttpClient(), meterRegistry);
     }
 
     // ── Exception Handling ───────────────────────────────────
@@ -86,8 +165,10 @@ public class ObservabilityAutoConfiguration {
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnProperty(prefix = "observability.exception-handler", name = "enabled", havingValue = "true", matchIfMissing = true)
-    public ObservabilityExceptionHandler observabilityExceptionHandler() {
-        return new ObservabilityExceptionHandler();
+    public ObservabilityExceptionHandler observabilityExceptionHandler(ObservabilityProperties properties,
+            ObjectProvider<ExceptionFingerprints> fingerprints) {
+        return new ObservabilityExceptionHandler(fingerprints.getIfAvailable(),
+                properties.getExceptionHandler().getSpanStackFrames());
     }
 
     // ── Audit ────────────────────────────────────────────────
@@ -106,8 +187,13 @@ public class ObservabilityAutoConfiguration {
     public ScheduledTaskObservabilityAspect scheduledTaskObservabilityAspect(
             MeterRegistry meterRegistry,
             @Value("${spring.application.name:unknown-service}") String serviceName,
-            @Value("${app.env:unknown-env}") String environment) {
-        return new ScheduledTaskObservabilityAspect(meterRegistry, serviceName, environment);
+            @Value("${app.env:unknown-env}") String environment,
+            ObjectProvider<ExemplarSampler> exemplarSampler,
+            ObservabilityProperties properties,
+            ConfigurableBeanFactory beanFactory) {
+        return new ScheduledTaskObservabilityAspect(meterRegistry, serviceName, environment,
+                exemplarSampler.getIfAvailable(), properties.getScheduling(),
+                new EmbeddedValueResolver(beanFactory));
     }
 
     // ── Extras / WOW Features ────────────────────────────────
@@ -120,9 +206,10 @@ public class ObservabilityAutoConfiguration {
     }
 
     @Bean
-    public ThreadPoolSaturationMetrics threadPoolSaturationMetrics(MeterRegistry registry,
-            Map<String, ThreadPoolTaskExecutor> executors) {
-        return new ThreadPoolSaturationMetrics(registry, executors);
+    @ConditionalOnProperty(prefix = "observability.async", name = "metrics-enabled", havingValue = "true", matchIfMissing = true)
+    public static ExecutorMetricsBeanPostProcessor executorMetricsBeanPostProcessor(
+            ObjectProvider<MeterRegistry> registry) {
+        return new ExecutorMetricsBeanPostProcessor(registry);
     }
 
     @Bean
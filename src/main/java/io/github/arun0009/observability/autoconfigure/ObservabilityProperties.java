@@ -1,6 +1,13 @@
 package io.github.arun0009.observability.autoconfigure;
 
+import io.github.arun0009.observability.core.PropagationMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Centralized configuration properties for the observability starter.
@@ -14,16 +21,72 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  *   trace-guard:
  *     enabled: true
  *     fail-on-missing: false
+ *   propagation:
+ *     mode: headers
  *   sampling:
  *     probability: 1.0
+ *     rate-limit:
+ *       enabled: false
+ *       traces-per-second: 100
+ *     tail:
+ *       enabled: false
+ *       latency-threshold: 1s
  *   async:
  *     propagation-enabled: true
+ *     metrics-enabled: true
+ *     adaptive:
+ *       enabled: false
+ *       target-queue-wait: 20ms
+ *     virtual-threads:
+ *       enabled: false
  *   kafka:
  *     propagation-enabled: true
+ *     metrics-enabled: true
+ *     batch-tracing-enabled: true
+ *     batch-max-links: 128
+ *     batch-record-spans: false
  *   exception-handler:
  *     enabled: true
+ *     fingerprints-enabled: true
+ *     log-permits: 5
+ *     log-interval: 1m
+ *     span-stack-frames: 20
+ *   scheduling:
+ *     start-log-level: debug
+ *     complete-log-level: debug
+ *   startup:
+ *     enabled: true
+ *     budget: 10s
+ *     top-beans: 10
+ *     min-span-duration: 5ms
  *   audit:
  *     enabled: true
+ *   jfr:
+ *     enabled: false
+ *   profiling:
+ *     enabled: true
+ *     interval: 500ms
+ *   exemplars:
+ *     enabled: true
+ *     interval: 10s
+ *   watchdog:
+ *     enabled: true
+ *     threshold: 2s
+ *   export:
+ *     enabled: true
+ *     batch-size: 512
+ *   flight-recorder:
+ *     enabled: false
+ *     size: 64MB
+ *   log-index:
+ *     enabled: false
+ *     size: 16MB
+ *   http-client:
+ *     metrics-enabled: true
+ *     max-uris: 500
+ *   dependencies:
+ *     enabled: true
+ *     window: 1m
  * </pre>
  */
 @ConfigurationProperties(prefix = "observability")
@@ -31,11 +94,23 @@ public class ObservabilityProperties {
 
     private final Mdc mdc = new Mdc();
     private final TraceGuard traceGuard = new TraceGuard();
+    private final Propagation propagation = new Propagation();
     private final Sampling sampling = new Sampling();
     private final Async async = new Async();
     private final Kafka kafka = new Kafka();
     private final ExceptionHandler exceptionHandler = new ExceptionHandler();
+    private final Scheduling scheduling = new Scheduling();
+    private final Startup startup = new Startup();
     private final Audit audit = new Audit();
+    private final Jfr jfr = new Jfr();
+    private final Profiling profiling = new Profiling();
+    private final Exemplars exemplars = new Exemplars();
+    private final Watchdog watchdog = new Watchdog();
+    private final Export export = new Export();
+    private final FlightRecorder flightRecorder = new FlightRecorder();
+    private final LogIndex logIndex = new LogIndex();
+    private final HttpClient httpClient = new HttpClient();
+    private final Dependencies dependencies = new Dependencies();
 
     public Mdc getMdc() {
         return mdc;
@@ -45,6 +120,10 @@ public class ObservabilityProperties {
         return traceGuard;
     }
 
+    public Propagation getPropagation() {
+        return propagation;
+    }
+
     public Sampling getSampling() {
         return sampling;
     }
@@ -61,10 +140,54 @@ public class ObservabilityProperties {
         return exceptionHandler;
     }
 
+    public Scheduling getScheduling() {
+        return scheduling;
+    }
+
+    public Startup getStartup() {
+        return startup;
+    }
+
     public Audit getAudit() {
         return audit;
     }
 
+    public Jfr getJfr() {
+        return jfr;
+    }
+
+    public Profiling getProfiling() {
+        return profiling;
+    }
+
+    public Exemplars getExemplars() {
+        return exemplars;
+    }
+
+    public Watchdog getWatchdog() {
+        return watchdog;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public FlightRecorder getFlightRecorder() {
+        return flightRecorder;
+    }
+
+    public LogIndex getLogIndex() {
+        return logIndex;
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public Dependencies getDependencies() {
+        return dependencies;
+    }
+
     public static class Mdc {
         private boolean enabled = true;
 
@@ -98,8 +221,40 @@ public class ObservabilityProperties {
         }
     }
 
+    public static class Propagation {
+        private PropagationMode mode = PropagationMode.HEADERS;
+        private int baggageMaxEntries = 64;
+        private int baggageMaxBytes = 8192;
+
+        public PropagationMode getMode() {
+            return mode;
+        }
+
+        public void setMode(PropagationMode mode) {
+            this.mode = mode;
+        }
+
+        public int getBaggageMaxEntries() {
+            return baggageMaxEntries;
+        }
+
+        public void setBaggageMaxEntries(int baggageMaxEntries) {
+            this.baggageMaxEntries = baggageMaxEntries;
+        }
+
+        public int getBaggageMaxBytes() {
+            return baggageMaxBytes;
+        }
+
+        public void setBaggageMaxBytes(int baggageMaxBytes) {
+            this.baggageMaxBytes = baggageMaxBytes;
+        }
+    }
+
     public static class Sampling {
         private double probability = 1.0;
+        private final RateLimit rateLimit = new RateLimit();
+        private final Tail tail = new Tail();
 
         public double getProbability() {
             return probability;
@@ -108,10 +263,126 @@ public class ObservabilityProperties {
         public void setProbability(double probability) {
             this.probability = probability;
         }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public Tail getTail() {
+            return tail;
+        }
+
+        public static class RateLimit {
+            private boolean enabled = false;
+            private double tracesPerSecond = 100;
+            private int maxRoutes = 200;
+            private List<String> criticalRoutes = new ArrayList<>();
+            private Duration adjustInterval = Duration.ofSeconds(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public double getTracesPerSecond() {
+                return tracesPerSecond;
+            }
+
+            public void setTracesPerSecond(double tracesPerSecond) {
+                this.tracesPerSecond = tracesPerSecond;
+            }
+
+            public int getMaxRoutes() {
+                return maxRoutes;
+            }
+
+            public void setMaxRoutes(int maxRoutes) {
+                this.maxRoutes = maxRoutes;
+            }
+
+            public List<String> getCriticalRoutes() {
+                return criticalRoutes;
+            }
+
+            public void setCriticalRoutes(List<String> criticalRoutes) {
+                this.criticalRoutes = criticalRoutes;
+            }
+
+            public Duration getAdjustInterval() {
+                return adjustInterval;
+            }
+
+            public void setAdjustInterval(Duration adjustInterval) {
+                this.adjustInterval = adjustInterval;
+            }
+        }
+
+        public static class Tail {
+            private boolean enabled = false;
+            private Duration latencyThreshold = Duration.ofSeconds(1);
+            private int maxTraces = 10_000;
+            private int maxSpans = 100_000;
+            private int maxSpansPerTrace = 1_000;
+            private Duration maxTraceAge = Duration.ofSeconds(30);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getLatencyThreshold() {
+                return latencyThreshold;
+            }
+
+            public void setLatencyThreshold(Duration latencyThreshold) {
+                this.latencyThreshold = latencyThreshold;
+            }
+
+            public int getMaxTraces() {
+                return maxTraces;
+            }
+
+            public void setMaxTraces(int maxTraces) {
+                this.maxTraces = maxTraces;
+            }
+
+            public int getMaxSpans() {
+                return maxSpans;
+            }
+
+            public void setMaxSpans(int maxSpans) {
+                this.maxSpans = maxSpans;
+            }
+
+            public int getMaxSpansPerTrace() {
+                return maxSpansPerTrace;
+            }
+
+            public void setMaxSpansPerTrace(int maxSpansPerTrace) {
+                this.maxSpansPerTrace = maxSpansPerTrace;
+            }
+
+            public Duration getMaxTraceAge() {
+                return maxTraceAge;
+            }
+
+            public void setMaxTraceAge(Duration maxTraceAge) {
+                this.maxTraceAge = maxTraceAge;
+            }
+        }
     }
 
     public static class Async {
         private boolean propagationEnabled = true;
+        private boolean metricsEnabled = true;
+        private final Adaptive adaptive = new Adaptive();
+        private final VirtualThreads virtualThreads = new VirtualThreads();
 
         public boolean isPropagationEnabled() {
             return propagationEnabled;
@@ -120,10 +391,160 @@ public class ObservabilityProperties {
         public void setPropagationEnabled(boolean propagationEnabled) {
             this.propagationEnabled = propagationEnabled;
         }
+
+        public boolean isMetricsEnabled() {
+            return metricsEnabled;
+        }
+
+        public void setMetricsEnabled(boolean metricsEnabled) {
+            this.metricsEnabled = metricsEnabled;
+        }
+
+        public Adaptive getAdaptive() {
+            return adaptive;
+        }
+
+        public VirtualThreads getVirtualThreads() {
+            return virtualThreads;
+        }
+
+        /**
+         * Virtual-thread-per-task {@code taskExecutor} (Java 21+) and its
+         * JFR-based pinning detection.
+         */
+        public static class VirtualThreads {
+            private boolean enabled = false;
+            private boolean pinningDetection = true;
+            private Duration pinnedThreshold = Duration.ofMillis(20);
+            private Duration logInterval = Duration.ofSeconds(10);
+            private int stackDepth = 16;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public boolean isPinningDetection() {
+                return pinningDetection;
+            }
+
+            public void setPinningDetection(boolean pinningDetection) {
+                this.pinningDetection = pinningDetection;
+            }
+
+            public Duration getPinnedThreshold() {
+                return pinnedThreshold;
+            }
+
+            public void setPinnedThreshold(Duration pinnedThreshold) {
+                this.pinnedThreshold = pinnedThreshold;
+            }
+
+            public Duration getLogInterval() {
+                return logInterval;
+            }
+
+            public void setLogInterval(Duration logInterval) {
+                this.logInterval = logInterval;
+            }
+
+            public int getStackDepth() {
+                return stackDepth;
+            }
+
+            public void setStackDepth(int stackDepth) {
+                this.stackDepth = stackDepth;
+            }
+        }
+
+        /**
+         * Bounds and targets for the adaptive {@code taskExecutor} controller.
+         */
+        public static class Adaptive {
+            private boolean enabled = false;
+            private int minPoolSize = 2;
+            private int maxPoolSize = 64;
+            private int minQueueCapacity = 0;
+            private int maxQueueCapacity = 100;
+            private int step = 2;
+            private Duration targetQueueWait = Duration.ofMillis(20);
+            private Duration interval = Duration.ofSeconds(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMinPoolSize() {
+                return minPoolSize;
+            }
+
+            public void setMinPoolSize(int minPoolSize) {
+                this.minPoolSize = minPoolSize;
+            }
+
+            public int getMaxPoolSize() {
+                return maxPoolSize;
+            }
+
+            public void setMaxPoolSize(int maxPoolSize) {
+                this.maxPoolSize = maxPoolSize;
+            }
+
+            public int getMinQueueCapacity() {
+                return minQueueCapacity;
+            }
+
+            public void setMinQueueCapacity(int minQueueCapacity) {
+                this.minQueueCapacity = minQueueCapacity;
+            }
+
+            public int getMaxQueueCapacity() {
+                return maxQueueCapacity;
+            }
+
+            public void setMaxQueueCapacity(int maxQueueCapacity) {
+                this.maxQueueCapacity = maxQueueCapacity;
+            }
+
+            public int getStep() {
+                return step;
+            }
+
+            public void setStep(int step) {
+                this.step = step;
+            }
+
+            public Duration getTargetQueueWait() {
+                return targetQueueWait;
+            }
+
+            public void setTargetQueueWait(Duration targetQueueWait) {
+                this.targetQueueWait = targetQueueWait;
+            }
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+        }
     }
 
     public static class Kafka {
         private boolean propagationEnabled = true;
+        private boolean metricsEnabled = true;
+        private boolean batchTracingEnabled = true;
+        private int batchMaxLinks = 128;
+        private boolean batchRecordSpans = false;
 
         public boolean isPropagationEnabled() {
             return propagationEnabled;
@@ -132,10 +553,48 @@ public class ObservabilityProperties {
         public void setPropagationEnabled(boolean propagationEnabled) {
             this.propagationEnabled = propagationEnabled;
         }
+
+        public boolean isMetricsEnabled() {
+            return metricsEnabled;
+        }
+
+        public void setMetricsEnabled(boolean metricsEnabled) {
+            this.metricsEnabled = metricsEnabled;
+        }
+
+        public boolean isBatchTracingEnabled() {
+            return batchTracingEnabled;
+        }
+
+        public void setBatchTracingEnabled(boolean batchTracingEnabled) {
+            this.batchTracingEnabled = batchTracingEnabled;
+        }
+
+        public int getBatchMaxLinks() {
+            return batchMaxLinks;
+        }
+
+        public void setBatchMaxLinks(int batchMaxLinks) {
+            this.batchMaxLinks = batchMaxLinks;
+        }
+
+        public boolean isBatchRecordSpans() {
+            return batchRecordSpans;
+        }
+
+        public void setBatchRecordSpans(boolean batchRecordSpans) {
+            this.batchRecordSpans = batchRecordSpans;
+        }
     }
 
     public static class ExceptionHandler {
         private boolean enabled = true;
+        private boolean fingerprintsEnabled = true;
+        private int maxFingerprints = 500;
+        private int fingerprintFrames = 5;
+        private int logPermits = 5;
+        private Duration logInterval = Duration.ofMinutes(1);
+        private int spanStackFrames = 20;
 
         public boolean isEnabled() {
             return enabled;
@@ -144,6 +603,132 @@ public class ObservabilityProperties {
         public void setEnabled(boolean enabled) {
             this.enabled = enabled;
         }
+
+        public boolean isFingerprintsEnabled() {
+            return fingerprintsEnabled;
+        }
+
+        public void setFingerprintsEnabled(boolean fingerprintsEnabled) {
+            this.fingerprintsEnabled = fingerprintsEnabled;
+        }
+
+        public int getMaxFingerprints() {
+            return maxFingerprints;
+        }
+
+        public void setMaxFingerprints(int maxFingerprints) {
+            this.maxFingerprints = maxFingerprints;
+        }
+
+        public int getFingerprintFrames() {
+            return fingerprintFrames;
+        }
+
+        public void setFingerprintFrames(int fingerprintFrames) {
+            this.fingerprintFrames = fingerprintFrames;
+        }
+
+        public int getLogPermits() {
+            return logPermits;
+        }
+
+        public void setLogPermits(int logPermits) {
+            this.logPermits = logPermits;
+        }
+
+        public Duration getLogInterval() {
+            return logInterval;
+        }
+
+        public void setLogInterval(Duration logInterval) {
+            this.logInterval = logInterval;
+        }
+
+        public int getSpanStackFrames() {
+            return spanStackFrames;
+        }
+
+        public void setSpanStackFrames(int spanStackFrames) {
+            this.spanStackFrames = spanStackFrames;
+        }
+    }
+
+    public static class Scheduling {
+        private LogLevel startLogLevel = LogLevel.DEBUG;
+        private LogLevel completeLogLevel = LogLevel.DEBUG;
+
+        public LogLevel getStartLogLevel() {
+            return startLogLevel;
+        }
+
+        public void setStartLogLevel(LogLevel startLogLevel) {
+            this.startLogLevel = startLogLevel;
+        }
+
+        public LogLevel getCompleteLogLevel() {
+            return completeLogLevel;
+        }
+
+        public void setCompleteLogLevel(LogLevel completeLogLevel) {
+            this.completeLogLevel = completeLogLevel;
+        }
+    }
+
+    public static class Startup {
+        private boolean enabled = true;
+        private Duration budget;
+        private int topBeans = 10;
+        private int bufferSize = 10_000;
+        private boolean tracingEnabled = true;
+        private Duration minSpanDuration = Duration.ofMillis(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getBudget() {
+            return budget;
+        }
+
+        public void setBudget(Duration budget) {
+            this.budget = budget;
+        }
+
+        public int getTopBeans() {
+            return topBeans;
+        }
+
+        public void setTopBeans(int topBeans) {
+            this.topBeans = topBeans;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public boolean isTracingEnabled() {
+            return tracingEnabled;
+        }
+
+        public void setTracingEnabled(boolean tracingEnabled) {
+            this.tracingEnabled = tracingEnabled;
+        }
+
+        public Duration getMinSpanDuration() {
+            return minSpanDuration;
+        }
+
+        public void setMinSpanDuration(Duration minSpanDuration) {
+            this.minSpanDuration = minSpanDuration;
+        }
     }
 
     public static class Audit {
@@ -157,4 +742,477 @@ public class ObservabilityProperties {
             this.enabled = enabled;
         }
     }
+
+    public static class Jfr {
+        private boolean enabled = false;
+        private boolean gc = true;
+        private boolean allocation = true;
+        private String allocationThrottle = "100/s";
+        private boolean contention = true;
+        private Duration contentionThreshold = Duration.ofMillis(10);
+        private boolean safepoints = true;
+        private boolean threadPark = false;
+        private Duration parkThreshold = Duration.ofMillis(20);
+        private int maxTagValues = 64;
+        private int stackDepth = 16;
+        private Duration logInterval = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isGc() {
+            return gc;
+        }
+
+        public void setGc(boolean gc) {
+            this.gc = gc;
+        }
+
+        public boolean isAllocation() {
+            return allocation;
+        }
+
+        public void setAllocation(boolean allocation) {
+            this.allocation = allocation;
+        }
+
+        public String getAllocationThrottle() {
+            return allocationThrottle;
+        }
+
+        public void setAllocationThrottle(String allocationThrottle) {
+            this.allocationThrottle = allocationThrottle;
+        }
+
+        public boolean isContention() {
+            return contention;
+        }
+
+        public void setContention(boolean contention) {
+            this.contention = contention;
+        }
+
+        public Duration getContentionThreshold() {
+            return contentionThreshold;
+        }
+
+        public void setContentionThreshold(Duration contentionThreshold) {
+            this.contentionThreshold = contentionThreshold;
+        }
+
+        public boolean isSafepoints() {
+            return safepoints;
+        }
+
+        public void setSafepoints(boolean safepoints) {
+            this.safepoints = safepoints;
+        }
+
+        public boolean isThreadPark() {
+            return threadPark;
+        }
+
+        public void setThreadPark(boolean threadPark) {
+            this.threadPark = threadPark;
+        }
+
+        public Duration getParkThreshold() {
+            return parkThreshold;
+        }
+
+        public void setParkThreshold(Duration parkThreshold) {
+            this.parkThreshold = parkThreshold;
+        }
+
+        public int getMaxTagValues() {
+            return maxTagValues;
+        }
+
+        public void setMaxTagValues(int maxTagValues) {
+            this.maxTagValues = maxTagValues;
+        }
+
+        public int getStackDepth() {
+            return stackDepth;
+        }
+
+        public void setStackDepth(int stackDepth) {
+            this.stackDepth = stackDepth;
+        }
+
+        public Duration getLogInterval() {
+            return logInterval;
+        }
+
+        public void setLogInterval(Duration logInterval) {
+            this.logInterval = logInterval;
+        }
+    }
+
+    public static class Profiling {
+        private boolean enabled = true;
+        private Duration interval = Duration.ofMillis(500);
+        private int stackDepth = 64;
+        private int maxStacks = 8192;
+        private Duration window = Duration.ofMinutes(1);
+        private int windows = 5;
+        private int maxTraces = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getStackDepth() {
+            return stackDepth;
+        }
+
+        public void setStackDepth(int stackDepth) {
+            this.stackDepth = stackDepth;
+        }
+
+        public int getMaxStacks() {
+            return maxStacks;
+        }
+
+        public void setMaxStacks(int maxStacks) {
+            this.maxStacks = maxStacks;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getWindows() {
+            return windows;
+        }
+
+        public void setWindows(int windows) {
+            this.windows = windows;
+        }
+
+        public int getMaxTraces() {
+            return maxTraces;
+        }
+
+        public void setMaxTraces(int maxTraces) {
+            this.maxTraces = maxTraces;
+        }
+    }
+
+    public static class Exemplars {
+        private boolean enabled = true;
+        private Duration interval = Duration.ofSeconds(10);
+        private int maxMeters = 128;
+        private List<String> observations = new ArrayList<>(List.of("http.server.requests"));
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getMaxMeters() {
+            return maxMeters;
+        }
+
+        public void setMaxMeters(int maxMeters) {
+            this.maxMeters = maxMeters;
+        }
+
+        public List<String> getObservations() {
+            return observations;
+        }
+
+        public void setObservations(List<String> observations) {
+            this.observations = observations;
+        }
+    }
+
+    public static class Watchdog {
+        private boolean enabled = true;
+        private Duration threshold = Duration.ofSeconds(2);
+        private Duration interval = Duration.ofMillis(250);
+        private int stackDepth = 32;
+        private int maxStacks = 32;
+        private int topStacks = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getStackDepth() {
+            return stackDepth;
+        }
+
+        public void setStackDepth(int stackDepth) {
+            this.stackDepth = stackDepth;
+        }
+
+        public int getMaxStacks() {
+            return maxStacks;
+        }
+
+        public void setMaxStacks(int maxStacks) {
+            this.maxStacks = maxStacks;
+        }
+
+        public int getTopStacks() {
+            return topStacks;
+        }
+
+        public void setTopStacks(int topStacks) {
+            this.topStacks = topStacks;
+        }
+    }
+
+    public static class Export {
+        private boolean enabled = true;
+        private int queueCapacity = 8192;
+        private int batchSize = 512;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private int concurrency = 1;
+        private Duration exportTimeout = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public Duration getExportTimeout() {
+            return exportTimeout;
+        }
+
+        public void setExportTimeout(Duration exportTimeout) {
+            this.exportTimeout = exportTimeout;
+        }
+    }
+
+    public static class FlightRecorder {
+        private boolean enabled = false;
+        private DataSize size = DataSize.ofMegabytes(64);
+        private boolean recordUnsampled = true;
+        private String dumpDirectory;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getSize() {
+            return size;
+        }
+
+        public void setSize(DataSize size) {
+            this.size = size;
+        }
+
+        public boolean isRecordUnsampled() {
+            return recordUnsampled;
+        }
+
+        public void setRecordUnsampled(boolean recordUnsampled) {
+            this.recordUnsampled = recordUnsampled;
+        }
+
+        public String getDumpDirectory() {
+            return dumpDirectory;
+        }
+
+        public void setDumpDirectory(String dumpDirectory) {
+            this.dumpDirectory = dumpDirectory;
+        }
+    }
+
+    public static class LogIndex {
+        private boolean enabled = false;
+        private DataSize size = DataSize.ofMegabytes(16);
+        private int maxIds = 65536;
+        private DataSize maxEventSize = DataSize.ofKilobytes(16);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getSize() {
+            return size;
+        }
+
+        public void setSize(DataSize size) {
+            this.size = size;
+        }
+
+        public int getMaxIds() {
+            return maxIds;
+        }
+
+        public void setMaxIds(int maxIds) {
+            this.maxIds = maxIds;
+        }
+
+        public DataSize getMaxEventSize() {
+            return maxEventSize;
+        }
+
+        public void setMaxEventSize(DataSize maxEventSize) {
+            this.maxEventSize = maxEventSize;
+        }
+    }
+
+    /**
+     * Outbound HTTP client metrics. {@code max-hosts} bounds the host tag and
+     * {@code max-uris} the distinct host and URI pairs; later ones are
+     * recorded as {@code other}.
+     */
+    public static class HttpClient {
+        private boolean metricsEnabled = true;
+        private int maxHosts = 100;
+        private int maxUris = 500;
+
+        public boolean isMetricsEnabled() {
+            return metricsEnabled;
+        }
+
+        public void setMetricsEnabled(boolean metricsEnabled) {
+            this.metricsEnabled = metricsEnabled;
+        }
+
+        public int getMaxHosts() {
+            return maxHosts;
+        }
+
+        public void setMaxHosts(int maxHosts) {
+            this.maxHosts = maxHosts;
+        }
+
+        public int getMaxUris() {
+            return maxUris;
+        }
+
+        public void setMaxUris(int maxUris) {
+            this.maxUris = maxUris;
+        }
+    }
+
+    public static class Dependencies {
+        private boolean enabled = true;
+        private int maxDependencies = 256;
+        private Duration window = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxDependencies() {
+            return maxDependencies;
+        }
+
+        public void setMaxDependencies(int maxDependencies) {
+            this.maxDependencies = maxDependencies;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package io.github.arun0009.observability.core;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free limiter for noisy log statements: allows the first
+ * {@code permits} calls in each window and counts the rest, so the next
+ * permitted log line can report how many were suppressed.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * long suppressed = limiter.tryAcquire();
+ * if (suppressed &gt;= 0) {
+ *     log.warn("Something happened [suppressed={}]", suppressed);
+ * }
+ * </pre>
+ */
+public class LogRateLimiter {
+
+    private final int permits;
+    private final long windowNanos;
+    private final AtomicLong windowStart;
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogRateLimiter(int permits, Duration window) {
+        this.permits = permits;
+        this.windowNanos = window.toNanos();
+        this.windowStart = new AtomicLong(System.nanoTime() - windowNanos);
+    }
+
+    /**
+     * @return the number of calls suppressed since the last permitted one, or
+     *         {@code -1} if this call should be suppressed
+     */
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    long tryAcquire(long now) {
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= permits) {
+            return suppressed.sumThenReset();
+        }
+        suppressed.increment();
+        return -1;
+    }
+}
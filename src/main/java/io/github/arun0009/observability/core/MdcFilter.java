@@ -7,6 +7,8 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.github.arun0009.observability.jfr.HttpRequestEvent;
+import io.github.arun0009.observability.profiling.SlowRequestWatchdog;
 import org.slf4j.MDC;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
@@ -21,6 +23,11 @@ import java.util.UUID;
  * includes tracing, identity, and service metadata.
  * <p>
  * Extension: register {@link MdcContributor} beans to add custom keys.
+ * <p>
+ * When given a {@link W3CBaggage} codec (propagation mode {@code baggage} or
+ * {@code both}), the {@link PropagationField}s are also read from the W3C
+ * {@code baggage} header; a custom {@code X-...} header wins over the baggage
+ * entry for the same field.
  */
 @Order(Ordered.HIGHEST_PRECEDENCE + 100)
 public class MdcFilter implements Filter {
@@ -28,11 +35,25 @@ public class MdcFilter implements Filter {
     private final String serviceName;
     private final String environment;
     private final List<MdcContributor> contributors;
+    private final SlowRequestWatchdog watchdog;
+    private final W3CBaggage baggage;
 
     public MdcFilter(String serviceName, String environment, List<MdcContributor> contributors) {
+        this(serviceName, environment, contributors, null);
+    }
+
+    public MdcFilter(String serviceName, String environment, List<MdcContributor> contributors,
+            SlowRequestWatchdog watchdog) {
+        this(serviceName, environment, contributors, watchdog, null);
+    }
+
+    public MdcFilter(String serviceName, String environment, List<MdcContributor> contributors,
+            SlowRequestWatchdog watchdog, W3CBaggage baggage) {
         this.serviceName = serviceName;
         this.environment = environment;
         this.contributors = contributors != null ? contributors : List.of();
+        this.watchdog = watchdog;
+        this.baggage = baggage;
     }
 
     @Override
@@ -45,15 +66,26 @@ public class MdcFilter implements Filter {
                     ? (jakarta.servlet.http.HttpServletResponse) response
                     : null;
 
+            HttpRequestEvent event = new HttpRequestEvent();
+            event.begin();
             try {
                 // 1. Static / service-level context
                 MDC.put(MdcKeys.SERVICE_NAME, serviceName);
                 MDC.put(MdcKeys.ENVIRONMENT, environment);
 
                 // 2. Request-scoped identity
+                // Baggage first, so the custom headers below override it
+                if (baggage != null) {
+                    baggage.decode(httpRequest.getHeader(W3CBaggage.HEADER),
+                            (field, value) -> MDC.put(field.mdcKey(), value));
+                }
+
                 // Request ID
                 String requestId = httpRequest.getHeader(MdcKeys.HEADER_REQUEST_ID);
                 if (requestId == null || requestId.isEmpty()) {
+                    requestId = MDC.get(MdcKeys.REQUEST_ID);
+                }
+                if (requestId == null) {
                     requestId = UUID.randomUUID().toString();
                 }
                 MDC.put(MdcKeys.REQUEST_ID, requestId);
@@ -73,6 +105,9 @@ public class MdcFilter implements Filter {
                 if (traceId != null && httpResponse != null) {
                     httpResponse.setHeader("X-Trace-ID", traceId);
                 }
+                // Lets JFR/sampling subsystems attribute this thread's events to the
+                // request; RouteBindingInterceptor fills in the route once it is matched
+                ThreadTraceIndex.bindCurrentThread(traceId, ThreadTraceIndex.UNKNOWN_ROUTE);
 
                 // 4. Custom extensions
                 for (MdcContributor contributor : contributors) {
@@ -81,6 +116,15 @@ public class MdcFilter implements Filter {
 
                 chain.doFilter(request, response);
             } finally {
+                if (event.isEnabled()) {
+                    event.complete(httpRequest.getMethod(), ThreadTraceIndex.routeOfCurrentThread(),
+                            httpResponse != null ? httpResponse.getStatus() : 0,
+                            MDC.get(MdcKeys.TRACE_ID), MDC.get(MdcKeys.REQUEST_ID));
+                }
+                if (watchdog != null) {
+                    watchdog.onRequestEnd();
+                }
+                ThreadTraceIndex.unbindCurrentThread();
                 MDC.clear();
             }
         } else {
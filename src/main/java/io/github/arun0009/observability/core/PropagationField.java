@@ -0,0 +1,92 @@
+package io.github.arun0009.observability.core;
+
+import org.slf4j.MDC;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The MDC fields the starter carries across service boundaries, with the
+ * header each one travels in.
+ * <p>
+ * Every transport adapter (RestTemplate, WebClient, OkHttp, Kafka) iterates
+ * the same precompiled {@link #FIELDS} array instead of keeping its own list,
+ * and reads each value straight from the MDC rather than copying the whole
+ * context map. Transports that write header values as bytes use
+ * {@link #encodedValue(String)}, which caches the UTF-8 encoding of the last
+ * value seen on the current thread, so the many sends of one request encode
+ * each value once.
+ */
+public enum PropagationField {
+
+    REQUEST_ID(MdcKeys.REQUEST_ID, MdcKeys.HEADER_REQUEST_ID),
+    CORRELATION_ID(MdcKeys.CORRELATION_ID, MdcKeys.HEADER_CORRELATION_ID),
+    USER_ID(MdcKeys.USER_ID, MdcKeys.HEADER_USER_ID),
+    TENANT_ID(MdcKeys.TENANT_ID, MdcKeys.HEADER_TENANT_ID);
+
+    /**
+     * All fields, in propagation order. Shared; callers must not modify it.
+     */
+    public static final PropagationField[] FIELDS = values();
+
+    private static final ThreadLocal<EncodedValue[]> ENCODED = ThreadLocal.withInitial(() -> {
+        EncodedValue[] slots = new EncodedValue[FIELDS.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new EncodedValue();
+        }
+        return slots;
+    });
+
+    private final String mdcKey;
+    private final String headerName;
+
+    PropagationField(String mdcKey, String headerName) {
+        this.mdcKey = mdcKey;
+        this.headerName = headerName;
+    }
+
+    public String mdcKey() {
+        return mdcKey;
+    }
+
+    public String headerName() {
+        return headerName;
+    }
+
+    /**
+     * This field's value in the current thread's MDC, or {@code null}.
+     */
+    public String currentValue() {
+        return MDC.get(mdcKey);
+    }
+
+    /**
+     * UTF-8 bytes of {@code value}, reused while the current thread keeps
+     * propagating the same value. The returned array is shared and must not
+     * be modified.
+     */
+    public byte[] encodedValue(String value) {
+        EncodedValue slot = ENCODED.get()[ordinal()];
+        if (slot.value != value && !value.equals(slot.value)) {
+            slot.bytes = value.getBytes(StandardCharsets.UTF_8);
+            slot.value = value;
+        }
+        return slot.bytes;
+    }
+
+    /**
+     * Whether any field has a value in the current thread's MDC.
+     */
+    public static boolean anyPresent() {
+        for (PropagationField field : FIELDS) {
+            if (field.currentValue() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class EncodedValue {
+        private String value;
+        private byte[] bytes;
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.arun0009.observability.core;
+
+/**
+ * Writes the {@link PropagationField}s of the current thread's MDC onto an
+ * outbound carrier according to the {@link PropagationMode}: as custom
+ * headers, as a W3C {@code baggage} header, or both.
+ * <p>
+ * A {@code baggage} header already on the carrier (e.g. injected by the
+ * OpenTelemetry propagators, which see the same fields through
+ * {@code BaggageScopeFilter}) is left alone, so the fields are never sent
+ * twice. Values that cannot be sent as a plain header (e.g. non-ASCII text
+ * that arrived percent-encoded in baggage) are only sent as baggage.
+ */
+public final class PropagationInjector {
+
+    public static final PropagationInjector HEADERS = new PropagationInjector(PropagationMode.HEADERS, null);
+
+    /**
+     * Sets a header on a carrier.
+     */
+    @FunctionalInterface
+    public interface Setter<C> {
+        void set(C carrier, String name, String value);
+    }
+
+    /**
+     * Reads a header from a carrier, {@code null} when absent.
+     */
+    @FunctionalInterface
+    public interface Getter<C> {
+        String get(C carrier, String name);
+    }
+
+    private final PropagationMode mode;
+    private final W3CBaggage baggage;
+
+    public PropagationInjector(PropagationMode mode, W3CBaggage baggage) {
+        this.mode = mode;
+        this.baggage = mode.usesBaggage() ? baggage : null;
+    }
+
+    public PropagationMode mode() {
+        return mode;
+    }
+
+    /**
+     * The baggage codec, or {@code null} in {@link PropagationMode#HEADERS}
+     * mode.
+     */
+    public W3CBaggage baggage() {
+        return baggage;
+    }
+
+    /**
+     * Write the current fields onto {@code carrier}. {@code getter} may be
+     * {@code null} when the carrier cannot already hold a baggage header.
+     */
+    public <C> void inject(C carrier, Setter<C> setter, Getter<C> getter) {
+        if (mode.writesHeaders()) {
+            for (PropagationField field : PropagationField.FIELDS) {
+                String value = field.currentValue();
+                if (value != null && isHeaderSafe(value)) {
+                    setter.set(carrier, field.headerName(), value);
+                }
+            }
+        }
+        if (baggage != null && (getter == null || getter.get(carrier, W3CBaggage.HEADER) == null)) {
+            String value = baggage.encodeCurrent();
+            if (value != null) {
+                setter.set(carrier, W3CBaggage.HEADER, value);
+            }
+        }
+    }
+
+    /**
+     * The {@code baggage} header value for the current fields, or
+     * {@code null} when baggage is not in use or there are no fields.
+     */
+    public String baggageValue() {
+        return baggage != null ? baggage.encodeCurrent() : null;
+    }
+
+    private static boolean isHeaderSafe(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < 0x20 && c != '\t') || c > 0x7E) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.arun0009.observability.core;
+
+/**
+ * How the {@link PropagationField}s travel between services.
+ */
+public enum PropagationMode {
+
+    /**
+     * Custom {@code X-...} headers only (the default).
+     */
+    HEADERS,
+
+    /**
+     * W3C {@code baggage} entries only.
+     */
+    BAGGAGE,
+
+    /**
+     * Both, for migrating callers and callees independently. Inbound, a
+     * custom header wins over the baggage entry for the same field.
+     */
+    BOTH;
+
+    public boolean writesHeaders() {
+        return this != BAGGAGE;
+    }
+
+    public boolean usesBaggage() {
+        return this != HEADERS;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.arun0009.observability.core;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Refines the {@link ThreadTraceIndex} binding made by {@link MdcFilter} with
+ * the matched route template (e.g. {@code GET /orders/{id}}) once the handler
+ * mapping has resolved it, so samplers can group by route without per-URI
+ * cardinality.
+ */
+public class RouteBindingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            ThreadTraceIndex.setRouteOfCurrentThread(request.getMethod() + " " + pattern);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.arun0009.observability.core;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free index of thread id to the trace (and route) the
+ * thread was last working on.
+ * <p>
+ * JFR and other out-of-band samplers observe a thread from the outside and
+ * cannot read its MDC. Code that runs work on behalf of a trace binds the
+ * thread here so those samplers can attribute what they see. Slots are
+ * indexed by thread id and simply overwritten, so memory stays constant and a
+ * lookup for a thread whose slot was reused returns {@code null}.
+ * <p>
+ * Pooled threads (e.g. servlet workers) move from request to request, and
+ * samplers usually see an event some time after it happened. Bindings
+ * therefore record when they started and ended, and
+ * {@link #lookup(long, long)} only answers if the event falls inside that
+ * window.
+ */
+public final class ThreadTraceIndex {
+
+    /** Route used until the handler mapping has resolved one. */
+    public static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private static final int SIZE = 4096;
+    private static final int MASK = SIZE - 1;
+    private static final long OPEN = Long.MAX_VALUE;
+
+    private static final AtomicReferenceArray<Binding> slots = new AtomicReferenceArray<>(SIZE);
+
+    private ThreadTraceIndex() {
+    }
+
+    /**
+     * Record that the current thread is working on {@code traceId} from now
+     * on. A {@code null} traceId clears the binding.
+     */
+    public static void bindCurrentThread(String traceId) {
+        if (traceId == null) {
+            long threadId = Thread.currentThread().getId();
+            slots.lazySet(slot(threadId), null);
+        } else {
+            bindCurrentThread(traceId, UNKNOWN_ROUTE);
+        }
+    }
+
+    /**
+     * Record that the current thread is serving {@code route} on behalf of
+     * {@code traceId} (which may be {@code null} when the request is not
+     * traced).
+     */
+    public static void bindCurrentThread(String traceId, String route) {
+        long threadId = Thread.currentThread().getId();
+        slots.lazySet(slot(threadId), new Binding(threadId, traceId, route, System.currentTimeMillis(), OPEN));
+    }
+
+    /**
+     * Refine the route of the current thread's open binding, e.g. once the
+     * handler mapping knows the URI template.
+     */
+    public static void setRouteOfCurrentThread(String route) {
+        long threadId = Thread.currentThread().getId();
+        Binding binding = slots.get(slot(threadId));
+        if (binding != null && binding.threadId == threadId && binding.isOpen()) {
+            binding.route = route;
+        }
+    }
+
+    /**
+     * The current thread's open binding, or {@code null} if it has none.
+     */
+    public static Binding currentBinding() {
+        long threadId = Thread.currentThread().getId();
+        Binding binding = slots.get(slot(threadId));
+        return binding != null && binding.threadId == threadId && binding.isOpen() ? binding : null;
+    }
+
+    /**
+     * The route of the current thread's binding, or {@code null} if unbound.
+     */
+    public static String routeOfCurrentThread() {
+        long threadId = Thread.currentThread().getId();
+        Binding binding = slots.get(slot(threadId));
+        return binding != null && binding.threadId == threadId ? binding.route : null;
+    }
+
+    /**
+     * Close the current thread's binding. It stays available for lookups of
+     * events that happened while it was open, until the slot is reused.
+     */
+    public static void unbindCurrentThread() {
+        long threadId = Thread.currentThread().getId();
+        int slot = slot(threadId);
+        Binding binding = slots.get(slot);
+        if (binding != null && binding.threadId == threadId) {
+            slots.lazySet(slot, new Binding(threadId, binding.traceId, binding.route, binding.startMillis,
+                    System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * The traceId last bound to {@code threadId}, or {@code null} if unknown.
+     */
+    public static String lookup(long threadId) {
+        Binding binding = slots.get(slot(threadId));
+        return binding != null && binding.threadId == threadId ? binding.traceId : null;
+    }
+
+    /**
+     * The traceId bound to {@code threadId} at {@code epochMillis}, or
+     * {@code null} if the thread was not bound at that time.
+     */
+    public static String lookup(long threadId, long epochMillis) {
+        Binding binding = slots.get(slot(threadId));
+        if (binding == null || binding.threadId != threadId
+                || epochMillis < binding.startMillis || epochMillis > binding.endMillis) {
+            return null;
+        }
+        return binding.traceId;
+    }
+
+    /**
+     * Add every currently open binding to {@code into}. Walks the whole
+     * table without locking, so the result is a best-effort snapshot.
+     */
+    public static void collectOpen(List<Binding> into) {
+        for (int i = 0; i < SIZE; i++) {
+            Binding binding = slots.get(i);
+            if (binding != null && binding.isOpen()) {
+                into.add(binding);
+            }
+        }
+    }
+
+    /**
+     * Whether {@code binding} is still the open binding of its thread, i.e.
+     * the thread has not finished or moved on to other work since it was
+     * collected.
+     */
+    public static boolean isCurrent(Binding binding) {
+        return binding.isOpen() && slots.get(slot(binding.threadId)) == binding;
+    }
+
+    private static int slot(long threadId) {
+        return (int) (threadId ^ (threadId >>> 32)) & MASK;
+    }
+
+    /**
+     * A thread's association with a trace and route.
+     */
+    public static final class Binding {
+        private final long threadId;
+        private final String traceId;
+        private final long startMillis;
+        private final long endMillis;
+        private volatile String route;
+
+        private Binding(long threadId, String traceId, String route, long startMillis, long endMillis) {
+            this.threadId = threadId;
+            this.traceId = traceId;
+            this.route = route;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        public long getThreadId() {
+            return threadId;
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public boolean isOpen() {
+            return endMillis == OPEN;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package io.github.arun0009.observability.core;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+/**
+ * Codec between the W3C {@code baggage} header and the
+ * {@link PropagationField}s, using each field's MDC key as the baggage key.
+ * <p>
+ * Decoding is a single pass over the header without regular expressions or
+ * splitting: members are scanned in place, keys are compared against the
+ * field keys without being copied, and only the values of known fields are
+ * materialized (percent-decoded when needed). Entry properties
+ * ({@code ;...}) are ignored. Members beyond {@code max-entries}, or ending
+ * past {@code max-bytes} of the header, are not read; the same limits bound
+ * what is encoded.
+ */
+public final class W3CBaggage {
+
+    public static final String HEADER = "baggage";
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final int maxEntries;
+    private final int maxBytes;
+
+    public W3CBaggage(int maxEntries, int maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Hand each propagation field found in {@code header} to
+     * {@code consumer}, in header order.
+     */
+    public void decode(String header, BiConsumer<PropagationField, String> consumer) {
+        if (header == null) {
+            return;
+        }
+        int length = header.length();
+        int start = 0;
+        int entries = 0;
+        while (start < length && entries < maxEntries) {
+            int end = header.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > maxBytes) {
+                return;
+            }
+            int keyStart = skipWhitespace(header, start, end);
+            int equals = header.indexOf('=', keyStart);
+            if (equals > keyStart && equals < end) {
+                entries++;
+                int keyEnd = trimWhitespace(header, keyStart, equals);
+                PropagationField field = field(header, keyStart, keyEnd);
+                if (field != null) {
+                    int valueStart = skipWhitespace(header, equals + 1, end);
+                    int valueEnd = header.indexOf(';', valueStart);
+                    valueEnd = trimWhitespace(header, valueStart, valueEnd >= 0 && valueEnd < end ? valueEnd : end);
+                    if (valueEnd > valueStart) {
+                        consumer.accept(field, percentDecode(header, valueStart, valueEnd));
+                    }
+                }
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * The propagation fields in the current thread's MDC as a
+     * {@code baggage} header value, or {@code null} when there are none.
+     */
+    public String encodeCurrent() {
+        StringBuilder header = null;
+        int entries = 0;
+        for (PropagationField field : PropagationField.FIELDS) {
+            String value = field.currentValue();
+            if (value == null || entries >= maxEntries) {
+                continue;
+            }
+            if (header == null) {
+                header = new StringBuilder(64);
+            }
+            int mark = header.length();
+            if (mark > 0) {
+                header.append(',');
+            }
+            header.append(field.mdcKey()).append('=');
+            percentEncode(value, header);
+            if (header.length() > maxBytes) {
+                header.setLength(mark);
+                continue;
+            }
+            entries++;
+        }
+        return header != null && header.length() > 0 ? header.toString() : null;
+    }
+
+    private static PropagationField field(String header, int start, int end) {
+        int length = end - start;
+        for (PropagationField field : PropagationField.FIELDS) {
+            String key = field.mdcKey();
+            if (key.length() == length && header.regionMatches(start, key, 0, length)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static int skipWhitespace(String s, int from, int to) {
+        while (from < to && isWhitespace(s.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimWhitespace(String s, int from, int to) {
+        while (to > from && isWhitespace(s.charAt(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static String percentDecode(String s, int from, int to) {
+        int percent = s.indexOf('%', from);
+        if (percent < 0 || percent >= to) {
+            return s.substring(from, to);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(to - from);
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int high = c == '%' && i + 2 < to ? Character.digit(s.charAt(i + 1), 16) : -1;
+            int low = high >= 0 ? Character.digit(s.charAt(i + 2), 16) : -1;
+            if (low >= 0) {
+                bytes.write((high << 4) | low);
+                i += 2;
+            } else {
+                // Malformed escapes are kept as they are
+                bytes.write(c);
+            }
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Percent-encode everything outside the W3C {@code baggage-octet} range,
+     * as UTF-8.
+     */
+    private static void percentEncode(String value, StringBuilder out) {
+        int i = 0;
+        while (i < value.length()) {
+            int codePoint = value.codePointAt(i);
+            int next = i + Character.charCount(codePoint);
+            if (codePoint < 0x80 && isBaggageOctet((char) codePoint)) {
+                out.append((char) codePoint);
+            } else {
+                for (byte b : value.substring(i, next).getBytes(StandardCharsets.UTF_8)) {
+                    out.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                }
+            }
+            i = next;
+        }
+    }
+
+    private static boolean isBaggageOctet(char c) {
+        return c >= 0x21 && c <= 0x7E && c != '"' && c != ',' && c != ';' && c != '\\' && c != '%';
+    }
+}
@@ -0,0 +1,364 @@
+package io.github.arun0009.observability.dependency;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Live health of this service's downstream dependencies (HTTP hosts and
+ * Kafka topics), fed by the starter's outbound interceptors.
+ * <p>
+ * Each {@link Dependency} keeps an in-flight count and a sliding window of
+ * {@value #SLOTS} time slots. Every slot holds a call count, an error count
+ * and a log-linear latency histogram (four sub-buckets per power of two, so
+ * quantiles are within about 12%). Recording is lock-free: a few atomic
+ * increments, plus a reset when a slot is reused for a new interval. A call
+ * that races with that reset may be lost, which a health overview can
+ * tolerate.
+ * <p>
+ * Dependencies live in a fixed-size open-addressing table that is never
+ * resized. Names beyond {@code max-dependencies} are aggregated as
+ * {@code other} for their kind.
+ * <p>
+ * Each dependency exports a fixed set of gauges, tagged {@code kind} and
+ * {@code dependency}: {@code dependency.in.flight},
+ * {@code dependency.calls.rate} (per second over the window),
+ * {@code dependency.error.ratio} and {@code dependency.latency} with
+ * {@code quantile} {@code 0.5} and {@code 0.99}.
+ */
+public class DependencyMatrix {
+
+    public static final String HTTP = "http";
+    public static final String KAFKA = "kafka";
+
+    static final String OTHER = "other";
+    static final int SLOTS = 6;
+
+    // Buckets cover 0us to ~18 minutes; slower calls land in the last one
+    private static final int SUB_BUCKETS = 4;
+    private static final int MAX_EXPONENT = 30;
+    private static final int BUCKETS = (MAX_EXPONENT - 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private static final long SNAPSHOT_TTL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicReferenceArray<Dependency> table;
+    private final int mask;
+    private final int maxDependencies;
+    private final AtomicInteger size = new AtomicInteger();
+    private final long slotNanos;
+    private final MeterRegistry registry;
+
+    public DependencyMatrix(ObservabilityProperties.Dependencies config, MeterRegistry registry) {
+        this.maxDependencies = Math.max(1, config.getMaxDependencies());
+        // Twice the limit plus room for the per-kind "other" entries keeps
+        // probe chains short and guarantees a free slot
+        int capacity = Integer.highestOneBit(maxDependencies * 2 + 8 - 1) << 1;
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.slotNanos = Math.max(1, config.getWindow().toNanos() / SLOTS);
+        this.registry = registry;
+    }
+
+    /**
+     * The entry for an HTTP host.
+     */
+    public Dependency http(String host) {
+        return dependency(HTTP, host != null ? host : "unknown");
+    }
+
+    /**
+     * The entry for a Kafka topic.
+     */
+    public Dependency kafka(String topic) {
+        return dependency(KAFKA, topic != null ? topic : "unknown");
+    }
+
+    public Dependency dependency(String kind, String name) {
+        return lookup(kind, name, false);
+    }
+
+    private Dependency lookup(String kind, String name, boolean force) {
+        int index = mix(31 * kind.hashCode() + name.hashCode()) & mask;
+        for (int probe = 0; probe <= mask; probe++, index = (index + 1) & mask) {
+            Dependency existing = table.get(index);
+            if (existing == null) {
+                if (!force && size.get() >= maxDependencies) {
+                    return lookup(kind, OTHER, true);
+                }
+                Dependency created = new Dependency(kind, name);
+                if (table.compareAndSet(index, null, created)) {
+                    size.incrementAndGet();
+                    created.registerGauges();
+                    return created;
+                }
+                existing = table.get(index);
+            }
+            if (existing.kind.equals(kind) && existing.name.equals(name)) {
+                return existing;
+            }
+        }
+        // Unreachable with the table sized above
+        throw new IllegalStateException("Dependency table full");
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+
+    /**
+     * Point-in-time view of all dependencies.
+     */
+    public List<Snapshot> snapshot() {
+        List<Snapshot> result = new ArrayList<>();
+        for (int i = 0; i < table.length(); i++) {
+            Dependency dependency = table.get(i);
+            if (dependency != null) {
+                result.add(dependency.snapshot());
+            }
+        }
+        return result;
+    }
+
+    public long windowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slotNanos * SLOTS);
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return (exponent - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Midpoint of a bucket, in microseconds.
+     */
+    static double bucketMidpoint(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 1;
+        long width = 1L << (exponent - 2);
+        long lower = (SUB_BUCKETS + bucket % SUB_BUCKETS) * width;
+        return lower + width / 2.0;
+    }
+
+    /**
+     * One downstream dependency.
+     */
+    public final class Dependency {
+        private final String kind;
+        private final String name;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Slot[] slots = new Slot[SLOTS];
+        private volatile Snapshot cached;
+
+        private Dependency(String kind, String name) {
+            this.kind = kind;
+            this.name = name;
+            for (int i = 0; i < SLOTS; i++) {
+                slots[i] = new Slot();
+            }
+        }
+
+        /**
+         * Mark a call as started; pass the result to {@link #end}.
+         */
+        public long begin() {
+            inFlight.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        public void end(long startNanos, boolean failed) {
+            inFlight.decrementAndGet();
+            record(System.nanoTime() - startNanos, failed);
+        }
+
+        /**
+         * Mark a call started with {@link #begin} as finished, with a
+         * duration the caller measured itself ({@code -1} when unknown).
+         */
+        public void finish(long elapsedNanos, boolean failed) {
+            inFlight.decrementAndGet();
+            record(elapsedNanos, failed);
+        }
+
+        /**
+         * Record a call that was not started with {@link #begin}.
+         * {@code nanos} is ignored when negative.
+         */
+        public void record(long nanos, boolean failed) {
+            long epoch = Math.floorDiv(System.nanoTime(), slotNanos);
+            Slot slot = slots[(int) Math.floorMod(epoch, (long) SLOTS)];
+            long seen = slot.epoch.get();
+            if (seen < epoch && slot.epoch.compareAndSet(seen, epoch)) {
+                slot.reset();
+            }
+            slot.calls.incrementAndGet();
+            if (failed) {
+                slot.errors.incrementAndGet();
+            }
+            if (nanos >= 0) {
+                slot.latency.incrementAndGet(bucket(nanos / 1000));
+            }
+        }
+
+        Snapshot snapshot() {
+            long now = System.nanoTime();
+            Snapshot snapshot = cached;
+            if (snapshot != null && now - snapshot.takenNanos < SNAPSHOT_TTL_NANOS) {
+                return snapshot;
+            }
+            long epoch = Math.floorDiv(now, slotNanos);
+            long[] histogram = new long[BUCKETS];
+            long calls = 0;
+            long errors = 0;
+            for (Slot slot : slots) {
+                long slotEpoch = slot.epoch.get();
+                if (slotEpoch > epoch - SLOTS && slotEpoch <= epoch) {
+                    calls += slot.calls.get();
+                    errors += slot.errors.get();
+                    for (int i = 0; i < BUCKETS; i++) {
+                        histogram[i] += slot.latency.get(i);
+                    }
+                }
+            }
+            snapshot = new Snapshot(kind, name, inFlight.get(), calls, errors, histogram,
+                    slotNanos * SLOTS, now);
+            cached = snapshot;
+            return snapshot;
+        }
+
+        private void registerGauges() {
+            gauge("dependency.in.flight", "Calls to the dependency in flight", d -> d.inFlight.get());
+            gauge("dependency.calls.rate", "Calls per second over the window", d -> d.snapshot().callsPerSecond());
+            gauge("dependency.error.ratio", "Share of failed calls over the window",
+                    d -> d.snapshot().errorRatio());
+            Gauge.builder("dependency.latency", this, d -> d.snapshot().quantileMillis(0.5) / 1000)
+                    .tags("kind", kind, "dependency", name, "quantile", "0.5")
+                    .baseUnit("seconds")
+                    .description("Call latency over the window")
+                    .register(registry);
+            Gauge.builder("dependency.latency", this, d -> d.snapshot().quantileMillis(0.99) / 1000)
+                    .tags("kind", kind, "dependency", name, "quantile", "0.99")
+                    .baseUnit("seconds")
+                    .description("Call latency over the window")
+                    .register(registry);
+        }
+
+        private void gauge(String meter, String description, ToDoubleFunction<Dependency> value) {
+            Gauge.builder(meter, this, value)
+                    .tags("kind", kind, "dependency", name)
+                    .description(description)
+                    .register(registry);
+        }
+    }
+
+    private static final class Slot {
+        final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLongArray latency = new AtomicLongArray(BUCKETS);
+
+        void reset() {
+            calls.set(0);
+            errors.set(0);
+            for (int i = 0; i < BUCKETS; i++) {
+                latency.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * A dependency's state over the current window.
+     */
+    public static final class Snapshot {
+        private final String kind;
+        private final String name;
+        private final int inFlight;
+        private final long calls;
+        private final long errors;
+        private final long[] histogram;
+        private final long windowNanos;
+        private final long takenNanos;
+
+        Snapshot(String kind, String name, int inFlight, long calls, long errors, long[] histogram,
+                long windowNanos, long takenNanos) {
+            this.kind = kind;
+            this.name = name;
+            this.inFlight = inFlight;
+            this.calls = calls;
+            this.errors = errors;
+            this.histogram = histogram;
+            this.windowNanos = windowNanos;
+            this.takenNanos = takenNanos;
+        }
+
+        public String kind() {
+            return kind;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public int inFlight() {
+            return inFlight;
+        }
+
+        public long calls() {
+            return calls;
+        }
+
+        public long errors() {
+            return errors;
+        }
+
+        public double errorRatio() {
+            return calls == 0 ? 0 : (double) errors / calls;
+        }
+
+        public double callsPerSecond() {
+            return calls / (windowNanos / 1e9);
+        }
+
+        /**
+         * Estimated latency quantile in milliseconds, {@code 0} without
+         * timed calls.
+         */
+        public double quantileMillis(double quantile) {
+            long total = 0;
+            for (long count : histogram) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank) {
+                    return bucketMidpoint(i) / 1000;
+                }
+            }
+            return bucketMidpoint(histogram.length - 1) / 1000;
+        }
+    }
+}
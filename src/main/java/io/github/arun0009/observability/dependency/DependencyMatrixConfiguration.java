@@ -0,0 +1,33 @@
+package io.github.arun0009.observability.dependency;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link DependencyMatrix} fed by the outbound interceptors and
+ * its actuator endpoint.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "observability.dependencies", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DependencyMatrixConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DependencyMatrix dependencyMatrix(ObservabilityProperties properties, MeterRegistry meterRegistry) {
+        return new DependencyMatrix(properties.getDependencies(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(DependencyMatrix.class)
+    @ConditionalOnAvailableEndpoint(endpoint = DependencyMatrixEndpoint.class)
+    public DependencyMatrixEndpoint dependencyMatrixEndpoint(DependencyMatrix matrix) {
+        return new DependencyMatrixEndpoint(matrix);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.arun0009.observability.dependency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/dependencies}) showing the
+ * {@link DependencyMatrix}: one row per downstream dependency, slowest
+ * p99 first.
+ *
+ * <pre>
+ * GET /actuator/dependencies
+ * {"windowMillis": 60000, "dependencies": [
+ *   {"kind": "http", "name": "payments", "inFlight": 3, "calls": 1200, "callsPerSecond": 20.0,
+ *    "errorRatio": 0.01, "p50Millis": 12.3, "p99Millis": 180.2}, ...]}
+ * </pre>
+ */
+@Endpoint(id = "dependencies")
+public class DependencyMatrixEndpoint {
+
+    private final DependencyMatrix matrix;
+
+    public DependencyMatrixEndpoint(DependencyMatrix matrix) {
+        this.matrix = matrix;
+    }
+
+    @ReadOperation
+    public Map<String, Object> matrix() {
+        List<DependencyMatrix.Snapshot> snapshots = matrix.snapshot();
+        snapshots.sort(Comparator.comparingDouble((DependencyMatrix.Snapshot s) -> s.quantileMillis(0.99))
+                .reversed());
+        List<Map<String, Object>> rows = new ArrayList<>(snapshots.size());
+        for (DependencyMatrix.Snapshot snapshot : snapshots) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("kind", snapshot.kind());
+            row.put("name", snapshot.name());
+            row.put("inFlight", snapshot.inFlight());
+            row.put("calls", snapshot.calls());
+            row.put("callsPerSecond", snapshot.callsPerSecond());
+            row.put("errorRatio", snapshot.errorRatio());
+            row.put("p50Millis", snapshot.quantileMillis(0.5));
+            row.put("p99Millis", snapshot.quantileMillis(0.99));
+            rows.add(row);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("windowMillis", matrix.windowMillis());
+        result.put("dependencies", rows);
+        return result;
+    }
+}
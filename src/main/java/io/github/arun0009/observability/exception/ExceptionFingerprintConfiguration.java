@@ -0,0 +1,34 @@
+package io.github.arun0009.observability.exception;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link ExceptionFingerprints} used by the exception handler
+ * and its actuator endpoint.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "observability.exception-handler", name = "fingerprints-enabled", havingValue = "true", matchIfMissing = true)
+public class ExceptionFingerprintConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ExceptionFingerprints exceptionFingerprints(ObservabilityProperties properties,
+            MeterRegistry meterRegistry) {
+        return new ExceptionFingerprints(properties.getExceptionHandler(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ExceptionFingerprints.class)
+    @ConditionalOnAvailableEndpoint(endpoint = ExceptionFingerprintsEndpoint.class)
+    public ExceptionFingerprintsEndpoint exceptionFingerprintsEndpoint(ExceptionFingerprints fingerprints) {
+        return new ExceptionFingerprintsEndpoint(fingerprints);
+    }
+}
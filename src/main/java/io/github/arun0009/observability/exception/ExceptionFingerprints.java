@@ -0,0 +1,203 @@
+package io.github.arun0009.observability.exception;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.LogRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Groups exceptions by fingerprint: the exception type plus its top
+ * {@code fingerprint-frames} stack frames, hashed without building strings.
+ * The same bug thrown from the same place gets the same fingerprint,
+ * whatever its message.
+ * <p>
+ * Each fingerprint is described once, when first seen, and then only
+ * counted. It carries a {@link LogRateLimiter} so callers can log the first
+ * {@code log-permits} occurrences per {@code log-interval} in full and
+ * summarize the rest. The table is bounded by {@code max-fingerprints}; later
+ * fingerprints are counted under a single {@code other} entry.
+ * <p>
+ * Metrics: {@code exceptions.fingerprint} (counter) by {@code exception}
+ * (simple class name) and {@code fingerprint}.
+ */
+public class ExceptionFingerprints {
+
+    static final String OTHER = "other";
+
+    private final MeterRegistry registry;
+    private final int maxFingerprints;
+    private final int frames;
+    private final int logPermits;
+    private final Duration logInterval;
+    private final long windowNanos;
+    private final Map<Long, Fingerprint> table = new ConcurrentHashMap<>();
+    private final Fingerprint other;
+
+    public ExceptionFingerprints(ObservabilityProperties.ExceptionHandler config, MeterRegistry registry) {
+        this.registry = registry;
+        this.maxFingerprints = Math.max(1, config.getMaxFingerprints());
+        this.frames = Math.max(1, config.getFingerprintFrames());
+        this.logPermits = config.getLogPermits();
+        this.logInterval = config.getLogInterval();
+        this.windowNanos = Math.max(1, logInterval.toNanos());
+        this.other = new Fingerprint(OTHER, OTHER, Collections.emptyList());
+    }
+
+    /**
+     * Count {@code error} under its fingerprint.
+     */
+    public Fingerprint record(Throwable error) {
+        StackTraceElement[] stack = error.getStackTrace();
+        long hash = hash(error.getClass(), stack, frames);
+        Fingerprint fingerprint = table.get(hash);
+        if (fingerprint == null) {
+            fingerprint = table.size() >= maxFingerprints
+                    ? other
+                    : table.computeIfAbsent(hash, h -> new Fingerprint(Long.toHexString(h),
+                            error.getClass().getName(), describe(stack, frames)));
+        }
+        fingerprint.occurred(System.nanoTime());
+        return fingerprint;
+    }
+
+    static long hash(Class<?> type, StackTraceElement[] stack, int frames) {
+        long h = type.getName().hashCode();
+        for (int i = 0; i < Math.min(frames, stack.length); i++) {
+            StackTraceElement frame = stack[i];
+            h = h * 31 + frame.getClassName().hashCode();
+            h = h * 31 + frame.getMethodName().hashCode();
+            h = h * 31 + frame.getLineNumber();
+        }
+        // Spread the bits so the hex ids of similar stacks differ
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static List<String> describe(StackTraceElement[] stack, int frames) {
+        List<String> top = new ArrayList<>(Math.min(frames, stack.length));
+        for (int i = 0; i < Math.min(frames, stack.length); i++) {
+            StackTraceElement frame = stack[i];
+            top.add(frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber());
+        }
+        return Collections.unmodifiableList(top);
+    }
+
+    /**
+     * All fingerprints, including {@code other} once it has been used.
+     */
+    public List<Fingerprint> fingerprints() {
+        List<Fingerprint> result = new ArrayList<>(table.values());
+        if (other.total() > 0) {
+            result.add(other);
+        }
+        return result;
+    }
+
+    public Duration logInterval() {
+        return logInterval;
+    }
+
+    /**
+     * One kind of exception, from one place.
+     */
+    public final class Fingerprint {
+        private final String id;
+        private final String type;
+        private final List<String> frames;
+        private final Counter counter;
+        private final LogRateLimiter logLimiter;
+        private final LongAdder total = new LongAdder();
+        private final LongAdder current = new LongAdder();
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicLong firstSeen = new AtomicLong();
+        private volatile long previous;
+        private volatile long lastSeen;
+
+        private Fingerprint(String id, String type, List<String> frames) {
+            this.id = id;
+            this.type = type;
+            this.frames = frames;
+            this.counter = Counter.builder("exceptions.fingerprint")
+                    .tag("exception", type.substring(type.lastIndexOf('.') + 1))
+                    .tag("fingerprint", id)
+                    .description("Unhandled exceptions by fingerprint")
+                    .register(registry);
+            this.logLimiter = new LogRateLimiter(logPermits, logInterval);
+        }
+
+        void occurred(long now) {
+            long start = windowStart.get();
+            if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+                // A window with no occurrences in between reads as zero
+                long count = current.sumThenReset();
+                previous = now - start < 2 * windowNanos ? count : 0;
+            }
+            current.increment();
+            total.increment();
+            counter.increment();
+            long millis = System.currentTimeMillis();
+            if (firstSeen.get() == 0) {
+                firstSeen.compareAndSet(0, millis);
+            }
+            lastSeen = millis;
+        }
+
+        /**
+         * Whether this occurrence should be logged in full; see
+         * {@link LogRateLimiter#tryAcquire}.
+         */
+        public long tryLog() {
+            return logLimiter.tryAcquire();
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public String type() {
+            return type;
+        }
+
+        public List<String> frames() {
+            return frames;
+        }
+
+        public long total() {
+            return total.sum();
+        }
+
+        /**
+         * Occurrences in the current and previous {@code log-interval}.
+         */
+        public long recent() {
+            return recent(System.nanoTime());
+        }
+
+        long recent(long now) {
+            long age = now - windowStart.get();
+            if (age >= 2 * windowNanos) {
+                return 0;
+            }
+            return age >= windowNanos ? current.sum() : current.sum() + previous;
+        }
+
+        public long firstSeen() {
+            return firstSeen.get();
+        }
+
+        public long lastSeen() {
+            return lastSeen;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.arun0009.observability.exception;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/exceptions}) listing the hottest
+ * {@link ExceptionFingerprints}: most occurrences over the last two
+ * {@code log-interval}s first, then most overall. Messages are left out, as
+ * they may carry user data.
+ *
+ * <pre>
+ * GET /actuator/exceptions?limit=10
+ * {"intervalMillis": 60000, "fingerprints": [
+ *   {"fingerprint": "9f3c2a1b7d4e5f60", "exception": "java.lang.IllegalStateException",
+ *    "frames": ["com.example.OrderService.place:42", ...], "recent": 812, "total": 4051,
+ *    "firstSeen": "2024-05-01T10:00:00Z", "lastSeen": "2024-05-01T10:41:12Z"}, ...]}
+ * </pre>
+ */
+@Endpoint(id = "exceptions")
+public class ExceptionFingerprintsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final ExceptionFingerprints fingerprints;
+
+    public ExceptionFingerprintsEndpoint(ExceptionFingerprints fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hottest(@Nullable Integer limit) {
+        List<ExceptionFingerprints.Fingerprint> all = fingerprints.fingerprints();
+        long[][] counts = new long[all.size()][];
+        List<Integer> order = new ArrayList<>(all.size());
+        for (int i = 0; i < all.size(); i++) {
+            // Read once, so the sort sees stable values
+            counts[i] = new long[] { all.get(i).recent(), all.get(i).total() };
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong((Integer i) -> counts[i][0])
+                .thenComparingLong(i -> counts[i][1])
+                .reversed());
+        int max = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        List<Map<String, Object>> rows = new ArrayList<>(Math.min(max, order.size()));
+        for (int i : order.subList(0, Math.min(max, order.size()))) {
+            ExceptionFingerprints.Fingerprint fingerprint = all.get(i);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("fingerprint", fingerprint.id());
+            row.put("exception", fingerprint.type());
+            row.put("frames", fingerprint.frames());
+            row.put("recent", counts[i][0]);
+            row.put("total", counts[i][1]);
+            row.put("firstSeen", Instant.ofEpochMilli(fingerprint.firstSeen()).toString());
+            row.put("lastSeen", Instant.ofEpochMilli(fingerprint.lastSeen()).toString());
+            rows.add(row);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("intervalMillis", fingerprints.logInterval().toMillis());
+        result.put("fingerprints", rows);
+        return result;
+    }
+}
@@ -1,6 +1,9 @@
 package io.github.arun0009.observability.exception;
 
 import io.github.arun0009.observability.core.MdcKeys;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import org.slf4j.Logger;
@@ -23,26 +26,89 @@ import java.net.URI;
  * <li>The span in your tracing backend is marked as failed</li>
  * <li>The client receives a standard RFC 7807 Problem Detail response</li>
  * </ul>
+ * Given {@link ExceptionFingerprints}, each exception is also counted under
+ * its fingerprint, and only the first few occurrences of a fingerprint per
+ * interval are logged with their stack trace; the rest get one line with the
+ * fingerprint, so the request can still be found by its id. The span
+ * exception event then carries a stack trace truncated to
+ * {@code span-stack-frames} frames, instead of the full trace for every
+ * failed request.
  */
 @RestControllerAdvice
 public class ObservabilityExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(ObservabilityExceptionHandler.class);
 
+    private static final AttributeKey<String> EXCEPTION_TYPE = AttributeKey.stringKey("exception.type");
+    private static final AttributeKey<String> EXCEPTION_MESSAGE = AttributeKey.stringKey("exception.message");
+    private static final AttributeKey<String> EXCEPTION_STACKTRACE = AttributeKey.stringKey("exception.stacktrace");
+    private static final AttributeKey<String> EXCEPTION_FINGERPRINT = AttributeKey.stringKey("exception.fingerprint");
+
+    // Causes listed under a truncated span stack trace
+    private static final int MAX_CAUSES = 5;
+
+    private final ExceptionFingerprints fingerprints;
+    private final int spanStackFrames;
+
+    public ObservabilityExceptionHandler() {
+        this(null, 0);
+    }
+
+    public ObservabilityExceptionHandler(ExceptionFingerprints fingerprints, int spanStackFrames) {
+        this.fingerprints = fingerprints;
+        this.spanStackFrames = spanStackFrames;
+    }
+
     @ExceptionHandler(Exception.class)
     public ProblemDetail handleException(Exception ex) {
+        ExceptionFingerprints.Fingerprint fingerprint = fingerprints != null ? fingerprints.record(ex) : null;
+
         // 1. Enrich the current span
         Span span = Span.current();
         span.setStatus(StatusCode.ERROR, ex.getMessage());
-        span.recordException(ex);
+        if (fingerprint == null) {
+            span.recordException(ex);
+        } else if (span.isRecording()) {
+            AttributesBuilder attributes = Attributes.builder()
+                    .put(EXCEPTION_TYPE, ex.getClass().getName())
+                    .put(EXCEPTION_STACKTRACE, truncatedStackTrace(ex, spanStackFrames))
+                    .put(EXCEPTION_FINGERPRINT, fingerprint.id());
+            if (ex.getMessage() != null) {
+                attributes.put(EXCEPTION_MESSAGE, ex.getMessage());
+            }
+            span.addEvent("exception", attributes.build());
+        }
 
         // 2. Log with full MDC context (traceId, userId, requestId are already in MDC)
-        log.error("Unhandled exception [user={}, request={}, correlation={}]: {}",
-                MDC.get(MdcKeys.USER_ID),
-                MDC.get(MdcKeys.REQUEST_ID),
-                MDC.get(MdcKeys.CORRELATION_ID),
-                ex.getMessage(),
-                ex);
+        long stackless = fingerprint != null ? fingerprint.tryLog() : 0;
+        if (fingerprint == null) {
+            log.error("Unhandled exception [user={}, request={}, correlation={}]: {}",
+                    MDC.get(MdcKeys.USER_ID),
+                    MDC.get(MdcKeys.REQUEST_ID),
+                    MDC.get(MdcKeys.CORRELATION_ID),
+                    ex.getMessage(),
+                    ex);
+        } else if (stackless >= 0) {
+            log.error("Unhandled exception [fingerprint={}, user={}, request={}, correlation={}, "
+                    + "withoutStackSinceLast={}]: {}",
+                    fingerprint.id(),
+                    MDC.get(MdcKeys.USER_ID),
+                    MDC.get(MdcKeys.REQUEST_ID),
+                    MDC.get(MdcKeys.CORRELATION_ID),
+                    stackless,
+                    ex.getMessage(),
+                    ex);
+        } else {
+            log.error("Unhandled exception [fingerprint={}, user={}, request={}, correlation={}]: {}: {} "
+                    + "(stack trace rate-limited, occurrences={})",
+                    fingerprint.id(),
+                    MDC.get(MdcKeys.USER_ID),
+                    MDC.get(MdcKeys.REQUEST_ID),
+                    MDC.get(MdcKeys.CORRELATION_ID),
+                    ex.getClass().getName(),
+                    ex.getMessage(),
+                    fingerprint.total());
+        }
 
         // 3. Return RFC 7807 Problem Detail (no internal details leaked)
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(
@@ -56,4 +122,28 @@ public class ObservabilityExceptionHandler {
 
         return problem;
     }
+
+    /**
+     * The stack trace as {@link Throwable#printStackTrace} formats it, cut to
+     * the top {@code maxFrames} frames, with only the type and message of
+     * each cause.
+     */
+    static String truncatedStackTrace(Throwable error, int maxFrames) {
+        StringBuilder out = new StringBuilder(256).append(error);
+        StackTraceElement[] stack = error.getStackTrace();
+        int shown = Math.min(maxFrames, stack.length);
+        for (int i = 0; i < shown; i++) {
+            out.append("\n\tat ").append(stack[i]);
+        }
+        if (shown < stack.length) {
+            out.append("\n\t... ").append(stack.length - shown).append(" more");
+        }
+        Throwable cause = error.getCause();
+        for (int i = 0; cause != null && cause != error && i < MAX_CAUSES; i++) {
+            out.append("\nCaused by: ").append(cause);
+            error = cause;
+            cause = cause.getCause();
+        }
+        return out.toString();
+    }
 }
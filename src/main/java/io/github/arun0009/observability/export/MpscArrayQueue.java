@@ -0,0 +1,83 @@
+package io.github.arun0009.observability.export;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers claim a slot with one CAS on the producer index and then publish
+ * the element into it; the consumer reads slots in order and frees them. A
+ * claimed slot whose element is not yet visible is waited for by the consumer
+ * only, so producers never block each other for longer than a failed CAS.
+ * {@link #offer(Object)} returns {@code false} instead of waiting when the
+ * queue is full.
+ */
+final class MpscArrayQueue<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    MpscArrayQueue(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.capacity = size;
+    }
+
+    /**
+     * Add {@code e} unless the queue is full. Safe to call from any thread.
+     */
+    boolean offer(E e) {
+        while (true) {
+            long producer = producerIndex.get();
+            if (producer - consumerIndex.get() >= capacity) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(producer, producer + 1)) {
+                buffer.lazySet((int) producer & mask, e);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Remove up to {@code limit} elements in order and hand them to
+     * {@code sink}. Must only be called by the consumer thread.
+     *
+     * @return the number of elements drained
+     */
+    int drain(Consumer<E> sink, int limit) {
+        long consumer = consumerIndex.get();
+        int drained = 0;
+        while (drained < limit) {
+            int slot = (int) consumer & mask;
+            E e = buffer.get(slot);
+            if (e == null) {
+                if (consumer == producerIndex.get()) {
+                    break;
+                }
+                // Claimed by a producer that has not published yet
+                Thread.onSpinWait();
+                continue;
+            }
+            buffer.lazySet(slot, null);
+            consumerIndex.lazySet(++consumer);
+            sink.accept(e);
+            drained++;
+        }
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
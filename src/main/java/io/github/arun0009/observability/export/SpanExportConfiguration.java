@@ -0,0 +1,59 @@
+package io.github.arun0009.observability.export;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.guardrails.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.exporter.SpanExportingPredicate;
+import io.micrometer.tracing.exporter.SpanFilter;
+import io.micrometer.tracing.exporter.SpanReporter;
+import io.micrometer.tracing.otel.bridge.CompositeSpanExporter;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanExporters;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link SpanExportPipeline} and decides which span processors
+ * the tracer provider gets.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ SpanProcessors.class, CompositeSpanExporter.class })
+public class SpanExportConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "observability.export", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SpanExportPipeline spanExportPipeline(ObservabilityProperties properties, SpanExporters spanExporters,
+            ObjectProvider<SpanExportingPredicate> spanExportingPredicates, ObjectProvider<SpanReporter> spanReporters,
+            ObjectProvider<SpanFilter> spanFilters, MeterRegistry meterRegistry) {
+        // Same exporter chain Boot builds for its BatchSpanProcessor
+        CompositeSpanExporter exporter = new CompositeSpanExporter(spanExporters.list(),
+                spanExportingPredicates.orderedStream().toList(), spanReporters.orderedStream().toList(),
+                spanFilters.orderedStream().toList());
+        return new SpanExportPipeline(properties.getExport(), exporter, meterRegistry);
+    }
+
+    /**
+     * Boot's {@link BatchSpanProcessor} is left out when the pipeline replaces
+     * it, or when tail sampling is enabled (it would export head-sampled spans
+     * before the tail decision). With tail sampling the pipeline is fed by the
+     * tail stage rather than by the tracer provider.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SpanProcessors spanProcessors(ObjectProvider<SpanProcessor> spanProcessors,
+            ObjectProvider<SpanExportPipeline> pipeline, ObjectProvider<TailSamplingSpanProcessor> tailSampling) {
+        boolean tail = tailSampling.getIfAvailable() != null;
+        boolean replaceBatch = tail || pipeline.getIfAvailable() != null;
+        return SpanProcessors.of(spanProcessors.orderedStream()
+                .filter(processor -> !(replaceBatch && processor instanceof BatchSpanProcessor))
+                .filter(processor -> !(tail && processor instanceof SpanExportPipeline))
+                .toList());
+    }
+}
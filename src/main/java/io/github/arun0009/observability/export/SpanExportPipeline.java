@@ -0,0 +1,387 @@
+package io.github.arun0009.observability.export;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Span processor that batches finished spans onto a bounded lock-free queue
+ * and exports them from one worker thread, in place of the SDK's
+ * {@code BatchSpanProcessor}.
+ * <p>
+ * Ending a span costs one CAS on an {@link MpscArrayQueue}; when the queue is
+ * full the span is dropped and counted rather than blocking the request. The
+ * worker exports a batch as soon as {@code batch-size} spans are waiting
+ * (producers wake it only when crossing that mark) or every
+ * {@code flush-interval}, converting spans to {@link SpanData} off the request
+ * path. Up to {@code concurrency} exports may be in flight; when all are busy
+ * the worker waits and the queue absorbs the backlog, so a slow collector
+ * shows up as queue depth and then as drops.
+ * <p>
+ * Spans already decided elsewhere (e.g. by
+ * {@link io.github.arun0009.observability.guardrails.TailSamplingSpanProcessor})
+ * enter through {@link #asExporter()}.
+ * <p>
+ * The worker starts before and stops after the web server (and message
+ * listener containers), so spans of requests finishing during graceful
+ * shutdown are still exported. Spans ending after {@link #stop()} are
+ * exported from the thread ending them.
+ * <p>
+ * Metrics: {@code tracing.export.queue.size} and
+ * {@code tracing.export.queue.capacity}, {@code tracing.export.spans.exported},
+ * {@code tracing.export.spans.dropped} by {@code reason} (queue-full,
+ * export-failed), {@code tracing.export.duration} by {@code outcome} and
+ * {@code tracing.export.batch.size}.
+ */
+public class SpanExportPipeline implements SpanProcessor, SmartLifecycle {
+
+    /**
+     * Below the web server's graceful shutdown and start/stop phases.
+     */
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private static final Logger log = LoggerFactory.getLogger(SpanExportPipeline.class);
+
+    private final SpanExporter exporter;
+    private final MpscArrayQueue<Object> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int concurrency;
+    private final long exportTimeoutMillis;
+    private final Semaphore inFlight;
+    private final AtomicBoolean exportRequested = new AtomicBoolean();
+    private final Queue<CompletableResultCode> flushRequests = new ConcurrentLinkedQueue<>();
+
+    private final Counter exported;
+    private final Counter droppedQueueFull;
+    private final Counter droppedExportFailed;
+    private final Timer exportSuccess;
+    private final Timer exportFailure;
+    private final DistributionSummary batchSizes;
+
+    private volatile Thread worker;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public SpanExportPipeline(ObservabilityProperties.Export config, SpanExporter exporter, MeterRegistry registry) {
+        this.exporter = exporter;
+        this.queue = new MpscArrayQueue<>(config.getQueueCapacity());
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.flushIntervalNanos = config.getFlushInterval().toNanos();
+        this.concurrency = Math.max(1, config.getConcurrency());
+        this.exportTimeoutMillis = config.getExportTimeout().toMillis();
+        this.inFlight = new Semaphore(concurrency);
+
+        Gauge.builder("tracing.export.queue.size", queue, MpscArrayQueue::size)
+                .description("Spans waiting to be exported")
+                .register(registry);
+        Gauge.builder("tracing.export.queue.capacity", queue, MpscArrayQueue::capacity)
+                .description("Capacity of the span export queue")
+                .register(registry);
+        this.exported = Counter.builder("tracing.export.spans.exported")
+                .description("Spans handed to the exporter successfully")
+                .register(registry);
+        this.droppedQueueFull = dropped(registry, "queue-full");
+        this.droppedExportFailed = dropped(registry, "export-failed");
+        this.exportSuccess = duration(registry, "success");
+        this.exportFailure = duration(registry, "failure");
+        this.batchSizes = DistributionSummary.builder("tracing.export.batch.size")
+                .description("Spans per export call")
+                .register(registry);
+    }
+
+    private static Counter dropped(MeterRegistry registry, String reason) {
+        return Counter.builder("tracing.export.spans.dropped")
+                .tag("reason", reason)
+                .description("Spans that were never exported")
+                .register(registry);
+    }
+
+    private static Timer duration(MeterRegistry registry, String outcome) {
+        return Timer.builder("tracing.export.duration")
+                .tag("outcome", outcome)
+                .description("Time taken by one export call")
+                .register(registry);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (span.getSpanContext().isSampled()) {
+            enqueue(span);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /**
+     * An exporter that enqueues onto this pipeline, for processors that make
+     * their own export decisions. Its {@code export} never blocks.
+     */
+    public SpanExporter asExporter() {
+        return new QueueingExporter();
+    }
+
+    private void enqueue(Object span) {
+        if (!queue.offer(span)) {
+            droppedQueueFull.increment();
+            return;
+        }
+        if (stopped) {
+            // No worker left to drain the queue
+            drainIfIdle();
+            return;
+        }
+        if (queue.size() >= batchSize && !exportRequested.get() && exportRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        stopped = false;
+        Thread t = new Thread(this::run, "obs-span-export");
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    /**
+     * Stops the worker after it has exported everything queued so far.
+     */
+    @Override
+    public synchronized void stop() {
+        Thread t = worker;
+        if (!running || t == null) {
+            return;
+        }
+        stopped = true;
+        running = false;
+        LockSupport.unpark(t);
+        try {
+            t.join(exportTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Spans queued while the worker was finishing
+        drainIfIdle();
+    }
+
+    /**
+     * Export whatever is queued from the calling thread, unless the worker
+     * is (still) the queue's consumer.
+     */
+    private synchronized boolean drainIfIdle() {
+        Thread t = worker;
+        if (running || (t != null && t.isAlive())) {
+            return false;
+        }
+        exportQueued(new ArrayList<>(batchSize), false);
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        Thread t = worker;
+        if (running && t != null) {
+            CompletableResultCode result = new CompletableResultCode();
+            flushRequests.add(result);
+            LockSupport.unpark(t);
+            if (!running) {
+                // Stopped before the worker saw the request
+                completeFlushRequests(Integer.MAX_VALUE);
+            }
+            return result;
+        }
+        // Not started yet, or stopped: the queue is drained by the caller
+        if (t != null) {
+            try {
+                t.join(exportTimeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drainIfIdle();
+        return awaitInFlight() ? CompletableResultCode.ofSuccess() : CompletableResultCode.ofFailure();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        // The exporters are shared beans and are shut down by their owner
+        stop();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private void run() {
+        List<SpanData> batch = new ArrayList<>(batchSize);
+        long nextFlush = System.nanoTime() + flushIntervalNanos;
+        while (running) {
+            exportRequested.set(false);
+            long now = System.nanoTime();
+            // Requests arriving after this point wait for the next round
+            int flushes = flushRequests.size();
+            if (flushes > 0 || queue.size() >= batchSize || now - nextFlush >= 0) {
+                exportQueued(batch, flushes == 0);
+                nextFlush = System.nanoTime() + flushIntervalNanos;
+                if (flushes > 0) {
+                    completeFlushRequests(flushes);
+                }
+            } else {
+                LockSupport.parkNanos(this, nextFlush - now);
+            }
+        }
+        // Final drain on stop
+        exportQueued(batch, false);
+        completeFlushRequests(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Export queued spans in batches: only full batches when
+     * {@code fullBatchesOnly} (a partial remainder waits for the next flush),
+     * otherwise everything currently queued.
+     */
+    private void exportQueued(List<SpanData> batch, boolean fullBatchesOnly) {
+        boolean first = true;
+        while (first || (fullBatchesOnly ? queue.size() >= batchSize : queue.size() > 0)) {
+            first = false;
+            batch.clear();
+            if (queue.drain(span -> batch.add(toSpanData(span)), batchSize) == 0) {
+                return;
+            }
+            export(new ArrayList<>(batch));
+        }
+    }
+
+    private void export(List<SpanData> spans) {
+        try {
+            if (!inFlight.tryAcquire(exportTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                droppedExportFailed.increment(spans.size());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedExportFailed.increment(spans.size());
+            return;
+        }
+        long start = System.nanoTime();
+        CompletableResultCode result;
+        try {
+            result = exporter.export(spans);
+        } catch (RuntimeException e) {
+            log.debug("Span export failed", e);
+            result = CompletableResultCode.ofFailure();
+        }
+        CompletableResultCode outcome = result;
+        outcome.whenComplete(() -> {
+            long elapsed = System.nanoTime() - start;
+            batchSizes.record(spans.size());
+            if (outcome.isSuccess()) {
+                exportSuccess.record(elapsed, TimeUnit.NANOSECONDS);
+                exported.increment(spans.size());
+            } else {
+                exportFailure.record(elapsed, TimeUnit.NANOSECONDS);
+                droppedExportFailed.increment(spans.size());
+            }
+            // Last, so a flush waiting on in-flight exports sees the metrics
+            inFlight.release();
+        });
+    }
+
+    private void completeFlushRequests(int count) {
+        boolean drained = awaitInFlight();
+        CompletableResultCode request;
+        for (int i = 0; i < count && (request = flushRequests.poll()) != null; i++) {
+            if (drained) {
+                request.succeed();
+            } else {
+                request.fail();
+            }
+        }
+    }
+
+    private boolean awaitInFlight() {
+        try {
+            if (inFlight.tryAcquire(concurrency, exportTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                inFlight.release(concurrency);
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private static SpanData toSpanData(Object span) {
+        return span instanceof ReadableSpan ? ((ReadableSpan) span).toSpanData() : (SpanData) span;
+    }
+
+    private final class QueueingExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            for (SpanData span : spans) {
+                enqueue(span);
+            }
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return forceFlush();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package io.github.arun0009.observability.guardrails;
 
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.export.SpanExportPipeline;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.semconv.ResourceAttributes;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import io.opentelemetry.sdk.trace.samplers.Sampler;
@@ -13,12 +22,63 @@ import io.opentelemetry.sdk.trace.samplers.Sampler;
 @ConditionalOnClass({ Sampler.class, Resource.class })
 public class ObservabilityGuardrailsConfiguration {
 
+    private static final Logger log = LoggerFactory.getLogger(ObservabilityGuardrailsConfiguration.class);
+
     @Bean
-    public Sampler defaultSampler(@Value("${observability.sampling.probability:1.0}") double probability) {
-        // Enforce ParentBased(TraceIdRatioBased) sampler
+    public Sampler defaultSampler(@Value("${observability.sampling.probability:1.0}") double probability,
+            ObjectProvider<RateLimitingSampler> rateLimitingSampler, ObservabilityProperties properties) {
+        // Enforce a ParentBased sampler
         // This ensures if a parent trace exists, it is respected.
-        // If it's a new trace, it samples based on probability.
-        return Sampler.parentBased(Sampler.traceIdRatioBased(probability));
+        // If it's a new trace, it samples against the traces-per-second budget
+        // when rate limiting is enabled, otherwise based on probability.
+        RateLimitingSampler rateLimited = rateLimitingSampler.getIfAvailable();
+        if (rateLimited != null && !properties.getSampling().getTail().isEnabled()) {
+            // The head decision is made before a span can fail
+            log.warn("observability.sampling.rate-limit is enabled without observability.sampling.tail: "
+                    + "error traces over the traces-per-second budget are dropped like any other. "
+                    + "Set observability.sampling.tail.enabled=true to keep them.");
+        }
+        Sampler sampler = rateLimited != null
+                ? Sampler.parentBased(rateLimited)
+                : Sampler.parentBased(Sampler.traceIdRatioBased(probability));
+        // With tail sampling the head decision becomes the baseline, and
+        // unsampled spans are recorded for the tail stage to rescue; the
+        // flight recorder wants them too
+        ObservabilityProperties.FlightRecorder recorder = properties.getFlightRecorder();
+        boolean recordAll = properties.getSampling().getTail().isEnabled()
+                || (recorder.isEnabled() && recorder.isRecordUnsampled());
+        return recordAll ? new RecordingSampler(sampler) : sampler;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "observability.sampling.rate-limit", name = "enabled", havingValue = "true")
+    public RateLimitingSampler rateLimitingSampler(ObservabilityProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimitingSampler(properties.getSampling().getRateLimit(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = "observability.sampling.rate-limit", name = "enabled", havingValue = "true")
+    public SamplingRouteFilter samplingRouteFilter() {
+        return new SamplingRouteFilter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "observability.sampling.tail", name = "enabled", havingValue = "true")
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(ObservabilityProperties properties,
+            ObjectProvider<SpanExportPipeline> pipeline, ObjectProvider<SpanExporter> spanExporters,
+            MeterRegistry meterRegistry) {
+        // Kept traces go through the export pipeline when there is one;
+        // otherwise through a private one, as exporting from the thread that
+        // ends the root span would block requests on the exporter
+        SpanExportPipeline exportPipeline = pipeline.getIfAvailable();
+        if (exportPipeline != null) {
+            return new TailSamplingSpanProcessor(properties.getSampling().getTail(), exportPipeline.asExporter(),
+                    meterRegistry);
+        }
+        SpanExportPipeline owned = new SpanExportPipeline(properties.getExport(),
+                SpanExporter.composite(spanExporters.orderedStream().toList()), meterRegistry);
+        return new TailSamplingSpanProcessor(properties.getSampling().getTail(), owned, meterRegistry);
     }
 
     // Resource Attributes are usually handled by Spring Boot's
@@ -0,0 +1,263 @@
+package io.github.arun0009.observability.guardrails;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Root-span sampler that holds trace volume to a {@code traces-per-second}
+ * budget while giving every route a fair share of it.
+ * <p>
+ * Each root span is attributed to a route (from {@link SamplingRouteFilter}
+ * for HTTP requests, otherwise the span name) in a table bounded by
+ * {@code max-routes}; routes beyond that share one {@code other} entry. Once
+ * per {@code adjust-interval} the arrival rate of every route is measured and
+ * the budget is split max-min fairly: quiet routes get all their traces,
+ * busy routes split what is left, and each route's sampling probability is
+ * set to its share divided by its rate. The decision itself is a random
+ * draw against that probability plus one CAS on a global GCRA token bucket
+ * that caps bursts from busy routes between adjustments; there are no locks
+ * on the hot path.
+ * <p>
+ * Routes matching {@code critical-routes} (by prefix of the path or of the
+ * whole route) are always sampled and not counted against the budget.
+ * Whether a request fails is only known when its spans end; keeping those
+ * traces is the job of {@link TailSamplingSpanProcessor}.
+ * <p>
+ * Intended to be wrapped in {@link Sampler#parentBased(Sampler)} so child
+ * spans follow their root.
+ */
+public class RateLimitingSampler implements Sampler {
+
+    static final String OTHER = "other";
+
+    private static final int IDLE_INTERVALS_BEFORE_EVICTION = 60;
+
+    private final double budget;
+    private final int maxRoutes;
+    private final List<String> criticalRoutes;
+    private final long adjustIntervalNanos;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    private final Map<String, RouteState> routes = new ConcurrentHashMap<>();
+    private final RouteState overflow;
+    private final AtomicLong theoreticalArrival;
+    private final AtomicLong nextAdjust;
+
+    private final Counter sampledCounter;
+    private final Counter criticalCounter;
+    private final Counter droppedCounter;
+    private final Counter limitedCounter;
+
+    private long lastAdjust;
+    private volatile double effectiveProbability = 1.0;
+
+    public RateLimitingSampler(ObservabilityProperties.Sampling.RateLimit config, MeterRegistry registry) {
+        this.budget = config.getTracesPerSecond();
+        this.maxRoutes = config.getMaxRoutes();
+        this.criticalRoutes = new ArrayList<>(config.getCriticalRoutes());
+        this.adjustIntervalNanos = config.getAdjustInterval().toNanos();
+        this.emissionIntervalNanos = (long) (1_000_000_000L / Math.max(budget, 0.001));
+        // Allow up to one second worth of budget in a burst
+        this.burstToleranceNanos = 1_000_000_000L;
+        this.overflow = new RouteState(OTHER, false);
+        long now = System.nanoTime();
+        this.lastAdjust = now;
+        this.theoreticalArrival = new AtomicLong(now);
+        this.nextAdjust = new AtomicLong(now + adjustIntervalNanos);
+
+        this.sampledCounter = decisions(registry, "sampled");
+        this.criticalCounter = decisions(registry, "critical");
+        this.droppedCounter = decisions(registry, "dropped");
+        this.limitedCounter = decisions(registry, "rate-limited");
+        Gauge.builder("tracing.sampler.effective.probability", this, s -> s.effectiveProbability)
+                .description("Share of root spans sampled in the last adjustment interval")
+                .register(registry);
+        Gauge.builder("tracing.sampler.routes", routes, Map::size)
+                .description("Routes tracked by the rate-limiting sampler")
+                .register(registry);
+    }
+
+    private static Counter decisions(MeterRegistry registry, String decision) {
+        return Counter.builder("tracing.sampler.decisions")
+                .tag("decision", decision)
+                .description("Root span sampling decisions")
+                .register(registry);
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+            Attributes attributes, List<LinkData> parentLinks) {
+        long now = System.nanoTime();
+        long adjustAt = nextAdjust.get();
+        if (now - adjustAt >= 0 && nextAdjust.compareAndSet(adjustAt, now + adjustIntervalNanos)) {
+            adjust(now);
+        }
+
+        String route = SamplingRouteFilter.currentRoute();
+        RouteState state = state(route != null ? route : name);
+        state.seen.increment();
+        if (state.critical) {
+            state.sampled.increment();
+            criticalCounter.increment();
+            return SamplingResult.recordAndSample();
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= state.probability) {
+            droppedCounter.increment();
+            return SamplingResult.drop();
+        }
+        // Routes whose whole rate fits in their fair share are not held back
+        // by bursts from busier routes
+        if (!tryAcquire(now) && !state.fullyServed) {
+            limitedCounter.increment();
+            return SamplingResult.drop();
+        }
+        state.sampled.increment();
+        sampledCounter.increment();
+        return SamplingResult.recordAndSample();
+    }
+
+    @Override
+    public String getDescription() {
+        return "RateLimitingSampler{tracesPerSecond=" + budget + ", maxRoutes=" + maxRoutes + "}";
+    }
+
+    /**
+     * Current sampling probability of {@code route}, for diagnostics.
+     */
+    public double probability(String route) {
+        RouteState state = routes.get(route);
+        return state != null ? state.probability : 1.0;
+    }
+
+    private RouteState state(String route) {
+        RouteState state = routes.get(route);
+        if (state != null) {
+            return state;
+        }
+        if (routes.size() >= maxRoutes) {
+            return overflow;
+        }
+        return routes.computeIfAbsent(route, r -> new RouteState(r, isCritical(r)));
+    }
+
+    private boolean isCritical(String route) {
+        int space = route.indexOf(' ');
+        String path = space >= 0 ? route.substring(space + 1) : route;
+        for (String critical : criticalRoutes) {
+            if (route.startsWith(critical) || path.startsWith(critical)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generic cell rate algorithm: one CAS on the theoretical arrival time of
+     * the next trace.
+     */
+    private boolean tryAcquire(long now) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = (tat - now < 0 ? now : tat) + emissionIntervalNanos;
+            if (next - now > burstToleranceNanos + emissionIntervalNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Recompute per-route probabilities from the arrival rates of the last
+     * interval. Runs on whichever sampling thread wins the CAS on
+     * {@code nextAdjust}; synchronized only to publish the bookkeeping
+     * fields to the next winner.
+     */
+    synchronized void adjust(long now) {
+        double seconds = Math.max(now - lastAdjust, 1) / 1e9;
+        lastAdjust = now;
+
+        List<RouteState> active = new ArrayList<>();
+        long seenTotal = 0;
+        long sampledTotal = 0;
+        Iterator<RouteState> it = routes.values().iterator();
+        while (it.hasNext()) {
+            RouteState state = it.next();
+            long seen = state.seen.sumThenReset();
+            sampledTotal += state.sampled.sumThenReset();
+            seenTotal += seen;
+            state.rate = seen / seconds;
+            if (seen == 0) {
+                if (++state.idleIntervals >= IDLE_INTERVALS_BEFORE_EVICTION) {
+                    it.remove();
+                }
+            } else {
+                state.idleIntervals = 0;
+                if (!state.critical) {
+                    active.add(state);
+                }
+            }
+        }
+        long overflowSeen = overflow.seen.sumThenReset();
+        sampledTotal += overflow.sampled.sumThenReset();
+        seenTotal += overflowSeen;
+        overflow.rate = overflowSeen / seconds;
+        if (overflowSeen > 0) {
+            active.add(overflow);
+        }
+
+        // Max-min fair share: serve the quietest routes fully, split the rest
+        active.sort((a, b) -> Double.compare(a.rate, b.rate));
+        double remaining = budget;
+        for (int i = 0; i < active.size(); i++) {
+            RouteState state = active.get(i);
+            double share = remaining / (active.size() - i);
+            double allocation = Math.min(state.rate, share);
+            remaining -= allocation;
+            state.probability = state.rate > 0 ? Math.min(1.0, allocation / state.rate) : 1.0;
+            state.fullyServed = allocation >= state.rate;
+        }
+        effectiveProbability = seenTotal > 0 ? (double) sampledTotal / seenTotal : 1.0;
+    }
+
+    private static final class RouteState {
+        private final String route;
+        private final boolean critical;
+        private final LongAdder seen = new LongAdder();
+        private final LongAdder sampled = new LongAdder();
+        private volatile double probability = 1.0;
+        private volatile boolean fullyServed;
+        // Only touched by the adjusting thread
+        private double rate;
+        private int idleIntervals;
+
+        RouteState(String route, boolean critical) {
+            this.route = route;
+            this.critical = critical;
+        }
+
+        @Override
+        public String toString() {
+            return route + "{p=" + probability + ", rate=" + rate + "}";
+        }
+    }
+}
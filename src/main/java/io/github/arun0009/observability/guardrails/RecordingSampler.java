@@ -0,0 +1,42 @@
+package io.github.arun0009.observability.guardrails;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Head sampler that keeps the delegate's decision for what is sampled (and
+ * propagated as sampled downstream), but records the spans it would have
+ * dropped. Used when a span processor needs to see every span: tail sampling
+ * (so {@link TailSamplingSpanProcessor} can still keep a trace that fails or
+ * is slow) and the trace flight recorder.
+ */
+class RecordingSampler implements Sampler {
+
+    private static final SamplingResult RECORD_ONLY = SamplingResult.recordOnly();
+
+    private final Sampler delegate;
+
+    RecordingSampler(Sampler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+            Attributes attributes, List<LinkData> parentLinks) {
+        SamplingResult result = delegate.shouldSample(parentContext, traceId, name, spanKind, attributes,
+                parentLinks);
+        return result.getDecision() == SamplingDecision.DROP ? RECORD_ONLY : result;
+    }
+
+    @Override
+    public String getDescription() {
+        return "RecordingSampler{" + delegate.getDescription() + "}";
+    }
+}
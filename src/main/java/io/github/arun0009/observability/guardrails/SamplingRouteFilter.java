@@ -0,0 +1,96 @@
+package io.github.arun0009.observability.guardrails;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.io.IOException;
+
+/**
+ * Exposes an approximate route for the request to the
+ * {@link RateLimitingSampler}.
+ * <p>
+ * The server span is started by the observation filter before the handler
+ * mapping has resolved the route template, and span attributes are only
+ * added when it ends. This filter therefore runs first and publishes
+ * {@code METHOD /normalized/path} in a thread local, where path segments
+ * that look like identifiers (numbers, UUIDs, long hex strings) are replaced
+ * by {@code {id}}.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SamplingRouteFilter implements Filter {
+
+    private static final ThreadLocal<String> ROUTE = new ThreadLocal<>();
+
+    /**
+     * The route of the request being served on this thread, or {@code null}.
+     */
+    public static String currentRoute() {
+        return ROUTE.get();
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        ROUTE.set(httpRequest.getMethod() + " " + normalize(httpRequest.getRequestURI()));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ROUTE.remove();
+        }
+    }
+
+    static String normalize(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        StringBuilder sb = new StringBuilder(path.length());
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isIdentifier(path, start, end)) {
+                sb.append("{id}");
+            } else {
+                sb.append(path, start, end);
+            }
+            if (end < path.length()) {
+                sb.append('/');
+            }
+            start = end + 1;
+        }
+        return sb.toString();
+    }
+
+    private static boolean isIdentifier(String path, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return false;
+        }
+        boolean digits = true;
+        boolean hex = true;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                digits = false;
+                if (!(c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F' || c == '-')) {
+                    hex = false;
+                    break;
+                }
+            }
+        }
+        return digits || (hex && length >= 16);
+    }
+}
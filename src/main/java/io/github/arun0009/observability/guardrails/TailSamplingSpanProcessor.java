@@ -0,0 +1,371 @@
+package io.github.arun0009.observability.guardrails;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.export.SpanExportPipeline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Span processor that holds the finished spans of each trace until its local
+ * root ends, then decides whether to export the whole trace.
+ * <p>
+ * A trace is kept when any of its spans has an error status (as set by
+ * {@link io.github.arun0009.observability.exception.ObservabilityExceptionHandler}
+ * or a failed observation) or a server-error outcome, when its local root took
+ * longer than {@code latency-threshold}, or when the head sampler sampled it.
+ * The head decision is therefore the baseline: with tail sampling enabled the
+ * head sampler records unsampled traces instead of dropping them (see
+ * {@link RecordingSampler}), and this processor exports only what it keeps.
+ * Spans that end after their root are exported or discarded according to the
+ * decision already made.
+ * <p>
+ * Memory is bounded by {@code max-traces}, {@code max-spans} (across all
+ * traces) and {@code max-spans-per-trace}; spans beyond those limits are not
+ * buffered but still count towards the error decision. Traces whose root has
+ * not ended after {@code max-trace-age} are evicted by a background sweep and
+ * exported only if they contain an error.
+ * <p>
+ * Kept traces are handed to an exporter that must not block the thread
+ * ending the root span. Given a {@link SpanExportPipeline} of its own (when
+ * the shared pipeline is disabled), the processor starts, stops, flushes and
+ * shuts it down with itself.
+ * <p>
+ * Metrics: {@code tracing.tail.traces} by {@code decision} (error, slow,
+ * sampled, dropped, evicted), {@code tracing.tail.spans.dropped} (spans not
+ * buffered because a limit was reached), and the gauges
+ * {@code tracing.tail.buffered.traces} and {@code tracing.tail.buffered.spans}.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TailSamplingSpanProcessor.class);
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final String SERVER_ERROR = "SERVER_ERROR";
+
+    private final SpanExporter exporter;
+    private final SpanExportPipeline pipeline;
+    private final long latencyThresholdNanos;
+    private final int maxTraces;
+    private final int maxSpans;
+    private final int maxSpansPerTrace;
+    private final long maxTraceAgeNanos;
+
+    private final Map<String, TraceBuffer> buffers = new ConcurrentHashMap<>();
+    private final Map<String, Decision> decided = new ConcurrentHashMap<>();
+    private final AtomicInteger bufferedSpans = new AtomicInteger();
+
+    private final Counter keptError;
+    private final Counter keptSlow;
+    private final Counter keptSampled;
+    private final Counter droppedTraces;
+    private final Counter evictedTraces;
+    private final Counter droppedSpans;
+
+    private ScheduledExecutorService sweeper;
+
+    public TailSamplingSpanProcessor(ObservabilityProperties.Sampling.Tail config, SpanExporter exporter,
+            MeterRegistry registry) {
+        this(config, exporter, null, registry);
+    }
+
+    /**
+     * Exports kept traces through {@code pipeline}, which this processor
+     * owns.
+     */
+    public TailSamplingSpanProcessor(ObservabilityProperties.Sampling.Tail config, SpanExportPipeline pipeline,
+            MeterRegistry registry) {
+        this(config, pipeline.asExporter(), pipeline, registry);
+    }
+
+    private TailSamplingSpanProcessor(ObservabilityProperties.Sampling.Tail config, SpanExporter exporter,
+            SpanExportPipeline pipeline, MeterRegistry registry) {
+        this.exporter = exporter;
+        this.pipeline = pipeline;
+        this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+        this.maxTraces = config.getMaxTraces();
+        this.maxSpans = config.getMaxSpans();
+        this.maxSpansPerTrace = config.getMaxSpansPerTrace();
+        this.maxTraceAgeNanos = config.getMaxTraceAge().toNanos();
+
+        this.keptError = decisions(registry, "error");
+        this.keptSlow = decisions(registry, "slow");
+        this.keptSampled = decisions(registry, "sampled");
+        this.droppedTraces = decisions(registry, "dropped");
+        this.evictedTraces = decisions(registry, "evicted");
+        this.droppedSpans = Counter.builder("tracing.tail.spans.dropped")
+                .description("Spans not buffered because a tail sampling limit was reached")
+                .register(registry);
+        Gauge.builder("tracing.tail.buffered.traces", buffers, Map::size)
+                .description("Traces waiting for their local root to end")
+                .register(registry);
+        Gauge.builder("tracing.tail.buffered.spans", bufferedSpans, AtomicInteger::get)
+                .description("Finished spans held for a tail sampling decision")
+                .register(registry);
+    }
+
+    private static Counter decisions(MeterRegistry registry, String decision) {
+        return Counter.builder("tracing.tail.traces")
+                .tag("decision", decision)
+                .description("Tail sampling decisions")
+                .register(registry);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanData data = span.toSpanData();
+        String traceId = data.getTraceId();
+        boolean error = isError(data);
+        SpanContext parent = span.getParentSpanContext();
+        boolean localRoot = !parent.isValid() || parent.isRemote();
+
+        Decision decision = decided.get(traceId);
+        if (decision != null) {
+            // Late span of a trace that was already decided
+            if (decision.kept) {
+                export(List.of(data));
+            }
+            return;
+        }
+
+        TraceBuffer buffer = buffers.get(traceId);
+        if (buffer == null) {
+            if (localRoot) {
+                // Nothing else of this trace ended locally; decide on the root alone
+                decide(traceId, new TraceBuffer(), data, error);
+                return;
+            }
+            if (buffers.size() >= maxTraces) {
+                droppedSpans.increment();
+                return;
+            }
+            buffer = buffers.computeIfAbsent(traceId, id -> new TraceBuffer());
+        }
+        if (localRoot) {
+            buffers.remove(traceId, buffer);
+            decide(traceId, buffer, data, error);
+        } else if (!buffer.add(data, error)) {
+            // The root ended concurrently and closed the buffer
+            decision = decided.get(traceId);
+            if (decision != null && decision.kept) {
+                export(List.of(data));
+            }
+        }
+    }
+
+    private void decide(String traceId, TraceBuffer buffer, SpanData root, boolean rootError) {
+        List<SpanData> spans;
+        Counter outcome;
+        // Decide under the buffer's lock so a span rejected by the closed
+        // buffer always finds the decision
+        synchronized (buffer) {
+            spans = buffer.close();
+            if (rootError || buffer.error) {
+                outcome = keptError;
+            } else if (root.getEndEpochNanos() - root.getStartEpochNanos() >= latencyThresholdNanos) {
+                outcome = keptSlow;
+            } else if (root.getSpanContext().isSampled()) {
+                outcome = keptSampled;
+            } else {
+                outcome = droppedTraces;
+            }
+            remember(traceId, outcome != droppedTraces);
+        }
+        outcome.increment();
+        if (outcome != droppedTraces) {
+            List<SpanData> batch = new ArrayList<>(spans.size() + 1);
+            batch.addAll(spans);
+            batch.add(root);
+            export(batch);
+        }
+    }
+
+    private void remember(String traceId, boolean kept) {
+        if (decided.size() < maxTraces) {
+            decided.put(traceId, new Decision(kept, System.nanoTime()));
+        }
+    }
+
+    private static boolean isError(SpanData data) {
+        return data.getStatus().getStatusCode() == StatusCode.ERROR
+                || SERVER_ERROR.equals(data.getAttributes().get(OUTCOME));
+    }
+
+    private void export(List<SpanData> spans) {
+        try {
+            exporter.export(spans);
+        } catch (RuntimeException e) {
+            log.debug("Tail sampled span export failed", e);
+        }
+    }
+
+    /**
+     * Evict traces whose root has not ended within {@code max-trace-age}, and
+     * forget decisions older than that.
+     */
+    void sweep() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, TraceBuffer>> it = buffers.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, TraceBuffer> entry = it.next();
+            TraceBuffer buffer = entry.getValue();
+            if (now - buffer.createdNanos < maxTraceAgeNanos) {
+                continue;
+            }
+            it.remove();
+            List<SpanData> spans;
+            synchronized (buffer) {
+                spans = buffer.close();
+                remember(entry.getKey(), buffer.error);
+            }
+            evictedTraces.increment();
+            if (buffer.error && !spans.isEmpty()) {
+                export(spans);
+            }
+        }
+        decided.values().removeIf(decision -> now - decision.decidedNanos >= maxTraceAgeNanos);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+        if (pipeline != null) {
+            pipeline.start();
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "obs-tail-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(100, TimeUnit.NANOSECONDS.toMillis(maxTraceAgeNanos) / 10);
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.debug("Tail sampling sweep failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return sweeper != null;
+    }
+
+    /**
+     * An owned pipeline's phase, so that it still stops after the web server.
+     */
+    @Override
+    public int getPhase() {
+        return pipeline != null ? pipeline.getPhase() : SmartLifecycle.super.getPhase();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return pipeline != null ? pipeline.forceFlush() : exporter.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        stop();
+        return pipeline != null ? pipeline.shutdown() : CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Finished spans of one trace, written by whichever threads end them.
+     */
+    private final class TraceBuffer {
+        private final long createdNanos = System.nanoTime();
+        private final List<SpanData> spans = new ArrayList<>();
+        private volatile boolean error;
+        private boolean closed;
+
+        synchronized boolean add(SpanData span, boolean spanError) {
+            if (closed) {
+                return false;
+            }
+            if (spanError) {
+                error = true;
+            }
+            if (spans.size() >= maxSpansPerTrace || bufferedSpans.incrementAndGet() > maxSpans) {
+                if (spans.size() < maxSpansPerTrace) {
+                    bufferedSpans.decrementAndGet();
+                }
+                droppedSpans.increment();
+                return true;
+            }
+            spans.add(span);
+            return true;
+        }
+
+        /**
+         * Stop accepting spans and hand back what was buffered. Callers hold
+         * the buffer's lock while recording the decision.
+         */
+        synchronized List<SpanData> close() {
+            closed = true;
+            bufferedSpans.addAndGet(-spans.size());
+            return spans;
+        }
+    }
+
+    private static final class Decision {
+        private final boolean kept;
+        private final long decidedNanos;
+
+        Decision(boolean kept, long decidedNanos) {
+            this.kept = kept;
+            this.decidedNanos = decidedNanos;
+        }
+    }
+}
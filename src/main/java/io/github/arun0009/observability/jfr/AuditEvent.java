@@ -0,0 +1,56 @@
+package io.github.arun0009.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Instant JFR event for each record written by
+ * {@link io.github.arun0009.observability.audit.AuditLogger}.
+ */
+@Name(AuditEvent.NAME)
+@Label("Audit Write")
+@Category({ "Observability", "Audit" })
+@Description("An audit record written through AuditLogger")
+@StackTrace(false)
+public class AuditEvent extends Event {
+
+    public static final String NAME = "io.github.arun0009.observability.Audit";
+
+    @Label("Action")
+    String action;
+
+    @Label("Actor")
+    String actor;
+
+    @Label("Resource")
+    String resource;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Trace ID")
+    String traceId;
+
+    @Label("Request ID")
+    String requestId;
+
+    /**
+     * Fill in the record details and commit, if the event is enabled.
+     */
+    public void complete(String action, String actor, String resource, String outcome, String traceId,
+            String requestId) {
+        if (shouldCommit()) {
+            this.action = action;
+            this.actor = actor;
+            this.resource = resource;
+            this.outcome = outcome;
+            this.traceId = traceId;
+            this.requestId = requestId;
+            commit();
+        }
+    }
+}
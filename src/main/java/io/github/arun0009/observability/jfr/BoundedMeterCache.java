@@ -0,0 +1,36 @@
+package io.github.arun0009.observability.jfr;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caches one meter per tag value, up to a fixed number of distinct values.
+ * Further values share a single {@code "other"} meter so that class names,
+ * collector names or thread names seen in JFR events can be used as tags
+ * without unbounded cardinality.
+ * <p>
+ * Not thread-safe: intended to be used from the single JFR stream thread.
+ */
+class BoundedMeterCache<T> {
+
+    static final String OTHER = "other";
+
+    private final int maxValues;
+    private final Function<String, T> factory;
+    private final Map<String, T> meters = new HashMap<>();
+
+    BoundedMeterCache(int maxValues, Function<String, T> factory) {
+        this.maxValues = maxValues;
+        this.factory = factory;
+    }
+
+    T get(String tagValue) {
+        T meter = meters.get(tagValue);
+        if (meter != null) {
+            return meter;
+        }
+        String key = tagValue != null && meters.size() < maxValues ? tagValue : OTHER;
+        return meters.computeIfAbsent(key, factory);
+    }
+}
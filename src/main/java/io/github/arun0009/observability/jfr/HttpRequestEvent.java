@@ -0,0 +1,62 @@
+package io.github.arun0009.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one inbound HTTP request, committed by
+ * {@link io.github.arun0009.observability.core.MdcFilter}.
+ * <p>
+ * Usage pattern (costs one small allocation when nobody is recording):
+ *
+ * <pre>
+ * HttpRequestEvent event = new HttpRequestEvent();
+ * event.begin();
+ * ...
+ * event.complete(method, route, status, traceId, requestId);
+ * </pre>
+ */
+@Name(HttpRequestEvent.NAME)
+@Label("HTTP Request")
+@Category({ "Observability", "HTTP" })
+@Description("An inbound HTTP request served by the application")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    public static final String NAME = "io.github.arun0009.observability.HttpRequest";
+
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    String route;
+
+    @Label("Status")
+    int status;
+
+    @Label("Trace ID")
+    String traceId;
+
+    @Label("Request ID")
+    String requestId;
+
+    /**
+     * Fill in the request details and commit, if the event is enabled and
+     * over its threshold.
+     */
+    public void complete(String method, String route, int status, String traceId, String requestId) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.route = route;
+            this.status = status;
+            this.traceId = traceId;
+            this.requestId = requestId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.arun0009.observability.jfr;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.LogRateLimiter;
+import io.github.arun0009.observability.core.ThreadTraceIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-process {@link RecordingStream} that turns runtime JFR events into
+ * Micrometer metrics, so latency spikes can be lined up with what the JVM
+ * was doing at the time.
+ * <p>
+ * Event set (each switchable under {@code observability.jfr}):
+ * <ul>
+ * <li>{@code gc} — {@code jvm.jfr.gc.pause} per collector</li>
+ * <li>{@code allocation} — {@code jvm.jfr.allocation} bytes per thread pool,
+ * from throttled {@code jdk.ObjectAllocationSample} events</li>
+ * <li>{@code contention} — {@code jvm.jfr.monitor.contention} per monitor
+ * class for {@code JavaMonitorEnter} over {@code contention-threshold}, plus a
+ * rate-limited log carrying the traceId of the blocked request</li>
+ * <li>{@code safepoints} — {@code jvm.jfr.safepoint} and
+ * {@code jvm.jfr.safepoint.sync} (time to reach the safepoint)</li>
+ * <li>{@code thread-park} — {@code jvm.jfr.thread.park} per parked-on class
+ * over {@code park-threshold}</li>
+ * </ul>
+ * Overhead is bounded by thresholds, allocation throttling, stack traces only
+ * on contention events, a capped number of tag values per metric and a small
+ * stream buffer. The bridge can be started and stopped at runtime through
+ * the {@code jfr} actuator endpoint.
+ */
+public class JfrEventBridge implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrEventBridge.class);
+
+    static final String GC = "jdk.GarbageCollection";
+    static final String ALLOCATION = "jdk.ObjectAllocationSample";
+    static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    static final String SAFEPOINT = "jdk.SafepointBegin";
+    static final String SAFEPOINT_SYNC = "jdk.SafepointStateSynchronization";
+    static final String THREAD_PARK = "jdk.ThreadPark";
+
+    private static final Duration MAX_AGE = Duration.ofSeconds(30);
+    private static final long MAX_SIZE_BYTES = 16L * 1024 * 1024;
+
+    private final ObservabilityProperties.Jfr config;
+    private final LogRateLimiter contentionLogLimiter;
+
+    private final BoundedMeterCache<Timer> gcPauses;
+    private final BoundedMeterCache<Counter> allocations;
+    private final BoundedMeterCache<Timer> contention;
+    private final BoundedMeterCache<Timer> parks;
+    private final MeterRegistry registry;
+
+    private RecordingStream stream;
+
+    public JfrEventBridge(ObservabilityProperties.Jfr config, MeterRegistry registry) {
+        this.config = config;
+        this.registry = registry;
+        this.contentionLogLimiter = new LogRateLimiter(1, config.getLogInterval());
+        int maxTags = config.getMaxTagValues();
+        this.gcPauses = new BoundedMeterCache<>(maxTags, collector -> Timer.builder("jvm.jfr.gc.pause")
+                .tag("collector", collector)
+                .description("GC pause time reported by JFR")
+                .register(registry));
+        this.allocations = new BoundedMeterCache<>(maxTags, pool -> Counter.builder("jvm.jfr.allocation")
+                .tag("thread.pool", pool)
+                .baseUnit("bytes")
+                .description("Sampled heap allocation attributed to thread pools")
+                .register(registry));
+        this.contention = new BoundedMeterCache<>(maxTags, monitor -> Timer.builder("jvm.jfr.monitor.contention")
+                .tag("monitor.class", monitor)
+                .description("Time blocked entering contended monitors")
+                .register(registry));
+        this.parks = new BoundedMeterCache<>(maxTags, parked -> Timer.builder("jvm.jfr.thread.park")
+                .tag("parked.class", parked)
+                .description("Time threads spent parked")
+                .register(registry));
+    }
+
+    @Override
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        RecordingStream recording;
+        try {
+            recording = new RecordingStream();
+        } catch (RuntimeException e) {
+            log.warn("JFR event streaming unavailable, runtime metrics disabled: {}", e.getMessage());
+            return;
+        }
+        recording.setMaxAge(MAX_AGE);
+        recording.setMaxSize(MAX_SIZE_BYTES);
+        if (config.isGc()) {
+            recording.enable(GC).withoutStackTrace();
+            recording.onEvent(GC, this::onGc);
+        }
+        if (config.isAllocation()) {
+            recording.enable(ALLOCATION).with("throttle", config.getAllocationThrottle()).withoutStackTrace();
+            recording.onEvent(ALLOCATION, this::onAllocation);
+        }
+        if (config.isContention()) {
+            recording.enable(MONITOR_ENTER).withThreshold(config.getContentionThreshold()).withStackTrace();
+            recording.onEvent(MONITOR_ENTER, this::onMonitorEnter);
+        }
+        if (config.isSafepoints()) {
+            Timer safepoints = Timer.builder("jvm.jfr.safepoint")
+                    .description("Time the JVM spent at safepoints")
+                    .register(registry);
+            Timer safepointSync = Timer.builder("jvm.jfr.safepoint.sync")
+                    .description("Time taken to bring all threads to a safepoint")
+                    .register(registry);
+            recording.enable(SAFEPOINT).withoutStackTrace();
+            recording.enable(SAFEPOINT_SYNC).withoutStackTrace();
+            recording.onEvent(SAFEPOINT, event -> safepoints.record(event.getDuration()));
+            recording.onEvent(SAFEPOINT_SYNC, event -> safepointSync.record(event.getDuration()));
+        }
+        if (config.isThreadPark()) {
+            recording.enable(THREAD_PARK).withThreshold(config.getParkThreshold()).withoutStackTrace();
+            recording.onEvent(THREAD_PARK, this::onThreadPark);
+        }
+        recording.startAsync();
+        stream = recording;
+        log.info("JFR event bridge started: {}", enabledEvents());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+            log.info("JFR event bridge stopped");
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return config.isEnabled();
+    }
+
+    /**
+     * The JFR event types this bridge subscribes to with the current
+     * configuration.
+     */
+    public List<String> enabledEvents() {
+        List<String> events = new ArrayList<>();
+        if (config.isGc()) {
+            events.add(GC);
+        }
+        if (config.isAllocation()) {
+            events.add(ALLOCATION);
+        }
+        if (config.isContention()) {
+            events.add(MONITOR_ENTER);
+        }
+        if (config.isSafepoints()) {
+            events.add(SAFEPOINT);
+            events.add(SAFEPOINT_SYNC);
+        }
+        if (config.isThreadPark()) {
+            events.add(THREAD_PARK);
+        }
+        return Collections.unmodifiableList(events);
+    }
+
+    private void onGc(RecordedEvent event) {
+        gcPauses.get(event.getString("name")).record(event.getDuration("sumOfPauses"));
+    }
+
+    private void onAllocation(RecordedEvent event) {
+        allocations.get(threadPool(event.getThread())).increment(event.getLong("weight"));
+    }
+
+    private void onMonitorEnter(RecordedEvent event) {
+        Duration blocked = event.getDuration();
+        String monitorClass = className(event.getClass("monitorClass"));
+        contention.get(monitorClass).record(blocked);
+
+        long suppressed = contentionLogLimiter.tryAcquire();
+        if (suppressed < 0) {
+            return;
+        }
+        RecordedThread thread = event.getThread();
+        String traceId = thread != null
+                ? ThreadTraceIndex.lookup(thread.getJavaThreadId(), event.getStartTime().toEpochMilli())
+                : null;
+        log.warn("Monitor contention on {} blocked thread {} for {} ms [traceId={}, suppressed={}]\n{}",
+                monitorClass, thread != null ? thread.getJavaName() : "unknown", blocked.toMillis(),
+                traceId, suppressed, RecordedStacks.format(event.getStackTrace(), config.getStackDepth()));
+    }
+
+    private void onThreadPark(RecordedEvent event) {
+        parks.get(className(event.getClass("parkedClass"))).record(event.getDuration());
+    }
+
+    private static String className(RecordedClass recordedClass) {
+        return recordedClass != null ? recordedClass.getName() : "unknown";
+    }
+
+    /**
+     * Collapse a thread name to its pool by dropping the trailing counter,
+     * e.g. {@code http-nio-8080-exec-12} becomes {@code http-nio-8080-exec}.
+     */
+    static String threadPool(RecordedThread thread) {
+        String name = thread != null ? thread.getJavaName() : null;
+        if (name == null || name.isEmpty()) {
+            return thread != null && thread.getJavaThreadId() > 0 ? "virtual" : "unknown";
+        }
+        return threadPool(name);
+    }
+
+    static String threadPool(String name) {
+        int end = name.length();
+        while (end > 0) {
+            char c = name.charAt(end - 1);
+            if (Character.isDigit(c) || c == '-' || c == '_' || c == '#' || c == ' ') {
+                end--;
+            } else {
+                break;
+            }
+        }
+        return end > 0 ? name.substring(0, end) : name;
+    }
+}
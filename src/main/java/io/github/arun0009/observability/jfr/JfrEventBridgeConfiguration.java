@@ -0,0 +1,36 @@
+package io.github.arun0009.observability.jfr;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link JfrEventBridge} and its actuator endpoint.
+ * <p>
+ * The bridge bean always exists when the JDK ships JFR so it can be switched
+ * on at runtime; it only starts with the context when
+ * {@code observability.jfr.enabled=true}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "jdk.jfr.consumer.RecordingStream")
+public class JfrEventBridgeConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JfrEventBridge jfrEventBridge(ObservabilityProperties properties, MeterRegistry meterRegistry) {
+        return new JfrEventBridge(properties.getJfr(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(JfrEventBridge.class)
+    @ConditionalOnAvailableEndpoint(endpoint = JfrEventBridgeEndpoint.class)
+    public JfrEventBridgeEndpoint jfrEventBridgeEndpoint(JfrEventBridge bridge) {
+        return new JfrEventBridgeEndpoint(bridge);
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.arun0009.observability.jfr;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/jfr}) to inspect and switch the
+ * {@link JfrEventBridge} at runtime.
+ * <p>
+ * {@code POST /actuator/jfr} with {@code {"enabled": false}} stops the
+ * recording stream; {@code {"enabled": true}} starts it again.
+ */
+@Endpoint(id = "jfr")
+public class JfrEventBridgeEndpoint {
+
+    private final JfrEventBridge bridge;
+
+    public JfrEventBridgeEndpoint(JfrEventBridge bridge) {
+        this.bridge = bridge;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", bridge.isRunning());
+        status.put("events", bridge.enabledEvents());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> toggle(boolean enabled) {
+        if (enabled) {
+            bridge.start();
+        } else {
+            bridge.stop();
+        }
+        return status();
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.arun0009.observability.jfr;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native-image hints for the starter's custom JFR events: JFR reads their
+ * fields and the {@code @Name}/{@code @Label} annotations on them by
+ * reflection when the event type is registered. The events themselves are
+ * only recorded when the image is built with
+ * {@code --enable-monitoring=jfr}.
+ */
+public class JfrRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> event : new Class<?>[] { HttpRequestEvent.class, OutboundCallEvent.class,
+                ScheduledTaskEvent.class, AuditEvent.class }) {
+            hints.reflection().registerType(event, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.arun0009.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one outbound HTTP call made through a client instrumented
+ * by the propagation interceptors (RestTemplate, WebClient, OkHttp).
+ */
+@Name(OutboundCallEvent.NAME)
+@Label("Outbound Call")
+@Category({ "Observability", "HTTP" })
+@Description("An outgoing HTTP call to a downstream service")
+@StackTrace(false)
+public class OutboundCallEvent extends Event {
+
+    public static final String NAME = "io.github.arun0009.observability.OutboundCall";
+
+    @Label("Client")
+    String client;
+
+    @Label("Method")
+    String method;
+
+    @Label("Host")
+    String host;
+
+    @Label("Path")
+    String path;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 if the call failed without a response")
+    int status;
+
+    @Label("Error")
+    String error;
+
+    @Label("Trace ID")
+    String traceId;
+
+    @Label("Request ID")
+    String requestId;
+
+    /**
+     * Fill in the call details and commit, if the event is enabled and over
+     * its threshold.
+     *
+     * @param error the failure's exception class, or {@code null}
+     */
+    public void complete(String client, String method, String host, String path, int status, String error,
+            String traceId, String requestId) {
+        end();
+        if (shouldCommit()) {
+            this.client = client;
+            this.method = method;
+            this.host = host;
+            this.path = path;
+            this.status = status;
+            this.error = error;
+            this.traceId = traceId;
+            this.requestId = requestId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.arun0009.observability.jfr;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+
+import java.util.List;
+
+/**
+ * Formatting helpers for JFR stack traces.
+ */
+public final class RecordedStacks {
+
+    private RecordedStacks() {
+    }
+
+    /**
+     * Render the top {@code depth} frames in the familiar {@code \tat ...}
+     * layout used by Java stack traces.
+     */
+    public static String format(RecordedStackTrace stackTrace, int depth) {
+        if (stackTrace == null) {
+            return "\t(no stack trace)";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        int limit = Math.min(frames.size(), depth);
+        for (int i = 0; i < limit; i++) {
+            sb.append("\tat ").append(frame(frames.get(i))).append('\n');
+        }
+        if (frames.size() > limit || stackTrace.isTruncated()) {
+            sb.append("\t...\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * {@code com.example.Type.method:line} for a single frame.
+     */
+    public static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + '.' + frame.getMethod().getName()
+                + ':' + frame.getLineNumber();
+    }
+}
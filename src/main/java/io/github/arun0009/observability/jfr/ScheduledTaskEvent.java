@@ -0,0 +1,45 @@
+package io.github.arun0009.observability.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one run of a {@code @Scheduled} method, committed by
+ * {@link io.github.arun0009.observability.scheduling.ScheduledTaskObservabilityAspect}.
+ */
+@Name(ScheduledTaskEvent.NAME)
+@Label("Scheduled Task Run")
+@Category({ "Observability", "Scheduling" })
+@Description("One execution of a @Scheduled method")
+@StackTrace(false)
+public class ScheduledTaskEvent extends Event {
+
+    public static final String NAME = "io.github.arun0009.observability.ScheduledTask";
+
+    @Label("Task")
+    String task;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Request ID")
+    String requestId;
+
+    /**
+     * Fill in the run details and commit, if the event is enabled and over
+     * its threshold.
+     */
+    public void complete(String task, String outcome, String requestId) {
+        end();
+        if (shouldCommit()) {
+            this.task = task;
+            this.outcome = outcome;
+            this.requestId = requestId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package io.github.arun0009.observability.kafka;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Traces batch listeners: one {@code CONSUMER} span per batch, linked to the
+ * producer trace context of its records, so upstream traces stay reachable
+ * across the batch boundary. Links are capped at {@code batch-max-links};
+ * the number left out is recorded in
+ * {@code messaging.batch.links.dropped}. Consecutive records sent from the
+ * same producer span get one link.
+ * <p>
+ * The {@code traceparent} header is validated and parsed as bytes; only the
+ * links actually added allocate their trace and span ids. {@code tracestate}
+ * is not carried onto links.
+ * <p>
+ * With {@code batch-record-spans} enabled, each record scoped with
+ * {@link KafkaRecordContext#open} inside a traced batch also gets a child
+ * span of the batch span, linked to that record's producer.
+ */
+public class KafkaBatchTracer implements KafkaRecordContext.RecordSpans {
+
+    static final String TRACEPARENT = "traceparent";
+
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    private static final AttributeKey<String> SYSTEM = AttributeKey.stringKey("messaging.system");
+    private static final AttributeKey<String> OPERATION = AttributeKey.stringKey("messaging.operation");
+    private static final AttributeKey<String> DESTINATION = AttributeKey.stringKey("messaging.destination.name");
+    private static final AttributeKey<Long> MESSAGE_COUNT = AttributeKey.longKey("messaging.batch.message_count");
+    private static final AttributeKey<Long> LINKS_DROPPED = AttributeKey.longKey("messaging.batch.links.dropped");
+    private static final AttributeKey<Long> PARTITION = AttributeKey.longKey("messaging.kafka.destination.partition");
+    private static final AttributeKey<Long> OFFSET = AttributeKey.longKey("messaging.kafka.message.offset");
+
+    private final Tracer tracer;
+    private final int maxLinks;
+    private final boolean recordSpans;
+    private final ThreadLocal<Batch> current = new ThreadLocal<>();
+
+    public KafkaBatchTracer(OpenTelemetry openTelemetry, int maxLinks, boolean recordSpans) {
+        this.tracer = openTelemetry.getTracer("io.github.arun0009.observability.kafka");
+        this.maxLinks = Math.max(0, maxLinks);
+        this.recordSpans = recordSpans;
+    }
+
+    /**
+     * Start the span for {@code records} and make it current on this thread
+     * until {@link #endBatch}.
+     */
+    void startBatch(ConsumerRecords<?, ?> records) {
+        endBatch(null);
+        if (records.isEmpty()) {
+            return;
+        }
+        String topic = singleTopic(records);
+        SpanBuilder builder = tracer.spanBuilder((topic != null ? topic : "multiple") + " process")
+                .setSpanKind(SpanKind.CONSUMER)
+                .setAttribute(SYSTEM, "kafka")
+                .setAttribute(OPERATION, "process")
+                .setAttribute(MESSAGE_COUNT, (long) records.count());
+        if (topic != null) {
+            builder.setAttribute(DESTINATION, topic);
+        }
+        int links = 0;
+        long dropped = 0;
+        byte[] previous = null;
+        for (ConsumerRecord<?, ?> record : records) {
+            Header header = record.headers().lastHeader(TRACEPARENT);
+            byte[] value = header != null ? header.value() : null;
+            if (value == null || Arrays.equals(value, previous)) {
+                continue;
+            }
+            previous = value;
+            if (links >= maxLinks) {
+                dropped++;
+                continue;
+            }
+            SpanContext producer = parse(value);
+            if (producer != null) {
+                builder.addLink(producer);
+                links++;
+            }
+        }
+        if (dropped > 0) {
+            builder.setAttribute(LINKS_DROPPED, dropped);
+        }
+        Span span = builder.startSpan();
+        Context context = Context.current().with(span);
+        current.set(new Batch(span, context, context.makeCurrent()));
+    }
+
+    /**
+     * End the current thread's batch span, if any, recording
+     * {@code error} when not {@code null}.
+     */
+    void endBatch(Exception error) {
+        Batch batch = current.get();
+        if (batch == null) {
+            return;
+        }
+        current.remove();
+        batch.scope.close();
+        if (error != null) {
+            batch.span.recordException(error);
+            batch.span.setStatus(StatusCode.ERROR);
+        }
+        batch.span.end();
+    }
+
+    @Override
+    public Runnable start(ConsumerRecord<?, ?> record) {
+        Batch batch = recordSpans ? current.get() : null;
+        if (batch == null) {
+            return null;
+        }
+        SpanBuilder builder = tracer.spanBuilder(record.topic() + " process")
+                .setParent(batch.context)
+                .setSpanKind(SpanKind.CONSUMER)
+                .setAttribute(SYSTEM, "kafka")
+                .setAttribute(OPERATION, "process")
+                .setAttribute(DESTINATION, record.topic())
+                .setAttribute(PARTITION, (long) record.partition())
+                .setAttribute(OFFSET, record.offset());
+        Header header = record.headers().lastHeader(TRACEPARENT);
+        SpanContext producer = header != null ? parse(header.value()) : null;
+        if (producer != null) {
+            builder.addLink(producer);
+        }
+        Span span = builder.startSpan();
+        Scope scope = batch.context.with(span).makeCurrent();
+        return () -> {
+            scope.close();
+            span.end();
+        };
+    }
+
+    private static String singleTopic(ConsumerRecords<?, ?> records) {
+        Iterator<TopicPartition> partitions = records.partitions().iterator();
+        String topic = partitions.next().topic();
+        while (partitions.hasNext()) {
+            if (!topic.equals(partitions.next().topic())) {
+                return null;
+            }
+        }
+        return topic;
+    }
+
+    /**
+     * Parse a W3C {@code traceparent} header value,
+     * {@code version-traceid-spanid-flags} in lowercase hex, or return
+     * {@code null} when it is malformed or its ids are all zero.
+     */
+    static SpanContext parse(byte[] value) {
+        if (value == null || value.length < TRACEPARENT_LENGTH
+                || value[2] != '-' || value[35] != '-' || value[52] != '-'
+                || !isHex(value, 0, 2) || !isHex(value, 3, 35) || !isHex(value, 36, 52) || !isHex(value, 53, 55)) {
+            return null;
+        }
+        // Version ff is invalid; version 00 has exactly four fields, later
+        // versions may append more after another dash
+        long version = hex(value, 0, 2);
+        if (version == 0xff || (version == 0 ? value.length != TRACEPARENT_LENGTH
+                : value.length > TRACEPARENT_LENGTH && value[TRACEPARENT_LENGTH] != '-')) {
+            return null;
+        }
+        long traceHigh = hex(value, 3, 19);
+        long traceLow = hex(value, 19, 35);
+        long spanId = hex(value, 36, 52);
+        if ((traceHigh | traceLow) == 0 || spanId == 0) {
+            return null;
+        }
+        return SpanContext.createFromRemoteParent(TraceId.fromLongs(traceHigh, traceLow),
+                SpanId.fromLong(spanId), TraceFlags.fromByte((byte) hex(value, 53, 55)), TraceState.getDefault());
+    }
+
+    /**
+     * Value of the lowercase hex digits in {@code [from, to)}, already
+     * validated, at most 16 of them.
+     */
+    private static long hex(byte[] value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = (result << 4) | digit(value[i]);
+        }
+        return result;
+    }
+
+    private static boolean isHex(byte[] value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (digit(value[i]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digit(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static final class Batch {
+        private final Span span;
+        private final Context context;
+        private final Scope scope;
+
+        Batch(Span span, Context context, Scope scope) {
+            this.span = span;
+            this.context = context;
+            this.scope = scope;
+        }
+    }
+}
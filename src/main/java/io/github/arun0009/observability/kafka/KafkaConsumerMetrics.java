@@ -0,0 +1,253 @@
+package io.github.arun0009.observability.kafka;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.record.TimestampType;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumer-side pipeline metrics, recorded by the listener interceptors on
+ * the consumer thread:
+ * <ul>
+ * <li>{@code kafka.consumer.e2e.latency}: producer send (the
+ * {@value ObservabilityKafkaProducerInterceptor#SENT_AT_HEADER} header, else
+ * the record's create time) to the start of processing;</li>
+ * <li>{@code kafka.consumer.poll.to.process}: time a record waited behind the
+ * earlier records of its poll, measured from the dispatch of the poll's first
+ * record to the start of its own listener (record listeners only). The first
+ * record of each poll records zero, and the gap between the poll returning
+ * and the first dispatch is not included, as no hook runs in between;</li>
+ * <li>{@code kafka.consumer.process}: listener duration, by
+ * {@code outcome};</li>
+ * <li>{@code kafka.consumer.lag}: records behind the partition end, per
+ * partition, last seen.</li>
+ * </ul>
+ * All carry {@code topic} and {@code group} tags. Lag comes from
+ * {@link Consumer#currentLag}, which reads the fetch metadata the consumer
+ * already holds; it is read once per partition per poll and costs no broker
+ * call. The end-to-end latency uses wall clocks, so it includes any clock
+ * skew between producer and consumer hosts.
+ */
+public class KafkaConsumerMetrics {
+
+    // Lag gauges are never removed on rebalance; bound them
+    private static final int MAX_PARTITIONS = 1024;
+
+    private final MeterRegistry registry;
+    private final Map<String, TopicMeters> meters = new ConcurrentHashMap<>();
+    private final Map<PartitionKey, AtomicLong> lags = new ConcurrentHashMap<>();
+    private final ThreadLocal<PollState> state = ThreadLocal.withInitial(PollState::new);
+
+    public KafkaConsumerMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * A new poll is about to be made on this thread.
+     */
+    void beforePoll(Consumer<?, ?> consumer) {
+        PollState poll = state.get();
+        poll.polledNanos = 0;
+        poll.lagChecked.clear();
+    }
+
+    /**
+     * A record is about to be processed; returns the start time to pass to
+     * {@link #processed}.
+     */
+    long processing(ConsumerRecord<?, ?> record, Consumer<?, ?> consumer) {
+        long now = System.nanoTime();
+        PollState poll = state.get();
+        if (poll.polledNanos == 0) {
+            // No hook runs when the poll returns; measure from the first
+            // dispatch, so the first record of each poll waits zero
+            poll.polledNanos = now;
+        }
+        TopicMeters topic = meters(record.topic(), poll.group(consumer));
+        topic.pollToProcess.record(now - poll.polledNanos, TimeUnit.NANOSECONDS);
+        recordEndToEnd(record, topic);
+        checkLag(record.topic(), record.partition(), consumer, poll);
+        return now;
+    }
+
+    /**
+     * A batch is about to be processed.
+     */
+    long processingBatch(Iterable<? extends ConsumerRecord<?, ?>> records, Consumer<?, ?> consumer) {
+        long now = System.nanoTime();
+        PollState poll = state.get();
+        String group = poll.group(consumer);
+        for (ConsumerRecord<?, ?> record : records) {
+            TopicMeters topic = meters(record.topic(), group);
+            recordEndToEnd(record, topic);
+            checkLag(record.topic(), record.partition(), consumer, poll);
+        }
+        return now;
+    }
+
+    void processed(String topicName, Consumer<?, ?> consumer, long startNanos, boolean failed) {
+        TopicMeters topic = meters(topicName, state.get().group(consumer));
+        (failed ? topic.processFailure : topic.processSuccess)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordEndToEnd(ConsumerRecord<?, ?> record, TopicMeters topic) {
+        long sentAt = sentAt(record);
+        if (sentAt > 0) {
+            topic.endToEnd.record(Math.max(0, System.currentTimeMillis() - sentAt), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    static long sentAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ObservabilityKafkaProducerInterceptor.SENT_AT_HEADER);
+        if (header != null && header.value() != null && header.value().length == Long.BYTES) {
+            byte[] b = header.value();
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (b[i] & 0xFF);
+            }
+            return value;
+        }
+        return record.timestampType() == TimestampType.CREATE_TIME ? record.timestamp() : -1;
+    }
+
+    private void checkLag(String topic, int partition, Consumer<?, ?> consumer, PollState poll) {
+        TopicPartition tp = new TopicPartition(topic, partition);
+        if (!poll.lagChecked.add(tp)) {
+            return;
+        }
+        OptionalLong lag;
+        try {
+            lag = consumer.currentLag(tp);
+        } catch (RuntimeException e) {
+            // e.g. a consumer implementation without local lag
+            return;
+        }
+        if (lag.isPresent()) {
+            AtomicLong gauge = lagGauge(topic, partition, poll.group(consumer));
+            if (gauge != null) {
+                gauge.set(lag.getAsLong());
+            }
+        }
+    }
+
+    private AtomicLong lagGauge(String topic, int partition, String group) {
+        PartitionKey key = new PartitionKey(topic, partition, group);
+        AtomicLong gauge = lags.get(key);
+        if (gauge != null || lags.size() >= MAX_PARTITIONS) {
+            return gauge;
+        }
+        return lags.computeIfAbsent(key, k -> {
+            AtomicLong value = new AtomicLong();
+            Gauge.builder("kafka.consumer.lag", value, AtomicLong::get)
+                    .tag("topic", topic)
+                    .tag("partition", Integer.toString(partition))
+                    .tag("group", group)
+                    .description("Records between the last consumed offset and the partition end")
+                    .register(registry);
+            return value;
+        });
+    }
+
+    private TopicMeters meters(String topic, String group) {
+        String key = topic + '\u0000' + group;
+        TopicMeters topicMeters = meters.get(key);
+        if (topicMeters != null) {
+            return topicMeters;
+        }
+        return meters.computeIfAbsent(key, k -> new TopicMeters(topic, group));
+    }
+
+    private static String groupOf(Consumer<?, ?> consumer) {
+        try {
+            return consumer.groupMetadata().groupId();
+        } catch (RuntimeException e) {
+            // No group.id configured (manually assigned partitions)
+            return "none";
+        }
+    }
+
+    private final class TopicMeters {
+        final Timer endToEnd;
+        final Timer pollToProcess;
+        final Timer processSuccess;
+        final Timer processFailure;
+
+        TopicMeters(String topic, String group) {
+            endToEnd = Timer.builder("kafka.consumer.e2e.latency")
+                    .tag("topic", topic)
+                    .tag("group", group)
+                    .description("Producer send to start of processing")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            pollToProcess = Timer.builder("kafka.consumer.poll.to.process")
+                    .tag("topic", topic)
+                    .tag("group", group)
+                    .description("Wait behind earlier records of the same poll, from the first record's dispatch")
+                    .register(registry);
+            processSuccess = process(topic, group, "success");
+            processFailure = process(topic, group, "failure");
+        }
+
+        private Timer process(String topic, String group, String outcome) {
+            return Timer.builder("kafka.consumer.process")
+                    .tag("topic", topic)
+                    .tag("group", group)
+                    .tag("outcome", outcome)
+                    .description("Listener processing time")
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+    private static final class PollState {
+        String group;
+        long polledNanos;
+        final Set<TopicPartition> lagChecked = new HashSet<>();
+
+        String group(Consumer<?, ?> consumer) {
+            if (group == null) {
+                group = groupOf(consumer);
+            }
+            return group;
+        }
+    }
+
+    private static final class PartitionKey {
+        private final String topic;
+        private final int partition;
+        private final String group;
+
+        PartitionKey(String topic, int partition, String group) {
+            this.topic = topic;
+            this.partition = partition;
+            this.group = group;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PartitionKey)) {
+                return false;
+            }
+            PartitionKey other = (PartitionKey) o;
+            return partition == other.partition && topic.equals(other.topic) && group.equals(other.group);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * topic.hashCode() + partition) * 31 + group.hashCode();
+        }
+    }
+}
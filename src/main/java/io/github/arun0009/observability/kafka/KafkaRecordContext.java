@@ -0,0 +1,202 @@
+package io.github.arun0009.observability.kafka;
+
+import io.github.arun0009.observability.core.PropagationField;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.core.W3CBaggage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.MDC;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Scopes the {@link PropagationField}s carried by a consumed record to the
+ * MDC of the thread processing it, and restores the previous values
+ * afterwards.
+ * <p>
+ * The record interceptors use it for every record and batch. Batch listeners
+ * and hand-written poll loops can scope each record themselves:
+ *
+ * <pre>
+ * for (ConsumerRecord&lt;String, Order&gt; record : records) {
+ *     try (KafkaRecordContext.Scope ignored = recordContext.open(record)) {
+ *         process(record);
+ *     }
+ * }
+ * </pre>
+ *
+ * A record's headers are read in one pass, and only the known fields are
+ * decoded. A field the record does not carry is removed for the duration of
+ * the scope, so values never leak from one record to the next. In
+ * {@code baggage} or {@code both} propagation mode the fields are also read
+ * from a W3C {@code baggage} header; the custom headers win.
+ * <p>
+ * Given {@link RecordSpans}, {@link #open} also starts a span for the record
+ * (see {@link KafkaBatchTracer}), ended when the scope is closed.
+ */
+public class KafkaRecordContext {
+
+    private static final Scope NOOP = new Scope(null, null);
+
+    /**
+     * Starts a span for a record scoped with {@link #open}.
+     */
+    @FunctionalInterface
+    public interface RecordSpans {
+        /**
+         * Start a span for {@code record}; returns what ends it, or
+         * {@code null} when no span was started.
+         */
+        Runnable start(ConsumerRecord<?, ?> record);
+    }
+
+    private final W3CBaggage baggage;
+    private final RecordSpans spans;
+
+    public KafkaRecordContext(PropagationInjector injector) {
+        this(injector, null);
+    }
+
+    public KafkaRecordContext(PropagationInjector injector, RecordSpans spans) {
+        this.baggage = injector.baggage();
+        this.spans = spans;
+    }
+
+    /**
+     * Put {@code record}'s fields in the MDC until the scope is closed.
+     */
+    public Scope open(ConsumerRecord<?, ?> record) {
+        String[] previous = apply(decode(record.headers()));
+        return new Scope(previous, spans != null ? spans.start(record) : null);
+    }
+
+    /**
+     * Put {@code record}'s fields in the MDC until the scope is closed,
+     * without starting a span; used by the record interceptor.
+     */
+    Scope openFields(ConsumerRecord<?, ?> record) {
+        return new Scope(apply(decode(record.headers())), null);
+    }
+
+    /**
+     * Put the fields shared by every record of {@code records} in the MDC
+     * until the scope is closed. A field is shared when all records carry
+     * byte-identical values, so it is decoded once; other fields are left to
+     * per-record scopes.
+     */
+    public Scope openCommon(ConsumerRecords<?, ?> records) {
+        if (records.isEmpty()) {
+            return NOOP;
+        }
+        byte[][] common = null;
+        for (ConsumerRecord<?, ?> record : records) {
+            byte[][] raw = raw(record.headers());
+            if (common == null) {
+                common = raw;
+                continue;
+            }
+            boolean any = false;
+            for (int i = 0; i < common.length; i++) {
+                if (common[i] != null && !Arrays.equals(common[i], raw[i])) {
+                    common[i] = null;
+                }
+                any |= common[i] != null;
+            }
+            if (!any) {
+                return NOOP;
+            }
+        }
+        return new Scope(apply(decode(common)), null);
+    }
+
+    /**
+     * Raw header values, indexed by field ordinal, with the baggage header
+     * in the last slot.
+     */
+    private byte[][] raw(Headers headers) {
+        byte[][] raw = new byte[PropagationField.FIELDS.length + 1][];
+        for (Header header : headers) {
+            String key = header.key();
+            if (baggage != null && W3CBaggage.HEADER.equals(key)) {
+                raw[raw.length - 1] = header.value();
+                continue;
+            }
+            for (PropagationField field : PropagationField.FIELDS) {
+                if (field.headerName().equals(key)) {
+                    // Last header wins, as with Headers.lastHeader
+                    raw[field.ordinal()] = header.value();
+                    break;
+                }
+            }
+        }
+        return raw;
+    }
+
+    private String[] decode(Headers headers) {
+        return decode(raw(headers));
+    }
+
+    private String[] decode(byte[][] raw) {
+        String[] values = new String[PropagationField.FIELDS.length];
+        byte[] baggageHeader = raw[raw.length - 1];
+        if (baggage != null && baggageHeader != null) {
+            baggage.decode(new String(baggageHeader, StandardCharsets.UTF_8),
+                    (field, value) -> values[field.ordinal()] = value);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (raw[i] != null) {
+                values[i] = new String(raw[i], StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+
+    private static String[] apply(String[] values) {
+        String[] previous = new String[values.length];
+        for (PropagationField field : PropagationField.FIELDS) {
+            int i = field.ordinal();
+            previous[i] = field.currentValue();
+            set(field.mdcKey(), previous[i], values[i]);
+        }
+        return previous;
+    }
+
+    private static void set(String key, String current, String value) {
+        if (value == null) {
+            if (current != null) {
+                MDC.remove(key);
+            }
+        } else if (!value.equals(current)) {
+            MDC.put(key, value);
+        }
+    }
+
+    /**
+     * Restores the MDC fields to their values before the scope was opened.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final String[] previous;
+        private final Runnable span;
+
+        private Scope(String[] previous, Runnable span) {
+            this.previous = previous;
+            this.span = span;
+        }
+
+        @Override
+        public void close() {
+            if (span != null) {
+                span.run();
+            }
+            if (previous == null) {
+                return;
+            }
+            for (PropagationField field : PropagationField.FIELDS) {
+                set(field.mdcKey(), field.currentValue(), previous[field.ordinal()]);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.arun0009.observability.kafka;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Native-image hints for the Kafka client interceptors, which Kafka
+ * instantiates by class name from {@code interceptor.classes}, including
+ * when an application lists them in its own client properties.
+ */
+public class KafkaRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        if (!ClassUtils.isPresent("org.apache.kafka.clients.producer.ProducerInterceptor", classLoader)) {
+            return;
+        }
+        hints.reflection()
+                .registerType(ObservabilityKafkaProducerInterceptor.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .registerType(ObservabilityKafkaConsumerInterceptor.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+}
@@ -1,20 +1,30 @@
 package io.github.arun0009.observability.kafka;
 
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
 import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
-import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
 
+import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Auto-configures Kafka producer and consumer factory customizers that
- * register the observability interceptors. This ensures that all Kafka
- * interactions automatically propagate trace context.
+ * Auto-configures a producer factory customizer that registers the
+ * observability producer interceptor, and record/batch interceptors that
+ * scope each consumed record's context to the listener invocation. This
+ * ensures that all Kafka interactions automatically propagate trace context.
  * <p>
  * Conditional on spring-kafka being on the classpath and the feature being
  * enabled.
@@ -24,23 +34,90 @@ import java.util.Map;
 @ConditionalOnProperty(prefix = "observability.kafka", name = "propagation-enabled", havingValue = "true", matchIfMissing = true)
 public class KafkaTracingConfiguration {
 
+    /**
+     * Client config entry handing the {@link PropagationInjector} to the
+     * client interceptors, which Kafka instantiates itself.
+     */
+    static final String PROPAGATION_INJECTOR_CONFIG = "observability.propagation.injector";
+
+    /**
+     * Client config entry handing the {@link DependencyMatrix} to the
+     * producer interceptor.
+     */
+    static final String DEPENDENCY_MATRIX_CONFIG = "observability.dependency.matrix";
+
+    /**
+     * Client config entry telling the producer interceptor to stamp
+     * {@link ObservabilityKafkaProducerInterceptor#SENT_AT_HEADER}.
+     */
+    static final String STAMP_SENT_AT_CONFIG = "observability.kafka.stamp-sent-at";
+
     @Bean
-    public DefaultKafkaProducerFactoryCustomizer observabilityProducerCustomizer() {
+    public DefaultKafkaProducerFactoryCustomizer observabilityProducerCustomizer(PropagationInjector injector,
+            ObjectProvider<DependencyMatrix> dependencies, ObservabilityProperties properties) {
         return producerFactory -> {
-            Map<String, Object> config = Map.of(
-                    org.apache.kafka.clients.producer.ProducerConfig.INTERCEPTOR_CLASSES_CONFIG,
+            Map<String, Object> config = new HashMap<>();
+            config.put(org.apache.kafka.clients.producer.ProducerConfig.INTERCEPTOR_CLASSES_CONFIG,
                     ObservabilityKafkaProducerInterceptor.class.getName());
+            config.put(PROPAGATION_INJECTOR_CONFIG, injector);
+            config.put(STAMP_SENT_AT_CONFIG, properties.getKafka().isMetricsEnabled());
+            DependencyMatrix matrix = dependencies.getIfAvailable();
+            if (matrix != null) {
+                config.put(DEPENDENCY_MATRIX_CONFIG, matrix);
+            }
             producerFactory.updateConfigs(config);
         };
     }
 
     @Bean
-    public DefaultKafkaConsumerFactoryCustomizer observabilityConsumerCustomizer() {
-        return consumerFactory -> {
-            Map<String, Object> config = Map.of(
-                    org.apache.kafka.clients.consumer.ConsumerConfig.INTERCEPTOR_CLASSES_CONFIG,
-                    ObservabilityKafkaConsumerInterceptor.class.getName());
-            consumerFactory.updateConfigs(config);
-        };
+    @ConditionalOnMissingBean
+    public KafkaRecordContext kafkaRecordContext(PropagationInjector injector,
+            ObjectProvider<KafkaBatchTracer> tracer) {
+        return new KafkaRecordContext(injector, tracer.getIfAvailable());
+    }
+
+    /**
+     * Picked up by Boot's listener container factory. An application that
+     * defines its own {@link RecordInterceptor} can chain this one with a
+     * {@code CompositeRecordInterceptor}.
+     */
+    @Bean
+    @ConditionalOnMissingBean(RecordInterceptor.class)
+    public ObservabilityRecordInterceptor observabilityRecordInterceptor(KafkaRecordContext context,
+            ObjectProvider<KafkaConsumerMetrics> metrics) {
+        return new ObservabilityRecordInterceptor(context, metrics.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(BatchInterceptor.class)
+    public ObservabilityBatchInterceptor observabilityBatchInterceptor(KafkaRecordContext context,
+            ObjectProvider<KafkaConsumerMetrics> metrics, ObjectProvider<KafkaBatchTracer> tracer) {
+        return new ObservabilityBatchInterceptor(context, metrics.getIfAvailable(), tracer.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "observability.kafka", name = "metrics-enabled", havingValue = "true", matchIfMissing = true)
+    public KafkaConsumerMetrics observabilityKafkaConsumerMetrics(MeterRegistry meterRegistry) {
+        return new KafkaConsumerMetrics(meterRegistry);
+    }
+
+    /**
+     * Batch spans need the OpenTelemetry API, which applications bring with
+     * their tracing setup.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.opentelemetry.api.OpenTelemetry")
+    @ConditionalOnProperty(prefix = "observability.kafka", name = "batch-tracing-enabled", havingValue = "true", matchIfMissing = true)
+    static class BatchTracingConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public KafkaBatchTracer kafkaBatchTracer(ObjectProvider<OpenTelemetry> openTelemetry,
+                ObservabilityProperties properties) {
+            ObservabilityProperties.Kafka kafka = properties.getKafka();
+            return new KafkaBatchTracer(openTelemetry.getIfAvailable(OpenTelemetry::noop),
+                    kafka.getBatchMaxLinks(), kafka.isBatchRecordSpans());
+        }
     }
 }
@@ -0,0 +1,104 @@
+package io.github.arun0009.observability.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.kafka.listener.BatchInterceptor;
+
+/**
+ * Puts the MDC fields shared by every record of a batch in place while a
+ * batch listener runs ({@link KafkaRecordContext#openCommon}). Fields that
+ * differ between records are cleared for the batch. Listeners that need them
+ * scope each record with {@link KafkaRecordContext#open}.
+ * <p>
+ * The scope is closed when spring-kafka clears the thread state after the
+ * batch. When given {@link KafkaConsumerMetrics}, also records each record's
+ * end-to-end latency, the batch's processing time and lag. When given a
+ * {@link KafkaBatchTracer}, the batch runs inside a span linked to its
+ * records' producers.
+ */
+public class ObservabilityBatchInterceptor implements BatchInterceptor<Object, Object> {
+
+    private final KafkaRecordContext context;
+    private final KafkaConsumerMetrics metrics;
+    private final KafkaBatchTracer tracer;
+    private final ThreadLocal<KafkaRecordContext.Scope> scope = new ThreadLocal<>();
+    private final ThreadLocal<long[]> started = ThreadLocal.withInitial(() -> new long[1]);
+
+    public ObservabilityBatchInterceptor(KafkaRecordContext context) {
+        this(context, null);
+    }
+
+    public ObservabilityBatchInterceptor(KafkaRecordContext context, KafkaConsumerMetrics metrics) {
+        this(context, metrics, null);
+    }
+
+    public ObservabilityBatchInterceptor(KafkaRecordContext context, KafkaConsumerMetrics metrics,
+            KafkaBatchTracer tracer) {
+        this.context = context;
+        this.metrics = metrics;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void setupThreadState(Consumer<?, ?> consumer) {
+        if (metrics != null) {
+            metrics.beforePoll(consumer);
+        }
+    }
+
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records,
+            Consumer<Object, Object> consumer) {
+        close();
+        scope.set(context.openCommon(records));
+        if (tracer != null) {
+            tracer.startBatch(records);
+        }
+        if (metrics != null) {
+            started.get()[0] = metrics.processingBatch(records, consumer);
+        }
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        if (tracer != null) {
+            tracer.endBatch(null);
+        }
+        processed(records, consumer, false);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<Object, Object> records, Exception exception,
+            Consumer<Object, Object> consumer) {
+        if (tracer != null) {
+            tracer.endBatch(exception);
+        }
+        processed(records, consumer, true);
+    }
+
+    private void processed(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer,
+            boolean failed) {
+        if (metrics != null && !records.isEmpty()) {
+            // Timed once per batch, under its first topic
+            String topic = records.partitions().iterator().next().topic();
+            metrics.processed(topic, consumer, started.get()[0], failed);
+        }
+    }
+
+    @Override
+    public void clearThreadState(Consumer<?, ?> consumer) {
+        close();
+    }
+
+    private void close() {
+        if (tracer != null) {
+            tracer.endBatch(null);
+        }
+        KafkaRecordContext.Scope current = scope.get();
+        if (current != null) {
+            scope.remove();
+            current.close();
+        }
+    }
+}
@@ -1,32 +1,28 @@
 package io.github.arun0009.observability.kafka;
 
-import io.github.arun0009.observability.core.MdcKeys;
 import org.apache.kafka.clients.consumer.ConsumerInterceptor;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
-import org.apache.kafka.common.header.Header;
-import org.slf4j.MDC;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
- * Kafka consumer interceptor that extracts observability headers from
- * incoming Kafka messages and places them into MDC for downstream logging.
+ * Formerly copied the observability headers of every polled record into the
+ * MDC of the poll thread, which left the last record's values applied to
+ * the whole batch. It no longer touches the MDC and is no longer registered.
+ *
+ * @deprecated records are now scoped individually by
+ *             {@link ObservabilityRecordInterceptor} and
+ *             {@link ObservabilityBatchInterceptor}; hand-written poll loops
+ *             can use {@link KafkaRecordContext#open}. Remove this class from
+ *             {@code interceptor.classes}.
  */
+@Deprecated
 public class ObservabilityKafkaConsumerInterceptor<K, V> implements ConsumerInterceptor<K, V> {
 
     @Override
     public ConsumerRecords<K, V> onConsume(ConsumerRecords<K, V> records) {
-        // For batch processing, we apply MDC from the first record.
-        // Per-record MDC should be done in the listener using the headers directly.
-        records.forEach(record -> {
-            extractHeader(record.headers(), MdcKeys.HEADER_REQUEST_ID, MdcKeys.REQUEST_ID);
-            extractHeader(record.headers(), MdcKeys.HEADER_CORRELATION_ID, MdcKeys.CORRELATION_ID);
-            extractHeader(record.headers(), MdcKeys.HEADER_USER_ID, MdcKeys.USER_ID);
-            extractHeader(record.headers(), MdcKeys.HEADER_TENANT_ID, MdcKeys.TENANT_ID);
-        });
         return records;
     }
 
@@ -44,11 +40,4 @@ public class ObservabilityKafkaConsumerInterceptor<K, V> implements ConsumerInte
     public void configure(Map<String, ?> configs) {
         // no-op
     }
-
-    private void extractHeader(org.apache.kafka.common.header.Headers headers, String headerName, String mdcKey) {
-        Header header = headers.lastHeader(headerName);
-        if (header != null) {
-            MDC.put(mdcKey, new String(header.value(), StandardCharsets.UTF_8));
-        }
-    }
 }
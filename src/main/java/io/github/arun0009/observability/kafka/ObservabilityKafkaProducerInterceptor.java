@@ -1,33 +1,100 @@
 package io.github.arun0009.observability.kafka;
 
-import io.github.arun0009.observability.core.MdcKeys;
+import io.github.arun0009.observability.core.PropagationField;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.core.W3CBaggage;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
 import org.apache.kafka.clients.producer.ProducerInterceptor;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
-import org.slf4j.MDC;
+import org.apache.kafka.common.header.Headers;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Kafka producer interceptor that injects observability context from MDC
  * into outgoing Kafka message headers, enabling trace correlation across
  * asynchronous boundaries.
+ * <p>
+ * Header values are the shared per-thread encodings from
+ * {@link PropagationField#encodedValue(String)}, so consecutive sends of one
+ * request do not re-encode them. In {@code baggage} or {@code both}
+ * propagation mode a W3C {@code baggage} header is added unless the record
+ * already has one.
+ * <p>
+ * Sends and their acknowledgements are recorded per topic in the
+ * {@link DependencyMatrix}. Their latency is measured from the record
+ * timestamp, so it is only accurate when the producer assigns it (the
+ * default {@code CreateTime} with no timestamp on the record): with an
+ * application-set timestamp or a {@code LogAppendTime} topic the matrix still
+ * counts calls and errors, but its Kafka latency is off. With consumer
+ * metrics enabled, each record is
+ * stamped with its send time ({@value #SENT_AT_HEADER}) for
+ * {@link KafkaConsumerMetrics}.
  */
 public class ObservabilityKafkaProducerInterceptor<K, V> implements ProducerInterceptor<K, V> {
 
+    /**
+     * Send time in epoch millis, as 8 big-endian bytes.
+     */
+    public static final String SENT_AT_HEADER = "obs-sent-at";
+
+    private PropagationInjector injector = PropagationInjector.HEADERS;
+    private DependencyMatrix dependencies;
+    private boolean stampSentAt;
+
     @Override
     public ProducerRecord<K, V> onSend(ProducerRecord<K, V> record) {
-        injectIfPresent(record, MdcKeys.REQUEST_ID, MdcKeys.HEADER_REQUEST_ID);
-        injectIfPresent(record, MdcKeys.CORRELATION_ID, MdcKeys.HEADER_CORRELATION_ID);
-        injectIfPresent(record, MdcKeys.USER_ID, MdcKeys.HEADER_USER_ID);
-        injectIfPresent(record, MdcKeys.TENANT_ID, MdcKeys.HEADER_TENANT_ID);
+        if (dependencies != null) {
+            dependencies.kafka(record.topic()).begin();
+        }
+        Headers headers = record.headers();
+        if (stampSentAt) {
+            // Replaced rather than kept, so a forwarded record measures
+            // this hop
+            headers.remove(SENT_AT_HEADER);
+            headers.add(SENT_AT_HEADER, sentAt(System.currentTimeMillis()));
+        }
+        if (injector.mode().writesHeaders()) {
+            for (PropagationField field : PropagationField.FIELDS) {
+                String value = field.currentValue();
+                if (value != null) {
+                    headers.add(field.headerName(), field.encodedValue(value));
+                }
+            }
+        }
+        if (injector.baggage() != null && headers.lastHeader(W3CBaggage.HEADER) == null) {
+            String baggage = injector.baggageValue();
+            if (baggage != null) {
+                headers.add(W3CBaggage.HEADER, baggage.getBytes(StandardCharsets.UTF_8));
+            }
+        }
         return record;
     }
 
+    private static byte[] sentAt(long millis) {
+        byte[] value = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            value[i] = (byte) millis;
+            millis >>>= 8;
+        }
+        return value;
+    }
+
     @Override
     public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
-        // no-op
+        // Kafka passes no per-send state here, so latency is taken from the
+        // record timestamp. That is the send time only for the producer's own
+        // CreateTime: a timestamp set by the application, or a topic with
+        // LogAppendTime, skews it (one in the future is ignored)
+        if (dependencies == null || metadata == null) {
+            return;
+        }
+        long elapsedMillis = metadata.hasTimestamp() ? System.currentTimeMillis() - metadata.timestamp() : -1;
+        long elapsedNanos = elapsedMillis >= 0 ? TimeUnit.MILLISECONDS.toNanos(elapsedMillis) : -1;
+        dependencies.kafka(metadata.topic()).finish(elapsedNanos, exception != null);
     }
 
     @Override
@@ -37,13 +104,14 @@ public class ObservabilityKafkaProducerInterceptor<K, V> implements ProducerInte
 
     @Override
     public void configure(Map<String, ?> configs) {
-        // no-op
-    }
-
-    private void injectIfPresent(ProducerRecord<K, V> record, String mdcKey, String headerName) {
-        String value = MDC.get(mdcKey);
-        if (value != null) {
-            record.headers().add(headerName, value.getBytes(StandardCharsets.UTF_8));
+        Object configured = configs.get(KafkaTracingConfiguration.PROPAGATION_INJECTOR_CONFIG);
+        if (configured instanceof PropagationInjector) {
+            injector = (PropagationInjector) configured;
+        }
+        stampSentAt = Boolean.TRUE.equals(configs.get(KafkaTracingConfiguration.STAMP_SENT_AT_CONFIG));
+        Object matrix = configs.get(KafkaTracingConfiguration.DEPENDENCY_MATRIX_CONFIG);
+        if (matrix instanceof DependencyMatrix) {
+            dependencies = (DependencyMatrix) matrix;
         }
     }
 }
@@ -0,0 +1,85 @@
+package io.github.arun0009.observability.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+/**
+ * Puts each record's MDC context in place while its listener runs, via
+ * {@link KafkaRecordContext}.
+ * <p>
+ * The scope is opened just before the listener is invoked, on the listener
+ * thread. It is closed in {@link #afterRecord}, which spring-kafka calls
+ * after the error handler, so error-handler logs still carry the failed
+ * record's fields.
+ * <p>
+ * When given {@link KafkaConsumerMetrics}, also records end-to-end latency,
+ * poll-to-process wait, processing time and lag.
+ */
+public class ObservabilityRecordInterceptor implements RecordInterceptor<Object, Object> {
+
+    private final KafkaRecordContext context;
+    private final KafkaConsumerMetrics metrics;
+    private final ThreadLocal<KafkaRecordContext.Scope> scope = new ThreadLocal<>();
+    private final ThreadLocal<long[]> started = ThreadLocal.withInitial(() -> new long[1]);
+
+    public ObservabilityRecordInterceptor(KafkaRecordContext context) {
+        this(context, null);
+    }
+
+    public ObservabilityRecordInterceptor(KafkaRecordContext context, KafkaConsumerMetrics metrics) {
+        this.context = context;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setupThreadState(Consumer<?, ?> consumer) {
+        if (metrics != null) {
+            metrics.beforePoll(consumer);
+        }
+    }
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record,
+            Consumer<Object, Object> consumer) {
+        close();
+        scope.set(context.openFields(record));
+        if (metrics != null) {
+            started.get()[0] = metrics.processing(record, consumer);
+        }
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        if (metrics != null) {
+            metrics.processed(record.topic(), consumer, started.get()[0], false);
+        }
+    }
+
+    @Override
+    public void failure(ConsumerRecord<Object, Object> record, Exception exception,
+            Consumer<Object, Object> consumer) {
+        if (metrics != null) {
+            metrics.processed(record.topic(), consumer, started.get()[0], true);
+        }
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        close();
+    }
+
+    @Override
+    public void clearThreadState(Consumer<?, ?> consumer) {
+        close();
+    }
+
+    private void close() {
+        KafkaRecordContext.Scope current = scope.get();
+        if (current != null) {
+            scope.remove();
+            current.close();
+        }
+    }
+}
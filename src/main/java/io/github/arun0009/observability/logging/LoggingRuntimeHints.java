@@ -0,0 +1,33 @@
+package io.github.arun0009.observability.logging;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Native-image hints for the starter's Log4j2 integration.
+ * <p>
+ * Log4j2 finds {@link PiiMaskingConverter} through the plugin index compiled
+ * into {@code Log4j2Plugins.dat} and creates it through its static
+ * {@code newInstance} factory, both by reflection; the default configuration
+ * and JSON layout template are read as classpath resources. Registered in
+ * {@code META-INF/spring/aot.factories}, since logging is configured before
+ * any bean exists.
+ */
+public class LoggingRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final String PLUGIN_INDEX = "META-INF/org/apache/logging/log4j/core/config/plugins/Log4j2Plugins.dat";
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        if (!ClassUtils.isPresent("org.apache.logging.log4j.core.LoggerContext", classLoader)) {
+            return;
+        }
+        hints.resources()
+                .registerPattern(PLUGIN_INDEX)
+                .registerPattern("log4j2-spring.xml")
+                .registerPattern("observability-json-layout.json");
+        hints.reflection().registerType(PiiMaskingConverter.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
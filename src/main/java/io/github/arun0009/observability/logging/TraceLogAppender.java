@@ -0,0 +1,109 @@
+package io.github.arun0009.observability.logging;
+
+import io.github.arun0009.observability.core.MdcKeys;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+
+import java.beans.PropertyChangeListener;
+
+/**
+ * Log4j2 appender that feeds the {@link TraceLogIndex}.
+ * <p>
+ * Events are serialized with the starter's JSON layout
+ * ({@code observability-json-layout.json}), so a lookup returns the same
+ * lines the console appender writes. Only events carrying a
+ * {@link MdcKeys#TRACE_ID traceId} or {@link MdcKeys#REQUEST_ID requestId} are
+ * kept.
+ * <p>
+ * The appender is attached to the root logger programmatically rather than
+ * declared in {@code log4j2-spring.xml}, and re-attached when the logging
+ * configuration is reloaded. Without Log4j2 as the logging backend it stays
+ * detached and the index remains empty.
+ */
+public final class TraceLogAppender extends AbstractAppender {
+
+    static final String NAME = "ObservabilityTraceLogIndex";
+    private static final String TEMPLATE = "classpath:observability-json-layout.json";
+
+    private final TraceLogIndex index;
+    private final LoggerContext context;
+    private final PropertyChangeListener reattach = event -> {
+        if (LoggerContext.PROPERTY_CONFIG.equals(event.getPropertyName())) {
+            attachToRoot();
+        }
+    };
+
+    private TraceLogAppender(Layout<String> layout, TraceLogIndex index, LoggerContext context) {
+        super(NAME, null, layout, true, Property.EMPTY_ARRAY);
+        this.index = index;
+        this.context = context;
+    }
+
+    /**
+     * Create the appender and attach it to the root logger of the current
+     * Log4j2 context.
+     */
+    public static TraceLogAppender attach(TraceLogIndex index) {
+        LoggerContext context = LogManager.getContext(false) instanceof LoggerContext
+                ? (LoggerContext) LogManager.getContext(false)
+                : null;
+        Configuration configuration = context != null ? context.getConfiguration() : new DefaultConfiguration();
+        Layout<String> layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(configuration)
+                .setEventTemplateUri(TEMPLATE)
+                .build();
+        TraceLogAppender appender = new TraceLogAppender(layout, index, context);
+        appender.start();
+        if (context != null) {
+            appender.attachToRoot();
+            context.addPropertyChangeListener(appender.reattach);
+        } else {
+            LOGGER.debug("Log4j2 is not the logging backend; the trace log index stays empty");
+        }
+        return appender;
+    }
+
+    /**
+     * Detach from the root logger and stop.
+     */
+    public void detach() {
+        if (context != null) {
+            context.removePropertyChangeListener(reattach);
+            LoggerConfig root = context.getConfiguration().getRootLogger();
+            root.removeAppender(NAME);
+            context.updateLoggers();
+        }
+        stop();
+    }
+
+    private void attachToRoot() {
+        Configuration configuration = context.getConfiguration();
+        LoggerConfig root = configuration.getRootLogger();
+        if (!root.getAppenders().containsKey(NAME)) {
+            configuration.addAppender(this);
+            root.addAppender(this, null, null);
+            context.updateLoggers();
+        }
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        ReadOnlyStringMap data = event.getContextData();
+        String traceId = data.getValue(MdcKeys.TRACE_ID);
+        String requestId = data.getValue(MdcKeys.REQUEST_ID);
+        if (traceId == null && requestId == null) {
+            return;
+        }
+        byte[] serialized = getLayout().toByteArray(event);
+        index.add(traceId, requestId, serialized, serialized.length);
+    }
+}
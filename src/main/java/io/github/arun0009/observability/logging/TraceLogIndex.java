@@ -0,0 +1,196 @@
+package io.github.arun0009.observability.logging;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed-size ring of serialized log events, indexed by traceId and
+ * requestId.
+ * <p>
+ * Events are appended to one pre-allocated byte array and overwritten oldest
+ * first, so memory is exactly {@code size} plus the index. Each record
+ * carries the hashes of its traceId and requestId and the ring position of
+ * the previous record with the same id, forming one back-linked chain per id.
+ * A compact open-addressing table ({@code long} arrays, linear probing over a
+ * bounded window) maps each id hash to the newest record of its chain; slots
+ * whose record has been overwritten are reused, and when a probe window is
+ * full the slot pointing at the oldest record is evicted. A lookup is one
+ * probe plus a walk down the chain, stopping at the first record that has
+ * been overwritten.
+ * <p>
+ * Appends and lookups hold one lock only while copying bytes; events are
+ * serialized before it is taken.
+ * <p>
+ * Metrics: {@code logging.index.events}, {@code logging.index.events.dropped}
+ * (larger than {@code max-event-size}) and {@code logging.index.bytes}
+ * (ring bytes in use).
+ */
+public class TraceLogIndex {
+
+    // [int recordLength][int eventLength][long traceHash][long requestHash]
+    // [long previousForTrace][long previousForRequest]
+    private static final int HEADER = 40;
+    private static final int PROBE_WINDOW = 16;
+    private static final long NONE = -1;
+
+    private final byte[] ring;
+    private final ByteBuffer view;
+    private final int maxEventBytes;
+    private final long[] keys;
+    private final long[] newest;
+    private final int mask;
+    private final Counter indexed;
+    private final Counter dropped;
+
+    private long head;
+
+    public TraceLogIndex(ObservabilityProperties.LogIndex config, MeterRegistry registry) {
+        this.ring = new byte[(int) Math.min(config.getSize().toBytes(), Integer.MAX_VALUE - 8) & ~7];
+        this.view = ByteBuffer.wrap(ring);
+        this.maxEventBytes = Math.min((int) config.getMaxEventSize().toBytes(), ring.length / 4);
+        int slots = Integer.highestOneBit(Math.max(PROBE_WINDOW, config.getMaxIds()) * 2 - 1) << 1;
+        this.keys = new long[slots];
+        this.newest = new long[slots];
+        this.mask = slots - 1;
+        this.indexed = Counter.builder("logging.index.events")
+                .description("Log events stored in the trace log index")
+                .register(registry);
+        this.dropped = Counter.builder("logging.index.events.dropped")
+                .description("Log events too large for the trace log index")
+                .register(registry);
+        Gauge.builder("logging.index.bytes", this, TraceLogIndex::usedBytes)
+                .description("Bytes of the trace log index ring in use")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Store one serialized event under its traceId and/or requestId (either
+     * may be {@code null}, not both).
+     */
+    public void add(String traceId, String requestId, byte[] event, int length) {
+        if (length > maxEventBytes) {
+            dropped.increment();
+            return;
+        }
+        long traceHash = traceId != null ? hash(traceId) : 0;
+        long requestHash = requestId != null ? hash(requestId) : 0;
+        int recordLength = (HEADER + length + 7) & ~7;
+        synchronized (this) {
+            if (offset(head) + recordLength > ring.length) {
+                // Records never wrap; start the next lap
+                head = (head / ring.length + 1) * ring.length;
+            }
+            long position = head;
+            head += recordLength;
+            int offset = offset(position);
+            view.putInt(offset, recordLength);
+            view.putInt(offset + 4, length);
+            view.putLong(offset + 8, traceHash);
+            view.putLong(offset + 16, requestHash);
+            view.putLong(offset + 24, traceHash != 0 ? link(traceHash, position) : NONE);
+            view.putLong(offset + 32, requestHash != 0 ? link(requestHash, position) : NONE);
+            System.arraycopy(event, 0, ring, offset + HEADER, length);
+        }
+        indexed.increment();
+    }
+
+    /**
+     * The stored events for a traceId or requestId, oldest first.
+     */
+    public List<byte[]> find(String id) {
+        long hash = hash(id);
+        List<byte[]> events = new ArrayList<>();
+        synchronized (this) {
+            long position = lookup(hash);
+            while (position != NONE && live(position)) {
+                int offset = offset(position);
+                boolean byTrace = view.getLong(offset + 8) == hash;
+                if (!byTrace && view.getLong(offset + 16) != hash) {
+                    break;
+                }
+                int length = view.getInt(offset + 4);
+                byte[] event = new byte[length];
+                System.arraycopy(ring, offset + HEADER, event, 0, length);
+                events.add(event);
+                position = view.getLong(offset + (byTrace ? 24 : 32));
+            }
+        }
+        Collections.reverse(events);
+        return events;
+    }
+
+    public synchronized long usedBytes() {
+        return Math.min(head, ring.length);
+    }
+
+    /**
+     * Point the id's slot at {@code position} and return the previous newest
+     * record of that id, or {@link #NONE}.
+     */
+    private long link(long hash, long position) {
+        int start = (int) mix(hash) & mask;
+        int free = -1;
+        int oldest = start;
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int slot = (start + i) & mask;
+            if (keys[slot] == hash) {
+                long previous = newest[slot];
+                newest[slot] = position;
+                return live(previous) ? previous : NONE;
+            }
+            if (free < 0 && (keys[slot] == 0 || !live(newest[slot]))) {
+                free = slot;
+            }
+            if (newest[slot] < newest[oldest]) {
+                oldest = slot;
+            }
+        }
+        int slot = free >= 0 ? free : oldest;
+        keys[slot] = hash;
+        newest[slot] = position;
+        return NONE;
+    }
+
+    private long lookup(long hash) {
+        int start = (int) mix(hash) & mask;
+        for (int i = 0; i < PROBE_WINDOW; i++) {
+            int slot = (start + i) & mask;
+            if (keys[slot] == hash) {
+                return newest[slot];
+            }
+        }
+        return NONE;
+    }
+
+    private boolean live(long position) {
+        return position >= 0 && head - position <= ring.length;
+    }
+
+    private int offset(long position) {
+        return (int) (position % ring.length);
+    }
+
+    /**
+     * 64-bit FNV-1a of the id's characters, never zero.
+     */
+    static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long mix(long hash) {
+        return hash ^ (hash >>> 29) ^ (hash >>> 47);
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.arun0009.observability.logging;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link TraceLogIndex}, the appender feeding it and its
+ * lookup endpoint.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ LoggerContext.class, JsonTemplateLayout.class })
+@ConditionalOnProperty(prefix = "observability.log-index", name = "enabled", havingValue = "true")
+public class TraceLogIndexConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TraceLogIndex traceLogIndex(ObservabilityProperties properties, MeterRegistry meterRegistry) {
+        return new TraceLogIndex(properties.getLogIndex(), meterRegistry);
+    }
+
+    @Bean(destroyMethod = "detach")
+    @ConditionalOnMissingBean
+    public TraceLogAppender traceLogAppender(TraceLogIndex index) {
+        return TraceLogAppender.attach(index);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(TraceLogIndex.class)
+    @ConditionalOnAvailableEndpoint(endpoint = TraceLogsEndpoint.class)
+    public TraceLogsEndpoint traceLogsEndpoint(TraceLogIndex index) {
+        return new TraceLogsEndpoint(index);
+    }
+}
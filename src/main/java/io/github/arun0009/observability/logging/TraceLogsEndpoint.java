@@ -0,0 +1,48 @@
+package io.github.arun0009.observability.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/traces/{id}/logs}) returning the log
+ * lines held by the {@link TraceLogIndex} for a traceId or requestId, oldest
+ * first, as newline-delimited JSON.
+ *
+ * <pre>
+ * GET /actuator/traces/4bf92f3577b34da6a3ce929d0e0e4736/logs
+ * GET /actuator/traces/3f1c2a9e-7d4b-4c1a-9f0e-2b6d8a5c7e10/logs
+ * </pre>
+ *
+ * An id with no stored lines returns 404.
+ */
+@Endpoint(id = "traces")
+public class TraceLogsEndpoint {
+
+    private static final String LOGS = "logs";
+
+    private final TraceLogIndex index;
+
+    public TraceLogsEndpoint(TraceLogIndex index) {
+        this.index = index;
+    }
+
+    @ReadOperation(produces = "application/x-ndjson")
+    public String logs(@Selector String id, @Selector String resource) {
+        if (!LOGS.equals(resource)) {
+            return null;
+        }
+        List<byte[]> events = index.find(id);
+        if (events.isEmpty()) {
+            return null;
+        }
+        StringBuilder body = new StringBuilder();
+        for (byte[] event : events) {
+            body.append(new String(event, StandardCharsets.UTF_8));
+        }
+        return body.toString();
+    }
+}
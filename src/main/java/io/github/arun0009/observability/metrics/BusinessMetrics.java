@@ -4,6 +4,7 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -25,13 +26,22 @@ import java.util.function.Supplier;
  * Order order = metrics.timed("orders.processing", "type", "express",
  *     () -> orderService.processOrder(request));
  * </pre>
+ * <p>
+ * Timings made inside a sampled span are offered to the
+ * {@link ExemplarSampler}, if one is configured.
  */
 public class BusinessMetrics {
 
     private final MeterRegistry registry;
+    private final ExemplarSampler exemplarSampler;
 
     public BusinessMetrics(MeterRegistry registry) {
+        this(registry, null);
+    }
+
+    public BusinessMetrics(MeterRegistry registry, ExemplarSampler exemplarSampler) {
         this.registry = registry;
+        this.exemplarSampler = exemplarSampler;
     }
 
     /**
@@ -66,20 +76,38 @@ public class BusinessMetrics {
      * @return the result of the supplier
      */
     public <T> T timed(String name, String[] tags, Supplier<T> supplier) {
-        return Timer.builder(name)
+        Timer timer = Timer.builder(name)
                 .tags(tags)
-                .register(registry)
-                .record(supplier);
+                .register(registry);
+        long start = registry.config().clock().monotonicTime();
+        try {
+            return supplier.get();
+        } finally {
+            record(timer, name, start);
+        }
     }
 
     /**
      * Time a Runnable (no return value).
      */
     public void timed(String name, String[] tags, Runnable runnable) {
-        Timer.builder(name)
+        Timer timer = Timer.builder(name)
                 .tags(tags)
-                .register(registry)
-                .record(runnable);
+                .register(registry);
+        long start = registry.config().clock().monotonicTime();
+        try {
+            runnable.run();
+        } finally {
+            record(timer, name, start);
+        }
+    }
+
+    private void record(Timer timer, String name, long start) {
+        long duration = registry.config().clock().monotonicTime() - start;
+        timer.record(duration, TimeUnit.NANOSECONDS);
+        if (exemplarSampler != null) {
+            exemplarSampler.sample(name, duration);
+        }
     }
 
     /**
@@ -0,0 +1,165 @@
+package io.github.arun0009.observability.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Telemetry for a single {@link ThreadPoolExecutor}.
+ * <p>
+ * Acts as a {@link TaskDecorator} (wrapping any decorator the executor
+ * already had) so that every task records how long it sat in the queue and
+ * how long it ran. Metrics, all tagged with {@code name}:
+ * <ul>
+ * <li>{@code thread.pool.queue.wait} — time from submit to start</li>
+ * <li>{@code thread.pool.execution} — time spent running</li>
+ * <li>{@code thread.pool.rejected} — rejected submissions</li>
+ * <li>{@code thread.pool.saturation} — (active + queued) / (max + queue
+ * capacity)</li>
+ * <li>{@code thread.pool.concurrency} — Little's-law estimate of tasks in
+ * the system (arrival rate x time in system)</li>
+ * </ul>
+ */
+public class ExecutorInstrumentation implements TaskDecorator {
+
+    // Shorter windows make the concurrency estimate jumpy when several
+    // registries poll the same gauge.
+    private static final long MIN_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final TaskDecorator delegate;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timeInSystemNanos = new LongAdder();
+    private final AtomicBoolean bound = new AtomicBoolean();
+
+    private volatile Timer queueWaitTimer;
+    private volatile Timer executionTimer;
+
+    // Guarded by "this" — only touched by gauge reads
+    private long windowStartNanos = System.nanoTime();
+    private long windowStartTotal;
+    private double lastConcurrency;
+
+    public ExecutorInstrumentation(String name, ThreadPoolExecutor executor, TaskDecorator delegate) {
+        this.name = name;
+        this.executor = executor;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wrap the executor's current {@link RejectedExecutionHandler} so that
+     * rejections are counted before the original policy runs.
+     */
+    public void countRejections() {
+        RejectedExecutionHandler original = executor.getRejectedExecutionHandler();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            original.rejectedExecution(task, pool);
+        });
+    }
+
+    /**
+     * Register this executor's meters. Safe to call more than once.
+     */
+    public void bindTo(MeterRegistry registry) {
+        if (!bound.compareAndSet(false, true)) {
+            return;
+        }
+        queueWaitTimer = Timer.builder("thread.pool.queue.wait")
+                .tag("name", name)
+                .description("Time tasks spent queued before a worker picked them up")
+                .register(registry);
+        executionTimer = Timer.builder("thread.pool.execution")
+                .tag("name", name)
+                .description("Time tasks spent running")
+                .register(registry);
+        FunctionCounter.builder("thread.pool.rejected", rejected, LongAdder::sum)
+                .tag("name", name)
+                .description("Tasks rejected by the thread pool")
+                .register(registry);
+        Gauge.builder("thread.pool.saturation", this, ExecutorInstrumentation::saturation)
+                .tag("name", name)
+                .description("Saturation of the thread pool (0.0 to 1.0)")
+                .register(registry);
+        Gauge.builder("thread.pool.concurrency", this, ExecutorInstrumentation::concurrency)
+                .tag("name", name)
+                .description("Little's-law estimate of tasks queued or running")
+                .register(registry);
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Runnable task = delegate != null ? delegate.decorate(runnable) : runnable;
+        long submittedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            Timer queueWait = queueWaitTimer;
+            if (queueWait != null) {
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            }
+            try {
+                task.run();
+            } finally {
+                long finishedAt = System.nanoTime();
+                timeInSystemNanos.add(finishedAt - submittedAt);
+                Timer execution = executionTimer;
+                if (execution != null) {
+                    execution.record(finishedAt - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Queue-capacity-aware saturation. A bounded queue counts towards
+     * capacity; with an unbounded queue the pool never grows past its core
+     * size, so only core threads are considered.
+     */
+    public double saturation() {
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        long queued = queue.size();
+        long queueCapacity = queued + queue.remainingCapacity();
+        long active = executor.getActiveCount();
+        if (queueCapacity >= Integer.MAX_VALUE) {
+            int core = Math.max(executor.getCorePoolSize(), 1);
+            return Math.min(1.0, (double) active / core);
+        }
+        long capacity = executor.getMaximumPoolSize() + queueCapacity;
+        return capacity > 0 ? Math.min(1.0, (double) (active + queued) / capacity) : 0.0;
+    }
+
+    /**
+     * Little's law: L = lambda x W. Over a window the product equals the
+     * total time-in-system accumulated by completed tasks divided by the
+     * window length, so no rate or mean needs to be tracked separately.
+     */
+    public synchronized double concurrency() {
+        long now = System.nanoTime();
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= MIN_WINDOW_NANOS) {
+            long total = timeInSystemNanos.sum();
+            lastConcurrency = (double) (total - windowStartTotal) / elapsed;
+            windowStartNanos = now;
+            windowStartTotal = total;
+        }
+        return lastConcurrency;
+    }
+}
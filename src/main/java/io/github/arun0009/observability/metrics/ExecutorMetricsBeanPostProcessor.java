@@ -0,0 +1,93 @@
+package io.github.arun0009.observability.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Instruments every {@link ThreadPoolTaskExecutor} and {@link ThreadPoolExecutor}
+ * bean with {@link ExecutorInstrumentation}, including beans created after
+ * startup (lazy or prototype executors).
+ * <p>
+ * {@code ThreadPoolTaskExecutor}s get queue-wait and execution timers via
+ * their task decorator; plain {@code ThreadPoolExecutor}s have no decorator
+ * hook, so they only get the rejection, saturation and concurrency meters.
+ * <p>
+ * Meters are bound once all singletons exist so that the
+ * {@link MeterRegistry} is never created early from inside a post-processor.
+ */
+public class ExecutorMetricsBeanPostProcessor implements BeanPostProcessor, SmartInitializingSingleton {
+
+    /** Read by reflection; {@link MetricsRuntimeHints} registers it for native images. */
+    static final String TASK_DECORATOR_FIELD = "taskDecorator";
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<String, ExecutorInstrumentation> instrumented = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public ExecutorMetricsBeanPostProcessor(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        ExecutorInstrumentation instrumentation = null;
+        if (bean instanceof ThreadPoolTaskExecutor) {
+            instrumentation = instrument((ThreadPoolTaskExecutor) bean, beanName);
+        } else if (bean instanceof ThreadPoolExecutor) {
+            instrumentation = new ExecutorInstrumentation(beanName, (ThreadPoolExecutor) bean, null);
+            instrumentation.countRejections();
+        }
+        if (instrumentation != null && instrumented.putIfAbsent(beanName, instrumentation) == null) {
+            MeterRegistry current = registry;
+            if (current != null) {
+                instrumentation.bindTo(current);
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry available = registryProvider.getIfAvailable();
+        if (available == null) {
+            return;
+        }
+        registry = available;
+        instrumented.values().forEach(instrumentation -> instrumentation.bindTo(available));
+    }
+
+    /**
+     * Executors instrumented so far, keyed by bean name.
+     */
+    public Collection<ExecutorInstrumentation> getInstrumented() {
+        return Collections.unmodifiableCollection(instrumented.values());
+    }
+
+    private ExecutorInstrumentation instrument(ThreadPoolTaskExecutor taskExecutor, String beanName) {
+        ThreadPoolExecutor executor;
+        try {
+            executor = taskExecutor.getThreadPoolExecutor();
+        } catch (IllegalStateException notInitialized) {
+            return null;
+        }
+        // ThreadPoolTaskExecutor has no getter for its decorator, but reads the
+        // field on every execute(), so swapping it after initialization is safe.
+        TaskDecorator existing = (TaskDecorator) new DirectFieldAccessor(taskExecutor)
+                .getPropertyValue(TASK_DECORATOR_FIELD);
+        ExecutorInstrumentation instrumentation = new ExecutorInstrumentation(beanName, executor, existing);
+        taskExecutor.setTaskDecorator(instrumentation);
+        instrumentation.countRejections();
+        return instrumentation;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.arun0009.observability.metrics;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashSet;
+
+/**
+ * Registers the {@link ExemplarSampler}, the observation handler feeding it
+ * and the {@code exemplars} endpoint.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "observability.exemplars", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ExemplarConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ExemplarSampler exemplarSampler(ObservabilityProperties properties) {
+        ObservabilityProperties.Exemplars config = properties.getExemplars();
+        return new ExemplarSampler(config.getInterval(), config.getMaxMeters());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnClass(name = "io.micrometer.tracing.handler.TracingObservationHandler")
+    public ExemplarObservationHandler exemplarObservationHandler(ExemplarSampler sampler,
+            ObservabilityProperties properties) {
+        return new ExemplarObservationHandler(sampler, new HashSet<>(properties.getExemplars().getObservations()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ExemplarSampler.class)
+    @ConditionalOnAvailableEndpoint(endpoint = ExemplarsEndpoint.class)
+    public ExemplarsEndpoint exemplarsEndpoint(ExemplarSampler sampler) {
+        return new ExemplarsEndpoint(sampler);
+    }
+}
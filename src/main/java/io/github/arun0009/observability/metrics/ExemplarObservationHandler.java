@@ -0,0 +1,65 @@
+package io.github.arun0009.observability.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+
+import java.util.Set;
+
+/**
+ * Feeds the {@link ExemplarSampler} from observations such as
+ * {@code http.server.requests}.
+ * <p>
+ * The observation's scope is already closed when it stops, so the trace is
+ * read from the tracing handler's context rather than the current span.
+ */
+public class ExemplarObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private static final String START = ExemplarObservationHandler.class.getName() + ".start";
+
+    private final ExemplarSampler sampler;
+    private final Set<String> observations;
+
+    public ExemplarObservationHandler(ExemplarSampler sampler, Set<String> observations) {
+        this.sampler = sampler;
+        this.observations = observations;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        // Filtered here rather than in supportsContext: conventions may only
+        // set the name when the observation starts
+        if (observations.contains(context.getName())) {
+            context.put(START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Long start = context.get(START);
+        if (start == null) {
+            return;
+        }
+        String name = context.getName();
+        long duration = System.nanoTime() - start;
+        if (!sampler.wants(name, duration)) {
+            return;
+        }
+        TracingObservationHandler.TracingContext tracing = context.get(TracingObservationHandler.TracingContext.class);
+        Span span = tracing != null ? tracing.getSpan() : null;
+        if (span == null) {
+            return;
+        }
+        TraceContext trace = span.context();
+        if (Boolean.TRUE.equals(trace.sampled())) {
+            sampler.sample(name, duration, trace.traceId(), trace.spanId());
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+}
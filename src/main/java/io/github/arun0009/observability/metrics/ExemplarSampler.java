@@ -0,0 +1,198 @@
+package io.github.arun0009.observability.metrics;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps at most one exemplar (traceId of a sampled span) per latency bucket
+ * per meter per {@code interval}, so a spike in a histogram bucket can be
+ * followed to a matching trace.
+ * <p>
+ * Buckets follow the SLO boundaries of {@link StandardMetricsConfiguration}
+ * plus an overflow bucket. Recording is lock-free: a measurement looks up its
+ * bucket, returns immediately if that bucket already holds a fresh exemplar,
+ * and otherwise publishes a new one with a single CAS. Only that replacement
+ * allocates, so the steady-state cost is a hash lookup, a binary search and a
+ * volatile read per measurement. Unsampled spans are ignored, since their
+ * traces are not exported.
+ * <p>
+ * Exemplars are kept per meter name (not per tag set) to bound memory, up to
+ * {@code maxMeters} names.
+ */
+public class ExemplarSampler {
+
+    private final long[] upperBoundsNanos;
+    private final long intervalNanos;
+    private final int maxMeters;
+    private final Map<String, AtomicReferenceArray<Exemplar>> meters = new ConcurrentHashMap<>();
+
+    public ExemplarSampler(Duration interval, int maxMeters) {
+        Duration[] slos = StandardMetricsConfiguration.SLO_BOUNDARIES;
+        this.upperBoundsNanos = new long[slos.length];
+        for (int i = 0; i < slos.length; i++) {
+            upperBoundsNanos[i] = slos[i].toNanos();
+        }
+        this.intervalNanos = interval.toNanos();
+        this.maxMeters = maxMeters;
+    }
+
+    /**
+     * Offer the current OTel span as exemplar for a measurement of
+     * {@code meterName}.
+     */
+    public void sample(String meterName, long durationNanos) {
+        AtomicReferenceArray<Exemplar> buckets = buckets(meterName);
+        if (buckets == null) {
+            return;
+        }
+        int bucket = bucket(durationNanos);
+        long now = System.nanoTime();
+        Exemplar current = buckets.get(bucket);
+        if (current != null && now - current.sampledAtNanos < intervalNanos) {
+            return;
+        }
+        SpanContext span = Span.current().getSpanContext();
+        if (span.isSampled()) {
+            buckets.compareAndSet(bucket, current,
+                    new Exemplar(span.getTraceId(), span.getSpanId(), durationNanos, now));
+        }
+    }
+
+    /**
+     * Offer an explicit trace as exemplar, for callers that are no longer
+     * inside the span's scope.
+     */
+    public void sample(String meterName, long durationNanos, String traceId, String spanId) {
+        AtomicReferenceArray<Exemplar> buckets = buckets(meterName);
+        if (buckets == null || traceId == null) {
+            return;
+        }
+        int bucket = bucket(durationNanos);
+        long now = System.nanoTime();
+        Exemplar current = buckets.get(bucket);
+        if (current == null || now - current.sampledAtNanos >= intervalNanos) {
+            buckets.compareAndSet(bucket, current, new Exemplar(traceId, spanId, durationNanos, now));
+        }
+    }
+
+    /**
+     * Whether {@code durationNanos} for {@code meterName} would be taken as a
+     * new exemplar right now. Lets callers skip resolving the trace.
+     */
+    public boolean wants(String meterName, long durationNanos) {
+        AtomicReferenceArray<Exemplar> buckets = buckets(meterName);
+        if (buckets == null) {
+            return false;
+        }
+        Exemplar current = buckets.get(bucket(durationNanos));
+        return current == null || System.nanoTime() - current.sampledAtNanos >= intervalNanos;
+    }
+
+    /**
+     * Current exemplars by meter name, ordered by bucket.
+     */
+    public Map<String, List<Exemplar>> snapshot() {
+        Map<String, List<Exemplar>> snapshot = new TreeMap<>();
+        meters.forEach((name, buckets) -> {
+            List<Exemplar> exemplars = exemplars(buckets);
+            if (!exemplars.isEmpty()) {
+                snapshot.put(name, exemplars);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Current exemplars for one meter, ordered by bucket.
+     */
+    public List<Exemplar> exemplars(String meterName) {
+        AtomicReferenceArray<Exemplar> buckets = meters.get(meterName);
+        return buckets != null ? exemplars(buckets) : Collections.emptyList();
+    }
+
+    /**
+     * Upper bound of the bucket {@code exemplar} falls in, or {@code null}
+     * for the overflow bucket.
+     */
+    public Duration bucketUpperBound(Exemplar exemplar) {
+        int bucket = bucket(exemplar.valueNanos);
+        return bucket < upperBoundsNanos.length ? Duration.ofNanos(upperBoundsNanos[bucket]) : null;
+    }
+
+    private List<Exemplar> exemplars(AtomicReferenceArray<Exemplar> buckets) {
+        List<Exemplar> exemplars = new ArrayList<>();
+        for (int i = 0; i < buckets.length(); i++) {
+            Exemplar exemplar = buckets.get(i);
+            if (exemplar != null) {
+                exemplars.add(exemplar);
+            }
+        }
+        return exemplars;
+    }
+
+    private AtomicReferenceArray<Exemplar> buckets(String meterName) {
+        AtomicReferenceArray<Exemplar> buckets = meters.get(meterName);
+        if (buckets == null && meters.size() < maxMeters) {
+            buckets = meters.computeIfAbsent(meterName, n -> new AtomicReferenceArray<>(upperBoundsNanos.length + 1));
+        }
+        return buckets;
+    }
+
+    private int bucket(long durationNanos) {
+        int low = 0;
+        int high = upperBoundsNanos.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (durationNanos <= upperBoundsNanos[mid]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A measurement linked to the trace it was recorded in.
+     */
+    public static final class Exemplar {
+        private final String traceId;
+        private final String spanId;
+        private final long valueNanos;
+        private final long sampledAtNanos;
+        private final long epochMillis;
+
+        Exemplar(String traceId, String spanId, long valueNanos, long sampledAtNanos) {
+            this.traceId = traceId;
+            this.spanId = spanId;
+            this.valueNanos = valueNanos;
+            this.sampledAtNanos = sampledAtNanos;
+            this.epochMillis = System.currentTimeMillis();
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public String getSpanId() {
+            return spanId;
+        }
+
+        public long getValueNanos() {
+            return valueNanos;
+        }
+
+        public long getEpochMillis() {
+            return epochMillis;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.arun0009.observability.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Actuator endpoint ({@code /actuator/exemplars}) listing the current
+ * exemplar per latency bucket, e.g.
+ *
+ * <pre>
+ * GET /actuator/exemplars/http.server.requests
+ * [{"le": "500ms", "valueMs": 431.2, "traceId": "4bf9...", "spanId": "00f0...", "timestamp": ...}]
+ * </pre>
+ */
+@Endpoint(id = "exemplars")
+public class ExemplarsEndpoint {
+
+    private final ExemplarSampler sampler;
+
+    public ExemplarsEndpoint(ExemplarSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @ReadOperation
+    public Map<String, List<Map<String, Object>>> exemplars() {
+        Map<String, List<Map<String, Object>>> result = new TreeMap<>();
+        sampler.snapshot().forEach((meter, exemplars) -> result.put(meter, describe(exemplars)));
+        return result;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> exemplars(@Selector String meter) {
+        return describe(sampler.exemplars(meter));
+    }
+
+    private List<Map<String, Object>> describe(List<ExemplarSampler.Exemplar> exemplars) {
+        List<Map<String, Object>> described = new ArrayList<>();
+        for (ExemplarSampler.Exemplar exemplar : exemplars) {
+            Duration le = sampler.bucketUpperBound(exemplar);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("le", le != null ? le.toMillis() + "ms" : "+Inf");
+            entry.put("valueMs", exemplar.getValueNanos() / 1_000_000.0);
+            entry.put("traceId", exemplar.getTraceId());
+            entry.put("spanId", exemplar.getSpanId());
+            entry.put("timestamp", exemplar.getEpochMillis());
+            described.add(entry);
+        }
+        return described;
+    }
+}
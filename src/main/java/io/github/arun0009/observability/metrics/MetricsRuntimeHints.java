@@ -0,0 +1,26 @@
+package io.github.arun0009.observability.metrics;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+/**
+ * Native-image hints for {@link ExecutorMetricsBeanPostProcessor}, which
+ * reads the private {@code taskDecorator} field of
+ * {@link ThreadPoolTaskExecutor} by reflection to chain the application's
+ * own decorator behind the instrumentation.
+ */
+public class MetricsRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        Field taskDecorator = ReflectionUtils.findField(ThreadPoolTaskExecutor.class,
+                ExecutorMetricsBeanPostProcessor.TASK_DECORATOR_FIELD);
+        if (taskDecorator != null) {
+            hints.reflection().registerField(taskDecorator);
+        }
+    }
+}
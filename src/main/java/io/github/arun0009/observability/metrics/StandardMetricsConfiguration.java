@@ -14,6 +14,16 @@ import java.time.Duration;
 @Configuration(proxyBeanMethods = false)
 public class StandardMetricsConfiguration {
 
+    /** SLO buckets published for latency histograms; exemplars use the same buckets. */
+    static final Duration[] SLO_BOUNDARIES = {
+            Duration.ofMillis(50),
+            Duration.ofMillis(100),
+            Duration.ofMillis(250),
+            Duration.ofMillis(500),
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(5)
+    };
+
     @Bean
     public MeterRegistryCustomizer<MeterRegistry> commonTags(
             @Value("${spring.application.name:unknown-service}") String serviceName,
@@ -33,13 +43,7 @@ public class StandardMetricsConfiguration {
                     return DistributionStatisticConfig.builder()
                             .percentilesHistogram(true)
                             .percentiles(0.5, 0.9, 0.95, 0.99)
-                            .serviceLevelObjectives(
-                                    Duration.ofMillis(50).toNanos(),
-                                    Duration.ofMillis(100).toNanos(),
-                                    Duration.ofMillis(250).toNanos(),
-                                    Duration.ofMillis(500).toNanos(),
-                                    Duration.ofSeconds(1).toNanos(),
-                                    Duration.ofSeconds(5).toNanos())
+                            .serviceLevelObjectives(sloNanos())
                             .build()
                             .merge(config);
                 }
@@ -47,4 +51,12 @@ public class StandardMetricsConfiguration {
             }
         };
     }
+
+    private static double[] sloNanos() {
+        double[] nanos = new double[SLO_BOUNDARIES.length];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = SLO_BOUNDARIES[i].toNanos();
+        }
+        return nanos;
+    }
 }
@@ -0,0 +1,91 @@
+package io.github.arun0009.observability.profiling;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity open-addressing table counting samples per (route, stack).
+ * <p>
+ * All arrays are allocated up front, so the table itself allocates nothing
+ * per sample: the stack array the sampler captured (which
+ * {@code getThreadInfo} allocates) is kept as the key on first occurrence
+ * and only rendered to a folded string when the table is read.
+ * Once {@code maxEntries} distinct stacks are held, samples of new stacks
+ * are rejected rather than growing the table.
+ * <p>
+ * Not thread-safe; {@link RouteProfiler} guards access.
+ */
+class CollapsedStackTable {
+
+    interface Visitor {
+        void visit(String route, StackTraceElement[] stack, long count);
+    }
+
+    private final int maxEntries;
+    private final int mask;
+    private final int[] hashes;
+    private final String[] routes;
+    private final StackTraceElement[][] stacks;
+    private final long[] counts;
+    private int size;
+
+    CollapsedStackTable(int maxEntries) {
+        this.maxEntries = maxEntries;
+        // Keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.hashes = new int[capacity];
+        this.routes = new String[capacity];
+        this.stacks = new StackTraceElement[capacity][];
+        this.counts = new long[capacity];
+    }
+
+    /**
+     * @return {@code false} if the sample was dropped because the table is
+     *         full
+     */
+    boolean add(String route, StackTraceElement[] stack) {
+        int hash = mix(route.hashCode() * 31 + Arrays.hashCode(stack));
+        int i = hash & mask;
+        while (stacks[i] != null) {
+            if (hashes[i] == hash && routes[i].equals(route) && Arrays.equals(stacks[i], stack)) {
+                counts[i]++;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size >= maxEntries) {
+            return false;
+        }
+        hashes[i] = hash;
+        routes[i] = route;
+        stacks[i] = stack;
+        counts[i] = 1;
+        size++;
+        return true;
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < stacks.length; i++) {
+            if (stacks[i] != null) {
+                visitor.visit(routes[i], stacks[i], counts[i]);
+            }
+        }
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(routes, null);
+            Arrays.fill(stacks, null);
+            Arrays.fill(counts, 0);
+            size = 0;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.arun0009.observability.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Actuator endpoint ({@code /actuator/flamegraph}) serving the samples of the
+ * {@link RouteProfiler} as folded stacks, the input format of
+ * {@code flamegraph.pl}, speedscope and most flamegraph viewers.
+ * <ul>
+ * <li>{@code GET /actuator/flamegraph} — all routes, route as root frame</li>
+ * <li>{@code GET /actuator/flamegraph?route=GET%20/orders/{id}} — one
+ * route</li>
+ * <li>{@code GET /actuator/flamegraph?traceId=...} — one recent trace</li>
+ * <li>{@code windows=N} — only the N most recent time windows</li>
+ * <li>{@code DELETE /actuator/flamegraph} — discard collected samples</li>
+ * </ul>
+ */
+@Endpoint(id = "flamegraph")
+public class FlamegraphEndpoint {
+
+    private final RouteProfiler profiler;
+
+    public FlamegraphEndpoint(RouteProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation(produces = "text/plain")
+    public String folded(@Nullable String route, @Nullable String traceId, @Nullable Integer windows) {
+        return profiler.folded(route, traceId, windows);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
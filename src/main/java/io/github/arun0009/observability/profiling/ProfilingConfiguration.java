@@ -0,0 +1,40 @@
+package io.github.arun0009.observability.profiling;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the per-route {@link RouteProfiler} with its flamegraph endpoint,
+ * and the {@link SlowRequestWatchdog}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ProfilingConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "observability.profiling", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public RouteProfiler routeProfiler(ObservabilityProperties properties, MeterRegistry meterRegistry) {
+        return new RouteProfiler(properties.getProfiling(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(RouteProfiler.class)
+    @ConditionalOnAvailableEndpoint(endpoint = FlamegraphEndpoint.class)
+    public FlamegraphEndpoint flamegraphEndpoint(RouteProfiler profiler) {
+        return new FlamegraphEndpoint(profiler);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "observability.watchdog", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SlowRequestWatchdog slowRequestWatchdog(ObservabilityProperties properties, MeterRegistry meterRegistry) {
+        return new SlowRequestWatchdog(properties.getWatchdog(), meterRegistry);
+    }
+}
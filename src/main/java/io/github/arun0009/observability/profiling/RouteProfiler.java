@@ -0,0 +1,261 @@
+package io.github.arun0009.observability.profiling;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.ThreadTraceIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Always-on wall-clock sampler that attributes stack samples to the route and
+ * trace each request thread is serving.
+ * <p>
+ * Every {@code interval} one background thread takes the threads that
+ * currently have an open {@link ThreadTraceIndex} binding (bound by
+ * {@link io.github.arun0009.observability.core.MdcFilter}) and captures their
+ * stacks with a single {@link ThreadMXBean#getThreadInfo(long[], int)} call.
+ * Idle threads are never sampled and nothing is captured when no request is
+ * in flight, which keeps the cost proportional to actual load. Each sample
+ * still brings the JVM to a safepoint, which is why the default interval is
+ * half a second.
+ * <p>
+ * Samples are counted per (route, stack) in a ring of {@code windows}
+ * {@link CollapsedStackTable}s, each covering {@code window}; the oldest is
+ * cleared and reused as time moves on. The most recent {@code max-traces}
+ * traces keep their own small table so a single slow request can be
+ * inspected too. Results are served as folded stacks by the
+ * {@code flamegraph} actuator endpoint.
+ * <p>
+ * Metrics: {@code profiling.samples} and {@code profiling.samples.dropped}
+ * (stacks not recorded because a table was full).
+ */
+public class RouteProfiler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteProfiler.class);
+
+    private static final int STACKS_PER_TRACE = 128;
+
+    private final ObservabilityProperties.Profiling config;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final CollapsedStackTable[] windows;
+    private final long windowMillis;
+    private final Map<String, CollapsedStackTable> traces;
+    private final ArrayDeque<CollapsedStackTable> spareTraceTables = new ArrayDeque<>();
+    private final List<ThreadTraceIndex.Binding> inFlight = new ArrayList<>();
+    private final Counter samples;
+    private final Counter dropped;
+
+    private int current;
+    private long windowStart;
+    private ScheduledExecutorService scheduler;
+
+    public RouteProfiler(ObservabilityProperties.Profiling config, MeterRegistry registry) {
+        this.config = config;
+        this.windows = new CollapsedStackTable[Math.max(1, config.getWindows())];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new CollapsedStackTable(config.getMaxStacks());
+        }
+        this.windowMillis = config.getWindow().toMillis();
+        Assert.isTrue(windowMillis > 0, "observability.profiling.window must be at least 1ms");
+        this.windowStart = System.currentTimeMillis();
+        int maxTraces = config.getMaxTraces();
+        this.traces = new LinkedHashMap<>(maxTraces * 2) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CollapsedStackTable> eldest) {
+                if (size() > maxTraces) {
+                    CollapsedStackTable table = eldest.getValue();
+                    table.clear();
+                    spareTraceTables.push(table);
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.samples = Counter.builder("profiling.samples")
+                .description("Stack samples taken of in-flight requests")
+                .register(registry);
+        this.dropped = Counter.builder("profiling.samples.dropped")
+                .description("Stack samples not recorded because the stack table was full")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "obs-profiler");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sample();
+            } catch (RuntimeException e) {
+                log.debug("Profiling sample failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Take one sample of every thread currently serving a request.
+     */
+    void sample() {
+        inFlight.clear();
+        ThreadTraceIndex.collectOpen(inFlight);
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        long[] ids = new long[inFlight.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = inFlight.get(i).getThreadId();
+        }
+        ThreadInfo[] infos = threads.getThreadInfo(ids, config.getStackDepth());
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            rotate(now);
+            for (int i = 0; i < infos.length; i++) {
+                ThreadTraceIndex.Binding binding = inFlight.get(i);
+                // Skip threads that finished the request while we were sampling
+                if (infos[i] == null || !ThreadTraceIndex.isCurrent(binding)) {
+                    continue;
+                }
+                StackTraceElement[] stack = infos[i].getStackTrace();
+                if (stack.length == 0) {
+                    continue;
+                }
+                String route = binding.getRoute() != null ? binding.getRoute() : ThreadTraceIndex.UNKNOWN_ROUTE;
+                samples.increment();
+                if (!windows[current].add(route, stack)) {
+                    dropped.increment();
+                }
+                if (binding.getTraceId() != null) {
+                    traceTable(binding.getTraceId()).add(route, stack);
+                }
+            }
+        }
+    }
+
+    /**
+     * Folded stacks ({@code frame;frame;frame count} per line, root first) for
+     * a trace, a route, or all routes with the route as root frame.
+     *
+     * @param route       only this route, or {@code null}
+     * @param traceId     only this recent trace, or {@code null}
+     * @param windowCount how many of the most recent windows to include, or
+     *                    {@code null} for all
+     */
+    public synchronized String folded(String route, String traceId, Integer windowCount) {
+        rotate(System.currentTimeMillis());
+        Map<String, Long> folded = new HashMap<>();
+        boolean routeAsRoot = route == null && traceId == null;
+        CollapsedStackTable.Visitor collector = (sampleRoute, stack, count) -> {
+            if (route == null || route.equals(sampleRoute)) {
+                folded.merge(fold(routeAsRoot ? sampleRoute : null, stack), count, Long::sum);
+            }
+        };
+        if (traceId != null) {
+            CollapsedStackTable table = traces.get(traceId);
+            if (table != null) {
+                table.forEach(collector);
+            }
+        } else {
+            int count = windowCount != null ? Math.min(Math.max(1, windowCount), windows.length) : windows.length;
+            for (int i = 0; i < count; i++) {
+                windows[Math.floorMod(current - i, windows.length)].forEach(collector);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        folded.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> sb.append(e.getKey()).append(' ').append(e.getValue()).append('\n'));
+        return sb.toString();
+    }
+
+    /**
+     * Move to the window containing {@code now}, clearing the windows
+     * passed over.
+     */
+    synchronized void rotate(long now) {
+        long elapsedWindows = (now - windowStart) / windowMillis;
+        if (elapsedWindows <= 0) {
+            return;
+        }
+        for (long i = 0; i < Math.min(elapsedWindows, windows.length); i++) {
+            current = (current + 1) % windows.length;
+            windows[current].clear();
+        }
+        windowStart += elapsedWindows * windowMillis;
+    }
+
+    private CollapsedStackTable traceTable(String traceId) {
+        CollapsedStackTable table = traces.get(traceId);
+        if (table == null) {
+            table = spareTraceTables.isEmpty() ? new CollapsedStackTable(STACKS_PER_TRACE) : spareTraceTables.pop();
+            traces.put(traceId, table);
+        }
+        return table;
+    }
+
+    static String fold(String root, StackTraceElement[] stack) {
+        StringBuilder sb = new StringBuilder();
+        if (root != null) {
+            sb.append(root.replace(';', ':'));
+        }
+        for (int i = stack.length - 1; i >= 0; i--) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(stack[i].getClassName()).append('.').append(stack[i].getMethodName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Drop all recorded samples.
+     */
+    public synchronized void reset() {
+        for (CollapsedStackTable window : windows) {
+            window.clear();
+        }
+        Iterator<CollapsedStackTable> it = traces.values().iterator();
+        while (it.hasNext()) {
+            CollapsedStackTable table = it.next();
+            table.clear();
+            spareTraceTables.push(table);
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.arun0009.observability.profiling;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.ThreadTraceIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the stacks of requests that run longer than {@code threshold} and
+ * reports where their time went when they finish.
+ * <p>
+ * In-flight requests are the open {@link ThreadTraceIndex} bindings made by
+ * {@link io.github.arun0009.observability.core.MdcFilter} (thread, start
+ * time, traceId, route). Every {@code interval} one watchdog thread picks the
+ * bindings older than the threshold and captures only their stacks, so fast
+ * requests are never sampled. Each slow request collects a small stack
+ * histogram; when it ends, {@code MdcFilter} calls {@link #onRequestEnd()} on
+ * the request thread and a single WARN line is logged with the request's own
+ * MDC, listing the most frequent stacks.
+ * <p>
+ * Metric: {@code http.server.requests.slow} counts reported requests.
+ */
+public class SlowRequestWatchdog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowRequestWatchdog.class);
+
+    private static final String NO_ROUTE = "";
+
+    private final ObservabilityProperties.Watchdog config;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Map<ThreadTraceIndex.Binding, SlowRequest> slowRequests = new ConcurrentHashMap<>();
+    private final List<ThreadTraceIndex.Binding> inFlight = new ArrayList<>();
+    private final Counter reported;
+
+    private ScheduledExecutorService scheduler;
+
+    public SlowRequestWatchdog(ObservabilityProperties.Watchdog config, MeterRegistry registry) {
+        this.config = config;
+        this.reported = Counter.builder("http.server.requests.slow")
+                .description("Requests that exceeded the watchdog threshold")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "obs-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sample();
+            } catch (RuntimeException e) {
+                log.debug("Slow request sampling failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Called on the request thread as the request finishes, while its MDC and
+     * binding are still in place. Costs one map emptiness check unless the
+     * request was slow.
+     */
+    public void onRequestEnd() {
+        if (slowRequests.isEmpty()) {
+            return;
+        }
+        ThreadTraceIndex.Binding binding = ThreadTraceIndex.currentBinding();
+        SlowRequest slow = binding != null ? slowRequests.remove(binding) : null;
+        if (slow != null) {
+            reported.increment();
+            log.warn("Slow request {} took {} ms [traceId={}, samples={}]\n{}",
+                    binding.getRoute(), System.currentTimeMillis() - binding.getStartMillis(),
+                    binding.getTraceId(), slow.samples(), slow.histogram(config.getTopStacks()));
+        }
+    }
+
+    /**
+     * Take one sample of every request over the threshold.
+     */
+    void sample() {
+        long now = System.currentTimeMillis();
+        long threshold = config.getThreshold().toMillis();
+        inFlight.clear();
+        ThreadTraceIndex.collectOpen(inFlight);
+        inFlight.removeIf(binding -> now - binding.getStartMillis() < threshold);
+        // Drop requests that ended without reporting (e.g. bound outside MdcFilter)
+        slowRequests.keySet().removeIf(binding -> !ThreadTraceIndex.isCurrent(binding));
+        if (inFlight.isEmpty()) {
+            return;
+        }
+        long[] ids = new long[inFlight.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = inFlight.get(i).getThreadId();
+        }
+        ThreadInfo[] infos = threads.getThreadInfo(ids, config.getStackDepth());
+        for (int i = 0; i < infos.length; i++) {
+            ThreadTraceIndex.Binding binding = inFlight.get(i);
+            if (infos[i] != null && infos[i].getStackTrace().length > 0 && ThreadTraceIndex.isCurrent(binding)) {
+                slowRequests.computeIfAbsent(binding, b -> new SlowRequest(config.getMaxStacks()))
+                        .add(infos[i].getStackTrace());
+            }
+        }
+    }
+
+    /**
+     * Stack histogram of one slow request. Written by the watchdog thread,
+     * read by the request thread when it ends.
+     */
+    private static final class SlowRequest {
+        private final CollapsedStackTable stacks;
+        private int samples;
+
+        SlowRequest(int maxStacks) {
+            this.stacks = new CollapsedStackTable(maxStacks);
+        }
+
+        synchronized void add(StackTraceElement[] stack) {
+            samples++;
+            stacks.add(NO_ROUTE, stack);
+        }
+
+        synchronized int samples() {
+            return samples;
+        }
+
+        synchronized String histogram(int top) {
+            List<Map.Entry<StackTraceElement[], Long>> entries = new ArrayList<>();
+            stacks.forEach((route, stack, count) -> entries.add(Map.entry(stack, count)));
+            entries.sort(Map.Entry.<StackTraceElement[], Long>comparingByValue().reversed());
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < Math.min(top, entries.size()); i++) {
+                sb.append("\t--- ").append(entries.get(i).getValue()).append('/').append(samples)
+                        .append(" samples ---\n");
+                for (StackTraceElement frame : entries.get(i).getKey()) {
+                    sb.append("\tat ").append(frame).append('\n');
+                }
+            }
+            if (entries.size() > top) {
+                sb.append("\t... ").append(entries.size() - top).append(" more distinct stacks\n");
+            }
+            return sb.toString();
+        }
+    }
+}
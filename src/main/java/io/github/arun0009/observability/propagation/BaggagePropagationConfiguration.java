@@ -0,0 +1,44 @@
+package io.github.arun0009.observability.propagation;
+
+import io.github.arun0009.observability.core.PropagationMode;
+import io.opentelemetry.api.baggage.Baggage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Registers the {@link BaggageScopeFilter} when
+ * {@code observability.propagation.mode} is {@code baggage} or {@code both}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(Baggage.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Conditional(BaggagePropagationConfiguration.BaggageModeCondition.class)
+public class BaggagePropagationConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public BaggageScopeFilter baggageScopeFilter() {
+        return new BaggageScopeFilter();
+    }
+
+    static class BaggageModeCondition extends SpringBootCondition {
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            PropagationMode mode = Binder.get(context.getEnvironment())
+                    .bind("observability.propagation.mode", PropagationMode.class)
+                    .orElse(PropagationMode.HEADERS);
+            return mode.usesBaggage()
+                    ? ConditionOutcome.match("propagation mode " + mode + " uses baggage")
+                    : ConditionOutcome.noMatch("propagation mode " + mode + " does not use baggage");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.arun0009.observability.propagation;
+
+import io.github.arun0009.observability.core.PropagationField;
+import io.opentelemetry.api.baggage.Baggage;
+import io.opentelemetry.api.baggage.BaggageBuilder;
+import io.opentelemetry.context.Scope;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.io.IOException;
+
+/**
+ * Makes the request's {@link PropagationField}s current OpenTelemetry
+ * {@link Baggage} for the rest of the request, so the OpenTelemetry
+ * propagators write them into the W3C {@code baggage} header of every
+ * instrumented outbound call (RestTemplate, WebClient, RestClient, Kafka
+ * observations).
+ * <p>
+ * Runs just after {@link io.github.arun0009.observability.core.MdcFilter},
+ * which has already read the fields from the inbound headers and baggage.
+ * Registered in {@code baggage} and {@code both} propagation modes.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 102)
+public class BaggageScopeFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!PropagationField.anyPresent()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        BaggageBuilder baggage = Baggage.current().toBuilder();
+        for (PropagationField field : PropagationField.FIELDS) {
+            String value = field.currentValue();
+            if (value != null) {
+                baggage.put(field.mdcKey(), value);
+            }
+        }
+        try (Scope ignored = baggage.build().makeCurrent()) {
+            chain.doFilter(request, response);
+        }
+    }
+}
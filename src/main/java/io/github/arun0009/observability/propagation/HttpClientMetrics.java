@@ -0,0 +1,272 @@
+package io.github.arun0009.observability.propagation;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client-side latency histograms and in-flight gauges for outbound HTTP
+ * calls, per client, target host and URI template.
+ * <p>
+ * The URI template comes from the caller when it is known (e.g. from the
+ * {@code RestClient} observation); otherwise the path is templated by
+ * replacing numeric, UUID and long hex segments with {@code {id}}. Series are
+ * bounded: hosts beyond {@code max-hosts} and host/URI pairs beyond
+ * {@code max-uris} (distinct pairs across all clients, whatever their method
+ * and status) get the URI {@code other}. Meters are cached, so a call costs
+ * a few map lookups and no meter builder.
+ * <p>
+ * Metrics: {@code http.client.duration} (percentile histogram) by
+ * {@code client}, {@code method}, {@code host}, {@code uri} and
+ * {@code status}, and {@code http.client.active} by {@code client} and
+ * {@code host}.
+ */
+public class HttpClientMetrics {
+
+    static final String OTHER = "other";
+    static final String IO_ERROR = "IO_ERROR";
+
+    private final MeterRegistry registry;
+    private final int maxHosts;
+    private final int maxUris;
+    private final Map<String, Boolean> hosts = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Boolean>> uris = new ConcurrentHashMap<>();
+    private final AtomicInteger uriCount = new AtomicInteger();
+    private final Map<SeriesKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> active = new ConcurrentHashMap<>();
+
+    public HttpClientMetrics(ObservabilityProperties.HttpClient config, MeterRegistry registry) {
+        this.registry = registry;
+        this.maxHosts = config.getMaxHosts();
+        this.maxUris = config.getMaxUris();
+    }
+
+    MeterRegistry registry() {
+        return registry;
+    }
+
+    int maxHosts() {
+        return maxHosts;
+    }
+
+    /**
+     * Start timing a call; {@code uriTemplate} may be {@code null}.
+     */
+    public Sample start(String client, String method, URI uri, String uriTemplate) {
+        String host = host(uri.getHost());
+        AtomicInteger inFlight = active(client, host);
+        inFlight.incrementAndGet();
+        String template = uri(host, uriTemplate != null ? pathOf(uriTemplate) : templated(uri.getRawPath()));
+        return new Sample(client, method, host, template, inFlight, System.nanoTime());
+    }
+
+    private String host(String host) {
+        if (host == null) {
+            return "none";
+        }
+        if (hosts.containsKey(host)) {
+            return host;
+        }
+        if (hosts.size() >= maxHosts) {
+            return OTHER;
+        }
+        hosts.putIfAbsent(host, Boolean.TRUE);
+        return host;
+    }
+
+    private String uri(String host, String template) {
+        Map<String, Boolean> known = uris.get(host);
+        if (known == null) {
+            known = uris.computeIfAbsent(host, h -> new ConcurrentHashMap<>());
+        }
+        if (known.containsKey(template)) {
+            return template;
+        }
+        if (uriCount.get() >= maxUris) {
+            return OTHER;
+        }
+        if (known.putIfAbsent(template, Boolean.TRUE) == null) {
+            uriCount.incrementAndGet();
+        }
+        return template;
+    }
+
+    private AtomicInteger active(String client, String host) {
+        String key = client + " " + host;
+        AtomicInteger inFlight = active.get(key);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        return active.computeIfAbsent(key, k -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("http.client.active", counter, AtomicInteger::get)
+                    .tag("client", client)
+                    .tag("host", host)
+                    .description("Outbound HTTP calls in flight")
+                    .register(registry);
+            return counter;
+        });
+    }
+
+    private Timer timer(SeriesKey key) {
+        Timer timer = timers.get(key);
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(key, k -> Timer.builder("http.client.duration")
+                .tag("client", k.client)
+                .tag("method", k.method)
+                .tag("host", k.host)
+                .tag("uri", k.uri)
+                .tag("status", k.status)
+                .description("Client-side latency of outbound HTTP calls")
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    /**
+     * The path of a URI template, without scheme, host or query.
+     */
+    static String pathOf(String uriTemplate) {
+        String path = uriTemplate;
+        int scheme = path.indexOf("://");
+        if (scheme >= 0) {
+            int slash = path.indexOf('/', scheme + 3);
+            path = slash >= 0 ? path.substring(slash) : "/";
+        }
+        int query = path.indexOf('?');
+        return query >= 0 ? path.substring(0, query) : path;
+    }
+
+    /**
+     * Replace path segments that look like identifiers with {@code {id}}.
+     */
+    static String templated(String path) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        StringBuilder out = null;
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (isIdentifier(path, start, end)) {
+                if (out == null) {
+                    out = new StringBuilder(path.length()).append(path, 0, start);
+                }
+                out.append("{id}");
+            } else if (out != null) {
+                out.append(path, start, end);
+            }
+            if (end < path.length() && out != null) {
+                out.append('/');
+            }
+            start = end + 1;
+        }
+        return out != null ? out.toString() : path;
+    }
+
+    private static boolean isIdentifier(String path, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return false;
+        }
+        boolean digits = true;
+        boolean hex = true;
+        int dashes = 0;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c == '-') {
+                dashes++;
+                digits = false;
+            } else if (c < '0' || c > '9') {
+                digits = false;
+                if (Character.digit(c, 16) < 0) {
+                    hex = false;
+                }
+            }
+        }
+        boolean uuid = length == 36 && dashes == 4 && hex;
+        boolean longHex = length >= 16 && dashes == 0 && hex;
+        return digits || uuid || longHex;
+    }
+
+    /**
+     * One call being timed.
+     */
+    public final class Sample {
+        private final String client;
+        private final String method;
+        private final String host;
+        private final String uri;
+        private final AtomicInteger inFlight;
+        private final long startNanos;
+
+        private Sample(String client, String method, String host, String uri, AtomicInteger inFlight,
+                long startNanos) {
+            this.client = client;
+            this.method = method;
+            this.host = host;
+            this.uri = uri;
+            this.inFlight = inFlight;
+            this.startNanos = startNanos;
+        }
+
+        public void stop(int status) {
+            stop(Integer.toString(status));
+        }
+
+        public void stopExceptionally() {
+            stop(IO_ERROR);
+        }
+
+        private void stop(String status) {
+            inFlight.decrementAndGet();
+            timer(new SeriesKey(client, method, host, uri, status))
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class SeriesKey {
+        private final String client;
+        private final String method;
+        private final String host;
+        private final String uri;
+        private final String status;
+        private final int hash;
+
+        SeriesKey(String client, String method, String host, String uri, String status) {
+            this.client = client;
+            this.method = method;
+            this.host = host;
+            this.uri = uri;
+            this.status = status;
+            this.hash = Objects.hash(client, method, host, uri, status);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SeriesKey)) {
+                return false;
+            }
+            SeriesKey other = (SeriesKey) o;
+            return hash == other.hash && client.equals(other.client) && method.equals(other.method)
+                    && host.equals(other.host) && uri.equals(other.uri) && status.equals(other.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
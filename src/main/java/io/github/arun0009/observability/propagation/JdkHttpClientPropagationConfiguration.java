@@ -0,0 +1,61 @@
+package io.github.arun0009.observability.propagation;
+
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+
+/**
+ * Wraps every {@link HttpClient} bean in an {@link ObservedHttpClient}, so
+ * calls made through it (including {@code sendAsync}) propagate MDC context,
+ * are observed, and feed {@link HttpClientMetrics} and the
+ * {@link DependencyMatrix}.
+ * <p>
+ * The JDK client has no interceptor hook, so services must take the client
+ * from the context rather than calling {@code HttpClient.newHttpClient()}:
+ *
+ * <pre>
+ * {@literal @}Bean HttpClient httpClient() { return HttpClient.newHttpClient(); }
+ * </pre>
+ */
+@Configuration(proxyBeanMethods = false)
+public class JdkHttpClientPropagationConfiguration {
+
+    @Bean
+    public static JdkHttpClientBeanPostProcessor jdkHttpClientBeanPostProcessor(
+            ObjectProvider<PropagationInjector> injector, ObjectProvider<HttpClientMetrics> metrics,
+            ObjectProvider<ObservationRegistry> observations, ObjectProvider<DependencyMatrix> dependencies) {
+        return new JdkHttpClientBeanPostProcessor(injector, metrics, observations, dependencies);
+    }
+
+    static class JdkHttpClientBeanPostProcessor implements BeanPostProcessor {
+        private final ObjectProvider<PropagationInjector> injector;
+        private final ObjectProvider<HttpClientMetrics> metrics;
+        private final ObjectProvider<ObservationRegistry> observations;
+        private final ObjectProvider<DependencyMatrix> dependencies;
+
+        JdkHttpClientBeanPostProcessor(ObjectProvider<PropagationInjector> injector,
+                ObjectProvider<HttpClientMetrics> metrics, ObjectProvider<ObservationRegistry> observations,
+                ObjectProvider<DependencyMatrix> dependencies) {
+            this.injector = injector;
+            this.metrics = metrics;
+            this.observations = observations;
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HttpClient && !(bean instanceof ObservedHttpClient)) {
+                return new ObservedHttpClient((HttpClient) bean,
+                        injector.getIfAvailable(() -> PropagationInjector.HEADERS), metrics.getIfAvailable(),
+                        observations.getIfAvailable(), dependencies.getIfAvailable());
+            }
+            return bean;
+        }
+    }
+}
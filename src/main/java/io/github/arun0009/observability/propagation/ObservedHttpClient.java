@@ -0,0 +1,278 @@
+package io.github.arun0009.observability.propagation;
+
+import io.github.arun0009.observability.core.PropagationField;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.Kind;
+import io.micrometer.observation.transport.RequestReplySenderContext;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+/**
+ * {@link HttpClient} decorator that adds to every call what the starter's
+ * interceptors add for the other clients: the {@link PropagationField}s as
+ * headers and/or baggage, a client observation (span and trace context
+ * headers when tracing is present), {@link HttpClientMetrics} and the
+ * {@link DependencyMatrix}.
+ * <p>
+ * For {@link #sendAsync sendAsync}, stages the caller chains onto the
+ * returned future before it completes run with the caller's MDC and current
+ * observation restored, since the client completes responses on its own
+ * threads. Stages chained afterwards run on the chaining thread as usual.
+ * <p>
+ * Applied to {@code HttpClient} beans by
+ * {@link JdkHttpClientPropagationConfiguration}; clients built elsewhere can
+ * be wrapped with the public constructor.
+ */
+public class ObservedHttpClient extends HttpClient {
+
+    static final String CLIENT = "HttpClient";
+    static final String OBSERVATION = "http.client.jdk.requests";
+
+    private final HttpClient delegate;
+    private final PropagationInjector injector;
+    private final HttpClientMetrics metrics;
+    private final ObservationRegistry observations;
+    private final DependencyMatrix dependencies;
+
+    public ObservedHttpClient(HttpClient delegate, PropagationInjector injector, HttpClientMetrics metrics,
+            ObservationRegistry observations) {
+        this(delegate, injector, metrics, observations, null);
+    }
+
+    public ObservedHttpClient(HttpClient delegate, PropagationInjector injector, HttpClientMetrics metrics,
+            ObservationRegistry observations, DependencyMatrix dependencies) {
+        this.delegate = delegate;
+        this.injector = injector;
+        this.metrics = metrics;
+        this.observations = observations != null ? observations : ObservationRegistry.NOOP;
+        this.dependencies = dependencies;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        Call call = start(request);
+        try {
+            HttpResponse<T> response = delegate.send(call.request, responseBodyHandler);
+            call.stop(response, null);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            call.stop(null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return sendAsync(request, responseBodyHandler, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+            HttpResponse.BodyHandler<T> responseBodyHandler, HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        Map<String, String> callerMdc = MDC.getCopyOfContextMap();
+        Observation callerObservation = observations.getCurrentObservation();
+        Call call = start(request);
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<T>> sent;
+        try {
+            sent = delegate.sendAsync(call.request, responseBodyHandler, pushPromiseHandler);
+        } catch (RuntimeException e) {
+            call.stop(null, e);
+            throw e;
+        }
+        // Cancelling the returned future, or a timeout on it, aborts the
+        // request as it would on the plain client
+        result.whenComplete((response, error) -> {
+            if (error != null && !sent.isDone()) {
+                sent.cancel(true);
+            }
+        });
+        sent.whenComplete((response, error) -> {
+            call.stop(response, error);
+            // Complete on the client's thread with the caller's context, so
+            // stages already chained onto the result see it
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            restore(callerMdc);
+            Observation.Scope scope = callerObservation != null ? callerObservation.openScope() : null;
+            try {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            } finally {
+                if (scope != null) {
+                    scope.close();
+                }
+                restore(previous);
+            }
+        });
+        return result;
+    }
+
+    private Call start(HttpRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        Set<String> propagated = new HashSet<>();
+        RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> context = new RequestReplySenderContext<>(
+                (carrier, name, value) -> {
+                    carrier.setHeader(name, value);
+                    propagated.add(name.toLowerCase(Locale.ROOT));
+                }, Kind.CLIENT);
+        context.setCarrier(builder);
+        context.setRemoteServiceName(request.uri().getHost());
+        Observation observation = Observation.createNotStarted(OBSERVATION, () -> context, observations)
+                .contextualName("HTTP " + request.method())
+                .lowCardinalityKeyValue("method", request.method())
+                // Hosts are unbounded; metrics by host come from HttpClientMetrics
+                .highCardinalityKeyValue("client.name", String.valueOf(request.uri().getHost()))
+                .start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            // A baggage header from the caller or the tracing propagators wins
+            injector.inject(builder, HttpRequest.Builder::setHeader,
+                    (b, name) -> propagated.contains(name) ? "" : request.headers().firstValue(name).orElse(null));
+        }
+        HttpRequest outbound = builder.build();
+        HttpClientMetrics.Sample sample = metrics != null
+                ? metrics.start(CLIENT, request.method(), request.uri(), null)
+                : null;
+        DependencyMatrix.Dependency dependency = dependencies != null
+                ? dependencies.http(request.uri().getHost())
+                : null;
+        long start = dependency != null ? dependency.begin() : 0;
+        return new Call(outbound, observation, context, sample, dependency, start);
+    }
+
+    private static void restore(Map<String, String> mdc) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    private static final class Call {
+        private final HttpRequest request;
+        private final Observation observation;
+        private final RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> context;
+        private final HttpClientMetrics.Sample sample;
+        private final DependencyMatrix.Dependency dependency;
+        private final long startNanos;
+
+        Call(HttpRequest request, Observation observation,
+                RequestReplySenderContext<HttpRequest.Builder, HttpResponse<?>> context,
+                HttpClientMetrics.Sample sample, DependencyMatrix.Dependency dependency, long startNanos) {
+            this.request = request;
+            this.observation = observation;
+            this.context = context;
+            this.sample = sample;
+            this.dependency = dependency;
+            this.startNanos = startNanos;
+        }
+
+        void stop(HttpResponse<?> response, Throwable error) {
+            if (dependency != null) {
+                dependency.end(startNanos, response == null || response.statusCode() >= 500);
+            }
+            if (sample != null) {
+                if (response != null) {
+                    sample.stop(response.statusCode());
+                } else {
+                    sample.stopExceptionally();
+                }
+            }
+            if (response != null) {
+                context.setResponse(response);
+                observation.lowCardinalityKeyValue("status", Integer.toString(response.statusCode()));
+            } else {
+                observation.lowCardinalityKeyValue("status", HttpClientMetrics.IO_ERROR);
+            }
+            if (error != null) {
+                observation.error(error);
+            }
+            observation.stop();
+        }
+    }
+
+    // ── Delegated configuration ──────────────────────────────
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return delegate.newWebSocketBuilder();
+    }
+
+    /**
+     * The wrapped client.
+     */
+    public HttpClient getDelegate() {
+        return delegate;
+    }
+}
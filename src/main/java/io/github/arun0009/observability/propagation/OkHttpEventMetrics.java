@@ -0,0 +1,444 @@
+package io.github.arun0009.observability.propagation;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Phase timings and connection-pool metrics for the clients built from one
+ * {@link OkHttpClient.Builder} bean, so slow calls can be told apart as DNS,
+ * connection churn, TLS, upload or server time.
+ * <p>
+ * {@code okhttp.phase} timers, by {@code client} (bean name), {@code host}
+ * and {@code phase}:
+ * <ul>
+ * <li>{@code dns}: name resolution;</li>
+ * <li>{@code connect}: TCP connect, excluding TLS;</li>
+ * <li>{@code tls}: TLS handshake;</li>
+ * <li>{@code request-write}: sending request headers and body;</li>
+ * <li>{@code ttfb}: request written to first response header byte.</li>
+ * </ul>
+ * Only calls that open a connection record {@code dns}, {@code connect} and
+ * {@code tls}. Hosts beyond {@code observability.http-client.max-hosts} are
+ * recorded as {@code other}.
+ * <p>
+ * Pool and dispatcher gauges, by {@code client}: {@code okhttp.pool.idle},
+ * {@code okhttp.pool.total}, {@code okhttp.pool.evictions} (connections
+ * opened through this builder that are no longer pooled),
+ * {@code okhttp.pool.reuse.ratio} (share of connection acquisitions that
+ * reused a pooled connection), {@code okhttp.dispatcher.queued} and
+ * {@code okhttp.dispatcher.running}.
+ * <p>
+ * The events come from an {@link EventListener.Factory} that wraps the one
+ * already on the builder, so a listener the application installed keeps
+ * receiving every event.
+ * <p>
+ * Two limits follow from binding at bean post-processing. The builder does
+ * not expose its pool, dispatcher or listener factory, so {@link #bind}
+ * builds a throwaway client from it to reach them (cheap: the client shares
+ * the builder's instances and starts no threads). And the binding is undone
+ * by a later {@code eventListenerFactory(...)} on the builder, which replaces
+ * the listener, or {@code connectionPool(...)}, which leaves the gauges on a
+ * pool the client no longer uses; configure both before the builder becomes
+ * a bean.
+ */
+class OkHttpEventMetrics implements EventListener.Factory {
+
+    private static final String OTHER = "other";
+
+    private final String client;
+    private final MeterRegistry registry;
+    private final int maxHosts;
+    private final EventListener.Factory delegate;
+    private final Map<String, PhaseTimers> hosts = new ConcurrentHashMap<>();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final AtomicLong evicted = new AtomicLong();
+
+    private OkHttpEventMetrics(String client, MeterRegistry registry, int maxHosts, EventListener.Factory delegate) {
+        this.client = client;
+        this.registry = registry;
+        this.maxHosts = maxHosts;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Install the listener on {@code builder} and register the gauges for
+     * its connection pool and dispatcher.
+     */
+    static void bind(OkHttpClient.Builder builder, String client, HttpClientMetrics metrics) {
+        // The builder does not expose its pool, dispatcher or listener
+        // factory; a client built from it shares the same instances
+        OkHttpClient probe = builder.build();
+        OkHttpEventMetrics events = new OkHttpEventMetrics(client, metrics.registry(), metrics.maxHosts(),
+                probe.eventListenerFactory());
+        builder.eventListenerFactory(events);
+        events.bindPool(probe.connectionPool(), probe.dispatcher());
+    }
+
+    private void bindPool(ConnectionPool pool, Dispatcher dispatcher) {
+        Gauge.builder("okhttp.pool.idle", pool, ConnectionPool::idleConnectionCount)
+                .tag("client", client)
+                .description("Idle connections in the OkHttp connection pool")
+                .register(registry);
+        Gauge.builder("okhttp.pool.total", pool, ConnectionPool::connectionCount)
+                .tag("client", client)
+                .description("Connections in the OkHttp connection pool")
+                .register(registry);
+        FunctionCounter.builder("okhttp.pool.evictions", pool, p -> evictions(p.connectionCount()))
+                .tag("client", client)
+                .description("Connections opened and since closed or evicted from the pool")
+                .register(registry);
+        Gauge.builder("okhttp.pool.reuse.ratio", this, OkHttpEventMetrics::reuseRatio)
+                .tag("client", client)
+                .description("Share of connection acquisitions that reused a pooled connection")
+                .register(registry);
+        Gauge.builder("okhttp.dispatcher.queued", dispatcher, Dispatcher::queuedCallsCount)
+                .tag("client", client)
+                .description("Async calls waiting for a dispatcher slot")
+                .register(registry);
+        Gauge.builder("okhttp.dispatcher.running", dispatcher, Dispatcher::runningCallsCount)
+                .tag("client", client)
+                .description("Calls running on the OkHttp dispatcher")
+                .register(registry);
+    }
+
+    double evictions(int pooled) {
+        // Kept monotonic: the pool count can briefly include connections not
+        // yet counted as opened
+        long now = Math.max(0, opened.sum() - pooled);
+        return evicted.accumulateAndGet(now, Math::max);
+    }
+
+    private double reuseRatio() {
+        long total = acquired.sum();
+        return total == 0 ? 0 : (double) reused.sum() / total;
+    }
+
+    private PhaseTimers timers(String host) {
+        PhaseTimers timers = hosts.get(host);
+        if (timers != null) {
+            return timers;
+        }
+        String key = hosts.size() < maxHosts ? host : OTHER;
+        return hosts.computeIfAbsent(key, PhaseTimers::new);
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        EventListener inner = delegate.create(call);
+        return new PhaseListener(timers(call.request().url().host()), inner != EventListener.NONE ? inner : null);
+    }
+
+    private final class PhaseTimers {
+        final Timer dns;
+        final Timer connect;
+        final Timer tls;
+        final Timer requestWrite;
+        final Timer ttfb;
+
+        PhaseTimers(String host) {
+            dns = timer(host, "dns");
+            connect = timer(host, "connect");
+            tls = timer(host, "tls");
+            requestWrite = timer(host, "request-write");
+            ttfb = timer(host, "ttfb");
+        }
+
+        private Timer timer(String host, String phase) {
+            return Timer.builder("okhttp.phase")
+                    .tag("client", client)
+                    .tag("host", host)
+                    .tag("phase", phase)
+                    .description("Time spent in one phase of an OkHttp call")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Per-call listener. OkHttp delivers a call's events sequentially, so
+     * the timestamps need no synchronization.
+     */
+    private final class PhaseListener extends EventListener {
+        private final PhaseTimers timers;
+        private final EventListener inner;
+        private long dnsStart;
+        private long connectStart;
+        private long tlsStart;
+        private long writeStart;
+        private long writeEnd;
+        private boolean connected;
+
+        PhaseListener(PhaseTimers timers, EventListener inner) {
+            this.timers = timers;
+            this.inner = inner;
+        }
+
+        private void record(Timer timer, long startNanos, long endNanos) {
+            if (startNanos != 0) {
+                timer.record(endNanos - startNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+            if (inner != null) {
+                inner.dnsStart(call, domainName);
+            }
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            record(timers.dns, dnsStart, System.nanoTime());
+            dnsStart = 0;
+            if (inner != null) {
+                inner.dnsEnd(call, domainName, inetAddressList);
+            }
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+            if (inner != null) {
+                inner.connectStart(call, inetSocketAddress, proxy);
+            }
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            tlsStart = System.nanoTime();
+            record(timers.connect, connectStart, tlsStart);
+            connectStart = 0;
+            if (inner != null) {
+                inner.secureConnectStart(call);
+            }
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            record(timers.tls, tlsStart, System.nanoTime());
+            tlsStart = 0;
+            if (inner != null) {
+                inner.secureConnectEnd(call, handshake);
+            }
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            record(timers.connect, connectStart, System.nanoTime());
+            connectStart = 0;
+            opened.increment();
+            connected = true;
+            if (inner != null) {
+                inner.connectEnd(call, inetSocketAddress, proxy, protocol);
+            }
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                IOException ioe) {
+            connectStart = 0;
+            tlsStart = 0;
+            if (inner != null) {
+                inner.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+            }
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            acquired.increment();
+            if (!connected) {
+                reused.increment();
+            }
+            connected = false;
+            if (inner != null) {
+                inner.connectionAcquired(call, connection);
+            }
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            writeStart = System.nanoTime();
+            if (inner != null) {
+                inner.requestHeadersStart(call);
+            }
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            writeEnd = System.nanoTime();
+            if (inner != null) {
+                inner.requestHeadersEnd(call, request);
+            }
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            writeEnd = System.nanoTime();
+            if (inner != null) {
+                inner.requestBodyEnd(call, byteCount);
+            }
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            // Recorded here rather than at requestHeadersEnd, since the body
+            // (if any) is only written afterwards
+            long now = System.nanoTime();
+            if (writeStart != 0) {
+                record(timers.requestWrite, writeStart, writeEnd);
+                record(timers.ttfb, writeEnd, now);
+                writeStart = 0;
+            }
+            if (inner != null) {
+                inner.responseHeadersStart(call);
+            }
+        }
+
+        // ── Forwarded only ───────────────────────────────────
+
+        @Override
+        public void callStart(Call call) {
+            if (inner != null) {
+                inner.callStart(call);
+            }
+        }
+
+        @Override
+        public void proxySelectStart(Call call, HttpUrl url) {
+            if (inner != null) {
+                inner.proxySelectStart(call, url);
+            }
+        }
+
+        @Override
+        public void proxySelectEnd(Call call, HttpUrl url, List<Proxy> proxies) {
+            if (inner != null) {
+                inner.proxySelectEnd(call, url, proxies);
+            }
+        }
+
+        @Override
+        public void connectionReleased(Call call, Connection connection) {
+            if (inner != null) {
+                inner.connectionReleased(call, connection);
+            }
+        }
+
+        @Override
+        public void requestBodyStart(Call call) {
+            if (inner != null) {
+                inner.requestBodyStart(call);
+            }
+        }
+
+        @Override
+        public void requestFailed(Call call, IOException ioe) {
+            if (inner != null) {
+                inner.requestFailed(call, ioe);
+            }
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            if (inner != null) {
+                inner.responseHeadersEnd(call, response);
+            }
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            if (inner != null) {
+                inner.responseBodyStart(call);
+            }
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            if (inner != null) {
+                inner.responseBodyEnd(call, byteCount);
+            }
+        }
+
+        @Override
+        public void responseFailed(Call call, IOException ioe) {
+            if (inner != null) {
+                inner.responseFailed(call, ioe);
+            }
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            if (inner != null) {
+                inner.callEnd(call);
+            }
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            if (inner != null) {
+                inner.callFailed(call, ioe);
+            }
+        }
+
+        @Override
+        public void canceled(Call call) {
+            if (inner != null) {
+                inner.canceled(call);
+            }
+        }
+
+        @Override
+        public void satisfactionFailure(Call call, Response response) {
+            if (inner != null) {
+                inner.satisfactionFailure(call, response);
+            }
+        }
+
+        @Override
+        public void cacheHit(Call call, Response response) {
+            if (inner != null) {
+                inner.cacheHit(call, response);
+            }
+        }
+
+        @Override
+        public void cacheMiss(Call call) {
+            if (inner != null) {
+                inner.cacheMiss(call);
+            }
+        }
+
+        @Override
+        public void cacheConditionalHit(Call call, Response cachedResponse) {
+            if (inner != null) {
+                inner.cacheConditionalHit(call, cachedResponse);
+            }
+        }
+    }
+}
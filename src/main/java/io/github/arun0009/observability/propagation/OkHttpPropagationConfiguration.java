@@ -1,21 +1,31 @@
 package io.github.arun0009.observability.propagation;
 
 import io.github.arun0009.observability.core.MdcKeys;
+import io.github.arun0009.observability.core.PropagationField;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.github.arun0009.observability.jfr.OutboundCallEvent;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.IOException;
-import java.util.Map;
 
 /**
  * Auto-configures an interceptor for OkHttp clients to propagate MDC context
- * (requestId, userId, tenantId, correlationId) as HTTP headers.
+ * (requestId, userId, tenantId, correlationId) as HTTP headers, and to record
+ * each call as an {@link OutboundCallEvent} JFR event while a recording is
+ * running.
+ * <p>
+ * Unless {@code observability.http-client.metrics-enabled} is {@code false},
+ * each builder also gets phase timers and connection-pool gauges
+ * ({@link OkHttpEventMetrics}).
  * <p>
  * This configuration applies to any {@link OkHttpClient.Builder} beans managed
  * by Spring.
@@ -31,8 +41,10 @@ import java.util.Map;
 public class OkHttpPropagationConfiguration {
 
     @Bean
-    public OkHttpBuilderCustomizer mdcPropagationOkHttpCustomizer() {
-        return builder -> builder.addInterceptor(new MdcPropagationInterceptor());
+    public OkHttpBuilderCustomizer mdcPropagationOkHttpCustomizer(PropagationInjector injector,
+            ObjectProvider<DependencyMatrix> dependencies) {
+        return builder -> builder
+                .addInterceptor(new MdcPropagationInterceptor(injector, dependencies.getIfAvailable()));
     }
 
     /**
@@ -50,41 +62,87 @@ public class OkHttpPropagationConfiguration {
      * provide a BeanPostProcessor that intercepts OkHttpClient.Builder beans.
      */
     @Bean
-    public static OkHttpBuilderBeanPostProcessor okHttpBuilderBeanPostProcessor() {
-        return new OkHttpBuilderBeanPostProcessor();
+    public static OkHttpBuilderBeanPostProcessor okHttpBuilderBeanPostProcessor(
+            ObjectProvider<PropagationInjector> injector, ObjectProvider<HttpClientMetrics> metrics,
+            ObjectProvider<DependencyMatrix> dependencies) {
+        return new OkHttpBuilderBeanPostProcessor(injector, metrics, dependencies);
     }
 
     static class OkHttpBuilderBeanPostProcessor implements org.springframework.beans.factory.config.BeanPostProcessor {
+        private final ObjectProvider<PropagationInjector> injector;
+        private final ObjectProvider<HttpClientMetrics> metrics;
+        private final ObjectProvider<DependencyMatrix> dependencies;
+
+        OkHttpBuilderBeanPostProcessor(ObjectProvider<PropagationInjector> injector,
+                ObjectProvider<HttpClientMetrics> metrics, ObjectProvider<DependencyMatrix> dependencies) {
+            this.injector = injector;
+            this.metrics = metrics;
+            this.dependencies = dependencies;
+        }
+
         @Override
         public Object postProcessBeforeInitialization(Object bean, String beanName) {
             if (bean instanceof OkHttpClient.Builder) {
-                ((OkHttpClient.Builder) bean).addInterceptor(new MdcPropagationInterceptor());
+                OkHttpClient.Builder builder = (OkHttpClient.Builder) bean;
+                builder.addInterceptor(new MdcPropagationInterceptor(
+                        injector.getIfAvailable(() -> PropagationInjector.HEADERS), dependencies.getIfAvailable()));
+                HttpClientMetrics clientMetrics = metrics.getIfAvailable();
+                if (clientMetrics != null) {
+                    OkHttpEventMetrics.bind(builder, beanName, clientMetrics);
+                }
             }
             return bean;
         }
     }
 
     static class MdcPropagationInterceptor implements Interceptor {
+        private final PropagationInjector injector;
+        private final DependencyMatrix dependencies;
+
+        MdcPropagationInterceptor(PropagationInjector injector, DependencyMatrix dependencies) {
+            this.injector = injector;
+            this.dependencies = dependencies;
+        }
+
         @Override
         public Response intercept(Chain chain) throws IOException {
-            Request.Builder builder = chain.request().newBuilder();
-            Map<String, String> contextMap = MDC.getCopyOfContextMap();
-
-            if (contextMap != null) {
-                propagateIfPresent(contextMap, MdcKeys.USER_ID, MdcKeys.HEADER_USER_ID, builder);
-                propagateIfPresent(contextMap, MdcKeys.REQUEST_ID, MdcKeys.HEADER_REQUEST_ID, builder);
-                propagateIfPresent(contextMap, MdcKeys.TENANT_ID, MdcKeys.HEADER_TENANT_ID, builder);
-                propagateIfPresent(contextMap, MdcKeys.CORRELATION_ID, MdcKeys.HEADER_CORRELATION_ID, builder);
+            Request request = chain.request();
+            if (PropagationField.anyPresent()) {
+                Request original = request;
+                Request.Builder builder = request.newBuilder();
+                injector.inject(builder, Request.Builder::header, (b, name) -> original.header(name));
+                request = builder.build();
             }
 
-            return chain.proceed(builder.build());
-        }
-
-        private void propagateIfPresent(Map<String, String> contextMap, String mdcKey,
-                String headerName, Request.Builder builder) {
-            String value = contextMap.get(mdcKey);
-            if (value != null) {
-                builder.header(headerName, value);
+            DependencyMatrix.Dependency dependency = dependencies != null
+                    ? dependencies.http(request.url().host())
+                    : null;
+            OutboundCallEvent event = new OutboundCallEvent();
+            boolean recording = event.isEnabled();
+            if (dependency == null && !recording) {
+                return chain.proceed(request);
+            }
+            if (recording) {
+                event.begin();
+            }
+            long start = dependency != null ? dependency.begin() : 0;
+            int status = 0;
+            String error = null;
+            try {
+                Response response = chain.proceed(request);
+                status = response.code();
+                return response;
+            } catch (IOException | RuntimeException e) {
+                error = e.getClass().getName();
+                throw e;
+            } finally {
+                if (dependency != null) {
+                    dependency.end(start, error != null || status >= 500);
+                }
+                if (recording) {
+                    event.complete("OkHttp", request.method(), request.url().host(), request.url().encodedPath(),
+                            status, error, MDC.get(MdcKeys.TRACE_ID), MDC.get(MdcKeys.REQUEST_ID));
+                }
             }
         }
     }
@@ -0,0 +1,34 @@
+package io.github.arun0009.observability.propagation;
+
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.github.arun0009.observability.propagation.RestTemplatePropagationConfiguration.MdcPropagationInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Auto-configures every {@link RestClient.Builder} bean with the interceptor
+ * used for {@code RestTemplate}: MDC context is propagated as headers and/or
+ * baggage, each call is recorded as a JFR event and in the
+ * {@link DependencyMatrix}, and, unless
+ * {@code observability.http-client.metrics-enabled} is {@code false},
+ * latency and in-flight metrics are kept per host and URI template
+ * ({@link HttpClientMetrics}).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ RestClient.class, RestClientCustomizer.class })
+public class RestClientPropagationConfiguration {
+
+    @Bean
+    public RestClientCustomizer mdcPropagationRestClientCustomizer(PropagationInjector injector,
+            ObjectProvider<HttpClientMetrics> metrics, ObjectProvider<ObservationRegistry> observations,
+            ObjectProvider<DependencyMatrix> dependencies) {
+        return builder -> builder.requestInterceptor(new MdcPropagationInterceptor("RestClient", injector,
+                metrics.getIfAvailable(), observations.getIfAvailable(), dependencies.getIfAvailable()));
+    }
+}
@@ -1,20 +1,28 @@
 package io.github.arun0009.observability.propagation;
 
 import io.github.arun0009.observability.core.MdcKeys;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.github.arun0009.observability.jfr.OutboundCallEvent;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.web.client.RestTemplateCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
 import org.springframework.lang.NonNull;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
-import java.util.Map;
+import java.net.URI;
 
 /**
  * Auto-configures every {@link RestTemplate} bean with an interceptor
@@ -22,39 +30,100 @@ import java.util.Map;
  * as HTTP headers on outgoing requests.
  * <p>
  * Trace context (traceparent) is handled separately by
- * micrometer-tracing / OTel.
+ * micrometer-tracing / OTel. Each call is also recorded as an
+ * {@link OutboundCallEvent} JFR event while a recording is running.
  */
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnClass(RestTemplate.class)
 public class RestTemplatePropagationConfiguration {
 
     @Bean
-    public RestTemplateCustomizer mdcPropagationRestTemplateCustomizer() {
-        return restTemplate -> restTemplate.getInterceptors().add(new MdcPropagationInterceptor());
+    public RestTemplateCustomizer mdcPropagationRestTemplateCustomizer(PropagationInjector injector,
+            ObjectProvider<DependencyMatrix> dependencies) {
+        return restTemplate -> restTemplate.getInterceptors()
+                .add(new MdcPropagationInterceptor("RestTemplate", injector, null, null,
+                        dependencies.getIfAvailable()));
     }
 
+    /**
+     * Propagates the MDC fields and records the call as a JFR event, in the
+     * {@link DependencyMatrix} and, when given {@link HttpClientMetrics}, as
+     * client latency. Shared with {@code RestClient}, which takes the same
+     * interceptor type.
+     */
     static class MdcPropagationInterceptor implements ClientHttpRequestInterceptor {
+        private final String client;
+        private final PropagationInjector injector;
+        private final HttpClientMetrics metrics;
+        private final ObservationRegistry observations;
+        private final DependencyMatrix dependencies;
+
+        MdcPropagationInterceptor(String client, PropagationInjector injector, HttpClientMetrics metrics,
+                ObservationRegistry observations, DependencyMatrix dependencies) {
+            this.client = client;
+            this.injector = injector;
+            this.metrics = metrics;
+            this.observations = observations;
+            this.dependencies = dependencies;
+        }
+
         @Override
         @NonNull
         public ClientHttpResponse intercept(@NonNull HttpRequest request,
                 @NonNull byte[] body,
                 @NonNull ClientHttpRequestExecution execution) throws IOException {
-            Map<String, String> contextMap = MDC.getCopyOfContextMap();
-            if (contextMap != null) {
-                propagateIfPresent(contextMap, MdcKeys.USER_ID, MdcKeys.HEADER_USER_ID, request);
-                propagateIfPresent(contextMap, MdcKeys.REQUEST_ID, MdcKeys.HEADER_REQUEST_ID, request);
-                propagateIfPresent(contextMap, MdcKeys.TENANT_ID, MdcKeys.HEADER_TENANT_ID, request);
-                propagateIfPresent(contextMap, MdcKeys.CORRELATION_ID, MdcKeys.HEADER_CORRELATION_ID, request);
+            injector.inject(request.getHeaders(), HttpHeaders::add, HttpHeaders::getFirst);
+            URI uri = request.getURI();
+            HttpClientMetrics.Sample sample = metrics != null
+                    ? metrics.start(client, request.getMethod().name(), uri, uriTemplate())
+                    : null;
+            DependencyMatrix.Dependency dependency = dependencies != null ? dependencies.http(uri.getHost()) : null;
+            OutboundCallEvent event = new OutboundCallEvent();
+            boolean recording = event.isEnabled();
+            if (sample == null && dependency == null && !recording) {
+                return execution.execute(request, body);
+            }
+            if (recording) {
+                event.begin();
+            }
+            long start = dependency != null ? dependency.begin() : 0;
+            int status = 0;
+            String error = null;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                status = response.getStatusCode().value();
+                return response;
+            } catch (IOException | RuntimeException e) {
+                error = e.getClass().getName();
+                throw e;
+            } finally {
+                if (dependency != null) {
+                    dependency.end(start, error != null || status >= 500);
+                }
+                if (sample != null) {
+                    if (error != null) {
+                        sample.stopExceptionally();
+                    } else {
+                        sample.stop(status);
+                    }
+                }
+                if (recording) {
+                    event.complete(client, request.getMethod().name(), uri.getHost(), uri.getPath(), status,
+                            error, MDC.get(MdcKeys.TRACE_ID), MDC.get(MdcKeys.REQUEST_ID));
+                }
             }
-            return execution.execute(request, body);
         }
 
-        private void propagateIfPresent(Map<String, String> contextMap, String mdcKey,
-                String headerName, HttpRequest request) {
-            String value = contextMap.get(mdcKey);
-            if (value != null) {
-                request.getHeaders().add(headerName, value);
+        /**
+         * The URI template of the client observation this call runs in, if
+         * any.
+         */
+        private String uriTemplate() {
+            Observation current = observations != null ? observations.getCurrentObservation() : null;
+            if (current != null && current.getContext() instanceof ClientRequestObservationContext) {
+                return ((ClientRequestObservationContext) current.getContext()).getUriTemplate();
             }
+            return null;
         }
     }
 }
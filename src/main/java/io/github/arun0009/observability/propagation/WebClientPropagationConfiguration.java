@@ -1,16 +1,24 @@
 package io.github.arun0009.observability.propagation;
 
 import io.github.arun0009.observability.core.MdcKeys;
+import io.github.arun0009.observability.core.PropagationField;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.github.arun0009.observability.jfr.OutboundCallEvent;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
-import java.util.Map;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Auto-configures every {@link WebClient.Builder} bean with a filter
@@ -20,37 +28,77 @@ import java.util.Map;
  * Reactor uses different threads. This works correctly when WebClient
  * is used in a servlet (blocking) context, which is the common
  * enterprise pattern.
+ * <p>
+ * Each exchange is also recorded in the {@link DependencyMatrix} and as an
+ * {@link OutboundCallEvent} JFR event while a recording is running.
  */
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnClass(WebClient.class)
 public class WebClientPropagationConfiguration {
 
     @Bean
-    public WebClientCustomizer mdcPropagationWebClientCustomizer() {
-        return webClientBuilder -> webClientBuilder.filter(mdcPropagationFilter());
+    public WebClientCustomizer mdcPropagationWebClientCustomizer(PropagationInjector injector,
+            ObjectProvider<DependencyMatrix> dependencies) {
+        return webClientBuilder -> webClientBuilder
+                .filter(mdcPropagationFilter(injector, dependencies.getIfAvailable()));
     }
 
-    private ExchangeFilterFunction mdcPropagationFilter() {
+    private ExchangeFilterFunction mdcPropagationFilter(PropagationInjector injector,
+            DependencyMatrix dependencies) {
         return (request, next) -> {
-            ClientRequest.Builder requestBuilder = ClientRequest.from(request);
-
-            Map<String, String> contextMap = MDC.getCopyOfContextMap();
-            if (contextMap != null) {
-                propagateIfPresent(contextMap, MdcKeys.USER_ID, MdcKeys.HEADER_USER_ID, requestBuilder);
-                propagateIfPresent(contextMap, MdcKeys.REQUEST_ID, MdcKeys.HEADER_REQUEST_ID, requestBuilder);
-                propagateIfPresent(contextMap, MdcKeys.TENANT_ID, MdcKeys.HEADER_TENANT_ID, requestBuilder);
-                propagateIfPresent(contextMap, MdcKeys.CORRELATION_ID, MdcKeys.HEADER_CORRELATION_ID, requestBuilder);
+            // ClientRequest headers are read-only; copy the request only when
+            // there is something to add
+            ClientRequest outbound = PropagationField.anyPresent()
+                    ? ClientRequest.from(request)
+                            .headers(headers -> injector.inject(headers, HttpHeaders::set, HttpHeaders::getFirst))
+                            .build()
+                    : request;
+            URI uri = outbound.url();
+            DependencyMatrix.Dependency dependency = dependencies != null ? dependencies.http(uri.getHost()) : null;
+            OutboundCallEvent event = new OutboundCallEvent();
+            boolean recording = event.isEnabled();
+            if (dependency == null && !recording) {
+                return next.exchange(outbound);
             }
-
-            return next.exchange(requestBuilder.build());
+            // Captured here: the response may complete on another thread without MDC
+            String traceId = MDC.get(MdcKeys.TRACE_ID);
+            String requestId = MDC.get(MdcKeys.REQUEST_ID);
+            String method = outbound.method().name();
+            return Mono.defer(() -> {
+                if (recording) {
+                    event.begin();
+                }
+                long start = dependency != null ? dependency.begin() : 0;
+                // A cancel can also follow the response, e.g. a timeout while
+                // the body is read; the call ends only once
+                AtomicBoolean ended = new AtomicBoolean();
+                return next.exchange(outbound)
+                        .doOnSuccess(response -> {
+                            int status = response != null ? response.statusCode().value() : 0;
+                            if (dependency != null && ended.compareAndSet(false, true)) {
+                                dependency.end(start, status >= 500);
+                            }
+                            if (recording) {
+                                event.complete("WebClient", method, uri.getHost(), uri.getPath(), status, null,
+                                        traceId, requestId);
+                            }
+                        })
+                        .doOnError(e -> {
+                            if (dependency != null && ended.compareAndSet(false, true)) {
+                                dependency.end(start, true);
+                            }
+                            if (recording) {
+                                event.complete("WebClient", method, uri.getHost(), uri.getPath(), 0,
+                                        e.getClass().getName(), traceId, requestId);
+                            }
+                        })
+                        // Cancelled before a response, typically by a timeout
+                        .doOnCancel(() -> {
+                            if (dependency != null && ended.compareAndSet(false, true)) {
+                                dependency.end(start, true);
+                            }
+                        });
+            });
         };
     }
-
-    private void propagateIfPresent(Map<String, String> contextMap, String mdcKey,
-            String headerName, ClientRequest.Builder requestBuilder) {
-        String value = contextMap.get(mdcKey);
-        if (value != null) {
-            requestBuilder.header(headerName, value);
-        }
-    }
 }
@@ -0,0 +1,42 @@
+package io.github.arun0009.observability.recorder;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.resources.Resource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Registers the {@link TraceFlightRecorder} and its dump endpoint.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(Resource.class)
+public class FlightRecorderConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "observability.flight-recorder", name = "enabled", havingValue = "true")
+    public TraceFlightRecorder traceFlightRecorder(ObservabilityProperties properties, MeterRegistry meterRegistry) {
+        return new TraceFlightRecorder(properties.getFlightRecorder(), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(TraceFlightRecorder.class)
+    @ConditionalOnAvailableEndpoint(endpoint = FlightRecorderEndpoint.class)
+    public FlightRecorderEndpoint flightRecorderEndpoint(TraceFlightRecorder recorder,
+            ObjectProvider<Resource> resource, ObservabilityProperties properties) {
+        Resource current = resource.getIfAvailable(Resource::getDefault);
+        String directory = properties.getFlightRecorder().getDumpDirectory();
+        return new FlightRecorderEndpoint(recorder, current.getAttributes(),
+                Path.of(directory != null ? directory : System.getProperty("java.io.tmpdir")));
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.arun0009.observability.recorder;
+
+import io.opentelemetry.api.common.Attributes;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Actuator endpoint ({@code /actuator/flightrecorder}) over the
+ * {@link TraceFlightRecorder}.
+ *
+ * <pre>
+ * GET  /actuator/flightrecorder
+ * POST /actuator/flightrecorder {"traceId": "4bf92f3577b34da6a3ce929d0e0e4736"}
+ * POST /actuator/flightrecorder {"from": 1718000000000, "to": 1718000060000}
+ * </pre>
+ *
+ * A dump writes one OTLP/JSON file to {@code dump-directory} and returns its
+ * path; it can be replayed into a collector with
+ * {@code curl -H 'Content-Type: application/json' --data @file .../v1/traces}.
+ */
+@Endpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+
+    private static final Pattern TRACE_ID = Pattern.compile("[0-9a-f]{32}");
+
+    private final TraceFlightRecorder recorder;
+    private final Attributes resource;
+    private final Path dumpDirectory;
+
+    public FlightRecorderEndpoint(TraceFlightRecorder recorder, Attributes resource, Path dumpDirectory) {
+        this.recorder = recorder;
+        this.resource = resource;
+        this.dumpDirectory = dumpDirectory;
+    }
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("capacityBytes", recorder.capacityBytes());
+        summary.put("bytesWritten", recorder.bytesWritten());
+        summary.put("coverageSeconds", recorder.coverageSeconds());
+        return summary;
+    }
+
+    /**
+     * Dump a trace and/or a time range (epoch millis, by span end time) to
+     * an OTLP/JSON file.
+     */
+    @WriteOperation
+    public Map<String, Object> dump(@Nullable String traceId, @Nullable Long from, @Nullable Long to)
+            throws IOException {
+        if (traceId != null && !TRACE_ID.matcher(traceId).matches()) {
+            throw new InvalidEndpointRequestException("Invalid traceId " + traceId,
+                    "traceId must be 32 lowercase hex characters");
+        }
+        Files.createDirectories(dumpDirectory);
+        String name = "flight-recorder-" + Instant.now().toEpochMilli() + (traceId != null ? "-" + traceId : "")
+                + ".json";
+        Path file = dumpDirectory.resolve(name);
+        int spans;
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            spans = recorder.dump(out, resource, traceId, from, to);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.toAbsolutePath().toString());
+        result.put("spans", spans);
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.arun0009.observability.recorder;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Streams recorded spans as an OTLP/JSON {@code ExportTraceServiceRequest},
+ * the format an OTLP/HTTP collector accepts at {@code /v1/traces} with
+ * {@code Content-Type: application/json}. Spans are written as they are
+ * found, so a dump of the whole ring never holds it on the heap.
+ */
+final class OtlpJsonWriter {
+
+    private static final String SCOPE = "io.github.arun0009.observability.recorder";
+
+    private final Writer out;
+    private int spans;
+
+    OtlpJsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    void begin(Attributes resource) throws IOException {
+        out.write("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        boolean first = true;
+        for (Map.Entry<AttributeKey<?>, Object> entry : resource.asMap().entrySet()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            attribute(entry.getKey().getKey(), entry.getValue());
+        }
+        out.write("]},\"scopeSpans\":[{\"scope\":{\"name\":");
+        string(SCOPE);
+        out.write("},\"spans\":[");
+    }
+
+    void span(SpanCodec.RecordedSpan span) throws IOException {
+        if (spans++ > 0) {
+            out.write(',');
+        }
+        out.write("{\"traceId\":\"");
+        out.write(span.traceId);
+        out.write("\",\"spanId\":\"");
+        out.write(span.spanId);
+        out.write('"');
+        if (span.parentSpanId != null) {
+            out.write(",\"parentSpanId\":\"");
+            out.write(span.parentSpanId);
+            out.write('"');
+        }
+        out.write(",\"flags\":");
+        out.write(span.sampled ? "1" : "0");
+        out.write(",\"name\":");
+        string(span.name);
+        // OTLP kinds start at 1 (INTERNAL), in SpanKind order
+        out.write(",\"kind\":" + (span.kind + 1));
+        out.write(",\"startTimeUnixNano\":\"" + span.startEpochNanos + "\"");
+        out.write(",\"endTimeUnixNano\":\"" + span.endEpochNanos + "\"");
+        out.write(",\"attributes\":[");
+        for (int i = 0; i < span.attributes.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Map.Entry<String, Object> attribute = span.attributes.get(i);
+            attribute(attribute.getKey(), attribute.getValue());
+        }
+        out.write("],\"status\":{\"code\":" + span.statusCode);
+        if (!span.statusMessage.isEmpty()) {
+            out.write(",\"message\":");
+            string(span.statusMessage);
+        }
+        out.write("}}");
+    }
+
+    /**
+     * Close the document.
+     *
+     * @return the number of spans written
+     */
+    int end() throws IOException {
+        out.write("]}]}]}");
+        return spans;
+    }
+
+    private void attribute(String key, Object value) throws IOException {
+        out.write("{\"key\":");
+        string(key);
+        out.write(",\"value\":{");
+        if (value instanceof Boolean) {
+            out.write("\"boolValue\":" + value);
+        } else if (value instanceof Long) {
+            // int64 is a string in OTLP/JSON
+            out.write("\"intValue\":\"" + value + "\"");
+        } else if (value instanceof Double && Double.isFinite((Double) value)) {
+            out.write("\"doubleValue\":" + value);
+        } else {
+            out.write("\"stringValue\":");
+            string(String.valueOf(value));
+        }
+        out.write("}}");
+    }
+
+    private void string(String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write(String.format("\\u%04x", (int) c));
+            } else {
+                out.write(c);
+            }
+        }
+        out.write('"');
+    }
+}
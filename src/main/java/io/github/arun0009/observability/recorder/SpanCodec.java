@@ -0,0 +1,213 @@
+package io.github.arun0009.observability.recorder;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributeType;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a finished span for the {@link SpanRing}.
+ * <p>
+ * Layout: trace id (two longs), span id, parent span id, start and end epoch
+ * nanos, then one byte each for flags, kind and status code, the name and
+ * status message, and the attributes as (key, type, value). Ids are stored as
+ * numbers rather than hex text and strings are length-prefixed UTF-8 capped at
+ * {@value #MAX_STRING_BYTES} bytes. Attributes that do not fit in
+ * {@link SpanRing#MAX_PAYLOAD} are left out. Events and links are not
+ * recorded.
+ */
+final class SpanCodec {
+
+    static final int MAX_STRING_BYTES = 512;
+
+    private static final byte TYPE_STRING = 0;
+    private static final byte TYPE_BOOLEAN = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+
+    private SpanCodec() {
+    }
+
+    /**
+     * Encode {@code span} into {@code out} (cleared first).
+     *
+     * @return the encoded length
+     */
+    static int encode(SpanData span, ByteBuffer out) {
+        out.clear();
+        String traceId = span.getTraceId();
+        out.putLong(parseHex(traceId, 0));
+        out.putLong(parseHex(traceId, 16));
+        out.putLong(parseHex(span.getSpanId(), 0));
+        out.putLong(span.getParentSpanContext().isValid() ? parseHex(span.getParentSpanId(), 0) : 0);
+        out.putLong(span.getStartEpochNanos());
+        out.putLong(span.getEndEpochNanos());
+        out.put((byte) (span.getSpanContext().isSampled() ? 1 : 0));
+        out.put((byte) span.getKind().ordinal());
+        out.put((byte) span.getStatus().getStatusCode().ordinal());
+        putString(out, span.getName());
+        putString(out, span.getStatus().getDescription());
+        int countPosition = out.position();
+        out.putShort((short) 0);
+        int[] count = new int[1];
+        int[] complete = { out.position() };
+        try {
+            span.getAttributes().forEach((key, value) -> {
+                putString(out, key.getKey());
+                putValue(out, key, value);
+                count[0]++;
+                complete[0] = out.position();
+            });
+        } catch (BufferOverflowException e) {
+            // Keep the attributes that fit
+        }
+        out.putShort(countPosition, (short) count[0]);
+        return complete[0];
+    }
+
+    private static void putValue(ByteBuffer out, AttributeKey<?> key, Object value) {
+        AttributeType type = key.getType();
+        if (type == AttributeType.BOOLEAN) {
+            out.put(TYPE_BOOLEAN);
+            out.put((byte) (Boolean.TRUE.equals(value) ? 1 : 0));
+        } else if (type == AttributeType.LONG) {
+            out.put(TYPE_LONG);
+            out.putLong((Long) value);
+        } else if (type == AttributeType.DOUBLE) {
+            out.put(TYPE_DOUBLE);
+            out.putLong(Double.doubleToRawLongBits((Double) value));
+        } else {
+            out.put(TYPE_STRING);
+            putString(out, String.valueOf(value));
+        }
+    }
+
+    /**
+     * Write {@code value} cut to {@link #MAX_STRING_BYTES}; throws
+     * {@link BufferOverflowException} rather than cutting it to the space
+     * left in {@code out}, so an attribute never ends up truncated.
+     */
+    private static void putString(ByteBuffer out, String value) {
+        int lengthPosition = out.position();
+        out.putShort((short) 0);
+        int start = out.position();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int needed = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : 3;
+            if (out.position() + needed - start > MAX_STRING_BYTES) {
+                break;
+            }
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (cp >> 18)));
+                out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (!Character.isSurrogate(c)) {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        out.putShort(lengthPosition, (short) (out.position() - start));
+    }
+
+    /**
+     * Whether the encoded span belongs to the given trace, without decoding it.
+     */
+    static boolean hasTraceId(byte[] record, long traceIdHigh, long traceIdLow) {
+        ByteBuffer in = ByteBuffer.wrap(record);
+        return in.getLong(0) == traceIdHigh && in.getLong(8) == traceIdLow;
+    }
+
+    /**
+     * End time of the encoded span, without decoding it.
+     */
+    static long endEpochNanos(byte[] record) {
+        return ByteBuffer.wrap(record).getLong(40);
+    }
+
+    static RecordedSpan decode(byte[] record, int length) {
+        ByteBuffer in = ByteBuffer.wrap(record, 0, length);
+        RecordedSpan span = new RecordedSpan();
+        span.traceId = hex(in.getLong()) + hex(in.getLong());
+        span.spanId = hex(in.getLong());
+        long parent = in.getLong();
+        span.parentSpanId = parent != 0 ? hex(parent) : null;
+        span.startEpochNanos = in.getLong();
+        span.endEpochNanos = in.getLong();
+        span.sampled = in.get() == 1;
+        span.kind = in.get();
+        span.statusCode = in.get();
+        span.name = getString(in);
+        span.statusMessage = getString(in);
+        int count = in.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            String key = getString(in);
+            byte type = in.get();
+            Object value;
+            if (type == TYPE_BOOLEAN) {
+                value = in.get() == 1;
+            } else if (type == TYPE_LONG) {
+                value = in.getLong();
+            } else if (type == TYPE_DOUBLE) {
+                value = Double.longBitsToDouble(in.getLong());
+            } else {
+                value = getString(in);
+            }
+            span.attributes.add(Map.entry(key, value));
+        }
+        return span;
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /**
+     * Parse 16 hex characters of {@code hex} starting at {@code from}.
+     */
+    static long parseHex(String hex, int from) {
+        long value = 0;
+        for (int i = from; i < from + 16; i++) {
+            value = (value << 4) | Character.digit(hex.charAt(i), 16);
+        }
+        return value;
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0000000000000000".substring(digits.length()) + digits;
+    }
+
+    /**
+     * A span read back from the ring.
+     */
+    static final class RecordedSpan {
+        String traceId;
+        String spanId;
+        String parentSpanId;
+        long startEpochNanos;
+        long endEpochNanos;
+        boolean sampled;
+        int kind;
+        int statusCode;
+        String name;
+        String statusMessage;
+        final List<Map.Entry<String, Object>> attributes = new ArrayList<>();
+    }
+}
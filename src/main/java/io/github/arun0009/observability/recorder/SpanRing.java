@@ -0,0 +1,151 @@
+package io.github.arun0009.observability.recorder;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size off-heap ring of variable-length records, written concurrently
+ * without locks and overwritten oldest first.
+ * <p>
+ * The ring is split into blocks of {@value #BLOCK_SIZE} bytes and a record
+ * never straddles two blocks, so every block can be scanned from its start.
+ * A writer reserves space with one CAS on the absolute write position, copies
+ * its payload, and commits by writing the record's absolute position into its
+ * header with release semantics. Readers accept a record only if that
+ * position matches where they found it, and only if the write position has
+ * not lapped the record while it was being copied, so torn or overwritten
+ * records are skipped rather than misread. The one case this cannot detect
+ * is a writer that stalls for a whole lap of the ring between reserving and
+ * committing, which at the configured size means minutes.
+ */
+final class SpanRing {
+
+    static final int BLOCK_SIZE = 64 * 1024;
+    static final int MAX_PAYLOAD = 8 * 1024;
+
+    // [long absolute position][int length][int unused]
+    private static final int HEADER = 16;
+    private static final int PADDING = -1;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final long capacity;
+    private final int blocks;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLongArray blockStartMillis;
+
+    SpanRing(long requestedBytes) {
+        this.blocks = (int) Math.max(2, Math.min(requestedBytes / BLOCK_SIZE, (Integer.MAX_VALUE - 8) / BLOCK_SIZE));
+        this.capacity = (long) blocks * BLOCK_SIZE;
+        this.buffer = ByteBuffer.allocateDirect((int) capacity + 8).alignedSlice(8).order(ByteOrder.nativeOrder());
+        this.blockStartMillis = new AtomicLongArray(blocks);
+    }
+
+    /**
+     * Append {@code length} bytes of {@code payload}.
+     *
+     * @return {@code false} if the record is larger than {@link #MAX_PAYLOAD}
+     */
+    boolean write(byte[] payload, int length) {
+        if (length > MAX_PAYLOAD) {
+            return false;
+        }
+        int size = align(HEADER + length);
+        long start;
+        while (true) {
+            long position = head.get();
+            long blockEnd = (position / BLOCK_SIZE + 1) * BLOCK_SIZE;
+            start = position + size > blockEnd ? blockEnd : position;
+            if (head.compareAndSet(position, start + size)) {
+                if (start != position && blockEnd - position >= HEADER) {
+                    // Tell readers the rest of the block is empty
+                    int offset = offset(position);
+                    buffer.putInt(offset + 8, PADDING);
+                    LONGS.setRelease(buffer, offset, position);
+                }
+                break;
+            }
+        }
+        if (start % BLOCK_SIZE == 0) {
+            blockStartMillis.set(blockIndex(start), System.currentTimeMillis());
+        }
+        int offset = offset(start);
+        buffer.put(offset + HEADER, payload, 0, length);
+        buffer.putInt(offset + 8, length);
+        LONGS.setRelease(buffer, offset, start);
+        return true;
+    }
+
+    /**
+     * Visit every intact record from oldest to newest. {@code scratch} must
+     * hold {@link #MAX_PAYLOAD} bytes and is reused for each record.
+     */
+    void forEach(byte[] scratch, RecordVisitor visitor) {
+        long newestBlock = head.get() / BLOCK_SIZE;
+        for (long block = Math.max(0, newestBlock - blocks + 1); block <= newestBlock; block++) {
+            long position = block * BLOCK_SIZE;
+            long blockEnd = position + BLOCK_SIZE;
+            while (position + HEADER <= blockEnd && !overwritten(position)) {
+                int offset = offset(position);
+                if ((long) LONGS.getAcquire(buffer, offset) != position) {
+                    // Not committed yet, or already reused
+                    break;
+                }
+                int length = buffer.getInt(offset + 8);
+                if (length < 0 || length > MAX_PAYLOAD) {
+                    break;
+                }
+                buffer.get(offset + HEADER, scratch, 0, length);
+                if (overwritten(position)) {
+                    break;
+                }
+                visitor.visit(scratch, length);
+                position += align(HEADER + length);
+            }
+        }
+    }
+
+    /**
+     * Wall-clock time of the oldest block that is still complete, or
+     * {@code 0} if nothing was written yet.
+     */
+    long oldestMillis() {
+        long newestBlock = head.get() / BLOCK_SIZE;
+        long oldest = Math.max(0, newestBlock - blocks + 2);
+        return blockStartMillis.get(blockIndex(Math.min(oldest, newestBlock) * BLOCK_SIZE));
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long bytesWritten() {
+        return head.get();
+    }
+
+    private boolean overwritten(long position) {
+        return head.get() - capacity > position;
+    }
+
+    private int offset(long position) {
+        return (int) (position % capacity);
+    }
+
+    private int blockIndex(long position) {
+        return (int) ((position / BLOCK_SIZE) % blocks);
+    }
+
+    private static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    interface RecordVisitor {
+        void visit(byte[] record, int length);
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.arun0009.observability.recorder;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+/**
+ * Always-on span processor that keeps a compact copy of every finished span,
+ * sampled or not, in a fixed-size off-heap {@link SpanRing}.
+ * <p>
+ * Ending a span costs one encoding into a per-thread scratch buffer, one CAS
+ * and one copy. Little is allocated per span beyond the {@code SpanData}
+ * view, and the ring never grows, so the history it covers is
+ * simply as long as {@code size} lasts at the current span rate
+ * ({@code tracing.recorder.coverage}). Unsampled spans only reach span
+ * processors if the head sampler records them, which the starter arranges
+ * when {@code record-unsampled} is set.
+ * <p>
+ * {@link #dump} streams the spans of a trace or time range as OTLP/JSON for
+ * the {@code flightrecorder} actuator endpoint.
+ * <p>
+ * Metrics: {@code tracing.recorder.spans} (recorded),
+ * {@code tracing.recorder.spans.dropped} (could not be encoded) and the
+ * gauges {@code tracing.recorder.coverage} (seconds of history held) and
+ * {@code tracing.recorder.capacity} (bytes).
+ */
+public class TraceFlightRecorder implements SpanProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceFlightRecorder.class);
+
+    private final SpanRing ring;
+    private final ThreadLocal<ByteBuffer> scratch = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocate(SpanRing.MAX_PAYLOAD));
+    private final Counter recorded;
+    private final Counter dropped;
+
+    public TraceFlightRecorder(ObservabilityProperties.FlightRecorder config, MeterRegistry registry) {
+        this.ring = new SpanRing(config.getSize().toBytes());
+        this.recorded = Counter.builder("tracing.recorder.spans")
+                .description("Spans written to the flight recorder")
+                .register(registry);
+        this.dropped = Counter.builder("tracing.recorder.spans.dropped")
+                .description("Spans the flight recorder could not encode")
+                .register(registry);
+        Gauge.builder("tracing.recorder.coverage", this, TraceFlightRecorder::coverageSeconds)
+                .description("Seconds of span history held by the flight recorder")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("tracing.recorder.capacity", ring, SpanRing::capacity)
+                .description("Size of the flight recorder ring")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        try {
+            ByteBuffer buffer = scratch.get();
+            int length = SpanCodec.encode(span.toSpanData(), buffer);
+            if (ring.write(buffer.array(), length)) {
+                recorded.increment();
+            } else {
+                dropped.increment();
+            }
+        } catch (RuntimeException e) {
+            dropped.increment();
+            log.debug("Could not record span", e);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /**
+     * Write the recorded spans of {@code traceId} (if given) that ended
+     * between {@code fromMillis} and {@code toMillis} (each optional) to
+     * {@code out} as one OTLP/JSON request, oldest first.
+     *
+     * @return the number of spans written
+     */
+    public int dump(Writer out, Attributes resource, String traceId, Long fromMillis, Long toMillis)
+            throws IOException {
+        boolean byTrace = traceId != null;
+        long traceIdHigh = byTrace ? SpanCodec.parseHex(traceId, 0) : 0;
+        long traceIdLow = byTrace ? SpanCodec.parseHex(traceId, 16) : 0;
+        long from = fromMillis != null ? fromMillis * 1_000_000 : Long.MIN_VALUE;
+        long to = toMillis != null ? toMillis * 1_000_000 : Long.MAX_VALUE;
+
+        OtlpJsonWriter writer = new OtlpJsonWriter(out);
+        writer.begin(resource);
+        IOException[] failure = new IOException[1];
+        ring.forEach(new byte[SpanRing.MAX_PAYLOAD], (record, length) -> {
+            if (failure[0] != null || (byTrace && !SpanCodec.hasTraceId(record, traceIdHigh, traceIdLow))) {
+                return;
+            }
+            long end = SpanCodec.endEpochNanos(record);
+            if (end < from || end > to) {
+                return;
+            }
+            SpanCodec.RecordedSpan span;
+            try {
+                span = SpanCodec.decode(record, length);
+            } catch (RuntimeException e) {
+                // Torn by a writer that stalled for a whole lap of the ring
+                return;
+            }
+            try {
+                writer.span(span);
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return writer.end();
+    }
+
+    /**
+     * Seconds between the oldest intact part of the ring and now.
+     */
+    public double coverageSeconds() {
+        long oldest = ring.oldestMillis();
+        return oldest > 0 ? (System.currentTimeMillis() - oldest) / 1000.0 : 0;
+    }
+
+    public long capacityBytes() {
+        return ring.capacity();
+    }
+
+    public long bytesWritten() {
+        return ring.bytesWritten();
+    }
+}
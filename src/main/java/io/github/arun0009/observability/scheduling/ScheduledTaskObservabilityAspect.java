@@ -1,15 +1,39 @@
 package io.github.arun0009.observability.scheduling;
 
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.jfr.ScheduledTaskEvent;
+import io.github.arun0009.observability.metrics.ExemplarSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.util.StringUtils;
+import org.springframework.util.StringValueResolver;
 
-import java.util.UUID;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * AOP aspect that instruments {@code @Scheduled} methods with:
@@ -18,52 +42,363 @@ import java.util.UUID;
  * correlation)</li>
  * <li>Duration metric ({@code scheduled.task.duration})</li>
  * <li>Error counting ({@code scheduled.task.errors})</li>
+ * <li>Runs in flight and their running time ({@code scheduled.task.active},
+ * a long task timer)</li>
+ * <li>Schedule lag: how late a run started against its expected fire time
+ * ({@code scheduled.task.lag})</li>
+ * <li>Overlapping runs ({@code scheduled.task.overlaps}) and cron fire times
+ * skipped because the previous run was still going
+ * ({@code scheduled.task.missed})</li>
+ * <li>The last successful run, in epoch seconds
+ * ({@code scheduled.task.last.success})</li>
+ * <li>A {@link ScheduledTaskEvent} JFR event per run</li>
+ * <li>Exemplars for the duration metric, when an {@link ExemplarSampler} is
+ * configured</li>
  * </ul>
+ * All meters are tagged {@code task} and created once per method.
+ * <p>
+ * The expected fire time follows Spring's own scheduling: the previous
+ * expected time plus the period for {@code fixedRate}, the previous run's end
+ * plus the delay for {@code fixedDelay}, and the next cron time after the
+ * previous run for {@code cron}. A task's first run has no reference point
+ * and records no lag. A job that keeps falling behind shows up as a growing
+ * lag (and, for cron, missed fires) well before anyone notices stale data.
  */
 @Aspect
 public class ScheduledTaskObservabilityAspect {
 
     private static final Logger log = LoggerFactory.getLogger(ScheduledTaskObservabilityAspect.class);
 
+    // Counting missed cron fires stops here, e.g. for a second-level cron
+    // behind a day-long run
+    static final int MAX_MISSED = 10_000;
+
     private final MeterRegistry meterRegistry;
     private final String serviceName;
     private final String environment;
+    private final ExemplarSampler exemplarSampler;
+    private final LogLevel startLogLevel;
+    private final LogLevel completeLogLevel;
+    private final StringValueResolver resolver;
+    private final Map<Method, TaskState> tasks = new ConcurrentHashMap<>();
+    private final AtomicLong runs = new AtomicLong();
 
     public ScheduledTaskObservabilityAspect(MeterRegistry meterRegistry,
             String serviceName,
             String environment) {
+        this(meterRegistry, serviceName, environment, null);
+    }
+
+    public ScheduledTaskObservabilityAspect(MeterRegistry meterRegistry,
+            String serviceName,
+            String environment,
+            ExemplarSampler exemplarSampler) {
+        this(meterRegistry, serviceName, environment, exemplarSampler, new ObservabilityProperties.Scheduling(),
+                null);
+    }
+
+    /**
+     * @param resolver resolves placeholders in {@code @Scheduled} attributes;
+     *        may be {@code null}
+     */
+    public ScheduledTaskObservabilityAspect(MeterRegistry meterRegistry,
+            String serviceName,
+            String environment,
+            ExemplarSampler exemplarSampler,
+            ObservabilityProperties.Scheduling config,
+            StringValueResolver resolver) {
         this.meterRegistry = meterRegistry;
         this.serviceName = serviceName;
         this.environment = environment;
+        this.exemplarSampler = exemplarSampler;
+        this.startLogLevel = config.getStartLogLevel();
+        this.completeLogLevel = config.getCompleteLogLevel();
+        this.resolver = resolver;
     }
 
     @Around("@annotation(org.springframework.scheduling.annotation.Scheduled)")
     public Object instrumentScheduledTask(ProceedingJoinPoint joinPoint) throws Throwable {
-        String taskName = joinPoint.getSignature().getDeclaringType().getSimpleName()
-                + "." + joinPoint.getSignature().getName();
+        TaskState task = task(joinPoint);
+        String taskName = task.name;
+        long startMillis = System.currentTimeMillis();
+        task.started(startMillis);
 
         // Populate MDC for the scheduled thread
         MDC.put("service", serviceName);
         MDC.put("env", environment);
-        MDC.put("requestId", "scheduled-" + UUID.randomUUID());
+        String requestId = "scheduled-" + Long.toHexString(runs.incrementAndGet());
+        MDC.put("requestId", requestId);
         MDC.put("scheduledTask", taskName);
 
-        Timer.Sample sample = Timer.start(meterRegistry);
+        LongTaskTimer.Sample active = task.active.start();
+        long startNanos = System.nanoTime();
+        ScheduledTaskEvent event = new ScheduledTaskEvent();
+        event.begin();
+        String outcome = "FAILURE";
 
         try {
-            log.info("Scheduled task started: {}", taskName);
+            log(startLogLevel, "Scheduled task started: {}", taskName);
             Object result = joinPoint.proceed();
-            log.info("Scheduled task completed: {}", taskName);
+            log(completeLogLevel, "Scheduled task completed: {}", taskName);
+            outcome = "SUCCESS";
+            task.lastSuccess.set(System.currentTimeMillis());
             return result;
         } catch (Throwable t) {
-            meterRegistry.counter("scheduled.task.errors", "task", taskName).increment();
+            task.errors.increment();
             log.error("Scheduled task failed: {}", taskName, t);
             throw t;
         } finally {
-            sample.stop(Timer.builder("scheduled.task.duration")
-                    .tag("task", taskName)
-                    .register(meterRegistry));
+            if (event.isEnabled()) {
+                event.complete(taskName, outcome, requestId);
+            }
+            long duration = System.nanoTime() - startNanos;
+            task.duration.record(duration, TimeUnit.NANOSECONDS);
+            active.stop();
+            task.finished(System.currentTimeMillis());
+            if (exemplarSampler != null) {
+                exemplarSampler.sample("scheduled.task.duration", duration);
+            }
             MDC.clear();
         }
     }
+
+    private TaskState task(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        TaskState task = tasks.get(method);
+        if (task != null) {
+            return task;
+        }
+        return tasks.computeIfAbsent(method, m -> {
+            Object target = joinPoint.getTarget();
+            Method specific = target != null ? AopUtils.getMostSpecificMethod(m, target.getClass()) : m;
+            String name = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + m.getName();
+            return new TaskState(name, Schedule.of(specific, resolver));
+        });
+    }
+
+    private static void log(LogLevel level, String message, String taskName) {
+        switch (level) {
+            case TRACE:
+                log.trace(message, taskName);
+                break;
+            case DEBUG:
+                log.debug(message, taskName);
+                break;
+            case INFO:
+                log.info(message, taskName);
+                break;
+            case WARN:
+                log.warn(message, taskName);
+                break;
+            case ERROR:
+            case FATAL:
+                log.error(message, taskName);
+                break;
+            default:
+                // OFF
+        }
+    }
+
+    /**
+     * Meters and schedule bookkeeping for one {@code @Scheduled} method.
+     */
+    final class TaskState {
+        final String name;
+        final Schedule schedule;
+        final Timer duration;
+        final Counter errors;
+        final LongTaskTimer active;
+        final Timer lag;
+        final Counter overlaps;
+        final Counter missed;
+        final AtomicLong lastSuccess = new AtomicLong();
+        final AtomicInteger running = new AtomicInteger();
+
+        // Guarded by this; only touched at the start and end of a run
+        private long lastExpected = -1;
+        private long lastEnd = -1;
+
+        TaskState(String name, Schedule schedule) {
+            this.name = name;
+            this.schedule = schedule;
+            duration = Timer.builder("scheduled.task.duration")
+                    .tag("task", name)
+                    .register(meterRegistry);
+            errors = meterRegistry.counter("scheduled.task.errors", "task", name);
+            active = LongTaskTimer.builder("scheduled.task.active")
+                    .tag("task", name)
+                    .description("Runs of the task in flight")
+                    .register(meterRegistry);
+            lag = Timer.builder("scheduled.task.lag")
+                    .tag("task", name)
+                    .description("How late a run started against its expected fire time")
+                    .register(meterRegistry);
+            overlaps = Counter.builder("scheduled.task.overlaps")
+                    .tag("task", name)
+                    .description("Runs started while a previous run was still going")
+                    .register(meterRegistry);
+            missed = Counter.builder("scheduled.task.missed")
+                    .tag("task", name)
+                    .description("Cron fire times skipped because the previous run was still going")
+                    .register(meterRegistry);
+            Gauge.builder("scheduled.task.last.success", lastSuccess, v -> v.get() / 1000.0)
+                    .tag("task", name)
+                    .baseUnit("seconds")
+                    .description("Epoch time of the last successful run, 0 before the first")
+                    .register(meterRegistry);
+        }
+
+        void started(long startMillis) {
+            if (running.getAndIncrement() > 0) {
+                overlaps.increment();
+            }
+            if (schedule == null) {
+                return;
+            }
+            long expected;
+            long skipped = 0;
+            synchronized (this) {
+                expected = schedule.expected(lastExpected, lastEnd);
+                if (expected >= 0 && schedule.cron != null) {
+                    skipped = schedule.firesBetween(lastExpected, expected);
+                }
+                // The first run is the baseline for the ones after it
+                lastExpected = expected >= 0 ? expected : schedule.baseline(startMillis);
+            }
+            if (expected >= 0) {
+                lag.record(Math.max(0, startMillis - expected), TimeUnit.MILLISECONDS);
+            }
+            if (skipped > 0) {
+                missed.increment(skipped);
+            }
+        }
+
+        void finished(long endMillis) {
+            running.decrementAndGet();
+            synchronized (this) {
+                lastEnd = endMillis;
+            }
+        }
+    }
+
+    /**
+     * When a {@code @Scheduled} method is expected to fire, from its
+     * annotation.
+     */
+    static final class Schedule {
+        final CronExpression cron;
+        final ZoneId zone;
+        final long fixedRate;
+        final long fixedDelay;
+
+        private Schedule(CronExpression cron, ZoneId zone, long fixedRate, long fixedDelay) {
+            this.cron = cron;
+            this.zone = zone;
+            this.fixedRate = fixedRate;
+            this.fixedDelay = fixedDelay;
+        }
+
+        /**
+         * The method's schedule, or {@code null} when it has several
+         * {@code @Scheduled} annotations or none that can be read.
+         */
+        static Schedule of(Method method, StringValueResolver resolver) {
+            Set<Scheduled> annotations = AnnotatedElementUtils.getMergedRepeatableAnnotations(method,
+                    Scheduled.class);
+            if (annotations.size() != 1) {
+                return null;
+            }
+            Scheduled scheduled = annotations.iterator().next();
+            try {
+                String cron = resolve(scheduled.cron(), resolver);
+                if (StringUtils.hasText(cron)) {
+                    if (Scheduled.CRON_DISABLED.equals(cron)) {
+                        return null;
+                    }
+                    String zone = resolve(scheduled.zone(), resolver);
+                    return new Schedule(CronExpression.parse(cron),
+                            StringUtils.hasText(zone) ? ZoneId.of(zone) : ZoneId.systemDefault(), -1, -1);
+                }
+                TimeUnit unit = scheduled.timeUnit();
+                long rate = interval(scheduled.fixedRate(), scheduled.fixedRateString(), unit, resolver);
+                if (rate > 0) {
+                    return new Schedule(null, null, rate, -1);
+                }
+                long delay = interval(scheduled.fixedDelay(), scheduled.fixedDelayString(), unit, resolver);
+                return delay >= 0 ? new Schedule(null, null, -1, delay) : null;
+            } catch (RuntimeException e) {
+                // Spring validates the annotation itself; only lag is lost
+                log.debug("Cannot read the schedule of {}", method, e);
+                return null;
+            }
+        }
+
+        private static String resolve(String value, StringValueResolver resolver) {
+            return resolver != null && StringUtils.hasText(value) ? resolver.resolveStringValue(value) : value;
+        }
+
+        private static long interval(long value, String text, TimeUnit unit, StringValueResolver resolver) {
+            if (value >= 0) {
+                return unit.toMillis(value);
+            }
+            String resolved = resolve(text, resolver);
+            if (!StringUtils.hasText(resolved)) {
+                return -1;
+            }
+            if (resolved.startsWith("P") || resolved.startsWith("p")) {
+                return Duration.parse(resolved).toMillis();
+            }
+            return unit.toMillis(Long.parseLong(resolved.trim()));
+        }
+
+        /**
+         * Expected fire time of the next run in epoch millis, or {@code -1}
+         * when there is no previous run to derive it from.
+         */
+        long expected(long lastExpected, long lastEnd) {
+            if (lastExpected < 0) {
+                return -1;
+            }
+            if (cron != null) {
+                // As CronTrigger: the next fire after the previous run ended,
+                // never before the previous fire time
+                return next(Math.max(lastExpected, lastEnd));
+            }
+            if (fixedRate > 0) {
+                return lastExpected + fixedRate;
+            }
+            return lastEnd >= 0 ? lastEnd + fixedDelay : -1;
+        }
+
+        /**
+         * The fire time the first run stands in for.
+         */
+        long baseline(long startMillis) {
+            if (cron == null) {
+                return startMillis;
+            }
+            // The latest fire at or before the start: one second back covers
+            // the scheduler waking up slightly late
+            long fire = next(startMillis - 1000);
+            return fire >= 0 && fire <= startMillis ? fire : startMillis;
+        }
+
+        /**
+         * Cron fire times strictly between {@code from} and {@code to}.
+         */
+        long firesBetween(long from, long to) {
+            long count = 0;
+            long fire = next(from);
+            while (fire >= 0 && fire < to && count < MAX_MISSED) {
+                count++;
+                fire = next(fire);
+            }
+            return count;
+        }
+
+        private long next(long afterMillis) {
+            ZonedDateTime next = cron.next(Instant.ofEpochMilli(afterMillis).atZone(zone));
+            return next != null ? next.toInstant().toEpochMilli() : -1;
+        }
+    }
 }
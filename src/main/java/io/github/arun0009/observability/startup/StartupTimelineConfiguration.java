@@ -0,0 +1,41 @@
+package io.github.arun0009.observability.startup;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link StartupTimelineReporter}, and the
+ * {@link StartupTracer} when the OpenTelemetry API is present.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "observability.startup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StartupTimelineConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public StartupTimelineReporter startupTimelineReporter(ObservabilityProperties properties,
+            MeterRegistry meterRegistry, ObjectProvider<StartupTracer> tracer) {
+        return new StartupTimelineReporter(properties.getStartup(), meterRegistry, tracer.getIfAvailable());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.opentelemetry.api.OpenTelemetry")
+    @ConditionalOnProperty(prefix = "observability.startup", name = "tracing-enabled", havingValue = "true", matchIfMissing = true)
+    static class StartupTracingConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public StartupTracer startupTracer(ObservabilityProperties properties,
+                ObjectProvider<OpenTelemetry> openTelemetry) {
+            return new StartupTracer(openTelemetry.getIfAvailable(OpenTelemetry::noop),
+                    properties.getStartup().getMinSpanDuration());
+        }
+    }
+}
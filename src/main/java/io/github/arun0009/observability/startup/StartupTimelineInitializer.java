@@ -0,0 +1,109 @@
+package io.github.arun0009.observability.startup;
+
+import org.springframework.boot.context.event.ApplicationFailedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * Records the context refresh with a {@link BufferingApplicationStartup},
+ * so {@link StartupTimelineReporter} can explain where startup time went.
+ * <p>
+ * Registered in {@code META-INF/spring.factories}, since the startup has to be
+ * in place before the refresh, long before any bean exists. It runs after
+ * the environment is prepared, so the steps before that (environment and
+ * context creation) are not recorded. An {@link ApplicationStartup} the
+ * application set itself is left alone; if it is buffering, the report uses
+ * it too.
+ * <p>
+ * The starter's buffer is wrapped so that Boot's {@code /actuator/startup}
+ * endpoint, which only appears for a {@code BufferingApplicationStartup}, is
+ * not enabled behind the application's back. Once the application is ready
+ * (or has failed to start), the buffer is drained and
+ * {@link ApplicationStartup#DEFAULT} put back, so nothing is recorded or
+ * retained after startup, even when the reporter is excluded or never
+ * created. The reporter runs first and reads the timeline before that.
+ * <p>
+ * Disable with {@code observability.startup.enabled=false}; size the buffer
+ * with {@code observability.startup.buffer-size}.
+ */
+public class StartupTimelineInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    static final int DEFAULT_BUFFER_SIZE = 10_000;
+
+    /** Order of the listener that releases the buffer; listeners reading it must run before. */
+    static final int RELEASE_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        if (!context.getEnvironment().getProperty("observability.startup.enabled", Boolean.class, true)
+                || context.getApplicationStartup() != ApplicationStartup.DEFAULT) {
+            return;
+        }
+        int capacity = context.getEnvironment().getProperty("observability.startup.buffer-size", Integer.class,
+                DEFAULT_BUFFER_SIZE);
+        context.setApplicationStartup(new RecordingStartup(capacity));
+        context.addApplicationListener(new Release(context));
+    }
+
+    /**
+     * Drains the starter's buffer and restores {@link ApplicationStartup#DEFAULT}
+     * if it is still installed once startup has ended either way.
+     */
+    static final class Release implements SmartApplicationListener {
+
+        private final ConfigurableApplicationContext context;
+
+        Release(ConfigurableApplicationContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+            return ApplicationReadyEvent.class.isAssignableFrom(eventType)
+                    || ApplicationFailedEvent.class.isAssignableFrom(eventType);
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationEvent event) {
+            ApplicationStartup startup = context.getApplicationStartup();
+            if (startup instanceof RecordingStartup) {
+                ((RecordingStartup) startup).drain();
+                context.setApplicationStartup(ApplicationStartup.DEFAULT);
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return RELEASE_ORDER;
+        }
+    }
+
+    /**
+     * The starter's own buffer, readable only by the reporter.
+     */
+    static final class RecordingStartup implements ApplicationStartup {
+
+        private final BufferingApplicationStartup buffer;
+
+        RecordingStartup(int capacity) {
+            this.buffer = new BufferingApplicationStartup(capacity);
+        }
+
+        @Override
+        public StartupStep start(String name) {
+            return buffer.start(name);
+        }
+
+        StartupTimeline drain() {
+            return buffer.drainBufferedTimeline();
+        }
+    }
+}
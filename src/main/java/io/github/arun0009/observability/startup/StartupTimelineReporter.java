@@ -0,0 +1,246 @@
+package io.github.arun0009.observability.startup;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Explains startup time once the application is ready, from the timeline
+ * recorded by {@link StartupTimelineInitializer}.
+ * <p>
+ * Each bean's own time is its {@code spring.beans.instantiate} step minus
+ * the steps nested in it (the dependencies it pulled in), so a slow bean is
+ * not blamed on whatever injected it first. The slowest {@code top-beans} are
+ * logged, with the starter's own beans marked. When startup exceeds
+ * {@code budget}, the report is logged at WARN.
+ * <p>
+ * Metrics: {@code application.startup.step} (timer) by {@code step},
+ * {@code application.startup.bean} (own time of the slowest beans) by
+ * {@code bean} and {@code starter}, {@code application.startup.starter}
+ * (own time of all starter beans) and, with a budget,
+ * {@code application.startup.budget.ratio}. Given a {@link StartupTracer},
+ * the timeline is also exported as a trace.
+ * <p>
+ * Ordered just before the initializer's own listener, which releases the
+ * starter's buffer.
+ */
+public class StartupTimelineReporter implements ApplicationListener<ApplicationReadyEvent>, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimelineReporter.class);
+
+    static final String BEAN_STEP = "spring.beans.instantiate";
+    private static final String STARTER_PACKAGE = "io.github.arun0009.observability.";
+    private static final String STARTER_PATH = "io/github/arun0009/observability/";
+
+    private final ObservabilityProperties.Startup config;
+    private final MeterRegistry registry;
+    private final StartupTracer tracer;
+    private final AtomicBoolean reported = new AtomicBoolean();
+
+    public StartupTimelineReporter(ObservabilityProperties.Startup config, MeterRegistry registry,
+            StartupTracer tracer) {
+        this.config = config;
+        this.registry = registry;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public int getOrder() {
+        return StartupTimelineInitializer.RELEASE_ORDER - 1;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        ApplicationStartup startup = context.getApplicationStartup();
+        StartupTimeline timeline;
+        if (startup instanceof StartupTimelineInitializer.RecordingStartup) {
+            if (!reported.compareAndSet(false, true)) {
+                return;
+            }
+            // Nothing else reads the starter's buffer; stop recording and
+            // release it
+            timeline = ((StartupTimelineInitializer.RecordingStartup) startup).drain();
+            context.setApplicationStartup(ApplicationStartup.DEFAULT);
+        } else if (startup instanceof BufferingApplicationStartup) {
+            if (!reported.compareAndSet(false, true)) {
+                return;
+            }
+            // The application's own buffer, left for /actuator/startup
+            timeline = ((BufferingApplicationStartup) startup).getBufferedTimeline();
+        } else {
+            return;
+        }
+        Instant ready = Instant.now();
+        Duration taken = event.getTimeTaken() != null
+                ? event.getTimeTaken()
+                : Duration.between(timeline.getStartTime(), ready);
+        List<BeanTime> beans = beans(timeline, context.getBeanFactory());
+        record(timeline, beans, taken);
+        report(beans, taken);
+        if (tracer != null) {
+            tracer.export(timeline, ready.minus(taken), ready);
+        }
+    }
+
+    private List<BeanTime> beans(StartupTimeline timeline, ConfigurableListableBeanFactory beanFactory) {
+        // Time spent in nested steps, by parent step id
+        Map<Long, Long> nested = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            Long parent = event.getStartupStep().getParentId();
+            if (parent != null) {
+                nested.merge(parent, event.getDuration().toNanos(), Long::sum);
+            }
+        }
+        List<BeanTime> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep step = event.getStartupStep();
+            if (!BEAN_STEP.equals(step.getName())) {
+                continue;
+            }
+            String name = tag(step, "beanName");
+            if (name == null) {
+                continue;
+            }
+            long own = event.getDuration().toNanos() - nested.getOrDefault(step.getId(), 0L);
+            beans.add(new BeanTime(name, Math.max(0, own), isStarterBean(beanFactory, name, tag(step, "beanType"))));
+        }
+        beans.sort(Comparator.comparingLong((BeanTime b) -> b.ownNanos).reversed());
+        return beans;
+    }
+
+    private static boolean isStarterBean(ConfigurableListableBeanFactory beanFactory, String name, String type) {
+        if (name.startsWith(STARTER_PACKAGE) || (type != null && type.contains(STARTER_PACKAGE))) {
+            return true;
+        }
+        if (!beanFactory.containsBeanDefinition(name)) {
+            return false;
+        }
+        BeanDefinition definition = beanFactory.getBeanDefinition(name);
+        String resource = definition.getResourceDescription();
+        String factory = definition.getFactoryBeanName();
+        return (resource != null && resource.contains(STARTER_PATH))
+                || (factory != null && factory.startsWith(STARTER_PACKAGE));
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void record(StartupTimeline timeline, List<BeanTime> beans, Duration taken) {
+        Map<String, Timer> steps = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            String step = event.getStartupStep().getName();
+            steps.computeIfAbsent(step, s -> Timer.builder("application.startup.step")
+                    .tag("step", s)
+                    .description("Duration of startup steps, nested steps included")
+                    .register(registry))
+                    .record(event.getDuration());
+        }
+        for (BeanTime bean : beans.subList(0, Math.min(config.getTopBeans(), beans.size()))) {
+            Gauge.builder("application.startup.bean", bean, b -> b.ownNanos / 1e9)
+                    .tag("bean", bean.name)
+                    .tag("starter", Boolean.toString(bean.starter))
+                    .baseUnit("seconds")
+                    .description("Own creation time of the slowest beans, dependencies excluded")
+                    .register(registry);
+        }
+        double starter = starterNanos(beans) / 1e9;
+        Gauge.builder("application.startup.starter", () -> starter)
+                .baseUnit("seconds")
+                .description("Own creation time of the observability starter's beans")
+                .register(registry);
+        Duration budget = config.getBudget();
+        if (budget != null && !budget.isZero()) {
+            double ratio = (double) taken.toNanos() / budget.toNanos();
+            Gauge.builder("application.startup.budget.ratio", () -> ratio)
+                    .description("Startup time as a share of the configured budget")
+                    .register(registry);
+        }
+    }
+
+    private static long starterNanos(List<BeanTime> beans) {
+        long total = 0;
+        for (BeanTime bean : beans) {
+            if (bean.starter) {
+                total += bean.ownNanos;
+            }
+        }
+        return total;
+    }
+
+    private void report(List<BeanTime> beans, Duration taken) {
+        Duration budget = config.getBudget();
+        boolean over = budget != null && !budget.isZero() && taken.compareTo(budget) > 0;
+        if (!over && !log.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder("Startup took ").append(millis(taken.toNanos()));
+        if (budget != null && !budget.isZero()) {
+            report.append(over ? " (over the " : " (within the ").append(millis(budget.toNanos()))
+                    .append(" budget)");
+        }
+        report.append(". Slowest beans by own time, dependencies excluded:");
+        for (BeanTime bean : beans.subList(0, Math.min(config.getTopBeans(), beans.size()))) {
+            report.append("\n  ").append(String.format("%8s", millis(bean.ownNanos))).append("  ")
+                    .append(bean.name);
+            if (bean.starter) {
+                report.append(" [observability-starter]");
+            }
+        }
+        int starterBeans = 0;
+        for (BeanTime bean : beans) {
+            starterBeans += bean.starter ? 1 : 0;
+        }
+        report.append("\n  Observability starter: ").append(millis(starterNanos(beans))).append(" across ")
+                .append(starterBeans).append(" beans");
+        if (over) {
+            log.warn("{}", report);
+        } else {
+            log.info("{}", report);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return (nanos / 1_000_000) + "ms";
+    }
+
+    private static final class BeanTime {
+        private final String name;
+        private final long ownNanos;
+        private final boolean starter;
+
+        BeanTime(String name, long ownNanos, boolean starter) {
+            this.name = name;
+            this.ownNanos = ownNanos;
+            this.starter = starter;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.arun0009.observability.startup;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports the startup timeline as one trace: an {@code application startup}
+ * root span from launch to ready, with a child span per recorded step
+ * (bean creation, configuration class processing, context refresh), using
+ * the step's own start and end times and its tags as attributes.
+ * <p>
+ * Steps shorter than {@code min-span-duration} are left out and their
+ * children attached to the nearest step that was kept, which keeps the trace
+ * readable without losing the slow leaves. Children are ended before the
+ * root, so a tail sampler sees the whole trace when the root ends.
+ */
+public class StartupTracer {
+
+    private final Tracer tracer;
+    private final long minNanos;
+
+    public StartupTracer(OpenTelemetry openTelemetry, Duration minSpanDuration) {
+        this.tracer = openTelemetry.getTracer("io.github.arun0009.observability.startup");
+        this.minNanos = minSpanDuration != null ? minSpanDuration.toNanos() : 0;
+    }
+
+    void export(StartupTimeline timeline, Instant started, Instant ready) {
+        Span root = tracer.spanBuilder("application startup")
+                .setNoParent()
+                .setStartTimestamp(started)
+                .startSpan();
+        List<StartupTimeline.TimelineEvent> events = new ArrayList<>(timeline.getEvents());
+        events.sort(Comparator.comparing(StartupTimeline.TimelineEvent::getStartTime));
+        // Parents start before their children, so a parent's span (or the
+        // ancestor it was folded into) is always known when a child is reached
+        Map<Long, Context> contexts = new HashMap<>();
+        Map<Long, Long> parents = new HashMap<>();
+        Context rootContext = Context.root().with(root);
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            parents.put(step.getId(), step.getParentId());
+            if (event.getDuration().toNanos() < minNanos) {
+                continue;
+            }
+            SpanBuilder builder = tracer.spanBuilder(step.getName())
+                    .setParent(parentContext(step.getParentId(), contexts, parents, rootContext))
+                    .setStartTimestamp(event.getStartTime());
+            for (StartupStep.Tag tag : step.getTags()) {
+                builder.setAttribute(tag.getKey(), tag.getValue());
+            }
+            Span span = builder.startSpan();
+            span.end(event.getEndTime());
+            contexts.put(step.getId(), rootContext.with(span));
+        }
+        root.end(ready);
+    }
+
+    private static Context parentContext(Long parentId, Map<Long, Context> contexts, Map<Long, Long> parents,
+            Context rootContext) {
+        Long id = parentId;
+        while (id != null) {
+            Context context = contexts.get(id);
+            if (context != null) {
+                return context;
+            }
+            id = parents.get(id);
+        }
+        return rootContext;
+    }
+}
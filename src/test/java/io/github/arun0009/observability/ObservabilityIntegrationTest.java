@@ -1,21 +1,66 @@
 package io.github.arun0009.observability;
 
+import com.sun.net.httpserver.HttpServer;
 import io.github.arun0009.observability.audit.AuditLogger;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.github.arun0009.observability.export.SpanExportPipeline;
 import io.github.arun0009.observability.metrics.BusinessMetrics;
+import io.github.arun0009.observability.metrics.ExemplarSampler;
 import io.github.arun0009.observability.testapp.TestApplication;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(classes = TestApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class ObservabilityIntegrationTest {
 
+    // In-process stand-in for an OTLP/HTTP collector
+    private static final AtomicInteger otlpRequests = new AtomicInteger();
+    private static HttpServer otlpReceiver;
+
+    @DynamicPropertySource
+    static void otlpEndpoint(DynamicPropertyRegistry registry) throws IOException, InterruptedException {
+        otlpReceiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        otlpReceiver.createContext("/v1/traces", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            otlpRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/x-protobuf");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        // The dispatcher thread inherits daemon status from the thread starting
+        // it, so the receiver never holds the JVM open (AOT test processing
+        // runs this without the @AfterAll)
+        Thread starter = new Thread(otlpReceiver::start);
+        starter.setDaemon(true);
+        starter.start();
+        starter.join();
+        // Boot disables tracing export in tests unless asked
+        registry.add("management.tracing.enabled", () -> "true");
+        registry.add("management.otlp.tracing.endpoint",
+                () -> "http://localhost:" + otlpReceiver.getAddress().getPort() + "/v1/traces");
+    }
+
+    @AfterAll
+    static void stopOtlpReceiver() {
+        otlpReceiver.stop(0);
+    }
+
     @Autowired
     private ApplicationContext applicationContext;
 
@@ -39,6 +84,9 @@ class ObservabilityIntegrationTest {
         assertThat(applicationContext.containsBean("auditLogger")).isTrue();
         assertThat(applicationContext.containsBean("observabilityExceptionHandler")).isTrue();
         assertThat(applicationContext.containsBean("scheduledTaskObservabilityAspect")).isTrue();
+        assertThat(applicationContext.containsBean("jfrEventBridge")).isTrue();
+        assertThat(applicationContext.containsBean("routeProfiler")).isTrue();
+        assertThat(applicationContext.containsBean("slowRequestWatchdog")).isTrue();
     }
 
     @Test
@@ -48,6 +96,41 @@ class ObservabilityIntegrationTest {
         assertThat(meterRegistry.find("http.server.requests").timer()).isNotNull();
     }
 
+    @Test
+    void latencyExemplarsCarryTraceIds() {
+        restTemplate.getForEntity("/hello", String.class);
+
+        ExemplarSampler sampler = applicationContext.getBean(ExemplarSampler.class);
+        assertThat(sampler.exemplars("http.server.requests"))
+                .isNotEmpty()
+                .allSatisfy(exemplar -> assertThat(exemplar.getTraceId()).hasSize(32));
+    }
+
+    @Test
+    void spansAreExportedThroughPipeline() {
+        restTemplate.getForEntity("/hello", String.class);
+
+        SpanExportPipeline pipeline = applicationContext.getBean(SpanExportPipeline.class);
+        assertThat(pipeline.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(otlpRequests.get()).isPositive();
+        assertThat(meterRegistry.find("tracing.export.spans.exported").counter().count()).isPositive();
+    }
+
+    @Test
+    void outboundCallsFeedDependencyMatrix() {
+        // TestRestTemplate is customized like any RestTemplate, so this call
+        // is also an outbound call to localhost
+        restTemplate.getForEntity("/hello", String.class);
+
+        DependencyMatrix matrix = applicationContext.getBean(DependencyMatrix.class);
+        assertThat(matrix.snapshot())
+                .anySatisfy(dependency -> {
+                    assertThat(dependency.name()).isEqualTo("localhost");
+                    assertThat(dependency.calls()).isPositive();
+                });
+        assertThat(meterRegistry.find("dependency.in.flight").tag("dependency", "localhost").gauge()).isNotNull();
+    }
+
     @Test
     void businessMetricsFacadeWorks() {
         BusinessMetrics metrics = applicationContext.getBean(BusinessMetrics.class);
@@ -70,4 +153,24 @@ class ObservabilityIntegrationTest {
         assertThat(meterRegistry.find("slo.http.error.ratio").gauge()).isNotNull();
         assertThat(meterRegistry.find("slo.http.latency.p99.ms").gauge()).isNotNull();
     }
+
+    @Test
+    void startupTimelineIsReported() {
+        assertThat(meterRegistry.find("application.startup.bean").gauges()).isNotEmpty();
+        assertThat(meterRegistry.find("application.startup.step").tag("step", "spring.beans.instantiate").timer())
+                .isNotNull();
+        assertThat(meterRegistry.find("application.startup.starter").gauge().value()).isPositive();
+    }
+
+    @Test
+    void executorTelemetryIsRecorded() throws Exception {
+        ThreadPoolTaskExecutor executor = applicationContext.getBean("taskExecutor", ThreadPoolTaskExecutor.class);
+        executor.submit(() -> "done").get(5, TimeUnit.SECONDS);
+
+        assertThat(meterRegistry.find("thread.pool.saturation").gauge()).isNotNull();
+        assertThat(meterRegistry.find("thread.pool.rejected").functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("thread.pool.concurrency").gauge()).isNotNull();
+        assertThat(meterRegistry.find("thread.pool.queue.wait").timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.find("thread.pool.execution").timer()).isNotNull();
+    }
 }
@@ -0,0 +1,90 @@
+package io.github.arun0009.observability.async;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class AdaptiveExecutorControllerTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfiguration.class, ObservabilityExecutorConfiguration.class)
+            .withPropertyValues("observability.async.adaptive.enabled=true",
+                    // Ticks are driven by the test
+                    "observability.async.adaptive.interval=1h");
+
+    @Test
+    void controllerDrivesTheDefaultTaskExecutor() {
+        runner.run(context -> {
+            assertThat(context).hasSingleBean(AdaptiveExecutorController.class);
+            ThreadPoolTaskExecutor executor = context.getBean("taskExecutor", ThreadPoolTaskExecutor.class);
+            assertThat(executor.getThreadPoolExecutor().getQueue())
+                    .isSameAs(context.getBean(AdaptiveExecutorController.class).getQueue());
+        });
+    }
+
+    @Test
+    void noControllerWithoutTheProperty() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(PropertiesConfiguration.class, ObservabilityExecutorConfiguration.class)
+                .run(context -> {
+                    assertThat(context).doesNotHaveBean(AdaptiveExecutorController.class);
+                    assertThat(context).hasBean("taskExecutor");
+                });
+    }
+
+    @Test
+    void tickGrowsThePoolWhenWorkIsStuckInTheQueue() {
+        runner.run(context -> {
+            AdaptiveExecutorController controller = context.getBean(AdaptiveExecutorController.class);
+            ThreadPoolTaskExecutor executor = context.getBean("taskExecutor", ThreadPoolTaskExecutor.class);
+            int core = executor.getCorePoolSize();
+            CountDownLatch release = new CountDownLatch(1);
+            try {
+                for (int i = 0; i < core + 2; i++) {
+                    executor.execute(() -> {
+                        try {
+                            release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+                await().atMost(5, TimeUnit.SECONDS).until(() -> executor.getActiveCount() == core);
+                // Absorbs the tasks that started; none start in the next window
+                controller.tick();
+                controller.tick();
+
+                assertThat(executor.getCorePoolSize()).isGreaterThan(core);
+            } finally {
+                release.countDown();
+            }
+        });
+    }
+
+    @Test
+    void tickReleasesIdleCoreThreads() {
+        runner.run(context -> {
+            AdaptiveExecutorController controller = context.getBean(AdaptiveExecutorController.class);
+            ThreadPoolTaskExecutor executor = context.getBean("taskExecutor", ThreadPoolTaskExecutor.class);
+            int core = executor.getCorePoolSize();
+
+            controller.tick();
+
+            assertThat(executor.getCorePoolSize()).isEqualTo(core - 1);
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(ObservabilityProperties.class)
+    static class PropertiesConfiguration {
+    }
+}
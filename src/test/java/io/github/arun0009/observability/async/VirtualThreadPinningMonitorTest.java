@@ -0,0 +1,132 @@
+package io.github.arun0009.observability.async;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class VirtualThreadPinningMonitorTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ObservabilityProperties.Async.VirtualThreads config =
+            new ObservabilityProperties.Async.VirtualThreads();
+    private final List<LogEvent> logged = new CopyOnWriteArrayList<>();
+    private final Logger logger = (Logger) LogManager.getLogger(VirtualThreadPinningMonitor.class);
+    private final AbstractAppender appender = new AbstractAppender("pinning-test", null, null, true,
+            Property.EMPTY_ARRAY) {
+        @Override
+        public void append(LogEvent event) {
+            logged.add(event.toImmutable());
+        }
+    };
+    private Level previousLevel;
+
+    @BeforeEach
+    void captureLogs() {
+        previousLevel = logger.getLevel();
+        appender.start();
+        // Adding the appender refreshes the logger config, so set the level last
+        logger.addAppender(appender);
+        logger.setLevel(Level.WARN);
+    }
+
+    @AfterEach
+    void releaseLogs() {
+        logger.removeAppender(appender);
+        appender.stop();
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    void pinningIsTimed() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(config, registry, 2);
+
+        monitor.recordPinned(Duration.ofMillis(30), "trace-1", null);
+        monitor.recordPinned(Duration.ofMillis(50), null, null);
+
+        Timer pinned = registry.get("virtual.thread.pinned").timer();
+        assertThat(pinned.count()).isEqualTo(2);
+        assertThat(pinned.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(80);
+    }
+
+    @Test
+    void ratioIsPinnedTimeOverCarrierTimeOfTheWindow() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(config, registry, 2);
+        long t0 = System.nanoTime() + 2 * SECOND;
+        assertThat(monitor.pinnedRatio(t0)).isZero();
+
+        monitor.recordPinned(Duration.ofMillis(500), null, null);
+        monitor.recordPinned(Duration.ofMillis(500), null, null);
+
+        // 1s pinned over 2 carriers * 2s
+        assertThat(monitor.pinnedRatio(t0 + 2 * SECOND)).isCloseTo(0.25, within(1e-9));
+        // New window with no pinning
+        assertThat(monitor.pinnedRatio(t0 + 3 * SECOND)).isZero();
+    }
+
+    @Test
+    void readsWithinTheMinimumWindowRepeatTheLastRatio() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(config, registry, 1);
+        long t0 = System.nanoTime() + 2 * SECOND;
+        monitor.pinnedRatio(t0);
+
+        monitor.recordPinned(Duration.ofMillis(500), null, null);
+        assertThat(monitor.pinnedRatio(t0 + VirtualThreadPinningMonitor.MIN_WINDOW_NANOS - 1)).isZero();
+
+        // The window kept growing, so the pinning is spread over the full second
+        assertThat(monitor.pinnedRatio(t0 + SECOND)).isCloseTo(0.5, within(1e-9));
+        monitor.recordPinned(Duration.ofMillis(500), null, null);
+        assertThat(monitor.pinnedRatio(t0 + SECOND + SECOND / 2)).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    void ratioIsCappedAtOne() {
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(config, registry, 1);
+        long t0 = System.nanoTime() + 2 * SECOND;
+        monitor.pinnedRatio(t0);
+
+        monitor.recordPinned(Duration.ofSeconds(5), null, null);
+
+        assertThat(monitor.pinnedRatio(t0 + SECOND)).isEqualTo(1.0);
+    }
+
+    @Test
+    void gaugeIsRegistered() {
+        new VirtualThreadPinningMonitor(config, registry, 1);
+
+        assertThat(registry.get("virtual.thread.carrier.pinned.ratio").gauge().value()).isZero();
+    }
+
+    @Test
+    void onlyOnePinningIsLoggedPerInterval() {
+        config.setLogInterval(Duration.ofMinutes(5));
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(config, registry, 1);
+
+        monitor.recordPinned(Duration.ofMillis(40), "trace-1", null);
+        monitor.recordPinned(Duration.ofMillis(41), "trace-2", null);
+        monitor.recordPinned(Duration.ofMillis(42), "trace-3", null);
+
+        assertThat(logged).hasSize(1);
+        String message = logged.get(0).getMessage().getFormattedMessage();
+        assertThat(message).contains("pinned for 40 ms", "traceId=trace-1", "suppressed=0", "(no stack trace)");
+        assertThat(registry.get("virtual.thread.pinned").timer().count()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.arun0009.observability.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsPermitsPerWindowAndReportsSuppressedCalls() {
+        LogRateLimiter limiter = new LogRateLimiter(2, Duration.ofSeconds(1));
+        long t0 = System.nanoTime();
+
+        assertThat(limiter.tryAcquire(t0)).isZero();
+        assertThat(limiter.tryAcquire(t0 + 1)).isZero();
+        assertThat(limiter.tryAcquire(t0 + 2)).isEqualTo(-1);
+        assertThat(limiter.tryAcquire(t0 + SECOND - 1)).isEqualTo(-1);
+
+        assertThat(limiter.tryAcquire(t0 + SECOND)).isEqualTo(2);
+        assertThat(limiter.tryAcquire(t0 + SECOND + 1)).isZero();
+        assertThat(limiter.tryAcquire(t0 + SECOND + 2)).isEqualTo(-1);
+    }
+
+    @Test
+    void firstCallIsAllowedImmediately() {
+        LogRateLimiter limiter = new LogRateLimiter(1, Duration.ofMinutes(5));
+
+        assertThat(limiter.tryAcquire()).isZero();
+        assertThat(limiter.tryAcquire()).isEqualTo(-1);
+    }
+
+    @Test
+    void suppressedCountResetsOnceReported() {
+        LogRateLimiter limiter = new LogRateLimiter(1, Duration.ofSeconds(1));
+        long t0 = System.nanoTime();
+
+        limiter.tryAcquire(t0);
+        limiter.tryAcquire(t0 + 1);
+        limiter.tryAcquire(t0 + 2);
+
+        assertThat(limiter.tryAcquire(t0 + SECOND)).isEqualTo(2);
+        assertThat(limiter.tryAcquire(t0 + 2 * SECOND)).isZero();
+    }
+}
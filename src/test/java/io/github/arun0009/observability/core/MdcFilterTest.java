@@ -0,0 +1,34 @@
+package io.github.arun0009.observability.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MdcFilterTest {
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void customHeaderWinsOverBaggageInBothMode() throws Exception {
+        MdcFilter filter = new MdcFilter("orders", "test", List.of(), null, new W3CBaggage(8, 256));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+        request.addHeader(W3CBaggage.HEADER, "userId=from-baggage,tenantId=acme");
+        request.addHeader(MdcKeys.HEADER_USER_ID, "from-header");
+        Map<String, String> seen = new HashMap<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.putAll(MDC.getCopyOfContextMap()));
+
+        assertThat(seen).containsEntry(MdcKeys.USER_ID, "from-header").containsEntry(MdcKeys.TENANT_ID, "acme");
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.arun0009.observability.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropagationInjectorTest {
+
+    private final W3CBaggage baggage = new W3CBaggage(8, 256);
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    private static Map<String, String> inject(PropagationInjector injector, Map<String, String> carrier) {
+        injector.inject(carrier, Map::put, Map::get);
+        return carrier;
+    }
+
+    @Test
+    void headersModeWritesOnlyCustomHeaders() {
+        MDC.put(MdcKeys.USER_ID, "alice");
+
+        assertThat(inject(PropagationInjector.HEADERS, new LinkedHashMap<>()))
+                .containsExactly(Map.entry(MdcKeys.HEADER_USER_ID, "alice"));
+    }
+
+    @Test
+    void bothModeWritesCustomHeadersAndBaggage() {
+        MDC.put(MdcKeys.USER_ID, "alice");
+        MDC.put(MdcKeys.TENANT_ID, "acme");
+
+        Map<String, String> carrier = inject(new PropagationInjector(PropagationMode.BOTH, baggage),
+                new LinkedHashMap<>());
+
+        assertThat(carrier).containsEntry(MdcKeys.HEADER_USER_ID, "alice")
+                .containsEntry(MdcKeys.HEADER_TENANT_ID, "acme")
+                .containsEntry(W3CBaggage.HEADER, "userId=alice,tenantId=acme");
+    }
+
+    @Test
+    void valuesUnsafeAsHeadersOnlyTravelAsBaggage() {
+        MDC.put(MdcKeys.USER_ID, "Jürgen");
+
+        Map<String, String> carrier = inject(new PropagationInjector(PropagationMode.BOTH, baggage),
+                new LinkedHashMap<>());
+
+        assertThat(carrier).doesNotContainKey(MdcKeys.HEADER_USER_ID)
+                .containsEntry(W3CBaggage.HEADER, "userId=J%C3%BCrgen");
+    }
+
+    @Test
+    void existingBaggageHeaderIsLeftAlone() {
+        MDC.put(MdcKeys.USER_ID, "alice");
+        Map<String, String> carrier = new LinkedHashMap<>();
+        carrier.put(W3CBaggage.HEADER, "userId=alice,session=1");
+
+        inject(new PropagationInjector(PropagationMode.BAGGAGE, baggage), carrier);
+
+        assertThat(carrier).containsExactly(Map.entry(W3CBaggage.HEADER, "userId=alice,session=1"));
+    }
+
+    @Test
+    void withoutAGetterBaggageIsAlwaysWritten() {
+        MDC.put(MdcKeys.USER_ID, "alice");
+        Map<String, String> carrier = new LinkedHashMap<>();
+
+        new PropagationInjector(PropagationMode.BAGGAGE, baggage).inject(carrier, Map::put, null);
+
+        assertThat(carrier).containsExactly(Map.entry(W3CBaggage.HEADER, "userId=alice"));
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.arun0009.observability.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThreadTraceIndexTest {
+
+    private final long threadId = Thread.currentThread().getId();
+
+    @AfterEach
+    void unbind() {
+        ThreadTraceIndex.bindCurrentThread(null);
+    }
+
+    @Test
+    void bindingIsVisibleByThreadIdUntilCleared() {
+        ThreadTraceIndex.bindCurrentThread("trace-1", "/orders/{id}");
+
+        assertThat(ThreadTraceIndex.lookup(threadId)).isEqualTo("trace-1");
+        assertThat(ThreadTraceIndex.routeOfCurrentThread()).isEqualTo("/orders/{id}");
+        assertThat(ThreadTraceIndex.currentBinding().getTraceId()).isEqualTo("trace-1");
+
+        ThreadTraceIndex.bindCurrentThread(null);
+
+        assertThat(ThreadTraceIndex.lookup(threadId)).isNull();
+        assertThat(ThreadTraceIndex.currentBinding()).isNull();
+    }
+
+    @Test
+    void routeIsRefinedOnlyWhileTheBindingIsOpen() {
+        ThreadTraceIndex.bindCurrentThread("trace-1");
+        assertThat(ThreadTraceIndex.routeOfCurrentThread()).isEqualTo(ThreadTraceIndex.UNKNOWN_ROUTE);
+
+        ThreadTraceIndex.setRouteOfCurrentThread("/orders");
+        assertThat(ThreadTraceIndex.routeOfCurrentThread()).isEqualTo("/orders");
+
+        ThreadTraceIndex.unbindCurrentThread();
+        ThreadTraceIndex.setRouteOfCurrentThread("/other");
+        assertThat(ThreadTraceIndex.routeOfCurrentThread()).isEqualTo("/orders");
+    }
+
+    @Test
+    void timedLookupAnswersOnlyInsideTheBindingWindow() {
+        long beforeBind = System.currentTimeMillis();
+        ThreadTraceIndex.bindCurrentThread("trace-1");
+        long afterBind = System.currentTimeMillis();
+        ThreadTraceIndex.Binding binding = ThreadTraceIndex.currentBinding();
+
+        assertThat(ThreadTraceIndex.lookup(threadId, beforeBind - 1)).isNull();
+        assertThat(ThreadTraceIndex.lookup(threadId, Long.MAX_VALUE - 1)).isEqualTo("trace-1");
+        assertThat(ThreadTraceIndex.isCurrent(binding)).isTrue();
+
+        ThreadTraceIndex.unbindCurrentThread();
+        long afterUnbind = System.currentTimeMillis();
+
+        assertThat(ThreadTraceIndex.currentBinding()).isNull();
+        assertThat(ThreadTraceIndex.isCurrent(binding)).isFalse();
+        assertThat(ThreadTraceIndex.lookup(threadId, afterBind)).isEqualTo("trace-1");
+        assertThat(ThreadTraceIndex.lookup(threadId, afterUnbind + 1)).isNull();
+        assertThat(ThreadTraceIndex.lookup(threadId)).isEqualTo("trace-1");
+    }
+
+    @Test
+    void unbindLeavesOtherThreadsBindingsAlone() throws Exception {
+        ThreadTraceIndex.bindCurrentThread("trace-main");
+        AtomicReference<String> seen = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            ThreadTraceIndex.unbindCurrentThread();
+            seen.set(ThreadTraceIndex.lookup(threadId));
+        });
+        other.start();
+        other.join();
+
+        assertThat(seen.get()).isEqualTo("trace-main");
+        assertThat(ThreadTraceIndex.currentBinding()).isNotNull();
+    }
+
+    @Test
+    void threadSharingASlotReplacesTheBindingWithoutLeakingIt() throws Exception {
+        ThreadTraceIndex.bindCurrentThread("trace-main");
+        assertThat(ThreadTraceIndex.lookup(threadId + 4096)).isNull();
+        assertThat(ThreadTraceIndex.lookup(threadId + 4096, System.currentTimeMillis())).isNull();
+
+        AtomicReference<String> seenByOther = new AtomicReference<>();
+        Thread colliding = collidingThread(() -> {
+            seenByOther.set(ThreadTraceIndex.lookup(Thread.currentThread().getId()));
+            ThreadTraceIndex.bindCurrentThread("trace-other");
+        });
+        colliding.start();
+        colliding.join();
+
+        assertThat(seenByOther.get()).isNull();
+        assertThat(ThreadTraceIndex.lookup(colliding.getId())).isEqualTo("trace-other");
+        assertThat(ThreadTraceIndex.lookup(threadId)).isNull();
+        assertThat(ThreadTraceIndex.currentBinding()).isNull();
+    }
+
+    @Test
+    void collectOpenReturnsOnlyOpenBindings() {
+        ThreadTraceIndex.bindCurrentThread("trace-1", "/orders");
+        List<ThreadTraceIndex.Binding> open = new ArrayList<>();
+        ThreadTraceIndex.collectOpen(open);
+        assertThat(open).extracting(ThreadTraceIndex.Binding::getThreadId).contains(threadId);
+
+        ThreadTraceIndex.unbindCurrentThread();
+        open.clear();
+        ThreadTraceIndex.collectOpen(open);
+        assertThat(open).extracting(ThreadTraceIndex.Binding::getThreadId).doesNotContain(threadId);
+    }
+
+    /**
+     * An unstarted thread whose id maps to the same slot as the test thread.
+     * Thread ids are handed out sequentially, so this takes at most a few
+     * thousand cheap allocations.
+     */
+    private Thread collidingThread(Runnable task) {
+        while (true) {
+            Thread candidate = new Thread(task);
+            if (candidate.getId() != threadId && ((candidate.getId() - threadId) & 4095) == 0) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.arun0009.observability.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class W3CBaggageTest {
+
+    private final W3CBaggage baggage = new W3CBaggage(8, 256);
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    private static Map<PropagationField, String> decode(W3CBaggage baggage, String header) {
+        Map<PropagationField, String> fields = new LinkedHashMap<>();
+        baggage.decode(header, fields::put);
+        return fields;
+    }
+
+    @Test
+    void decodesKnownFieldsAndSkipsTheRest() {
+        assertThat(decode(baggage, " userId = alice ;prop=1, other=x,tenantId=acme"))
+                .containsExactly(Map.entry(PropagationField.USER_ID, "alice"),
+                        Map.entry(PropagationField.TENANT_ID, "acme"));
+    }
+
+    @Test
+    void entriesWithoutEqualsAreIgnored() {
+        assertThat(decode(baggage, "userId,=bob,tenantId=acme,requestId="))
+                .containsExactly(Map.entry(PropagationField.TENANT_ID, "acme"));
+    }
+
+    @Test
+    void percentEscapesAreDecodedAsUtf8() {
+        assertThat(decode(baggage, "userId=J%C3%BCrgen%20K")).containsEntry(PropagationField.USER_ID, "Jürgen K");
+    }
+
+    @Test
+    void malformedEscapesAreKept() {
+        assertThat(decode(baggage, "userId=100%,tenantId=a%zzb,requestId=x%4"))
+                .containsEntry(PropagationField.USER_ID, "100%")
+                .containsEntry(PropagationField.TENANT_ID, "a%zzb")
+                .containsEntry(PropagationField.REQUEST_ID, "x%4");
+    }
+
+    @Test
+    void membersBeyondMaxEntriesAreNotRead() {
+        W3CBaggage small = new W3CBaggage(2, 256);
+
+        // Unknown members count towards the limit too
+        assertThat(decode(small, "a=1,userId=alice,tenantId=acme"))
+                .containsExactly(Map.entry(PropagationField.USER_ID, "alice"));
+    }
+
+    @Test
+    void membersEndingPastMaxBytesAreNotRead() {
+        W3CBaggage small = new W3CBaggage(8, 16);
+
+        assertThat(decode(small, "userId=alice,tenantId=acme"))
+                .containsExactly(Map.entry(PropagationField.USER_ID, "alice"));
+    }
+
+    @Test
+    void encodeRoundTripsThroughDecode() {
+        MDC.put(MdcKeys.USER_ID, "Jürgen, \"K\"");
+        MDC.put(MdcKeys.TENANT_ID, "acme");
+
+        String header = baggage.encodeCurrent();
+
+        assertThat(header).doesNotContain(" ", "\"").startsWith("userId=J%C3%BCrgen%2C%20%22K%22");
+        assertThat(decode(baggage, header))
+                .containsEntry(PropagationField.USER_ID, "Jürgen, \"K\"")
+                .containsEntry(PropagationField.TENANT_ID, "acme");
+    }
+
+    @Test
+    void encodeSkipsEntriesThatDoNotFit() {
+        MDC.put(MdcKeys.USER_ID, "a-rather-long-user-name");
+        MDC.put(MdcKeys.TENANT_ID, "acme");
+
+        assertThat(new W3CBaggage(8, 20).encodeCurrent()).isEqualTo("tenantId=acme");
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.arun0009.observability.dependency;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DependencyMatrixTest {
+
+    private final ObservabilityProperties.Dependencies config = new ObservabilityProperties.Dependencies();
+
+    private DependencyMatrix matrix() {
+        return new DependencyMatrix(config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void smallLatenciesGetABucketEach() {
+        for (int micros = 0; micros < 8; micros++) {
+            assertThat(DependencyMatrix.bucket(micros)).isEqualTo(micros);
+            assertThat(DependencyMatrix.bucketMidpoint(micros)).isCloseTo(micros, within(0.5));
+        }
+        assertThat(DependencyMatrix.bucket(-1)).isZero();
+    }
+
+    @Test
+    void bucketsAreOrderedAndWithinAnEighthOfTheirMidpoint() {
+        int previous = 0;
+        for (long micros = 1; micros < TimeUnit.MINUTES.toMicros(10); micros += 1 + micros / 100) {
+            int bucket = DependencyMatrix.bucket(micros);
+            assertThat(bucket).isGreaterThanOrEqualTo(previous);
+            assertThat(Math.abs(DependencyMatrix.bucketMidpoint(bucket) - micros) / micros).isLessThanOrEqualTo(0.125);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void latenciesBeyondTheLastBucketAreClamped() {
+        int last = DependencyMatrix.bucket(Long.MAX_VALUE);
+
+        assertThat(DependencyMatrix.bucket(TimeUnit.HOURS.toMicros(10))).isEqualTo(last);
+        assertThat(DependencyMatrix.bucket(TimeUnit.MINUTES.toMicros(10))).isLessThan(last);
+    }
+
+    @Test
+    void quantilesFollowTheRecordedLatencies() {
+        DependencyMatrix.Dependency orders = matrix().http("orders");
+        for (int i = 0; i < 99; i++) {
+            orders.record(TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+        orders.record(TimeUnit.MILLISECONDS.toNanos(800), true);
+        orders.record(-1, false);
+
+        DependencyMatrix.Snapshot snapshot = orders.snapshot();
+        assertThat(snapshot.calls()).isEqualTo(101);
+        assertThat(snapshot.errors()).isEqualTo(1);
+        assertThat(snapshot.quantileMillis(0.5)).isCloseTo(10, within(1.25));
+        assertThat(snapshot.quantileMillis(0.99)).isCloseTo(10, within(1.25));
+        assertThat(snapshot.quantileMillis(1.0)).isCloseTo(800, within(100.0));
+    }
+
+    @Test
+    void quantileWithoutTimedCallsIsZero() {
+        DependencyMatrix.Dependency orders = matrix().http("orders");
+        orders.record(-1, true);
+
+        assertThat(orders.snapshot().quantileMillis(0.99)).isZero();
+    }
+
+    @Test
+    void callsOlderThanTheWindowRollOff() throws InterruptedException {
+        config.setWindow(Duration.ofMillis(60));
+        DependencyMatrix.Dependency orders = matrix().kafka("orders");
+        orders.record(TimeUnit.MILLISECONDS.toNanos(5), true);
+
+        Thread.sleep(120);
+        orders.record(TimeUnit.MILLISECONDS.toNanos(5), false);
+
+        DependencyMatrix.Snapshot snapshot = orders.snapshot();
+        assertThat(snapshot.calls()).isEqualTo(1);
+        assertThat(snapshot.errors()).isZero();
+    }
+
+    @Test
+    void namesBeyondMaxDependenciesAreGroupedAsOtherPerKind() {
+        config.setMaxDependencies(2);
+        DependencyMatrix matrix = matrix();
+
+        assertThat(matrix.http("a").snapshot().name()).isEqualTo("a");
+        assertThat(matrix.http("b").snapshot().name()).isEqualTo("b");
+        DependencyMatrix.Dependency overflow = matrix.http("c");
+        assertThat(overflow.snapshot().name()).isEqualTo(DependencyMatrix.OTHER);
+        assertThat(matrix.http("d")).isSameAs(overflow);
+        assertThat(matrix.http("a")).isNotSameAs(overflow);
+
+        DependencyMatrix.Snapshot topic = matrix.kafka("orders").snapshot();
+        assertThat(topic.kind()).isEqualTo(DependencyMatrix.KAFKA);
+        assertThat(topic.name()).isEqualTo(DependencyMatrix.OTHER);
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.arun0009.observability.exception;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExceptionFingerprintsTest {
+
+    private static final long WINDOW = TimeUnit.MINUTES.toNanos(1);
+
+    private final ObservabilityProperties.ExceptionHandler config = new ObservabilityProperties.ExceptionHandler();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    static <T extends Throwable> T thrownAt(T error, int line) {
+        error.setStackTrace(new StackTraceElement[] {
+                new StackTraceElement("com.example.OrderService", "place", "OrderService.java", line),
+                new StackTraceElement("com.example.OrderController", "post", "OrderController.java", 42),
+        });
+        return error;
+    }
+
+    @Test
+    void sameSiteSharesAFingerprintWhateverTheMessage() {
+        ExceptionFingerprints fingerprints = new ExceptionFingerprints(config, registry);
+
+        ExceptionFingerprints.Fingerprint first =
+                fingerprints.record(thrownAt(new IllegalStateException("order 1 not found"), 10));
+        ExceptionFingerprints.Fingerprint second =
+                fingerprints.record(thrownAt(new IllegalStateException("order 2 not found"), 10));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.total()).isEqualTo(2);
+        assertThat(first.type()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(first.frames()).containsExactly("com.example.OrderService.place:10",
+                "com.example.OrderController.post:42");
+        assertThat(registry.get("exceptions.fingerprint").tag("exception", "IllegalStateException")
+                .tag("fingerprint", first.id()).counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void throwSiteAndTypeChangeTheFingerprint() {
+        ExceptionFingerprints fingerprints = new ExceptionFingerprints(config, registry);
+
+        String id = fingerprints.record(thrownAt(new IllegalStateException("x"), 10)).id();
+
+        assertThat(fingerprints.record(thrownAt(new IllegalStateException("x"), 11)).id()).isNotEqualTo(id);
+        assertThat(fingerprints.record(thrownAt(new IllegalArgumentException("x"), 10)).id()).isNotEqualTo(id);
+        assertThat(fingerprints.fingerprints()).hasSize(3);
+    }
+
+    @Test
+    void framesBelowFingerprintFramesDoNotMatter() {
+        config.setFingerprintFrames(1);
+        ExceptionFingerprints fingerprints = new ExceptionFingerprints(config, registry);
+        IllegalStateException other = new IllegalStateException();
+        other.setStackTrace(new StackTraceElement[] {
+                new StackTraceElement("com.example.OrderService", "place", "OrderService.java", 10),
+                new StackTraceElement("com.example.Job", "run", "Job.java", 7),
+        });
+
+        assertThat(fingerprints.record(other))
+                .isSameAs(fingerprints.record(thrownAt(new IllegalStateException(), 10)));
+    }
+
+    @Test
+    void fingerprintsBeyondTheLimitAreCountedAsOther() {
+        config.setMaxFingerprints(1);
+        ExceptionFingerprints fingerprints = new ExceptionFingerprints(config, registry);
+        fingerprints.record(thrownAt(new IllegalStateException(), 10));
+
+        ExceptionFingerprints.Fingerprint overflow = fingerprints.record(thrownAt(new IllegalStateException(), 11));
+        fingerprints.record(thrownAt(new IllegalArgumentException(), 12));
+
+        assertThat(overflow.id()).isEqualTo(ExceptionFingerprints.OTHER);
+        assertThat(overflow.total()).isEqualTo(2);
+        assertThat(fingerprints.fingerprints()).hasSize(2).contains(overflow);
+        assertThat(registry.get("exceptions.fingerprint").tag("fingerprint", "other").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void recentCoversTheCurrentAndPreviousWindow() {
+        ExceptionFingerprints fingerprints = new ExceptionFingerprints(config, registry);
+        ExceptionFingerprints.Fingerprint fingerprint =
+                fingerprints.record(thrownAt(new IllegalStateException(), 10));
+        fingerprints.record(thrownAt(new IllegalStateException(), 10));
+        long base = System.nanoTime();
+        assertThat(fingerprint.recent(base)).isEqualTo(2);
+
+        // The first window is over but still the previous one
+        assertThat(fingerprint.recent(base + WINDOW)).isEqualTo(2);
+        fingerprint.occurred(base + WINDOW);
+        assertThat(fingerprint.recent(base + WINDOW)).isEqualTo(3);
+
+        assertThat(fingerprint.recent(base + 2 * WINDOW)).isEqualTo(1);
+        assertThat(fingerprint.recent(base + 3 * WINDOW)).isZero();
+
+        // After a quiet window, the window before it no longer counts
+        fingerprint.occurred(base + 4 * WINDOW);
+        assertThat(fingerprint.recent(base + 4 * WINDOW)).isEqualTo(1);
+        assertThat(fingerprint.total()).isEqualTo(4);
+    }
+}
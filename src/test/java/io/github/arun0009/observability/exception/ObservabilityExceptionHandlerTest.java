@@ -0,0 +1,207 @@
+package io.github.arun0009.observability.exception;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservabilityExceptionHandlerTest {
+
+    private final ObservabilityProperties.ExceptionHandler config = new ObservabilityProperties.ExceptionHandler();
+    private final List<LogEvent> logged = new CopyOnWriteArrayList<>();
+    private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+    private final Logger logger = (Logger) LogManager.getLogger(ObservabilityExceptionHandler.class);
+    private final AbstractAppender appender =
+            new AbstractAppender("exception-handler-test", null, null, true, Property.EMPTY_ARRAY) {
+                @Override
+                public void append(LogEvent event) {
+                    logged.add(event.toImmutable());
+                }
+            };
+    private SdkTracerProvider tracerProvider;
+
+    @BeforeEach
+    void capture() {
+        appender.start();
+        logger.addAppender(appender);
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(new CollectingExporter()))
+                .build();
+    }
+
+    @AfterEach
+    void release() {
+        logger.removeAppender(appender);
+        appender.stop();
+        tracerProvider.close();
+    }
+
+    private ObservabilityExceptionHandler fingerprinting(int spanStackFrames) {
+        return new ObservabilityExceptionHandler(new ExceptionFingerprints(config, new SimpleMeterRegistry()),
+                spanStackFrames);
+    }
+
+    private void handleInSpan(ObservabilityExceptionHandler handler, Exception error) {
+        Span span = tracerProvider.get("test").spanBuilder("request").startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            handler.handleException(error);
+        } finally {
+            span.end();
+        }
+    }
+
+    private static IllegalStateException failure(String message) {
+        return ExceptionFingerprintsTest.thrownAt(new IllegalStateException(message), 10);
+    }
+
+    @Test
+    void logsTheFirstOccurrencesInFullAndTheRestOnOneLine() {
+        config.setLogPermits(2);
+        ObservabilityExceptionHandler handler = fingerprinting(20);
+
+        for (int i = 0; i < 4; i++) {
+            handler.handleException(failure("order " + i));
+        }
+
+        assertThat(logged).hasSize(4);
+        assertThat(logged.subList(0, 2)).allSatisfy(event -> {
+            assertThat(event.getThrown()).isNotNull();
+            assertThat(event.getMessage().getFormattedMessage()).contains("withoutStackSinceLast=0");
+        });
+        assertThat(logged.subList(2, 4)).allSatisfy(event -> assertThat(event.getThrown()).isNull());
+        assertThat(logged.get(3).getMessage().getFormattedMessage())
+                .contains("java.lang.IllegalStateException: order 3")
+                .contains("stack trace rate-limited, occurrences=4");
+    }
+
+    @Test
+    void nextWindowLogsInFullAgainAndReportsWhatWasCut() throws InterruptedException {
+        config.setLogPermits(1);
+        config.setLogInterval(Duration.ofMillis(200));
+        ObservabilityExceptionHandler handler = fingerprinting(20);
+        handler.handleException(failure("a"));
+        handler.handleException(failure("b"));
+
+        Thread.sleep(250);
+        handler.handleException(failure("c"));
+
+        assertThat(logged).extracting(event -> event.getThrown() != null).containsExactly(true, false, true);
+        assertThat(logged.get(2).getMessage().getFormattedMessage()).contains("withoutStackSinceLast=1");
+    }
+
+    @Test
+    void logsEveryOccurrenceInFullWithoutFingerprints() {
+        ObservabilityExceptionHandler handler = new ObservabilityExceptionHandler();
+
+        handler.handleException(failure("a"));
+        handler.handleException(failure("b"));
+
+        assertThat(logged).hasSize(2).allSatisfy(event -> assertThat(event.getThrown()).isNotNull());
+    }
+
+    @Test
+    void spanEventCarriesTheFingerprintAndATruncatedStack() {
+        ObservabilityExceptionHandler handler = fingerprinting(1);
+        IllegalStateException error = failure("order 7 not found");
+
+        handleInSpan(handler, error);
+
+        SpanData span = spans.get(0);
+        assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+        assertThat(span.getEvents()).singleElement().satisfies(event -> {
+            assertThat(event.getName()).isEqualTo("exception");
+            assertThat(attribute(event, "exception.fingerprint")).isNotEmpty();
+            assertThat(attribute(event, "exception.type")).isEqualTo(IllegalStateException.class.getName());
+            assertThat(attribute(event, "exception.message")).isEqualTo("order 7 not found");
+            assertThat(attribute(event, "exception.stacktrace"))
+                    .isEqualTo(ObservabilityExceptionHandler.truncatedStackTrace(error, 1))
+                    .contains("\t... 1 more");
+        });
+    }
+
+    @Test
+    void spanEventIsTheFullRecordedExceptionWithoutFingerprints() {
+        handleInSpan(new ObservabilityExceptionHandler(), failure("order 7 not found"));
+
+        assertThat(spans.get(0).getEvents()).singleElement().satisfies(event -> {
+            assertThat(event.getName()).isEqualTo("exception");
+            assertThat(attribute(event, "exception.fingerprint")).isNull();
+            assertThat(attribute(event, "exception.stacktrace")).contains("OrderController.post")
+                    .doesNotContain("more");
+        });
+    }
+
+    @Test
+    void truncatedStackTraceCutsFramesAndListsCauses() {
+        IllegalStateException root = failure("top");
+        root.initCause(new IllegalArgumentException("middle", new RuntimeException("bottom")));
+
+        String trace = ObservabilityExceptionHandler.truncatedStackTrace(root, 1);
+
+        assertThat(trace).isEqualTo("java.lang.IllegalStateException: top\n"
+                + "\tat com.example.OrderService.place(OrderService.java:10)\n"
+                + "\t... 1 more\n"
+                + "Caused by: java.lang.IllegalArgumentException: middle\n"
+                + "Caused by: java.lang.RuntimeException: bottom");
+        assertThat(ObservabilityExceptionHandler.truncatedStackTrace(root, 5)).doesNotContain("more");
+    }
+
+    @Test
+    void truncatedStackTraceListsAtMostFiveCauses() {
+        Throwable error = new RuntimeException("cause 7");
+        for (int i = 6; i >= 0; i--) {
+            error = new RuntimeException("cause " + i, error);
+        }
+
+        String trace = ObservabilityExceptionHandler.truncatedStackTrace(error, 0);
+
+        assertThat(trace.split("Caused by: ", -1)).hasSize(6);
+        assertThat(trace).endsWith("cause 5");
+    }
+
+    private static String attribute(EventData event, String key) {
+        return event.getAttributes().get(AttributeKey.stringKey(key));
+    }
+
+    private final class CollectingExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
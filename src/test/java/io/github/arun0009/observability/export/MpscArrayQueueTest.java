@@ -0,0 +1,98 @@
+package io.github.arun0009.observability.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscArrayQueueTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertThat(new MpscArrayQueue<>(0).capacity()).isEqualTo(2);
+        assertThat(new MpscArrayQueue<>(2).capacity()).isEqualTo(2);
+        assertThat(new MpscArrayQueue<>(3).capacity()).isEqualTo(4);
+        assertThat(new MpscArrayQueue<>(1000).capacity()).isEqualTo(1024);
+        assertThat(new MpscArrayQueue<>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void offerFailsWhenFull() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(queue.offer(i)).isTrue();
+        }
+
+        assertThat(queue.offer(4)).isFalse();
+        assertThat(queue.size()).isEqualTo(4);
+
+        queue.drain(e -> {
+        }, 1);
+        assertThat(queue.offer(4)).isTrue();
+    }
+
+    @Test
+    void drainRespectsTheLimitAndOrderAcrossWrapAround() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(4);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                queue.offer(next++);
+            }
+            assertThat(queue.drain(drained::add, 2)).isEqualTo(2);
+            assertThat(queue.drain(drained::add, 10)).isEqualTo(1);
+        }
+
+        assertThat(drained).hasSize(30).isSorted();
+        assertThat(queue.size()).isZero();
+        assertThat(queue.drain(drained::add, 10)).isZero();
+    }
+
+    @Test
+    void concurrentProducersKeepTheirOwnOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10_000;
+        MpscArrayQueue<long[]> queue = new MpscArrayQueue<>(256);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread t = new Thread(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    long[] element = { producer, i };
+                    while (!queue.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+
+        long[] expected = new long[producers];
+        int[] received = new int[1];
+        int[] outOfOrder = new int[1];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received[0] < producers * perProducer && System.nanoTime() < deadline) {
+            int drained = queue.drain(e -> {
+                if (e[1] != expected[(int) e[0]]++) {
+                    outOfOrder[0]++;
+                }
+                received[0]++;
+            }, 64);
+            if (drained == 0) {
+                Thread.yield();
+            }
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received[0]).isEqualTo(producers * perProducer);
+        assertThat(outOfOrder[0]).isZero();
+        assertThat(queue.size()).isZero();
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.arun0009.observability.export;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SpanExportPipelineTest {
+
+    private final RecordingExporter exporter = new RecordingExporter();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void closeTracerProvider() {
+        if (tracerProvider != null) {
+            tracerProvider.close();
+        }
+    }
+
+    private SpanExportPipeline pipeline(int queueCapacity, int batchSize) {
+        return pipeline(queueCapacity, batchSize, Duration.ofMinutes(1));
+    }
+
+    private SpanExportPipeline pipeline(int queueCapacity, int batchSize, Duration flushInterval) {
+        ObservabilityProperties.Export config = new ObservabilityProperties.Export();
+        config.setQueueCapacity(queueCapacity);
+        config.setBatchSize(batchSize);
+        config.setFlushInterval(flushInterval);
+        config.setExportTimeout(Duration.ofSeconds(5));
+        SpanExportPipeline pipeline = new SpanExportPipeline(config, exporter, registry);
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(pipeline).build();
+        return pipeline;
+    }
+
+    private void endSpans(int count) {
+        Tracer tracer = tracerProvider.get("test");
+        for (int i = 0; i < count; i++) {
+            tracer.spanBuilder("span-" + i).startSpan().end();
+        }
+    }
+
+    private double dropped(String reason) {
+        return registry.get("tracing.export.spans.dropped").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void stopsAfterTheWebServer() {
+        assertThat(pipeline(16, 4).getPhase()).isLessThan(Integer.MAX_VALUE - 2048);
+    }
+
+    @Test
+    void spansEndedAfterStopAreStillExported() {
+        SpanExportPipeline pipeline = pipeline(16, 4);
+        pipeline.start();
+        pipeline.stop();
+
+        endSpans(3);
+
+        assertThat(exporter.names()).containsExactly("span-0", "span-1", "span-2");
+        assertThat(pipeline.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(registry.get("tracing.export.spans.exported").counter().count()).isEqualTo(3);
+        assertThat(dropped("queue-full")).isZero();
+    }
+
+    @Test
+    void fullBatchesAreExportedWithoutWaitingForTheFlushInterval() {
+        SpanExportPipeline pipeline = pipeline(16, 4);
+        pipeline.start();
+
+        endSpans(10);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> exporter.names().size() == 8);
+        assertThat(exporter.batches()).containsExactly(4, 4);
+        // The partial remainder waits for a flush
+        assertThat(registry.get("tracing.export.queue.size").gauge().value()).isEqualTo(2);
+
+        assertThat(pipeline.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(exporter.batches()).containsExactly(4, 4, 2);
+        assertThat(registry.get("tracing.export.batch.size").summary().count()).isEqualTo(3);
+        pipeline.stop();
+    }
+
+    @Test
+    void partialBatchIsExportedOnTheFlushInterval() {
+        SpanExportPipeline pipeline = pipeline(16, 4, Duration.ofMillis(50));
+        pipeline.start();
+
+        endSpans(3);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> exporter.names().size() == 3);
+        assertThat(exporter.batches()).containsExactly(3);
+        pipeline.stop();
+    }
+
+    @Test
+    void spansBeyondTheQueueCapacityAreDropped() {
+        SpanExportPipeline pipeline = pipeline(4, 2);
+
+        // Not started: nothing consumes the queue until the flush
+        endSpans(6);
+
+        assertThat(dropped("queue-full")).isEqualTo(2);
+        assertThat(pipeline.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(exporter.names()).containsExactly("span-0", "span-1", "span-2", "span-3");
+        assertThat(exporter.batches()).containsExactly(2, 2);
+    }
+
+    @Test
+    void stopExportsWhatIsStillQueued() {
+        SpanExportPipeline pipeline = pipeline(16, 4);
+        pipeline.start();
+        endSpans(3);
+
+        pipeline.stop();
+
+        assertThat(exporter.names()).containsExactly("span-0", "span-1", "span-2");
+        assertThat(pipeline.isRunning()).isFalse();
+    }
+
+    private static final class RecordingExporter implements SpanExporter {
+
+        private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+        private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            batches.add(batch.size());
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        List<String> names() {
+            return spans.stream().map(SpanData::getName).toList();
+        }
+
+        List<Integer> batches() {
+            return batches;
+        }
+    }
+}
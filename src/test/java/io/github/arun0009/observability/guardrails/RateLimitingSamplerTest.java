@@ -0,0 +1,113 @@
+package io.github.arun0009.observability.guardrails;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RateLimitingSamplerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private RateLimitingSampler sampler(double tracesPerSecond, String... criticalRoutes) {
+        ObservabilityProperties.Sampling.RateLimit config = new ObservabilityProperties.Sampling.RateLimit();
+        config.setTracesPerSecond(tracesPerSecond);
+        config.setMaxRoutes(3);
+        config.setCriticalRoutes(List.of(criticalRoutes));
+        // Adjustments are driven by the test
+        config.setAdjustInterval(Duration.ofHours(1));
+        return new RateLimitingSampler(config, registry);
+    }
+
+    private static SamplingDecision sample(RateLimitingSampler sampler, String route) {
+        return sampler.shouldSample(Context.root(), "0af7651916cd43dd8448eb211c80319c", route, SpanKind.SERVER,
+                Attributes.empty(), List.of()).getDecision();
+    }
+
+    private static void sample(RateLimitingSampler sampler, String route, int times) {
+        for (int i = 0; i < times; i++) {
+            sample(sampler, route);
+        }
+    }
+
+    private double decisions(String decision) {
+        return registry.get("tracing.sampler.decisions").tag("decision", decision).counter().count();
+    }
+
+    @Test
+    void bucketAllowsOneSecondOfBudgetAsABurst() {
+        RateLimitingSampler sampler = sampler(10);
+
+        sample(sampler, "GET /orders", 100);
+
+        // One second of budget plus the first emission interval; a little
+        // more if the loop itself takes a while
+        assertThat(decisions("sampled")).isBetween(11.0, 14.0);
+        assertThat(decisions("rate-limited")).isEqualTo(100 - decisions("sampled"));
+    }
+
+    @Test
+    void budgetIsSplitMaxMinFairly() {
+        RateLimitingSampler sampler = sampler(10);
+        long start = System.nanoTime();
+        sampler.adjust(start);
+
+        sample(sampler, "GET /quiet", 1);
+        sample(sampler, "GET /medium", 5);
+        sample(sampler, "GET /busy", 100);
+        sampler.adjust(start + SECOND);
+
+        // quiet is served fully; medium and busy split the remaining 9/s
+        assertThat(sampler.probability("GET /quiet")).isEqualTo(1.0);
+        assertThat(sampler.probability("GET /medium")).isCloseTo(4.5 / 5, within(1e-9));
+        assertThat(sampler.probability("GET /busy")).isCloseTo(4.5 / 100, within(1e-9));
+    }
+
+    @Test
+    void fullyServedRoutesAreNotHeldBackByTheBucket() {
+        RateLimitingSampler sampler = sampler(10);
+        long start = System.nanoTime();
+        sampler.adjust(start);
+        sample(sampler, "GET /quiet", 1);
+        // Also empties the bucket
+        sample(sampler, "GET /busy", 100);
+        sampler.adjust(start + SECOND);
+        assertThat(decisions("rate-limited")).isPositive();
+
+        assertThat(sample(sampler, "GET /quiet")).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+    }
+
+    @Test
+    void criticalRoutesAreAlwaysSampledOutsideTheBudget() {
+        RateLimitingSampler sampler = sampler(10, "/internal");
+
+        sample(sampler, "GET /internal/health", 50);
+        assertThat(decisions("critical")).isEqualTo(50);
+
+        sample(sampler, "GET /orders", 100);
+        assertThat(decisions("sampled")).isBetween(11.0, 14.0);
+    }
+
+    @Test
+    void routesBeyondMaxRoutesShareOneEntry() {
+        RateLimitingSampler sampler = sampler(10);
+
+        for (int i = 0; i < 10; i++) {
+            sample(sampler, "GET /route-" + i);
+        }
+
+        assertThat(registry.get("tracing.sampler.routes").gauge().value()).isEqualTo(3);
+    }
+}
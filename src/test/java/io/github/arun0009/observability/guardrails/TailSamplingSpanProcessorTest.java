@@ -0,0 +1,308 @@
+package io.github.arun0009.observability.guardrails;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.export.SpanExportPipeline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailSamplingSpanProcessorTest {
+
+    private final List<Thread> exportThreads = new CopyOnWriteArrayList<>();
+    private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private TailSamplingSpanProcessor processor;
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void close() {
+        tracerProvider.close();
+    }
+
+    private void ownedPipeline() {
+        ObservabilityProperties.Export export = new ObservabilityProperties.Export();
+        export.setFlushInterval(Duration.ofMinutes(1));
+        SpanExportPipeline pipeline = new SpanExportPipeline(export, new ThreadRecordingExporter(), registry);
+        processor = new TailSamplingSpanProcessor(new ObservabilityProperties.Sampling.Tail(), pipeline, registry);
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(processor).build();
+    }
+
+    /**
+     * A processor exporting synchronously to {@link #exported}, behind a
+     * recording head sampler that samples everything or nothing.
+     */
+    private Tracer tracer(ObservabilityProperties.Sampling.Tail config, boolean headSampled) {
+        processor = new TailSamplingSpanProcessor(config, new ThreadRecordingExporter(), registry);
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(new RecordingSampler(headSampled ? Sampler.alwaysOn() : Sampler.alwaysOff()))
+                .addSpanProcessor(processor)
+                .build();
+        return tracerProvider.get("test");
+    }
+
+    private static Span child(Tracer tracer, Span parent, String name) {
+        return tracer.spanBuilder(name).setParent(Context.root().with(parent)).startSpan();
+    }
+
+    private List<String> exportedNames() {
+        return exported.stream().map(SpanData::getName).collect(Collectors.toList());
+    }
+
+    private double decisions(String decision) {
+        return registry.get("tracing.tail.traces").tag("decision", decision).counter().count();
+    }
+
+    private double droppedSpans() {
+        return registry.get("tracing.tail.spans.dropped").counter().count();
+    }
+
+    private double buffered(String what) {
+        return registry.get("tracing.tail.buffered." + what).gauge().value();
+    }
+
+    @Test
+    void keepsATraceWithAnErrorStatus() {
+        Tracer tracer = tracer(new ObservabilityProperties.Sampling.Tail(), false);
+
+        Span root = tracer.spanBuilder("root").startSpan();
+        child(tracer, root, "child").setStatus(StatusCode.ERROR).end();
+        root.end();
+
+        assertThat(exportedNames()).containsExactly("child", "root");
+        assertThat(decisions("error")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsATraceWithAServerErrorOutcome() {
+        Tracer tracer = tracer(new ObservabilityProperties.Sampling.Tail(), false);
+
+        tracer.spanBuilder("root").startSpan().setAttribute("outcome", "SERVER_ERROR").end();
+        tracer.spanBuilder("ok").startSpan().setAttribute("outcome", "CLIENT_ERROR").end();
+
+        assertThat(exportedNames()).containsExactly("root");
+        assertThat(decisions("error")).isEqualTo(1);
+        assertThat(decisions("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsATraceOverTheLatencyThreshold() {
+        ObservabilityProperties.Sampling.Tail config = new ObservabilityProperties.Sampling.Tail();
+        config.setLatencyThreshold(Duration.ofMillis(500));
+        Tracer tracer = tracer(config, false);
+
+        tracer.spanBuilder("slow").setStartTimestamp(1_000, TimeUnit.MILLISECONDS).startSpan()
+                .end(1_500, TimeUnit.MILLISECONDS);
+        tracer.spanBuilder("fast").setStartTimestamp(1_000, TimeUnit.MILLISECONDS).startSpan()
+                .end(1_499, TimeUnit.MILLISECONDS);
+
+        assertThat(exportedNames()).containsExactly("slow");
+        assertThat(decisions("slow")).isEqualTo(1);
+        assertThat(decisions("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsHeadSampledTraces() {
+        Tracer tracer = tracer(new ObservabilityProperties.Sampling.Tail(), true);
+
+        Span root = tracer.spanBuilder("root").startSpan();
+        child(tracer, root, "child").end();
+        root.end();
+
+        assertThat(exportedNames()).containsExactly("child", "root");
+        assertThat(decisions("sampled")).isEqualTo(1);
+    }
+
+    @Test
+    void dropsEverythingElse() {
+        Tracer tracer = tracer(new ObservabilityProperties.Sampling.Tail(), false);
+
+        Span root = tracer.spanBuilder("root").startSpan();
+        child(tracer, root, "child").end();
+        assertThat(buffered("traces")).isEqualTo(1);
+        assertThat(buffered("spans")).isEqualTo(1);
+        root.end();
+
+        assertThat(exported).isEmpty();
+        assertThat(decisions("dropped")).isEqualTo(1);
+        assertThat(buffered("traces")).isZero();
+        assertThat(buffered("spans")).isZero();
+    }
+
+    @Test
+    void spansOfTracesBeyondMaxTracesAreNotBuffered() {
+        ObservabilityProperties.Sampling.Tail config = new ObservabilityProperties.Sampling.Tail();
+        config.setMaxTraces(1);
+        Tracer tracer = tracer(config, true);
+
+        Span first = tracer.spanBuilder("first").startSpan();
+        Span second = tracer.spanBuilder("second").startSpan();
+        child(tracer, first, "first-child").end();
+        child(tracer, second, "second-child").end();
+
+        assertThat(buffered("traces")).isEqualTo(1);
+        assertThat(droppedSpans()).isEqualTo(1);
+
+        first.end();
+        second.end();
+        assertThat(exportedNames()).containsExactly("first-child", "first", "second");
+    }
+
+    @Test
+    void spansBeyondMaxSpansAreNotBuffered() {
+        ObservabilityProperties.Sampling.Tail config = new ObservabilityProperties.Sampling.Tail();
+        config.setMaxSpans(2);
+        Tracer tracer = tracer(config, true);
+
+        Span first = tracer.spanBuilder("first").startSpan();
+        Span second = tracer.spanBuilder("second").startSpan();
+        child(tracer, first, "a").end();
+        child(tracer, first, "b").end();
+        child(tracer, second, "c").end();
+
+        assertThat(buffered("spans")).isEqualTo(2);
+        assertThat(droppedSpans()).isEqualTo(1);
+
+        first.end();
+        // Ending the first trace frees its share of the global cap
+        child(tracer, second, "d").end();
+        second.end();
+        assertThat(exportedNames()).containsExactly("a", "b", "first", "d", "second");
+        assertThat(buffered("spans")).isZero();
+    }
+
+    @Test
+    void spansBeyondMaxSpansPerTraceStillCountTowardsTheErrorDecision() {
+        ObservabilityProperties.Sampling.Tail config = new ObservabilityProperties.Sampling.Tail();
+        config.setMaxSpansPerTrace(1);
+        Tracer tracer = tracer(config, false);
+
+        Span root = tracer.spanBuilder("root").startSpan();
+        child(tracer, root, "a").end();
+        child(tracer, root, "b").setStatus(StatusCode.ERROR).end();
+        assertThat(buffered("spans")).isEqualTo(1);
+        root.end();
+
+        assertThat(droppedSpans()).isEqualTo(1);
+        assertThat(exportedNames()).containsExactly("a", "root");
+        assertThat(decisions("error")).isEqualTo(1);
+    }
+
+    @Test
+    void sweepEvictsTracesWhoseRootNeverEnded() {
+        ObservabilityProperties.Sampling.Tail config = new ObservabilityProperties.Sampling.Tail();
+        config.setMaxTraceAge(Duration.ZERO);
+        Tracer tracer = tracer(config, true);
+
+        Span failed = tracer.spanBuilder("failed").startSpan();
+        Span quiet = tracer.spanBuilder("quiet").startSpan();
+        child(tracer, failed, "error").setStatus(StatusCode.ERROR).end();
+        child(tracer, quiet, "ok").end();
+
+        processor.sweep();
+
+        assertThat(decisions("evicted")).isEqualTo(2);
+        assertThat(exportedNames()).containsExactly("error");
+        assertThat(buffered("traces")).isZero();
+        assertThat(buffered("spans")).isZero();
+
+        // The evicted traces were decided: kept only if they had an error
+        quiet.end();
+        failed.end();
+        assertThat(exportedNames()).containsExactly("error", "failed");
+    }
+
+    @Test
+    void sweepForgetsOldDecisions() {
+        ObservabilityProperties.Sampling.Tail config = new ObservabilityProperties.Sampling.Tail();
+        config.setMaxTraceAge(Duration.ZERO);
+        Tracer tracer = tracer(config, false);
+
+        Span root = tracer.spanBuilder("root").startSpan();
+        Span late = child(tracer, root, "late");
+        root.setStatus(StatusCode.ERROR).end();
+        processor.sweep();
+
+        // Without the decision the late span starts a new buffer
+        late.end();
+        assertThat(exportedNames()).containsExactly("root");
+        assertThat(buffered("traces")).isEqualTo(1);
+    }
+
+    @Test
+    void spansEndingAfterTheDecisionFollowIt() {
+        Tracer tracer = tracer(new ObservabilityProperties.Sampling.Tail(), false);
+
+        Span kept = tracer.spanBuilder("kept").startSpan();
+        Span keptLate = child(tracer, kept, "kept-late");
+        kept.setStatus(StatusCode.ERROR).end();
+        Span dropped = tracer.spanBuilder("dropped").startSpan();
+        Span droppedLate = child(tracer, dropped, "dropped-late");
+        dropped.end();
+
+        keptLate.end();
+        droppedLate.end();
+
+        assertThat(exportedNames()).containsExactly("kept", "kept-late");
+        assertThat(buffered("traces")).isZero();
+        assertThat(decisions("error")).isEqualTo(1);
+        assertThat(decisions("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void keptTracesAreNotExportedOnTheEndingThread() {
+        ownedPipeline();
+        processor.start();
+
+        tracerProvider.get("test").spanBuilder("root").startSpan().setStatus(StatusCode.ERROR).end();
+
+        assertThat(processor.forceFlush().join(5, TimeUnit.SECONDS).isSuccess()).isTrue();
+        assertThat(exportThreads).hasSize(1).doesNotContain(Thread.currentThread());
+        processor.stop();
+    }
+
+    @Test
+    void ownedPipelineStopsAfterTheWebServer() {
+        ownedPipeline();
+
+        assertThat(processor.getPhase()).isLessThan(Integer.MAX_VALUE - 2048);
+    }
+
+    private final class ThreadRecordingExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            exportThreads.add(Thread.currentThread());
+            exported.addAll(spans);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
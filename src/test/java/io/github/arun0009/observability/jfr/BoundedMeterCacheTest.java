@@ -0,0 +1,40 @@
+package io.github.arun0009.observability.jfr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedMeterCacheTest {
+
+    private final List<String> created = new ArrayList<>();
+    private final BoundedMeterCache<String> cache = new BoundedMeterCache<>(2, tag -> {
+        created.add(tag);
+        return "meter:" + tag;
+    });
+
+    @Test
+    void cachesOneMeterPerTagValue() {
+        assertThat(cache.get("G1 Young")).isEqualTo("meter:G1 Young");
+        assertThat(cache.get("G1 Young")).isEqualTo("meter:G1 Young");
+        assertThat(created).containsExactly("G1 Young");
+    }
+
+    @Test
+    void valuesBeyondTheCapShareTheOtherMeter() {
+        cache.get("a");
+        cache.get("b");
+
+        assertThat(cache.get("c")).isEqualTo("meter:other");
+        assertThat(cache.get("d")).isEqualTo("meter:other");
+        assertThat(cache.get("a")).isEqualTo("meter:a");
+        assertThat(created).containsExactly("a", "b", BoundedMeterCache.OTHER);
+    }
+
+    @Test
+    void nullTagValueMapsToOther() {
+        assertThat(cache.get(null)).isEqualTo("meter:other");
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.arun0009.observability.jfr;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEventBridgeTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ObservabilityProperties.Jfr config = new ObservabilityProperties.Jfr();
+    private JfrEventBridge bridge;
+
+    @AfterEach
+    void stopBridge() {
+        if (bridge != null) {
+            bridge.stop();
+        }
+    }
+
+    @Test
+    void threadNamesCollapseToTheirPool() {
+        assertThat(JfrEventBridge.threadPool("http-nio-8080-exec-12")).isEqualTo("http-nio-8080-exec");
+        assertThat(JfrEventBridge.threadPool("ForkJoinPool.commonPool-worker-3"))
+                .isEqualTo("ForkJoinPool.commonPool-worker");
+        assertThat(JfrEventBridge.threadPool("kafka_consumer #2")).isEqualTo("kafka_consumer");
+        assertThat(JfrEventBridge.threadPool("main")).isEqualTo("main");
+        assertThat(JfrEventBridge.threadPool("42")).isEqualTo("42");
+        assertThat(JfrEventBridge.threadPool((jdk.jfr.consumer.RecordedThread) null)).isEqualTo("unknown");
+    }
+
+    @Test
+    void enabledEventsFollowTheConfiguration() {
+        config.setAllocation(false);
+        config.setContention(false);
+        config.setThreadPark(true);
+        bridge = new JfrEventBridge(config, registry);
+
+        assertThat(bridge.enabledEvents()).containsExactly(JfrEventBridge.GC, JfrEventBridge.SAFEPOINT,
+                JfrEventBridge.SAFEPOINT_SYNC, JfrEventBridge.THREAD_PARK);
+    }
+
+    @Test
+    void endpointTogglesTheRecordingStream() {
+        bridge = new JfrEventBridge(config, registry);
+        JfrEventBridgeEndpoint endpoint = new JfrEventBridgeEndpoint(bridge);
+
+        assertThat(endpoint.status()).containsEntry("running", false);
+
+        Map<String, Object> started = endpoint.toggle(true);
+        assertThat(started).containsEntry("running", true);
+        assertThat(bridge.isRunning()).isTrue();
+        assertThat(registry.find("jvm.jfr.safepoint").timer()).isNotNull();
+
+        endpoint.toggle(true);
+        assertThat(bridge.isRunning()).isTrue();
+
+        assertThat(endpoint.toggle(false)).containsEntry("running", false);
+        assertThat(bridge.isRunning()).isFalse();
+
+        assertThat(endpoint.toggle(true)).containsEntry("running", true);
+    }
+
+    @Test
+    void gcAndSafepointEventsBecomeTimers() {
+        config.setAllocation(false);
+        config.setContention(false);
+        bridge = new JfrEventBridge(config, registry);
+        bridge.start();
+
+        awaitMeter(() -> {
+            System.gc();
+            return registry.find("jvm.jfr.gc.pause").timer();
+        });
+        awaitMeter(() -> counted(registry.find("jvm.jfr.safepoint").timer()));
+    }
+
+    @Test
+    void contentionIsTaggedWithTheMonitorClass() throws Exception {
+        config.setGc(false);
+        config.setAllocation(false);
+        config.setSafepoints(false);
+        config.setContentionThreshold(Duration.ofMillis(1));
+        bridge = new JfrEventBridge(config, registry);
+        bridge.start();
+
+        Monitor monitor = new Monitor();
+        CountDownLatch held = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (monitor) {
+                held.countDown();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        });
+        holder.start();
+        held.await(10, TimeUnit.SECONDS);
+        synchronized (monitor) {
+            monitor.entered = true;
+        }
+        holder.join();
+
+        awaitMeter(() -> counted(registry.find("jvm.jfr.monitor.contention")
+                .tag("monitor.class", Monitor.class.getName()).timer()));
+    }
+
+    @Test
+    void parksAreTaggedWithTheParkedClass() {
+        config.setGc(false);
+        config.setAllocation(false);
+        config.setContention(false);
+        config.setSafepoints(false);
+        config.setThreadPark(true);
+        config.setParkThreshold(Duration.ofMillis(1));
+        bridge = new JfrEventBridge(config, registry);
+        bridge.start();
+
+        Monitor blocker = new Monitor();
+        awaitMeter(() -> {
+            LockSupport.parkNanos(blocker, TimeUnit.MILLISECONDS.toNanos(20));
+            return counted(registry.find("jvm.jfr.thread.park")
+                    .tag("parked.class", Monitor.class.getName()).timer());
+        });
+    }
+
+    @Test
+    void allocationIsAttributedToTheThreadPool() throws Exception {
+        config.setGc(false);
+        config.setContention(false);
+        config.setSafepoints(false);
+        bridge = new JfrEventBridge(config, registry);
+        bridge.start();
+
+        awaitMeter(() -> {
+            Thread worker = new Thread(() -> {
+                byte[][] retained = new byte[64][];
+                for (int i = 0; i < 4096; i++) {
+                    retained[i % retained.length] = new byte[64 * 1024];
+                }
+            }, "alloc-worker-7");
+            worker.start();
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return registry.find("jvm.jfr.allocation").tag("thread.pool", "alloc-worker").counter();
+        });
+    }
+
+    private static Timer counted(Timer timer) {
+        return timer != null && timer.count() > 0 ? timer : null;
+    }
+
+    private static void awaitMeter(Supplier<? extends Meter> meter) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (System.nanoTime() < deadline) {
+            if (meter.get() != null) {
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertThat(meter.get()).as("meter recorded from the JFR stream").isNotNull();
+    }
+
+    static final class Monitor {
+        boolean entered;
+    }
+}
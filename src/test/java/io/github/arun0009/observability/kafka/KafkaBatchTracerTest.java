@@ -0,0 +1,203 @@
+package io.github.arun0009.observability.kafka;
+
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaBatchTracerTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String SPAN_ID = "00f067aa0ba902b7";
+
+    private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+    private final OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder()
+            .setTracerProvider(SdkTracerProvider.builder()
+                    .addSpanProcessor(SimpleSpanProcessor.create(new CollectingExporter()))
+                    .build())
+            .build();
+
+    @AfterEach
+    void close() {
+        openTelemetry.close();
+    }
+
+    private static SpanContext parse(String traceparent) {
+        return KafkaBatchTracer.parse(traceparent.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String traceparent(String spanId) {
+        return "00-" + TRACE_ID + "-" + spanId + "-01";
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String traceparent) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("orders", 0, offset, "k", "v");
+        if (traceparent != null) {
+            record.headers().add(KafkaBatchTracer.TRACEPARENT, traceparent.getBytes(StandardCharsets.US_ASCII));
+        }
+        return record;
+    }
+
+    @SafeVarargs
+    private static ConsumerRecords<String, String> batch(ConsumerRecord<String, String>... records) {
+        return new ConsumerRecords<>(Map.of(new TopicPartition("orders", 0), List.of(records)));
+    }
+
+    private static List<String> linkedSpanIds(SpanData span) {
+        return span.getLinks().stream().map(LinkData::getSpanContext).map(SpanContext::getSpanId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void parsesAVersionZeroTraceparent() {
+        SpanContext context = parse(traceparent(SPAN_ID));
+
+        assertThat(context.getTraceId()).isEqualTo(TRACE_ID);
+        assertThat(context.getSpanId()).isEqualTo(SPAN_ID);
+        assertThat(context.isSampled()).isTrue();
+        assertThat(context.isRemote()).isTrue();
+        assertThat(parse("00-" + TRACE_ID + "-" + SPAN_ID + "-00").isSampled()).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedTraceparents() {
+        assertThat(parse("00-" + TRACE_ID.toUpperCase() + "-" + SPAN_ID + "-01")).isNull();
+        assertThat(parse("ff-" + TRACE_ID + "-" + SPAN_ID + "-01")).isNull();
+        assertThat(parse("00-00000000000000000000000000000000-" + SPAN_ID + "-01")).isNull();
+        assertThat(parse("00-" + TRACE_ID + "-0000000000000000-01")).isNull();
+        assertThat(parse("00-" + TRACE_ID + "-" + SPAN_ID + "-1")).isNull();
+        assertThat(parse("00-" + TRACE_ID + "-" + SPAN_ID.substring(1) + "-01")).isNull();
+        assertThat(parse("00_" + TRACE_ID + "-" + SPAN_ID + "-01")).isNull();
+        assertThat(KafkaBatchTracer.parse(null)).isNull();
+    }
+
+    @Test
+    void onlyLaterVersionsMayAppendFields() {
+        assertThat(parse(traceparent(SPAN_ID) + "-extra")).isNull();
+        assertThat(parse("01-" + TRACE_ID + "-" + SPAN_ID + "-01-extra").getSpanId()).isEqualTo(SPAN_ID);
+        assertThat(parse("01-" + TRACE_ID + "-" + SPAN_ID + "-01")).isNotNull();
+        assertThat(parse("01-" + TRACE_ID + "-" + SPAN_ID + "-01x")).isNull();
+    }
+
+    @Test
+    void batchSpanLinksEachDistinctConsecutiveProducer() {
+        KafkaBatchTracer tracer = new KafkaBatchTracer(openTelemetry, 10, false);
+
+        tracer.startBatch(batch(
+                record(0, traceparent("0000000000000001")),
+                record(1, traceparent("0000000000000001")),
+                record(2, traceparent("0000000000000002")),
+                record(3, null),
+                record(4, "garbage"),
+                record(5, traceparent("0000000000000001"))));
+        tracer.endBatch(null);
+
+        SpanData span = spans.get(0);
+        assertThat(span.getName()).isEqualTo("orders process");
+        assertThat(span.getAttributes().get(AttributeKey.longKey("messaging.batch.message_count"))).isEqualTo(6);
+        assertThat(linkedSpanIds(span)).containsExactly("0000000000000001", "0000000000000002",
+                "0000000000000001");
+        assertThat(span.getAttributes().get(AttributeKey.longKey("messaging.batch.links.dropped"))).isNull();
+    }
+
+    @Test
+    void linksBeyondTheCapAreCountedAsDropped() {
+        KafkaBatchTracer tracer = new KafkaBatchTracer(openTelemetry, 2, false);
+
+        tracer.startBatch(batch(
+                record(0, traceparent("0000000000000001")),
+                record(1, traceparent("0000000000000002")),
+                record(2, traceparent("0000000000000003")),
+                record(3, traceparent("0000000000000003")),
+                record(4, traceparent("0000000000000004"))));
+        tracer.endBatch(new IllegalStateException("listener failed"));
+
+        SpanData span = spans.get(0);
+        assertThat(linkedSpanIds(span)).containsExactly("0000000000000001", "0000000000000002");
+        assertThat(span.getAttributes().get(AttributeKey.longKey("messaging.batch.links.dropped"))).isEqualTo(2);
+        assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+    }
+
+    @Test
+    void recordSpansAreChildrenOfTheBatchSpan() {
+        KafkaBatchTracer tracer = new KafkaBatchTracer(openTelemetry, 10, true);
+        KafkaRecordContext context = new KafkaRecordContext(PropagationInjector.HEADERS, tracer);
+        ConsumerRecords<String, String> records = batch(record(7, traceparent("0000000000000001")), record(8, null));
+
+        tracer.startBatch(records);
+        for (ConsumerRecord<String, String> record : records) {
+            try (KafkaRecordContext.Scope ignored = context.open(record)) {
+                // process
+            }
+        }
+        tracer.endBatch(null);
+
+        assertThat(spans).hasSize(3);
+        SpanData batchSpan = spans.get(2);
+        List<SpanData> recordSpans = new ArrayList<>(spans.subList(0, 2));
+        assertThat(recordSpans).allSatisfy(span -> {
+            assertThat(span.getParentSpanId()).isEqualTo(batchSpan.getSpanId());
+            assertThat(span.getTraceId()).isEqualTo(batchSpan.getTraceId());
+        });
+        assertThat(recordSpans.get(0).getAttributes().get(AttributeKey.longKey("messaging.kafka.message.offset")))
+                .isEqualTo(7);
+        assertThat(linkedSpanIds(recordSpans.get(0))).containsExactly("0000000000000001");
+        assertThat(recordSpans.get(1).getLinks()).isEmpty();
+    }
+
+    @Test
+    void recordSpansAreOptIn() {
+        KafkaBatchTracer tracer = new KafkaBatchTracer(openTelemetry, 10, false);
+        KafkaRecordContext context = new KafkaRecordContext(PropagationInjector.HEADERS, tracer);
+        ConsumerRecord<String, String> record = record(7, traceparent("0000000000000001"));
+
+        tracer.startBatch(batch(record));
+        context.open(record).close();
+        tracer.endBatch(null);
+
+        assertThat(spans).hasSize(1);
+        // Outside a batch there is no parent to attach a record span to
+        assertThat(new KafkaBatchTracer(openTelemetry, 10, true).start(record)).isNull();
+    }
+
+    private final class CollectingExporter implements SpanExporter {
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
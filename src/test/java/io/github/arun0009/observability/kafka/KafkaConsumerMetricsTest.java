@@ -0,0 +1,114 @@
+package io.github.arun0009.observability.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaConsumerMetricsTest {
+
+    private static final TopicPartition ORDERS = new TopicPartition("orders", 0);
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final KafkaConsumerMetrics metrics = new KafkaConsumerMetrics(registry);
+
+    private static ConsumerRecord<String, String> record(long offset, long timestamp, TimestampType type,
+            Headers headers) {
+        return new ConsumerRecord<>(ORDERS.topic(), ORDERS.partition(), offset, timestamp, type, -1, -1, "k", "v",
+                headers, Optional.empty());
+    }
+
+    @Test
+    void sentAtReadsTheProducerStamp() {
+        ObservabilityKafkaProducerInterceptor<String, String> producer = new ObservabilityKafkaProducerInterceptor<>();
+        producer.configure(Map.of(KafkaTracingConfiguration.STAMP_SENT_AT_CONFIG, true));
+        long before = System.currentTimeMillis();
+        ProducerRecord<String, String> sent = producer.onSend(new ProducerRecord<>(ORDERS.topic(), "k", "v"));
+        long after = System.currentTimeMillis();
+
+        // The stamp wins over the broker's timestamp
+        long sentAt = KafkaConsumerMetrics.sentAt(record(0, 1L, TimestampType.LOG_APPEND_TIME, sent.headers()));
+
+        assertThat(sentAt).isBetween(before, after);
+    }
+
+    @Test
+    void sentAtFallsBackToTheCreateTime() {
+        assertThat(KafkaConsumerMetrics.sentAt(record(0, 1234L, TimestampType.CREATE_TIME, new RecordHeaders())))
+                .isEqualTo(1234L);
+        assertThat(KafkaConsumerMetrics.sentAt(record(0, 1234L, TimestampType.LOG_APPEND_TIME, new RecordHeaders())))
+                .isEqualTo(-1L);
+    }
+
+    @Test
+    void sentAtIgnoresAMalformedStamp() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(ObservabilityKafkaProducerInterceptor.SENT_AT_HEADER, new byte[] { 1, 2, 3 });
+
+        assertThat(KafkaConsumerMetrics.sentAt(record(0, 1234L, TimestampType.CREATE_TIME, headers)))
+                .isEqualTo(1234L);
+    }
+
+    @Test
+    void lagGaugeIsReadOncePerPartitionPerPoll() {
+        MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(ORDERS));
+        consumer.updateBeginningOffsets(Map.of(ORDERS, 0L));
+        consumer.updateEndOffsets(Map.of(ORDERS, 10L));
+        consumer.seek(ORDERS, 3);
+
+        metrics.beforePoll(consumer);
+        metrics.processing(record(3, 0, TimestampType.CREATE_TIME, new RecordHeaders()), consumer);
+        assertThat(lag()).isEqualTo(7);
+
+        // Later records of the same poll reuse the reading
+        consumer.seek(ORDERS, 4);
+        metrics.processing(record(4, 0, TimestampType.CREATE_TIME, new RecordHeaders()), consumer);
+        assertThat(lag()).isEqualTo(7);
+
+        consumer.seek(ORDERS, 8);
+        metrics.beforePoll(consumer);
+        metrics.processing(record(8, 0, TimestampType.CREATE_TIME, new RecordHeaders()), consumer);
+        assertThat(lag()).isEqualTo(2);
+    }
+
+    @Test
+    void pollToProcessMeasuresTheWaitBehindTheFirstRecordOfThePoll() throws InterruptedException {
+        MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+        metrics.beforePoll(consumer);
+        metrics.processing(record(0, 0, TimestampType.CREATE_TIME, new RecordHeaders()), consumer);
+        Thread.sleep(20);
+        metrics.processing(record(1, 0, TimestampType.CREATE_TIME, new RecordHeaders()), consumer);
+
+        Timer pollToProcess = registry.get("kafka.consumer.poll.to.process").timer();
+        assertThat(pollToProcess.count()).isEqualTo(2);
+        assertThat(pollToProcess.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(20);
+        double secondWait = pollToProcess.totalTime(TimeUnit.MILLISECONDS);
+
+        // A new poll starts from zero again
+        metrics.beforePoll(consumer);
+        metrics.processing(record(2, 0, TimestampType.CREATE_TIME, new RecordHeaders()), consumer);
+        assertThat(pollToProcess.count()).isEqualTo(3);
+        assertThat(pollToProcess.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(secondWait);
+    }
+
+    private double lag() {
+        return registry.get("kafka.consumer.lag").tag("topic", "orders").tag("partition", "0").gauge().value();
+    }
+}
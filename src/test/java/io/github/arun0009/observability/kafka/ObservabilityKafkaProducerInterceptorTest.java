@@ -0,0 +1,66 @@
+package io.github.arun0009.observability.kafka;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.record.RecordBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservabilityKafkaProducerInterceptorTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final DependencyMatrix matrix = new DependencyMatrix(new ObservabilityProperties.Dependencies(), registry);
+    private final ObservabilityKafkaProducerInterceptor<String, String> interceptor =
+            new ObservabilityKafkaProducerInterceptor<>();
+
+    ObservabilityKafkaProducerInterceptorTest() {
+        interceptor.configure(Map.of(KafkaTracingConfiguration.DEPENDENCY_MATRIX_CONFIG, matrix));
+    }
+
+    private double inFlight(String topic) {
+        return registry.get("dependency.in.flight").tag("dependency", topic).gauge().value();
+    }
+
+    @Test
+    void acknowledgementEndsTheSend() {
+        interceptor.onSend(new ProducerRecord<>("orders", "k", "v"));
+        assertThat(inFlight("orders")).isEqualTo(1);
+
+        interceptor.onAcknowledgement(
+                new RecordMetadata(new TopicPartition("orders", 0), 0, 0, System.currentTimeMillis(), 1, 1), null);
+
+        assertThat(inFlight("orders")).isZero();
+    }
+
+    @Test
+    void sendErrorEndsTheSendAsFailed() {
+        interceptor.onSend(new ProducerRecord<>("orders", "k", "v"));
+
+        // What KafkaProducer passes for a record that failed before
+        // reaching a partition
+        interceptor.onAcknowledgement(new RecordMetadata(new TopicPartition("orders", -1), -1, -1,
+                RecordBatch.NO_TIMESTAMP, -1, -1), new TimeoutException("metadata not available"));
+
+        assertThat(inFlight("orders")).isZero();
+        assertThat(matrix.snapshot()).singleElement().satisfies(dependency -> {
+            assertThat(dependency.errors()).isEqualTo(1);
+            assertThat(dependency.quantileMillis(0.5)).isZero();
+        });
+    }
+
+    @Test
+    void acknowledgementWithoutMetadataIsIgnored() {
+        interceptor.onAcknowledgement(null, new TimeoutException("no record"));
+
+        assertThat(matrix.snapshot()).isEmpty();
+    }
+}
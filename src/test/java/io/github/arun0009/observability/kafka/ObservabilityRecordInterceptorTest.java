@@ -0,0 +1,70 @@
+package io.github.arun0009.observability.kafka;
+
+import io.github.arun0009.observability.core.MdcKeys;
+import io.github.arun0009.observability.core.PropagationInjector;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservabilityRecordInterceptorTest {
+
+    private final ObservabilityRecordInterceptor interceptor =
+            new ObservabilityRecordInterceptor(new KafkaRecordContext(PropagationInjector.HEADERS));
+    private final Consumer<Object, Object> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+    @AfterEach
+    void clearMdc() {
+        MDC.clear();
+    }
+
+    private static ConsumerRecord<Object, Object> record(String requestId) {
+        ConsumerRecord<Object, Object> record = new ConsumerRecord<>("orders", 0, 0, "k", "v");
+        if (requestId != null) {
+            record.headers().add(MdcKeys.HEADER_REQUEST_ID, requestId.getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    @Test
+    void fieldsAreScopedToTheRecord() {
+        MDC.put(MdcKeys.REQUEST_ID, "container");
+        ConsumerRecord<Object, Object> record = record("req-1");
+
+        interceptor.intercept(record, consumer);
+        assertThat(MDC.get(MdcKeys.REQUEST_ID)).isEqualTo("req-1");
+        interceptor.success(record, consumer);
+        // Still in place for the error handler and success callbacks
+        assertThat(MDC.get(MdcKeys.REQUEST_ID)).isEqualTo("req-1");
+
+        interceptor.afterRecord(record, consumer);
+        assertThat(MDC.get(MdcKeys.REQUEST_ID)).isEqualTo("container");
+    }
+
+    @Test
+    void aFieldTheRecordDoesNotCarryIsCleared() {
+        interceptor.intercept(record("req-1"), consumer);
+        // Without afterRecord in between, the open scope is closed first
+        interceptor.intercept(record(null), consumer);
+        assertThat(MDC.get(MdcKeys.REQUEST_ID)).isNull();
+
+        interceptor.intercept(record("req-3"), consumer);
+        assertThat(MDC.get(MdcKeys.REQUEST_ID)).isEqualTo("req-3");
+    }
+
+    @Test
+    void clearingThreadStateClosesAnOpenScope() {
+        interceptor.intercept(record("req-1"), consumer);
+
+        interceptor.clearThreadState(consumer);
+
+        assertThat(MDC.get(MdcKeys.REQUEST_ID)).isNull();
+    }
+}
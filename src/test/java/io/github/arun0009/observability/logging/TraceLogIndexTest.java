@@ -0,0 +1,89 @@
+package io.github.arun0009.observability.logging;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceLogIndexTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private TraceLogIndex index(DataSize size, int maxIds) {
+        ObservabilityProperties.LogIndex config = new ObservabilityProperties.LogIndex();
+        config.setSize(size);
+        config.setMaxIds(maxIds);
+        config.setMaxEventSize(DataSize.ofBytes(512));
+        return new TraceLogIndex(config, registry);
+    }
+
+    private static void add(TraceLogIndex index, String traceId, String requestId, String message) {
+        byte[] event = message.getBytes(StandardCharsets.UTF_8);
+        index.add(traceId, requestId, event, event.length);
+    }
+
+    private static List<String> find(TraceLogIndex index, String id) {
+        return index.find(id).stream().map(event -> new String(event, StandardCharsets.UTF_8)).toList();
+    }
+
+    @Test
+    void eventsAreFoundByTraceIdAndRequestIdOldestFirst() {
+        TraceLogIndex index = index(DataSize.ofKilobytes(64), 1024);
+
+        add(index, "trace-1", "req-1", "received");
+        add(index, "trace-2", "req-2", "other request");
+        add(index, null, "req-1", "before tracing");
+        add(index, "trace-1", "req-1", "done");
+
+        assertThat(find(index, "trace-1")).containsExactly("received", "done");
+        assertThat(find(index, "req-1")).containsExactly("received", "before tracing", "done");
+        assertThat(find(index, "trace-3")).isEmpty();
+    }
+
+    @Test
+    void eventsLargerThanMaxEventSizeAreDropped() {
+        TraceLogIndex index = index(DataSize.ofKilobytes(64), 1024);
+
+        add(index, "trace-1", null, "x".repeat(513));
+
+        assertThat(find(index, "trace-1")).isEmpty();
+        assertThat(registry.get("logging.index.events.dropped").counter().count()).isEqualTo(1);
+        assertThat(index.usedBytes()).isZero();
+    }
+
+    @Test
+    void oldestEventsAreOverwrittenAndNeverReadTorn() {
+        TraceLogIndex index = index(DataSize.ofKilobytes(4), 1024);
+
+        // Varying sizes, so records end at different offsets on every lap
+        for (int i = 0; i < 500; i++) {
+            add(index, "trace-1", "req-" + (i % 7), i + ":" + "x".repeat(i % 97));
+        }
+
+        List<String> events = find(index, "trace-1");
+        assertThat(events).isNotEmpty().hasSizeLessThan(500);
+        for (int i = 0; i < events.size(); i++) {
+            int sequence = 500 - events.size() + i;
+            assertThat(events.get(i)).isEqualTo(sequence + ":" + "x".repeat(sequence % 97));
+        }
+        assertThat(index.usedBytes()).isEqualTo(4096);
+    }
+
+    @Test
+    void recentIdsStayFindableWhenTheTableIsFull() {
+        TraceLogIndex index = index(DataSize.ofKilobytes(256), 16);
+
+        for (int i = 0; i < 1000; i++) {
+            add(index, "trace-" + i, null, "event " + i);
+        }
+
+        assertThat(find(index, "trace-999")).containsExactly("event 999");
+        assertThat(find(index, "trace-998")).containsExactly("event 998");
+    }
+}
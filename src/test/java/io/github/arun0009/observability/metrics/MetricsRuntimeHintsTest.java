@@ -0,0 +1,21 @@
+package io.github.arun0009.observability.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsRuntimeHintsTest {
+
+    @Test
+    void registersTheTaskDecoratorField() {
+        RuntimeHints hints = new RuntimeHints();
+        new MetricsRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onField(ThreadPoolTaskExecutor.class, ExecutorMetricsBeanPostProcessor.TASK_DECORATOR_FIELD))
+                .accepts(hints);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.arun0009.observability.profiling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollapsedStackTableTest {
+
+    private static StackTraceElement[] stack(String... methods) {
+        StackTraceElement[] stack = new StackTraceElement[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            stack[i] = new StackTraceElement("com.example.Orders", methods[i], null, -1);
+        }
+        return stack;
+    }
+
+    private static Map<String, Long> counts(CollapsedStackTable table) {
+        Map<String, Long> counts = new HashMap<>();
+        table.forEach((route, stack, count) -> counts.put(RouteProfiler.fold(route, stack), count));
+        return counts;
+    }
+
+    @Test
+    void countsSamplesPerRouteAndStack() {
+        CollapsedStackTable table = new CollapsedStackTable(8);
+
+        assertThat(table.add("GET /orders", stack("load", "handle"))).isTrue();
+        // An equal stack captured by another sample is the same entry
+        assertThat(table.add("GET /orders", stack("load", "handle"))).isTrue();
+        assertThat(table.add("GET /orders", stack("save", "handle"))).isTrue();
+        assertThat(table.add("POST /orders", stack("load", "handle"))).isTrue();
+
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(counts(table)).containsOnly(
+                Map.entry("GET /orders;com.example.Orders.handle;com.example.Orders.load", 2L),
+                Map.entry("GET /orders;com.example.Orders.handle;com.example.Orders.save", 1L),
+                Map.entry("POST /orders;com.example.Orders.handle;com.example.Orders.load", 1L));
+    }
+
+    @Test
+    void rejectsNewStacksOnceFullButKeepsCountingKnownOnes() {
+        CollapsedStackTable table = new CollapsedStackTable(2);
+        table.add("GET /orders", stack("a"));
+        table.add("GET /orders", stack("b"));
+
+        assertThat(table.add("GET /orders", stack("c"))).isFalse();
+        assertThat(table.add("GET /orders", stack("a"))).isTrue();
+
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(counts(table)).containsOnly(
+                Map.entry("GET /orders;com.example.Orders.a", 2L),
+                Map.entry("GET /orders;com.example.Orders.b", 1L));
+    }
+
+    @Test
+    void clearEmptiesTheTableForReuse() {
+        CollapsedStackTable table = new CollapsedStackTable(1);
+        table.add("GET /orders", stack("a"));
+
+        table.clear();
+
+        assertThat(table.size()).isZero();
+        assertThat(counts(table)).isEmpty();
+        assertThat(table.add("GET /orders", stack("b"))).isTrue();
+    }
+}
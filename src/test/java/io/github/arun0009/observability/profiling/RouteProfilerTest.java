@@ -0,0 +1,146 @@
+package io.github.arun0009.observability.profiling;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.ThreadTraceIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RouteProfilerTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String ROUTE = "GET /orders/{id}";
+
+    private final ObservabilityProperties.Profiling config = new ObservabilityProperties.Profiling();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Thread> requests = new ArrayList<>();
+
+    @AfterEach
+    void finishRequests() throws InterruptedException {
+        release.countDown();
+        for (Thread request : requests) {
+            request.join(5000);
+        }
+    }
+
+    /**
+     * A thread serving {@code route} for {@code traceId}, parked until the
+     * test ends.
+     */
+    private void startRequest(String traceId, String route) {
+        Thread request = new Thread(() -> {
+            ThreadTraceIndex.bindCurrentThread(traceId, route);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                ThreadTraceIndex.unbindCurrentThread();
+            }
+        });
+        requests.add(request);
+        request.start();
+        // Parked in the latch, so every sample sees the same stack
+        while (request.getState() != Thread.State.TIMED_WAITING) {
+            Thread.yield();
+        }
+    }
+
+    @Test
+    void rejectsAZeroWindow() {
+        config.setWindow(Duration.ZERO);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new RouteProfiler(config, new SimpleMeterRegistry()))
+                .withMessageContaining("observability.profiling.window");
+    }
+
+    @Test
+    void foldsStacksRootFirstWithTheRouteAsRootFrame() {
+        StackTraceElement[] stack = {
+                new StackTraceElement("com.example.Repository", "load", null, -1),
+                new StackTraceElement("com.example.Controller", "get", null, -1),
+        };
+
+        assertThat(RouteProfiler.fold("GET /a;b", stack))
+                .isEqualTo("GET /a:b;com.example.Controller.get;com.example.Repository.load");
+        assertThat(RouteProfiler.fold(null, stack))
+                .isEqualTo("com.example.Controller.get;com.example.Repository.load");
+    }
+
+    @Test
+    void attributesSamplesToTheRouteAndTrace() {
+        RouteProfiler profiler = new RouteProfiler(config, registry);
+        startRequest(TRACE_ID, ROUTE);
+
+        profiler.sample();
+        profiler.sample();
+
+        String byRoute = profiler.folded(ROUTE, null, null);
+        assertThat(byRoute).contains("java.util.concurrent.CountDownLatch.await").endsWith(" 2\n")
+                .doesNotStartWith(ROUTE);
+        assertThat(profiler.folded(null, TRACE_ID, null)).isEqualTo(byRoute);
+        assertThat(profiler.folded(null, null, null)).contains(ROUTE + ";java.lang.Thread.run");
+        assertThat(profiler.folded("GET /other", null, null)).isEmpty();
+        assertThat(profiler.folded(null, "0af7651916cd43dd8448eb211c80319c", null)).isEmpty();
+        assertThat(registry.get("profiling.samples").counter().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void oldWindowsAreClearedAsTimeMovesOn() {
+        config.setWindows(2);
+        RouteProfiler profiler = new RouteProfiler(config, registry);
+        startRequest(TRACE_ID, ROUTE);
+        profiler.sample();
+        long window = config.getWindow().toMillis();
+        long now = System.currentTimeMillis();
+
+        profiler.rotate(now + window);
+
+        assertThat(profiler.folded(ROUTE, null, 1)).isEmpty();
+        assertThat(profiler.folded(ROUTE, null, 2)).contains("CountDownLatch.await");
+
+        profiler.rotate(now + 2 * window);
+
+        assertThat(profiler.folded(ROUTE, null, null)).isEmpty();
+        // Traces are kept by recency, not by window
+        assertThat(profiler.folded(null, TRACE_ID, null)).contains("CountDownLatch.await");
+    }
+
+    @Test
+    void fullTablesCountDroppedSamples() {
+        config.setMaxStacks(1);
+        RouteProfiler profiler = new RouteProfiler(config, registry);
+        startRequest(TRACE_ID, ROUTE);
+        profiler.sample();
+        startRequest("0af7651916cd43dd8448eb211c80319c", "GET /other");
+
+        profiler.sample();
+
+        assertThat(profiler.folded("GET /other", null, null)).isEmpty();
+        assertThat(registry.get("profiling.samples.dropped").counter().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void resetDiscardsAllSamples() {
+        RouteProfiler profiler = new RouteProfiler(config, registry);
+        startRequest(TRACE_ID, ROUTE);
+        profiler.sample();
+
+        profiler.reset();
+
+        assertThat(profiler.folded(null, null, null)).isEmpty();
+        assertThat(profiler.folded(null, TRACE_ID, null)).isEmpty();
+    }
+}
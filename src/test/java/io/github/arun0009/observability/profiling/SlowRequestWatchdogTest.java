@@ -0,0 +1,179 @@
+package io.github.arun0009.observability.profiling;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.ThreadTraceIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowRequestWatchdogTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String ROUTE = "GET /orders/{id}";
+
+    private final ObservabilityProperties.Watchdog config = new ObservabilityProperties.Watchdog();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final List<LogEvent> logged = new CopyOnWriteArrayList<>();
+    private final Logger logger = (Logger) LogManager.getLogger(SlowRequestWatchdog.class);
+    private final AbstractAppender appender =
+            new AbstractAppender("watchdog-test", null, null, true, Property.EMPTY_ARRAY) {
+                @Override
+                public void append(LogEvent event) {
+                    logged.add(event.toImmutable());
+                }
+            };
+    private final CountDownLatch first = new CountDownLatch(1);
+    private final CountDownLatch second = new CountDownLatch(1);
+    private Level previousLevel;
+    private SlowRequestWatchdog watchdog;
+    private Thread request;
+
+    @BeforeEach
+    void capture() {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.WARN);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void release() throws InterruptedException {
+        first.countDown();
+        second.countDown();
+        if (request != null) {
+            request.join(5000);
+        }
+        logger.removeAppender(appender);
+        appender.stop();
+        logger.setLevel(previousLevel);
+    }
+
+    /**
+     * A request that waits in {@link #firstPause} and then in
+     * {@link #secondPause}, and reports as MdcFilter does when it ends.
+     */
+    private void startRequest() {
+        watchdog = new SlowRequestWatchdog(config, registry);
+        request = new Thread(() -> {
+            ThreadTraceIndex.bindCurrentThread(TRACE_ID, ROUTE);
+            MDC.put("requestId", "req-1");
+            try {
+                firstPause();
+                secondPause();
+                watchdog.onRequestEnd();
+                // A second end of the same request finds nothing to report
+                watchdog.onRequestEnd();
+            } finally {
+                MDC.clear();
+                ThreadTraceIndex.unbindCurrentThread();
+            }
+        });
+        request.start();
+        awaitParkedIn("firstPause");
+    }
+
+    private void firstPause() {
+        await(first);
+    }
+
+    private void secondPause() {
+        await(second);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitParkedIn(String method) {
+        while (request.getState() != Thread.State.TIMED_WAITING || Arrays.stream(request.getStackTrace())
+                .noneMatch(frame -> frame.getMethodName().equals(method))) {
+            Thread.yield();
+        }
+    }
+
+    private void finishRequest() throws InterruptedException {
+        first.countDown();
+        second.countDown();
+        request.join(5000);
+    }
+
+    private double reported() {
+        return registry.get("http.server.requests.slow").counter().count();
+    }
+
+    @Test
+    void requestsUnderTheThresholdAreNotSampled() throws InterruptedException {
+        config.setThreshold(Duration.ofHours(1));
+        startRequest();
+
+        watchdog.sample();
+        finishRequest();
+
+        assertThat(logged).isEmpty();
+        assertThat(reported()).isZero();
+    }
+
+    @Test
+    void slowRequestReportsItsStackHistogramOnceWhenItEnds() throws InterruptedException {
+        config.setThreshold(Duration.ZERO);
+        startRequest();
+        watchdog.sample();
+        watchdog.sample();
+        first.countDown();
+        awaitParkedIn("secondPause");
+        watchdog.sample();
+
+        finishRequest();
+
+        assertThat(reported()).isEqualTo(1);
+        assertThat(logged).singleElement().satisfies(event -> {
+            assertThat(event.getLevel()).isEqualTo(Level.WARN);
+            assertThat(event.getContextData().<String>getValue("requestId")).isEqualTo("req-1");
+            String message = event.getMessage().getFormattedMessage();
+            assertThat(message).startsWith("Slow request " + ROUTE + " took ")
+                    .contains("[traceId=" + TRACE_ID + ", samples=3]");
+            // Most frequent stack first
+            assertThat(message.indexOf("--- 2/3 samples ---")).isPositive()
+                    .isLessThan(message.indexOf("--- 1/3 samples ---"));
+            assertThat(message.indexOf("firstPause")).isLessThan(message.indexOf("secondPause"));
+        });
+    }
+
+    @Test
+    void histogramIsCutToTopStacks() throws InterruptedException {
+        config.setThreshold(Duration.ZERO);
+        config.setTopStacks(1);
+        startRequest();
+        watchdog.sample();
+        first.countDown();
+        awaitParkedIn("secondPause");
+        watchdog.sample();
+
+        finishRequest();
+
+        assertThat(logged).singleElement().satisfies(event -> assertThat(event.getMessage().getFormattedMessage())
+                .contains("... 1 more distinct stacks"));
+    }
+}
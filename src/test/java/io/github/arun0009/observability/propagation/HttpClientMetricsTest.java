@@ -0,0 +1,95 @@
+package io.github.arun0009.observability.propagation;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientMetricsTest {
+
+    private final ObservabilityProperties.HttpClient config = new ObservabilityProperties.HttpClient();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private void call(HttpClientMetrics metrics, String url, int status) {
+        metrics.start("orders", "GET", URI.create(url), null).stop(status);
+    }
+
+    private Set<String> tagValues(String tag) {
+        return registry.find("http.client.duration").timers().stream()
+                .map(timer -> timer.getId().getTag(tag))
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void templatesIdentifierSegments() {
+        assertThat(HttpClientMetrics.templated("/orders/123/items/550e8400-e29b-41d4-a716-446655440000"))
+                .isEqualTo("/orders/{id}/items/{id}");
+        assertThat(HttpClientMetrics.templated("/blobs/0123456789abcdef0123")).isEqualTo("/blobs/{id}");
+        assertThat(HttpClientMetrics.templated("/orders/42/")).isEqualTo("/orders/{id}/");
+    }
+
+    @Test
+    void leavesWordsAndShortHexAlone() {
+        assertThat(HttpClientMetrics.templated("/orders/recent")).isEqualTo("/orders/recent");
+        assertThat(HttpClientMetrics.templated("/colors/beef")).isEqualTo("/colors/beef");
+        assertThat(HttpClientMetrics.templated("/v2/orders")).isEqualTo("/v2/orders");
+        assertThat(HttpClientMetrics.templated("")).isEqualTo("/");
+        assertThat(HttpClientMetrics.templated(null)).isEqualTo("/");
+    }
+
+    @Test
+    void pathOfDropsSchemeHostAndQuery() {
+        assertThat(HttpClientMetrics.pathOf("https://api.example.com/orders/{id}?expand=items"))
+                .isEqualTo("/orders/{id}");
+        assertThat(HttpClientMetrics.pathOf("https://api.example.com")).isEqualTo("/");
+        assertThat(HttpClientMetrics.pathOf("/orders/{id}")).isEqualTo("/orders/{id}");
+    }
+
+    @Test
+    void callerTemplateWinsOverTheRawPath() {
+        HttpClientMetrics metrics = new HttpClientMetrics(config, registry);
+
+        metrics.start("orders", "GET", URI.create("http://a.example/orders/abc"), "http://a.example/orders/{code}")
+                .stop(200);
+
+        assertThat(tagValues("uri")).containsExactly("/orders/{code}");
+    }
+
+    @Test
+    void hostsBeyondMaxHostsAreRecordedAsOther() {
+        config.setMaxHosts(1);
+        HttpClientMetrics metrics = new HttpClientMetrics(config, registry);
+
+        call(metrics, "http://a.example/orders", 200);
+        call(metrics, "http://b.example/orders", 200);
+
+        assertThat(tagValues("host")).containsExactlyInAnyOrder("a.example", "other");
+        assertThat(registry.get("http.client.active").tag("host", "other").gauge().value()).isZero();
+    }
+
+    @Test
+    void maxUrisCountsHostAndUriPairsNotSeries() {
+        config.setMaxUris(2);
+        HttpClientMetrics metrics = new HttpClientMetrics(config, registry);
+
+        call(metrics, "http://a.example/orders/1", 200);
+        // Other statuses and methods of a known pair are not new pairs
+        call(metrics, "http://a.example/orders/2", 404);
+        call(metrics, "http://a.example/orders/3", 500);
+        metrics.start("orders", "POST", URI.create("http://a.example/orders/4"), null).stopExceptionally();
+        call(metrics, "http://b.example/orders/1", 200);
+        call(metrics, "http://b.example/customers", 200);
+        call(metrics, "http://a.example/customers", 200);
+
+        assertThat(registry.find("http.client.duration").tag("uri", "/orders/{id}").timers()).hasSize(5);
+        assertThat(registry.find("http.client.duration").tag("uri", "other").timers())
+                .extracting(timer -> timer.getId().getTag("host"))
+                .containsExactlyInAnyOrder("a.example", "b.example");
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.arun0009.observability.propagation;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.arun0009.observability.audit.AuditLogger;
+import io.github.arun0009.observability.core.MdcFilter;
+import io.github.arun0009.observability.core.MdcKeys;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.jfr.AuditEvent;
+import io.github.arun0009.observability.jfr.HttpRequestEvent;
+import io.github.arun0009.observability.jfr.OutboundCallEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Records the custom JFR events of one request that makes an outbound call and
+ * writes an audit record, and reads them back from the recording file.
+ */
+class ObservabilityJfrEventsTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String REQUEST_ID = "req-42";
+
+    private HttpServer server;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        MDC.clear();
+    }
+
+    @Test
+    void requestOutboundCallAndAuditAreRecordedWithTheirIds() throws Exception {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        builder.addInterceptor(
+                new OkHttpPropagationConfiguration.MdcPropagationInterceptor(PropagationInjector.HEADERS, null));
+        OkHttpClient client = builder.build();
+        MdcFilter filter = new MdcFilter("orders", "test", List.of());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader(MdcKeys.HEADER_REQUEST_ID, REQUEST_ID);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Path file = tempDir.resolve("events.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(HttpRequestEvent.NAME);
+            recording.enable(OutboundCallEvent.NAME);
+            recording.enable(AuditEvent.NAME);
+            recording.start();
+
+            filter.doFilter(request, response, (req, res) -> {
+                // Normally put there by the tracing bridge
+                MDC.put(MdcKeys.TRACE_ID, TRACE_ID);
+                Request call = new Request.Builder()
+                        .url("http://localhost:" + server.getAddress().getPort() + "/inventory/7")
+                        .build();
+                try (Response ignored = client.newCall(call).execute()) {
+                    ((MockHttpServletResponse) res).setStatus(201);
+                }
+                new AuditLogger().log("order.create", "alice", "order/7", "SUCCESS");
+            });
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        RecordedEvent inbound = only(events, HttpRequestEvent.NAME);
+        assertThat(inbound.getString("method")).isEqualTo("POST");
+        assertThat(inbound.getInt("status")).isEqualTo(201);
+        assertThat(inbound.getString("traceId")).isEqualTo(TRACE_ID);
+        assertThat(inbound.getString("requestId")).isEqualTo(REQUEST_ID);
+
+        RecordedEvent outbound = only(events, OutboundCallEvent.NAME);
+        assertThat(outbound.getString("client")).isEqualTo("OkHttp");
+        assertThat(outbound.getString("method")).isEqualTo("GET");
+        assertThat(outbound.getString("host")).isEqualTo("localhost");
+        assertThat(outbound.getString("path")).isEqualTo("/inventory/7");
+        assertThat(outbound.getInt("status")).isEqualTo(204);
+        assertThat(outbound.getString("error")).isNull();
+        assertThat(outbound.getString("traceId")).isEqualTo(TRACE_ID);
+        assertThat(outbound.getString("requestId")).isEqualTo(REQUEST_ID);
+
+        RecordedEvent audit = only(events, AuditEvent.NAME);
+        assertThat(audit.getString("action")).isEqualTo("order.create");
+        assertThat(audit.getString("actor")).isEqualTo("alice");
+        assertThat(audit.getString("resource")).isEqualTo("order/7");
+        assertThat(audit.getString("outcome")).isEqualTo("SUCCESS");
+        assertThat(audit.getString("traceId")).isEqualTo(TRACE_ID);
+        assertThat(audit.getString("requestId")).isEqualTo(REQUEST_ID);
+
+        // The outbound call and audit write happened inside the request
+        assertThat(outbound.getStartTime()).isAfterOrEqualTo(inbound.getStartTime());
+        assertThat(outbound.getEndTime()).isBeforeOrEqualTo(inbound.getEndTime());
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+        assertThat(matching).as(name).hasSize(1);
+        return matching.get(0);
+    }
+}
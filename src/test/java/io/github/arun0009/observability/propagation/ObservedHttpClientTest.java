@@ -0,0 +1,229 @@
+package io.github.arun0009.observability.propagation;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservedHttpClientTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final BlockingQueue<Observation.Context> stopped = new LinkedBlockingQueue<>();
+    private HttpServer server;
+    private ObservationRegistry observations;
+    private ObservedHttpClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        client = new ObservedHttpClient(HttpClient.newHttpClient(), PropagationInjector.HEADERS, null, observations);
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private HttpRequest slowRequest() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + "/slow"))
+                .build();
+    }
+
+    @Test
+    void cancellingTheResultAbortsTheRequest() throws InterruptedException {
+        CompletableFuture<HttpResponse<Void>> response = client.sendAsync(slowRequest(),
+                HttpResponse.BodyHandlers.discarding());
+
+        response.cancel(true);
+
+        // The call ends without waiting for the server to answer
+        Observation.Context context = stopped.poll(5, TimeUnit.SECONDS);
+        assertThat(context).isNotNull();
+        assertThat(context.getError()).isNotNull();
+    }
+
+    @Test
+    void timeoutOnTheResultAbortsTheRequest() throws InterruptedException {
+        client.sendAsync(slowRequest(), HttpResponse.BodyHandlers.discarding())
+                .orTimeout(100, TimeUnit.MILLISECONDS);
+
+        assertThat(stopped.poll(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void hostIsNotAMetricTag() throws Exception {
+        release.countDown();
+        client.send(slowRequest(), HttpResponse.BodyHandlers.discarding());
+
+        Observation.Context context = stopped.poll(5, TimeUnit.SECONDS);
+        assertThat(context.getLowCardinalityKeyValue("client.name")).isNull();
+        assertThat(context.getHighCardinalityKeyValue("client.name").getValue()).isEqualTo("localhost");
+    }
+
+    @Test
+    void stagesChainedBeforeCompletionRunWithTheCallersContext() throws InterruptedException {
+        CompletableFuture<HttpResponse<Void>> pending = new CompletableFuture<>();
+        ObservedHttpClient client = new ObservedHttpClient(new PendingHttpClient(pending),
+                PropagationInjector.HEADERS, null, observations);
+        AtomicReference<String> stageThread = new AtomicReference<>();
+        AtomicReference<String> stageRequestId = new AtomicReference<>();
+        AtomicReference<Observation> stageObservation = new AtomicReference<>();
+        Observation caller = Observation.start("caller", observations);
+        try (Observation.Scope ignored = caller.openScope()) {
+            MDC.put("requestId", "caller");
+            client.sendAsync(slowRequest(), HttpResponse.BodyHandlers.discarding()).thenRun(() -> {
+                stageThread.set(Thread.currentThread().getName());
+                stageRequestId.set(MDC.get("requestId"));
+                stageObservation.set(observations.getCurrentObservation());
+            });
+        } finally {
+            MDC.clear();
+        }
+
+        // The client's thread has context of its own, which must survive
+        AtomicReference<String> afterRequestId = new AtomicReference<>();
+        AtomicReference<Observation> afterObservation = new AtomicReference<>();
+        Thread worker = new Thread(() -> {
+            MDC.put("requestId", "worker");
+            pending.complete(null);
+            afterRequestId.set(MDC.get("requestId"));
+            afterObservation.set(observations.getCurrentObservation());
+        }, "http-client-worker");
+        worker.start();
+        worker.join(5000);
+        caller.stop();
+
+        assertThat(stageThread.get()).isEqualTo("http-client-worker");
+        assertThat(stageRequestId.get()).isEqualTo("caller");
+        assertThat(stageObservation.get()).isSameAs(caller);
+        assertThat(afterRequestId.get()).isEqualTo("worker");
+        assertThat(afterObservation.get()).isNull();
+    }
+
+    /**
+     * A client whose async calls complete when the test completes them.
+     */
+    private static final class PendingHttpClient extends HttpClient {
+        private final CompletableFuture<HttpResponse<Void>> pending;
+
+        PendingHttpClient(CompletableFuture<HttpResponse<Void>> pending) {
+            this.pending = pending;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                HttpResponse.BodyHandler<T> responseBodyHandler,
+                HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            return (CompletableFuture<HttpResponse<T>>) (CompletableFuture<?>) pending;
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                HttpResponse.BodyHandler<T> responseBodyHandler) {
+            return sendAsync(request, responseBodyHandler, null);
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Redirect followRedirects() {
+            return Redirect.NEVER;
+        }
+
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return Optional.empty();
+        }
+
+        @Override
+        public SSLContext sslContext() {
+            return null;
+        }
+
+        @Override
+        public SSLParameters sslParameters() {
+            return null;
+        }
+
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Version version() {
+            return Version.HTTP_1_1;
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return Optional.empty();
+        }
+    }
+}
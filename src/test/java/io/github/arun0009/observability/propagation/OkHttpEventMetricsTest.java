@@ -0,0 +1,263 @@
+package io.github.arun0009.observability.propagation;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OkHttpEventMetricsTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ObservabilityProperties.HttpClient config = new ObservabilityProperties.HttpClient();
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "ok".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private OkHttpClient bound(OkHttpClient.Builder builder) {
+        OkHttpEventMetrics.bind(builder, "orders", new HttpClientMetrics(config, registry));
+        return builder.build();
+    }
+
+    private void call(OkHttpClient client, String host) throws IOException {
+        Request request = new Request.Builder()
+                .url("http://" + host + ":" + server.getAddress().getPort() + "/")
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            assertThat(response.body().string()).isEqualTo("ok");
+        }
+    }
+
+    private long phaseCount(String host, String phase) {
+        return registry.get("okhttp.phase").tag("client", "orders").tag("host", host).tag("phase", phase)
+                .timer().count();
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).tag("client", "orders").gauge().value();
+    }
+
+    @Test
+    void timesThePhasesOfACall() throws IOException {
+        OkHttpClient client = bound(new OkHttpClient.Builder());
+
+        call(client, "localhost");
+
+        assertThat(phaseCount("localhost", "dns")).isEqualTo(1);
+        assertThat(phaseCount("localhost", "connect")).isEqualTo(1);
+        assertThat(phaseCount("localhost", "tls")).isZero();
+        assertThat(phaseCount("localhost", "request-write")).isEqualTo(1);
+        assertThat(phaseCount("localhost", "ttfb")).isEqualTo(1);
+    }
+
+    @Test
+    void tlsCallRecordsConnectOnce() {
+        OkHttpClient client = bound(new OkHttpClient.Builder());
+        Call call = client.newCall(new Request.Builder().url("https://localhost/").build());
+        EventListener listener = client.eventListenerFactory().create(call);
+        InetSocketAddress address = new InetSocketAddress("localhost", 443);
+
+        // OkHttp's order for a TLS connection: the TCP connect ends at
+        // secureConnectStart, and connectEnd follows the handshake
+        listener.connectStart(call, address, Proxy.NO_PROXY);
+        listener.secureConnectStart(call);
+        listener.secureConnectEnd(call, null);
+        listener.connectEnd(call, address, Proxy.NO_PROXY, Protocol.HTTP_1_1);
+
+        assertThat(phaseCount("localhost", "connect")).isEqualTo(1);
+        assertThat(phaseCount("localhost", "tls")).isEqualTo(1);
+    }
+
+    @Test
+    void reuseRatioCountsPooledConnections() throws IOException {
+        OkHttpClient client = bound(new OkHttpClient.Builder());
+
+        call(client, "localhost");
+        assertThat(gauge("okhttp.pool.reuse.ratio")).isZero();
+        call(client, "localhost");
+        call(client, "localhost");
+
+        assertThat(gauge("okhttp.pool.reuse.ratio")).isEqualTo(2.0 / 3);
+        assertThat(phaseCount("localhost", "connect")).isEqualTo(1);
+        assertThat(gauge("okhttp.pool.total")).isEqualTo(1);
+    }
+
+    @Test
+    void evictionsCountConnectionsThatLeftThePool() throws IOException {
+        ConnectionPool pool = new ConnectionPool();
+        OkHttpClient client = bound(new OkHttpClient.Builder().connectionPool(pool));
+        call(client, "localhost");
+        assertThat(registry.get("okhttp.pool.evictions").functionCounter().count()).isZero();
+
+        pool.evictAll();
+
+        assertThat(registry.get("okhttp.pool.evictions").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void evictionsNeverDecrease() {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        OkHttpClient client = bound(builder);
+        OkHttpEventMetrics events = (OkHttpEventMetrics) client.eventListenerFactory();
+        Call call = client.newCall(new Request.Builder().url("http://localhost/").build());
+        InetSocketAddress address = new InetSocketAddress("localhost", 80);
+        EventListener listener = events.create(call);
+        listener.connectEnd(call, address, Proxy.NO_PROXY, Protocol.HTTP_1_1);
+        listener.connectEnd(call, address, Proxy.NO_PROXY, Protocol.HTTP_1_1);
+
+        assertThat(events.evictions(2)).isZero();
+        assertThat(events.evictions(0)).isEqualTo(2);
+        // A connection pooled before its connectEnd was counted
+        assertThat(events.evictions(3)).isEqualTo(2);
+        assertThat(events.evictions(1)).isEqualTo(2);
+    }
+
+    @Test
+    void hostsBeyondMaxHostsAreRecordedAsOther() throws IOException {
+        config.setMaxHosts(1);
+        OkHttpClient client = bound(new OkHttpClient.Builder());
+
+        call(client, "localhost");
+        call(client, "127.0.0.1");
+
+        assertThat(phaseCount("localhost", "ttfb")).isEqualTo(1);
+        assertThat(phaseCount("other", "ttfb")).isEqualTo(1);
+        assertThat(registry.find("okhttp.phase").tag("host", "127.0.0.1").timers()).isEmpty();
+    }
+
+    @Test
+    void existingListenerReceivesEveryEvent() throws IOException {
+        List<String> plain = new CopyOnWriteArrayList<>();
+        call(new OkHttpClient.Builder().eventListener(new RecordingListener(plain)).build(), "localhost");
+
+        List<String> wrapped = new CopyOnWriteArrayList<>();
+        call(bound(new OkHttpClient.Builder().eventListener(new RecordingListener(wrapped))), "localhost");
+
+        assertThat(plain).contains("dnsStart", "connectStart", "requestHeadersStart", "responseHeadersStart");
+        assertThat(wrapped).isEqualTo(plain);
+        assertThat(phaseCount("localhost", "ttfb")).isEqualTo(1);
+    }
+
+    private static final class RecordingListener extends EventListener {
+        private final List<String> events;
+
+        RecordingListener(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void callStart(Call call) {
+            events.add("callStart");
+        }
+
+        @Override
+        public void proxySelectStart(Call call, HttpUrl url) {
+            events.add("proxySelectStart");
+        }
+
+        @Override
+        public void proxySelectEnd(Call call, HttpUrl url, List<Proxy> proxies) {
+            events.add("proxySelectEnd");
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            events.add("dnsStart");
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            events.add("dnsEnd");
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            events.add("connectStart");
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            events.add("connectEnd");
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            events.add("connectionAcquired");
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            events.add("requestHeadersStart");
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            events.add("requestHeadersEnd");
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            events.add("responseHeadersStart");
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            events.add("responseHeadersEnd");
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            events.add("responseBodyStart");
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            events.add("responseBodyEnd");
+        }
+
+        @Override
+        public void connectionReleased(Call call, Connection connection) {
+            events.add("connectionReleased");
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            events.add("callEnd");
+        }
+    }
+}
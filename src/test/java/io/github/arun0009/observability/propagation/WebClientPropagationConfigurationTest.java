@@ -0,0 +1,75 @@
+package io.github.arun0009.observability.propagation;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.github.arun0009.observability.core.PropagationInjector;
+import io.github.arun0009.observability.dependency.DependencyMatrix;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebClientPropagationConfigurationTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final DependencyMatrix matrix = new DependencyMatrix(new ObservabilityProperties.Dependencies(), registry);
+
+    private WebClient client(Mono<ClientResponse> response) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("dependencyMatrix", matrix);
+        ObjectProvider<DependencyMatrix> dependencies = beans.getBeanProvider(DependencyMatrix.class);
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> response);
+        new WebClientPropagationConfiguration()
+                .mdcPropagationWebClientCustomizer(PropagationInjector.HEADERS, dependencies)
+                .customize(builder);
+        return builder.build();
+    }
+
+    private double inFlight() {
+        return registry.get("dependency.in.flight").tag("dependency", "svc").gauge().value();
+    }
+
+    @Test
+    void cancelAfterTheResponseEndsTheCallOnce() {
+        // Emits the response but never completes, like a body still being read
+        Mono<ClientResponse> response = Mono.fromDirect(
+                Flux.just(ClientResponse.create(HttpStatus.OK).build()).concatWith(Flux.never()));
+        AtomicReference<ClientResponse> received = new AtomicReference<>();
+
+        Disposable call = client(response).get().uri("http://svc/orders")
+                .exchangeToMono(r -> {
+                    received.set(r);
+                    return Mono.never();
+                })
+                .subscribe();
+        assertThat(received.get()).isNotNull();
+        call.dispose();
+
+        assertThat(inFlight()).isZero();
+        assertThat(matrix.snapshot()).singleElement()
+                .satisfies(dependency -> assertThat(dependency.calls()).isEqualTo(1));
+    }
+
+    @Test
+    void cancelBeforeTheResponseEndsTheCall() {
+        Disposable call = client(Mono.never()).get().uri("http://svc/orders").retrieve().toBodilessEntity()
+                .subscribe();
+        assertThat(inFlight()).isEqualTo(1);
+
+        call.dispose();
+
+        assertThat(inFlight()).isZero();
+        assertThat(matrix.snapshot()).singleElement()
+                .satisfies(dependency -> assertThat(dependency.errors()).isEqualTo(1));
+    }
+}
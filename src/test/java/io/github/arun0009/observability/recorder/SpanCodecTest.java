@@ -0,0 +1,145 @@
+package io.github.arun0009.observability.recorder;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpanCodecTest {
+
+    private final List<SpanData> ended = new CopyOnWriteArrayList<>();
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(new SpanProcessor() {
+                @Override
+                public void onStart(Context parentContext, ReadWriteSpan span) {
+                }
+
+                @Override
+                public boolean isStartRequired() {
+                    return false;
+                }
+
+                @Override
+                public void onEnd(ReadableSpan span) {
+                    ended.add(span.toSpanData());
+                }
+
+                @Override
+                public boolean isEndRequired() {
+                    return true;
+                }
+            })
+            .build();
+    private final Tracer tracer = tracerProvider.get("test");
+
+    @AfterEach
+    void close() {
+        tracerProvider.close();
+    }
+
+    private static SpanCodec.RecordedSpan roundTrip(SpanData span, int bufferSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        int length = SpanCodec.encode(span, buffer);
+        byte[] record = new byte[SpanRing.MAX_PAYLOAD];
+        System.arraycopy(buffer.array(), 0, record, 0, length);
+        return SpanCodec.decode(record, length);
+    }
+
+    @Test
+    void spanRoundTrips() {
+        Span parent = tracer.spanBuilder("parent").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            tracer.spanBuilder("GET /orders/{id}")
+                    .setSpanKind(SpanKind.SERVER)
+                    .setAttribute("http.route", "/orders/{id}")
+                    .setAttribute("retry", true)
+                    .setAttribute("http.status_code", 503L)
+                    .setAttribute("load", 0.75)
+                    .startSpan()
+                    .setStatus(StatusCode.ERROR, "upstream unavailable")
+                    .end();
+        }
+        parent.end();
+        SpanData span = ended.get(0);
+
+        SpanCodec.RecordedSpan decoded = roundTrip(span, SpanRing.MAX_PAYLOAD);
+
+        assertThat(decoded.traceId).isEqualTo(span.getTraceId());
+        assertThat(decoded.spanId).isEqualTo(span.getSpanId());
+        assertThat(decoded.parentSpanId).isEqualTo(parent.getSpanContext().getSpanId());
+        assertThat(decoded.startEpochNanos).isEqualTo(span.getStartEpochNanos());
+        assertThat(decoded.endEpochNanos).isEqualTo(span.getEndEpochNanos());
+        assertThat(decoded.sampled).isTrue();
+        assertThat(decoded.kind).isEqualTo(SpanKind.SERVER.ordinal());
+        assertThat(decoded.statusCode).isEqualTo(StatusCode.ERROR.ordinal());
+        assertThat(decoded.name).isEqualTo("GET /orders/{id}");
+        assertThat(decoded.statusMessage).isEqualTo("upstream unavailable");
+        assertThat(decoded.attributes).containsExactlyInAnyOrder(Map.entry("http.route", "/orders/{id}"),
+                Map.entry("retry", true), Map.entry("http.status_code", 503L), Map.entry("load", 0.75));
+    }
+
+    @Test
+    void rootSpanHasNoParent() {
+        tracer.spanBuilder("root").startSpan().end();
+
+        assertThat(roundTrip(ended.get(0), SpanRing.MAX_PAYLOAD).parentSpanId).isNull();
+    }
+
+    @Test
+    void longStringsAreCutOnACharacterBoundary() {
+        // 3 bytes per character, so 512 bytes is not a whole number of them
+        tracer.spanBuilder("root").startSpan().setAttribute("note", "€".repeat(400)).end();
+
+        String note = (String) roundTrip(ended.get(0), SpanRing.MAX_PAYLOAD).attributes.get(0).getValue();
+
+        assertThat(note).isEqualTo("€".repeat(170));
+        assertThat(note.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(SpanCodec.MAX_STRING_BYTES);
+    }
+
+    @Test
+    void attributesThatDoNotFitAreLeftOut() {
+        Span span = tracer.spanBuilder("root").startSpan();
+        for (int i = 0; i < 10; i++) {
+            span.setAttribute(AttributeKey.stringKey("key-" + i), "x".repeat(40));
+        }
+        span.end();
+
+        SpanCodec.RecordedSpan decoded = roundTrip(ended.get(0), 300);
+
+        assertThat(decoded.name).isEqualTo("root");
+        assertThat(decoded.attributes).isNotEmpty().hasSizeLessThan(10)
+                .allSatisfy(attribute -> assertThat(attribute.getValue()).isEqualTo("x".repeat(40)));
+    }
+
+    @Test
+    void traceIdAndEndTimeAreReadWithoutDecoding() {
+        tracer.spanBuilder("root").startSpan().end();
+        SpanData span = ended.get(0);
+        ByteBuffer buffer = ByteBuffer.allocate(SpanRing.MAX_PAYLOAD);
+        SpanCodec.encode(span, buffer);
+        byte[] record = buffer.array();
+
+        assertThat(SpanCodec.hasTraceId(record, SpanCodec.parseHex(span.getTraceId(), 0),
+                SpanCodec.parseHex(span.getTraceId(), 16))).isTrue();
+        assertThat(SpanCodec.hasTraceId(record, 1, 2)).isFalse();
+        assertThat(SpanCodec.endEpochNanos(record)).isEqualTo(span.getEndEpochNanos());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.arun0009.observability.recorder;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpanRingTest {
+
+    private static byte[] record(int sequence, int length) {
+        return ByteBuffer.allocate(Math.max(Integer.BYTES, length)).putInt(0, sequence).array();
+    }
+
+    private static List<Integer> sequences(SpanRing ring) {
+        List<Integer> sequences = new ArrayList<>();
+        ring.forEach(new byte[SpanRing.MAX_PAYLOAD],
+                (record, length) -> sequences.add(ByteBuffer.wrap(record).getInt(0)));
+        return sequences;
+    }
+
+    @Test
+    void capacityIsAtLeastTwoBlocks() {
+        assertThat(new SpanRing(0).capacity()).isEqualTo(2L * SpanRing.BLOCK_SIZE);
+        assertThat(new SpanRing(5L * SpanRing.BLOCK_SIZE + 100).capacity()).isEqualTo(5L * SpanRing.BLOCK_SIZE);
+    }
+
+    @Test
+    void recordsAreReadBackInOrder() {
+        SpanRing ring = new SpanRing(0);
+        assertThat(ring.oldestMillis()).isZero();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(ring.write(record(i, 10 + i), 10 + i)).isTrue();
+        }
+
+        List<Integer> sequences = sequences(ring);
+        assertThat(sequences).hasSize(100).isSorted();
+        assertThat(ring.oldestMillis()).isPositive();
+    }
+
+    @Test
+    void oversizedRecordsAreRejected() {
+        SpanRing ring = new SpanRing(0);
+
+        assertThat(ring.write(new byte[SpanRing.MAX_PAYLOAD + 1], SpanRing.MAX_PAYLOAD + 1)).isFalse();
+        assertThat(ring.bytesWritten()).isZero();
+    }
+
+    @Test
+    void recordsDoNotStraddleBlocks() {
+        SpanRing ring = new SpanRing(0);
+        // 8 records of 8016 bytes (header included) fill most of a block; the
+        // 9th does not fit in the rest and moves to the next one
+        int length = 8000;
+
+        for (int i = 0; i < 9; i++) {
+            ring.write(record(i, length), length);
+        }
+
+        assertThat(ring.bytesWritten()).isEqualTo(SpanRing.BLOCK_SIZE + 8016);
+        assertThat(sequences(ring)).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8);
+    }
+
+    @Test
+    void oldestRecordsAreOverwrittenAfterALap() {
+        SpanRing ring = new SpanRing(0);
+        int length = 1000;
+        int written = 0;
+        while (ring.bytesWritten() < 3 * ring.capacity()) {
+            ring.write(record(written++, length), length);
+        }
+
+        List<Integer> sequences = sequences(ring);
+
+        // Only records from the last lap, contiguous and ending with the newest
+        assertThat(sequences).isNotEmpty().isSorted();
+        assertThat(sequences.get(sequences.size() - 1)).isEqualTo(written - 1);
+        assertThat(sequences.get(sequences.size() - 1) - sequences.get(0)).isEqualTo(sequences.size() - 1);
+        assertThat((long) sequences.size() * (length + 16)).isLessThanOrEqualTo(ring.capacity());
+    }
+}
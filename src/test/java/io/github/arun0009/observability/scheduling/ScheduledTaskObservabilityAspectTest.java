@@ -0,0 +1,226 @@
+package io.github.arun0009.observability.scheduling;
+
+import io.github.arun0009.observability.scheduling.ScheduledTaskObservabilityAspect.Schedule;
+import io.github.arun0009.observability.scheduling.ScheduledTaskObservabilityAspect.TaskState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduledTaskObservabilityAspectTest {
+
+    private static final long T = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+    private static final long SECOND = 1000;
+    private static final long MINUTE = 60 * SECOND;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ScheduledTaskObservabilityAspect aspect =
+            new ScheduledTaskObservabilityAspect(registry, "orders", "test");
+
+    private static Schedule schedule(String method) throws NoSuchMethodException {
+        return Schedule.of(Jobs.class.getDeclaredMethod(method), value -> value.replace("${rate}", "250"));
+    }
+
+    private TaskState task(String method) throws NoSuchMethodException {
+        return aspect.new TaskState("Jobs." + method, schedule(method));
+    }
+
+    private Timer lag(String method) {
+        return registry.get("scheduled.task.lag").tag("task", "Jobs." + method).timer();
+    }
+
+    private double counter(String name, String method) {
+        return registry.get(name).tag("task", "Jobs." + method).counter().count();
+    }
+
+    @Test
+    void readsFixedIntervals() throws NoSuchMethodException {
+        assertThat(schedule("rate").fixedRate).isEqualTo(SECOND);
+        assertThat(schedule("delay").fixedDelay).isEqualTo(SECOND);
+        assertThat(schedule("isoRate").fixedRate).isEqualTo(2 * SECOND);
+        assertThat(schedule("lowerCaseIsoDelay").fixedDelay).isEqualTo(MINUTE);
+        assertThat(schedule("numericDelay").fixedDelay).isEqualTo(1500);
+        assertThat(schedule("secondsDelay").fixedDelay).isEqualTo(3 * SECOND);
+        assertThat(schedule("secondsRateString").fixedRate).isEqualTo(4 * SECOND);
+        assertThat(schedule("placeholderRate").fixedRate).isEqualTo(250);
+    }
+
+    @Test
+    void noScheduleWhenTheAnnotationCannotBeUsed() throws NoSuchMethodException {
+        assertThat(schedule("disabled")).isNull();
+        assertThat(schedule("twice")).isNull();
+        assertThat(schedule("unparseable")).isNull();
+        assertThat(schedule("rate").cron).isNull();
+        assertThat(schedule("cron").cron).isNotNull();
+    }
+
+    @Test
+    void fixedRateExpectsThePreviousFirePlusThePeriod() throws NoSuchMethodException {
+        Schedule rate = schedule("rate");
+
+        assertThat(rate.expected(-1, -1)).isEqualTo(-1);
+        assertThat(rate.expected(T, -1)).isEqualTo(T + SECOND);
+        // A late or long previous run does not move the fixed-rate grid
+        assertThat(rate.expected(T, T + 5 * SECOND)).isEqualTo(T + SECOND);
+        assertThat(rate.baseline(T + 123)).isEqualTo(T + 123);
+    }
+
+    @Test
+    void fixedDelayExpectsThePreviousEndPlusTheDelay() throws NoSuchMethodException {
+        Schedule delay = schedule("delay");
+
+        assertThat(delay.expected(T, -1)).isEqualTo(-1);
+        assertThat(delay.expected(T, T + 500)).isEqualTo(T + 1500);
+    }
+
+    @Test
+    void cronExpectsTheNextFireAfterThePreviousRun() throws NoSuchMethodException {
+        Schedule cron = schedule("cron");
+
+        assertThat(cron.expected(-1, -1)).isEqualTo(-1);
+        assertThat(cron.expected(T, T + 10 * SECOND)).isEqualTo(T + 5 * MINUTE);
+        assertThat(cron.expected(T, -1)).isEqualTo(T + 5 * MINUTE);
+        assertThat(cron.expected(T, T + 7 * MINUTE)).isEqualTo(T + 10 * MINUTE);
+    }
+
+    @Test
+    void cronBaselineLooksBackOneSecond() throws NoSuchMethodException {
+        Schedule cron = schedule("cron");
+
+        assertThat(cron.baseline(T)).isEqualTo(T);
+        assertThat(cron.baseline(T + 300)).isEqualTo(T);
+        assertThat(cron.baseline(T + 999)).isEqualTo(T);
+        // Too long after a fire time to be that fire: the start stands in
+        assertThat(cron.baseline(T + SECOND)).isEqualTo(T + SECOND);
+        assertThat(cron.baseline(T + 1500)).isEqualTo(T + 1500);
+    }
+
+    @Test
+    void countsCronFiresStrictlyBetween() throws NoSuchMethodException {
+        Schedule cron = schedule("cron");
+
+        assertThat(cron.firesBetween(T, T + 5 * MINUTE)).isZero();
+        assertThat(cron.firesBetween(T, T + 15 * MINUTE)).isEqualTo(2);
+        assertThat(cron.firesBetween(T - 1, T + 5 * MINUTE)).isEqualTo(1);
+    }
+
+    @Test
+    void missedFiresAreCapped() throws NoSuchMethodException {
+        Schedule everySecond = schedule("everySecond");
+
+        assertThat(everySecond.firesBetween(T, T + TimeUnit.DAYS.toMillis(1)))
+                .isEqualTo(ScheduledTaskObservabilityAspect.MAX_MISSED);
+    }
+
+    @Test
+    void firstRunRecordsNoLag() throws NoSuchMethodException {
+        TaskState task = task("rate");
+
+        task.started(T);
+        task.finished(T + 100);
+
+        assertThat(lag("rate").count()).isZero();
+    }
+
+    @Test
+    void laterRunsRecordHowLateTheyStarted() throws NoSuchMethodException {
+        TaskState task = task("rate");
+        task.started(T);
+        task.finished(T + 100);
+
+        task.started(T + 1200);
+        task.finished(T + 1300);
+        task.started(T + 1900);
+
+        assertThat(lag("rate").count()).isEqualTo(2);
+        assertThat(lag("rate").totalTime(TimeUnit.MILLISECONDS)).isEqualTo(200);
+        assertThat(lag("rate").max(TimeUnit.MILLISECONDS)).isEqualTo(200);
+    }
+
+    @Test
+    void cronRunBehindALongRunCountsTheMissedFires() throws NoSuchMethodException {
+        TaskState task = task("cron");
+        task.started(T + 300);
+        task.finished(T + 11 * MINUTE);
+
+        task.started(T + 15 * MINUTE + 50);
+
+        assertThat(counter("scheduled.task.missed", "cron")).isEqualTo(2);
+        assertThat(lag("cron").totalTime(TimeUnit.MILLISECONDS)).isEqualTo(50);
+    }
+
+    @Test
+    void countsRunsStartedWhileOneIsGoing() throws NoSuchMethodException {
+        TaskState task = task("delay");
+
+        task.started(T);
+        task.started(T + 10);
+        task.finished(T + 20);
+        task.finished(T + 30);
+        task.started(T + 2000);
+
+        assertThat(counter("scheduled.task.overlaps", "delay")).isEqualTo(1);
+    }
+
+    static class Jobs {
+
+        @Scheduled(cron = "0 */5 * * * *", zone = "UTC")
+        void cron() {
+        }
+
+        @Scheduled(cron = "* * * * * *", zone = "UTC")
+        void everySecond() {
+        }
+
+        @Scheduled(cron = Scheduled.CRON_DISABLED)
+        void disabled() {
+        }
+
+        @Scheduled(fixedRate = 1000)
+        void rate() {
+        }
+
+        @Scheduled(fixedDelay = 1000)
+        void delay() {
+        }
+
+        @Scheduled(fixedRateString = "PT2S")
+        void isoRate() {
+        }
+
+        @Scheduled(fixedDelayString = "pt1m")
+        void lowerCaseIsoDelay() {
+        }
+
+        @Scheduled(fixedDelayString = " 1500 ")
+        void numericDelay() {
+        }
+
+        @Scheduled(fixedDelay = 3, timeUnit = TimeUnit.SECONDS)
+        void secondsDelay() {
+        }
+
+        @Scheduled(fixedRateString = "4", timeUnit = TimeUnit.SECONDS)
+        void secondsRateString() {
+        }
+
+        @Scheduled(fixedRateString = "${rate}")
+        void placeholderRate() {
+        }
+
+        @Scheduled(fixedDelayString = "soon")
+        void unparseable() {
+        }
+
+        @Scheduled(fixedRate = 1000)
+        @Scheduled(fixedDelay = 1000)
+        void twice() {
+        }
+    }
+}
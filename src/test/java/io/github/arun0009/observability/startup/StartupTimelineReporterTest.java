@@ -0,0 +1,106 @@
+package io.github.arun0009.observability.startup;
+
+import io.github.arun0009.observability.autoconfigure.ObservabilityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationFailedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTimelineReporterTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final StartupTimelineReporter reporter =
+            new StartupTimelineReporter(new ObservabilityProperties.Startup(), registry, null);
+
+    private static GenericApplicationContext refreshed(ApplicationStartup startup) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        if (startup != null) {
+            context.setApplicationStartup(startup);
+        } else {
+            new StartupTimelineInitializer().initialize(context);
+        }
+        context.registerBean("orders", StringBuilder.class);
+        context.refresh();
+        return context;
+    }
+
+    private void ready(GenericApplicationContext context) {
+        reporter.onApplicationEvent(
+                new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ofMillis(1)));
+    }
+
+    @Test
+    void starterBufferIsNotVisibleToTheStartupEndpoint() {
+        try (GenericApplicationContext context = refreshed(null)) {
+            assertThat(context.getApplicationStartup()).isNotInstanceOf(BufferingApplicationStartup.class);
+        }
+    }
+
+    @Test
+    void recordingStopsOnceReported() {
+        try (GenericApplicationContext context = refreshed(null)) {
+            ready(context);
+
+            assertThat(registry.find("application.startup.bean").tag("bean", "orders").gauge()).isNotNull();
+            assertThat(context.getApplicationStartup()).isSameAs(ApplicationStartup.DEFAULT);
+            assertThat(context.getBeanFactory().getApplicationStartup()).isSameAs(ApplicationStartup.DEFAULT);
+        }
+    }
+
+    @Test
+    void applicationBufferIsLeftInPlace() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(1000);
+        try (GenericApplicationContext context = refreshed(startup)) {
+            ready(context);
+
+            assertThat(registry.find("application.startup.bean").tag("bean", "orders").gauge()).isNotNull();
+            assertThat(context.getApplicationStartup()).isSameAs(startup);
+            assertThat(startup.getBufferedTimeline().getEvents()).isNotEmpty();
+        }
+    }
+
+    @Test
+    void bufferIsReleasedWithoutAReporter() {
+        try (GenericApplicationContext context = refreshed(null)) {
+            context.publishEvent(
+                    new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ofMillis(1)));
+
+            assertThat(context.getApplicationStartup()).isSameAs(ApplicationStartup.DEFAULT);
+        }
+    }
+
+    @Test
+    void bufferIsReleasedWhenStartupFails() {
+        try (GenericApplicationContext context = refreshed(null)) {
+            context.publishEvent(new ApplicationFailedEvent(new SpringApplication(), new String[0], context,
+                    new IllegalStateException("boom")));
+
+            assertThat(context.getApplicationStartup()).isSameAs(ApplicationStartup.DEFAULT);
+        }
+    }
+
+    @Test
+    void reporterBeanReadsTheTimelineBeforeItIsReleased() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        new StartupTimelineInitializer().initialize(context);
+        context.registerBean("orders", StringBuilder.class);
+        context.registerBean("startupTimelineReporter", StartupTimelineReporter.class, () -> reporter);
+        context.refresh();
+        try (context) {
+            context.publishEvent(
+                    new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ofMillis(1)));
+
+            assertThat(registry.find("application.startup.bean").tag("bean", "orders").gauge()).isNotNull();
+            assertThat(context.getApplicationStartup()).isSameAs(ApplicationStartup.DEFAULT);
+        }
+    }
+}
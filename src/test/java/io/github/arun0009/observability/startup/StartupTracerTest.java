@@ -0,0 +1,133 @@
+package io.github.arun0009.observability.startup;
+
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupTracerTest {
+
+    private static final Duration MIN_SPAN = Duration.ofMillis(20);
+
+    private final List<SpanData> spans = new CopyOnWriteArrayList<>();
+    private final OpenTelemetrySdk openTelemetry = OpenTelemetrySdk.builder()
+            .setTracerProvider(SdkTracerProvider.builder()
+                    .addSpanProcessor(SimpleSpanProcessor.create(new CollectingExporter()))
+                    .build())
+            .build();
+    private final BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+
+    @AfterEach
+    void close() {
+        openTelemetry.close();
+    }
+
+    private SpanData span(String name) {
+        return spans.stream().filter(span -> span.getName().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError("no span " + name + " in " + spans));
+    }
+
+    private void export(Duration minSpanDuration) {
+        Instant ready = Instant.now();
+        new StartupTracer(openTelemetry, minSpanDuration)
+                .export(startup.getBufferedTimeline(), startup.getBufferedTimeline().getStartTime(), ready);
+    }
+
+    @Test
+    void stepsBecomeChildSpansOfTheStartupRoot() throws InterruptedException {
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep bean = startup.start("spring.beans.instantiate").tag("beanName", "orders");
+        Thread.sleep(MIN_SPAN.toMillis() + 10);
+        bean.end();
+        refresh.end();
+
+        export(Duration.ZERO);
+
+        SpanData root = span("application startup");
+        assertThat(root.getParentSpanContext().isValid()).isFalse();
+        assertThat(span("spring.context.refresh").getParentSpanId()).isEqualTo(root.getSpanId());
+        SpanData beanSpan = span("spring.beans.instantiate");
+        assertThat(beanSpan.getParentSpanId()).isEqualTo(span("spring.context.refresh").getSpanId());
+        assertThat(beanSpan.getAttributes().asMap().values()).contains("orders");
+        // Children end first, so the root is exported last
+        assertThat(spans.get(spans.size() - 1)).isEqualTo(root);
+    }
+
+    @Test
+    void shortStepsAreLeftOut() {
+        StartupStep refresh = startup.start("spring.context.refresh");
+        startup.start("spring.beans.instantiate").end();
+        refresh.end();
+
+        export(MIN_SPAN);
+
+        assertThat(spans).extracting(SpanData::getName).containsExactly("application startup");
+    }
+
+    @Test
+    void childrenOfShortStepsFoldIntoTheNearestKeptAncestor() throws InterruptedException {
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep postProcess = startup.start("spring.context.beans.post-process");
+        StartupStep slowBean = startup.start("spring.beans.instantiate").tag("beanName", "slow");
+        // The short wrapper ends while the bean it started is still running
+        postProcess.end();
+        Thread.sleep(MIN_SPAN.toMillis() + 10);
+        slowBean.end();
+        startup.start("spring.beans.smart-initialize").end();
+        refresh.end();
+
+        export(MIN_SPAN);
+
+        assertThat(spans).extracting(SpanData::getName)
+                .containsExactlyInAnyOrder("application startup", "spring.context.refresh",
+                        "spring.beans.instantiate");
+        assertThat(span("spring.beans.instantiate").getParentSpanId())
+                .isEqualTo(span("spring.context.refresh").getSpanId());
+    }
+
+    @Test
+    void keptStepsWithoutAKeptAncestorHangOffTheRoot() throws InterruptedException {
+        StartupStep shortParent = startup.start("spring.context.config-classes.parse");
+        StartupStep slowChild = startup.start("spring.beans.instantiate");
+        shortParent.end();
+        Thread.sleep(MIN_SPAN.toMillis() + 10);
+        slowChild.end();
+
+        export(MIN_SPAN);
+
+        assertThat(span("spring.beans.instantiate").getParentSpanId())
+                .isEqualTo(span("application startup").getSpanId());
+    }
+
+    private final class CollectingExporter implements SpanExporter {
+        @Override
+        public CompletableResultCode export(Collection<SpanData> batch) {
+            spans.addAll(batch);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}